@@ -141,7 +141,7 @@ class MultiplyMethod {
         var rPointValuePairs = multiplyPolyPointValue(uPointValuePairs, vPointValuePairs)
 
         val vandermondeMatrix = getVandermondeMatrix(doublePoints, rPointValuePairs.size, withInfinity=true)
-        val resultMatrix: Matrix? = vandermondeMatrix.invertible()
+        val resultMatrix: Matrix? = getExactInverse(vandermondeMatrix)
 
         if (resultMatrix != null) {
             val res = solveEquation(resultMatrix, rPointValuePairs, points)
@@ -260,6 +260,28 @@ class MultiplyMethod {
         return result
     }
 
+    // The interpolation needs the inverse of the integer Vandermonde matrix with the correctly rounded elems, so it is
+    // computed by the adjoint matrix of the integer cofactors instead of the LU decomposition of [Matrix.invertible]
+    private fun getExactInverse(matrix: Matrix): Matrix? {
+        val n = matrix.getN()
+        val adjoint = matrix.adjoint()
+        var det = 0.0
+        for (j in 0 until n) {
+            det += matrix.getElem(0, j) * adjoint.getElem(j, 0)
+        }
+        if (det == 0.0) {
+            return null
+        }
+
+        val inverse = Matrix(n, n)
+        for (i in 0 until n) {
+            for (j in 0 until n) {
+                inverse.setElem(i, j, adjoint.getElem(i, j) / det)
+            }
+        }
+        return inverse
+    }
+
     private fun getVandermondeMatrix(points: Array<Double>, m: Int, withInfinity: Boolean): Matrix {
         val n = points.size
         val result = Matrix(n, m)
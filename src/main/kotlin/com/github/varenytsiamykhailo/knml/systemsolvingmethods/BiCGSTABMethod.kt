@@ -0,0 +1,300 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.Preconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.BiCGSTABMethodSolution
+import com.github.varenytsiamykhailo.knml.util.*
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import kotlin.math.sqrt
+
+/**
+ * Biconjugate gradient stabilized method (BiCGSTAB) implementation.
+ *
+ * The biconjugate gradient stabilized method is an iterative method for the numerical solution of a nonsymmetric system of linear equations.
+ * It is a variant of the biconjugate gradient method, which smooths its irregular convergence by the step of the minimal residual
+ * on every iteration. Unlike GMRES (see [GMRESMethod]), the method takes the memory of a few vectors and the constant count
+ * of the operations per iteration, but the norm of the residual is not monotone and the method may break down.
+ * Every iteration is two multiplications by the matrix.
+ *
+ * The matrix of the system does not need to be symmetric or diagonally dominant.
+ *
+ * Asymptotic complexity: O(nnz + n) per iteration.
+ *
+ * Use [solveSystemByBiCGSTABMethod] method to solve the non-symmetric system of linear equations with the dense matrix, the sparse matrix or the matrix-free linear operator.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Biconjugate_gradient_stabilized_method]
+ */
+class BiCGSTABMethod {
+
+    companion object {
+        // The default required relative norm of the residual
+        private const val DEFAULT_EPS = 1e-10
+
+        // The default maximal count of the iterations is the size of the system multiplied by it
+        private const val DEFAULT_ITERATIONS_FACTOR = 10
+    }
+
+    /**
+     * BiCGSTAB method implementation for the dense matrix.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Biconjugate_gradient_stabilized_method]
+     *
+     * @param [inputA] is the input matrix of the system. It may be a view or an off-heap matrix.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the iterations stop when the euclidean norm
+     * of the residual is not greater than eps multiplied by the norm of the right side. 1e-10 is used by default.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 10 by default.
+     * @param [preconditioner] is the preconditioner, the method is not preconditioned by default.
+     * @param [preconditionerSide] is the side of the preconditioning, the right preconditioning by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the iterations and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByBiCGSTABMethod(
+        inputA: Matrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        preconditioner: Preconditioner? = null,
+        preconditionerSide: Preconditioner.Side = Preconditioner.Side.RIGHT,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputA.getM()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+            } else if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+            }
+
+            runSolvingSystemByBiCGSTABMethod(
+                inputB, initialApproximation, eps ?: DEFAULT_EPS, maxIterations,
+                preconditioner, preconditionerSide, formSolution, getMultiplication(LinearOperator.of(inputA))
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * BiCGSTAB method implementation for the sparse matrix.
+     *
+     * The multiplication by the sparse matrix is parallel if [parallel] flag is set, it gives exactly the same result
+     * as the sequential multiplication, so the result does not depend on the flag.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Biconjugate_gradient_stabilized_method]
+     *
+     * @param [inputA] is the input sparse matrix of the system.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the iterations stop when the euclidean norm
+     * of the residual is not greater than eps multiplied by the norm of the right side. 1e-10 is used by default.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 10 by default.
+     * @param [preconditioner] is the preconditioner, the method is not preconditioned by default.
+     * @param [preconditionerSide] is the side of the preconditioning, the right preconditioning by default.
+     * @param [parallel] is the flag, that says that the multiplication by the matrix is parallel.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the iterations and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByBiCGSTABMethod(
+        inputA: SparseMatrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        preconditioner: Preconditioner? = null,
+        preconditionerSide: Preconditioner.Side = Preconditioner.Side.RIGHT,
+        parallel: Boolean = false,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputA.getM()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+            } else if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+            }
+
+            runSolvingSystemByBiCGSTABMethod(
+                inputB, initialApproximation, eps ?: DEFAULT_EPS, maxIterations,
+                preconditioner, preconditionerSide, formSolution,
+                getMultiplication(LinearOperator.of(inputA, parallel))
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * BiCGSTAB method implementation for the linear operator.
+     *
+     * The matrix of the system is not stored: the operator computes the multiplication of the matrix and the vector,
+     * for example, by the stencil of the discretized equation, so the method takes the memory of a few vectors.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Biconjugate_gradient_stabilized_method]
+     *
+     * @param [inputA] is the input linear operator of the system (see [LinearOperator]).
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the iterations stop when the euclidean norm
+     * of the residual is not greater than eps multiplied by the norm of the right side. 1e-10 is used by default.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 10 by default.
+     * @param [preconditioner] is the preconditioner, the method is not preconditioned by default.
+     * @param [preconditionerSide] is the side of the preconditioning, the right preconditioning by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the iterations and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByBiCGSTABMethod(
+        inputA: LinearOperator,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        preconditioner: Preconditioner? = null,
+        preconditionerSide: Preconditioner.Side = Preconditioner.Side.RIGHT,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' operator must match the size of 'inputB' vector.")
+            }
+
+            runSolvingSystemByBiCGSTABMethod(
+                inputB, initialApproximation, eps ?: DEFAULT_EPS, maxIterations,
+                preconditioner, preconditionerSide, formSolution, getMultiplication(inputA)
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    @Throws(IllegalArgumentException::class, ArithmeticException::class)
+    private fun runSolvingSystemByBiCGSTABMethod(
+        inputB: Vector,
+        initialApproximation: Vector?,
+        eps: Double,
+        maxIterations: Int?,
+        preconditioner: Preconditioner?,
+        preconditionerSide: Preconditioner.Side,
+        formSolution: Boolean,
+        inputMultiply: (x: DoubleArray, y: DoubleArray) -> Unit
+    ): VectorResultWithStatus {
+        var solutionString: String = ""
+        val solution: BiCGSTABMethodSolution = BiCGSTABMethodSolution()
+
+        val n: Int = inputB.getN()
+        checkKrylovArguments(n, initialApproximation, preconditioner, eps, maxIterations)
+        val iterationsLimit: Int = maxIterations ?: DEFAULT_ITERATIONS_FACTOR * n
+
+        val system = getPreconditionedSystem(inputMultiply, inputB.getData(), preconditioner, preconditionerSide)
+        val multiply = system.multiply
+        val B: DoubleArray = system.B
+        val X: DoubleArray = initialApproximation?.getData()?.copyOf() ?: DoubleArray(n)
+        val R = DoubleArray(n) // the residual
+        val shadow = DoubleArray(n) // the shadow residual of the biconjugate gradient method
+        val P = DoubleArray(n) // the search direction
+        val PHat = DoubleArray(n) // 'M^-1 * P'
+        val V = DoubleArray(n) // 'A * PHat'
+        val S = DoubleArray(n) // the intermediate residual
+        val SHat = DoubleArray(n) // 'M^-1 * S'
+        val T = DoubleArray(n) // 'A * SHat'
+        val residualNorms = ArrayList<Double>()
+
+        if (formSolution) solutionString += "The BiCGSTAB method will run until the relative norm of the residual eps = ${eps} is reached.\n"
+
+        multiply(X, R)
+        for (i in 0 until n) {
+            R[i] = B[i] - R[i]
+        }
+        System.arraycopy(R, 0, shadow, 0, n)
+        val tolerance = eps * sqrt(dot(B, B))
+        var rNorm = sqrt(dot(R, R))
+        residualNorms.add(rNorm)
+
+        var iterationsCounter = 0
+        var rho = 1.0
+        var alpha = 1.0
+        var omega = 1.0
+        while (rNorm > tolerance) {
+            if (iterationsCounter == iterationsLimit) {
+                throw ArithmeticException("The BiCGSTAB method has not converged in ${iterationsLimit} iterations.")
+            }
+            val rhoNext = dot(shadow, R)
+            if (rhoNext == 0.0) {
+                throw ArithmeticException("The BiCGSTAB method breaks down: the residual is orthogonal to the shadow residual.")
+            }
+            val beta = (rhoNext / rho) * (alpha / omega)
+            rho = rhoNext
+            for (i in 0 until n) {
+                P[i] = R[i] + beta * (P[i] - omega * V[i])
+            }
+            precondition(system.rightPreconditioner, P, PHat)
+            multiply(PHat, V)
+            val shadowV = dot(shadow, V)
+            if (shadowV == 0.0) {
+                throw ArithmeticException("The BiCGSTAB method breaks down: the direction is orthogonal to the shadow residual.")
+            }
+            alpha = rho / shadowV
+            for (i in 0 until n) {
+                S[i] = R[i] - alpha * V[i]
+            }
+            iterationsCounter++
+
+            val sNorm = sqrt(dot(S, S))
+            if (sNorm <= tolerance) {
+                for (i in 0 until n) {
+                    X[i] += alpha * PHat[i]
+                }
+                System.arraycopy(S, 0, R, 0, n)
+                rNorm = sNorm
+                residualNorms.add(rNorm)
+                break
+            }
+
+            precondition(system.rightPreconditioner, S, SHat)
+            multiply(SHat, T)
+            val tt = dot(T, T)
+            omega = if (tt > 0.0) dot(T, S) / tt else 0.0
+            if (omega == 0.0) {
+                throw ArithmeticException("The BiCGSTAB method breaks down: the stabilization step is zero.")
+            }
+            for (i in 0 until n) {
+                X[i] += alpha * PHat[i] + omega * SHat[i]
+                R[i] = S[i] - omega * T[i]
+            }
+            rNorm = sqrt(dot(R, R))
+            if (!rNorm.isFinite()) {
+                throw ArithmeticException("The norm of the residual is not finite.")
+            }
+            residualNorms.add(rNorm)
+        }
+
+        val result: Array<Double> = X.toTypedArray()
+        if (formSolution) {
+            solutionString += "The norm of the residual ${rNorm} is not greater than eps multiplied by the norm of the right side, required precision has achieved on the ${iterationsCounter} iteration.\n"
+            solutionString += "The approximate solution vector is ${getPretty1DDoubleArrayString(result)}.\n"
+            solution.solutionString = solutionString
+            solution.iterations = iterationsCounter
+            solution.residualNorms = residualNorms.toDoubleArray()
+        }
+
+        return VectorResultWithStatus(
+            Vector(X),
+            result,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = if (formSolution) solution else null,
+        )
+    }
+}
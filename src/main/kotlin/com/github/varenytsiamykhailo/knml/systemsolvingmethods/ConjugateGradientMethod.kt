@@ -0,0 +1,273 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.Preconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.ConjugateGradientMethodSolution
+import com.github.varenytsiamykhailo.knml.util.*
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import kotlin.math.sqrt
+
+/**
+ * Conjugate gradient method implementation.
+ *
+ * In mathematics, the conjugate gradient method is an algorithm for the numerical solution of particular systems of linear equations,
+ * namely those whose matrix is symmetric and positive definite. The method minimizes the energy norm of the error
+ * over the Krylov subspace, which grows by one dimension on every iteration, so it converges in at most n iterations
+ * in exact arithmetic and in O(sqrt(condition number)) iterations in practice, while the Jacobi and the Seidel methods
+ * need O(condition number) iterations. Every iteration is one multiplication by the matrix and a few operations on the vectors.
+ *
+ * The preconditioned method solves the system with the matrix 'M^-1 * A', which has the smaller condition number,
+ * see [com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.JacobiPreconditioner],
+ * [com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.SSORPreconditioner] and
+ * [com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.IncompleteCholeskyPreconditioner].
+ *
+ * Asymptotic complexity: O(sqrt(condition number) * (nnz + n))
+ *
+ * Use [solveSystemByConjugateGradientMethod] method to solve the symmetric positive definite system of linear equations
+ * with the dense matrix, the sparse matrix or the matrix-free linear operator.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Conjugate_gradient_method]
+ */
+class ConjugateGradientMethod {
+
+    companion object {
+        // The default required relative norm of the residual
+        private const val DEFAULT_EPS = 1e-10
+
+        // The default maximal count of the iterations is the size of the system multiplied by it
+        private const val DEFAULT_ITERATIONS_FACTOR = 10
+    }
+
+    /**
+     * Conjugate gradient method implementation for the dense matrix.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Conjugate_gradient_method]
+     *
+     * @param [inputA] is the input symmetric positive definite matrix of the system. It may be a view or an off-heap matrix.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the iterations stop when the euclidean norm
+     * of the residual 'B - A * X' is not greater than eps multiplied by the norm of [inputB]. 1e-10 is used by default.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 10 by default.
+     * @param [preconditioner] is the symmetric positive definite preconditioner, the method is not preconditioned by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the iterations and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByConjugateGradientMethod(
+        inputA: Matrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        preconditioner: Preconditioner? = null,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputA.getM()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+            } else if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+            }
+            runSolvingSystemByConjugateGradientMethod(
+                inputB, initialApproximation, eps ?: DEFAULT_EPS, maxIterations, preconditioner, formSolution, getMultiplication(LinearOperator.of(inputA))
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Conjugate gradient method implementation for the sparse matrix.
+     *
+     * The multiplication by the sparse matrix is parallel if [parallel] flag is set, it gives exactly the same result
+     * as the sequential multiplication, so the result does not depend on the flag.
+     *
+     * Asymptotic complexity: O(nnz + n) per iteration.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Conjugate_gradient_method]
+     *
+     * @param [inputA] is the input symmetric positive definite sparse matrix of the system.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the iterations stop when the euclidean norm
+     * of the residual 'B - A * X' is not greater than eps multiplied by the norm of [inputB]. 1e-10 is used by default.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 10 by default.
+     * @param [preconditioner] is the symmetric positive definite preconditioner, the method is not preconditioned by default.
+     * @param [parallel] is the flag, that says that the multiplication by the matrix is parallel.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the iterations and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByConjugateGradientMethod(
+        inputA: SparseMatrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        preconditioner: Preconditioner? = null,
+        parallel: Boolean = false,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputA.getM()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+            } else if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+            }
+
+            runSolvingSystemByConjugateGradientMethod(
+                inputB, initialApproximation, eps ?: DEFAULT_EPS, maxIterations, preconditioner, formSolution,
+                getMultiplication(LinearOperator.of(inputA, parallel))
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Conjugate gradient method implementation for the linear operator.
+     *
+     * The matrix of the system is not stored: the operator computes the multiplication of the matrix and the vector,
+     * for example, by the stencil of the discretized equation, so the method takes the memory of a few vectors.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Conjugate_gradient_method]
+     *
+     * @param [inputA] is the input symmetric positive definite linear operator of the system (see [LinearOperator]).
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the iterations stop when the euclidean norm
+     * of the residual 'B - A * X' is not greater than eps multiplied by the norm of [inputB]. 1e-10 is used by default.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 10 by default.
+     * @param [preconditioner] is the symmetric positive definite preconditioner, the method is not preconditioned by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the iterations and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByConjugateGradientMethod(
+        inputA: LinearOperator,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        preconditioner: Preconditioner? = null,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' operator must match the size of 'inputB' vector.")
+            }
+            runSolvingSystemByConjugateGradientMethod(
+                inputB, initialApproximation, eps ?: DEFAULT_EPS, maxIterations, preconditioner, formSolution, getMultiplication(inputA)
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    // The multiplication writes 'A * x' into 'y'
+    @Throws(IllegalArgumentException::class, ArithmeticException::class)
+    private fun runSolvingSystemByConjugateGradientMethod(
+        inputB: Vector,
+        initialApproximation: Vector?,
+        eps: Double,
+        maxIterations: Int?,
+        preconditioner: Preconditioner?,
+        formSolution: Boolean,
+        multiply: (x: DoubleArray, y: DoubleArray) -> Unit
+    ): VectorResultWithStatus {
+        var solutionString: String = ""
+        val solution: ConjugateGradientMethodSolution = ConjugateGradientMethodSolution()
+
+        val n: Int = inputB.getN()
+        checkKrylovArguments(n, initialApproximation, preconditioner, eps, maxIterations)
+        val iterationsLimit: Int = maxIterations ?: DEFAULT_ITERATIONS_FACTOR * n
+
+        val B: DoubleArray = inputB.getData()
+        val X: DoubleArray = initialApproximation?.getData()?.copyOf() ?: DoubleArray(n)
+        val R = DoubleArray(n) // the residual 'B - A * X'
+        val Z = DoubleArray(n) // the preconditioned residual 'M^-1 * R'
+        val P = DoubleArray(n) // the search direction
+        val Q = DoubleArray(n) // 'A * P'
+        val residualNorms = ArrayList<Double>()
+
+        if (formSolution) solutionString += "The conjugate gradient method will run until the relative norm of the residual eps = ${eps} is reached.\n"
+
+        multiply(X, Q)
+        for (i in 0 until n) {
+            R[i] = B[i] - Q[i]
+        }
+        val bNorm = sqrt(dot(B, B))
+        var rNorm = sqrt(dot(R, R))
+        residualNorms.add(rNorm)
+
+        var iterationsCounter = 0
+        if (rNorm > eps * bNorm) {
+            precondition(preconditioner, R, Z)
+            System.arraycopy(Z, 0, P, 0, n)
+            var rz = dot(R, Z)
+
+            while (true) {
+                if (iterationsCounter == iterationsLimit) {
+                    throw ArithmeticException("The conjugate gradient method has not converged in ${iterationsLimit} iterations.")
+                }
+                multiply(P, Q)
+                val pq = dot(P, Q)
+                if (!(pq > 0.0)) {
+                    throw ArithmeticException("The matrix inputA is not positive definite.")
+                }
+                val alpha = rz / pq
+                for (i in 0 until n) {
+                    X[i] += alpha * P[i]
+                    R[i] -= alpha * Q[i]
+                }
+                rNorm = sqrt(dot(R, R))
+                if (!rNorm.isFinite()) {
+                    throw ArithmeticException("The norm of the residual is not finite.")
+                }
+                residualNorms.add(rNorm)
+                iterationsCounter++
+                if (rNorm <= eps * bNorm) {
+                    break
+                }
+
+                precondition(preconditioner, R, Z)
+                val rzNext = dot(R, Z)
+                if (!(rzNext > 0.0)) {
+                    throw ArithmeticException("The preconditioner is not positive definite.")
+                }
+                val beta = rzNext / rz
+                rz = rzNext
+                for (i in 0 until n) {
+                    P[i] = Z[i] + beta * P[i]
+                }
+            }
+        }
+
+        val result: Array<Double> = X.toTypedArray()
+        if (formSolution) {
+            solutionString += "The relative norm of the residual ${rNorm / bNorm} is not greater than eps, required precision has achieved on the ${iterationsCounter} iteration.\n"
+            solutionString += "The approximate solution vector is ${getPretty1DDoubleArrayString(result)}.\n"
+            solution.solutionString = solutionString
+            solution.iterations = iterationsCounter
+            solution.residualNorms = residualNorms.toDoubleArray()
+        }
+
+        return VectorResultWithStatus(
+            Vector(X),
+            result,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = if (formSolution) solution else null,
+        )
+    }
+}
@@ -0,0 +1,344 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.Preconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.GMRESMethodSolution
+import com.github.varenytsiamykhailo.knml.util.*
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import kotlin.math.abs
+import kotlin.math.sqrt
+
+/**
+ * Restarted generalized minimal residual method GMRES(m) implementation.
+ *
+ * The generalized minimal residual method is an iterative method for the numerical solution of an indefinite nonsymmetric system of linear equations.
+ * The method builds the orthonormal basis of the Krylov subspace by the Arnoldi iteration and minimizes the norm of the residual
+ * over it, so the norm of the residual does not increase. The basis takes the memory of 'm + 1' vectors, so the method
+ * is restarted from the last approximation after every m iterations: the memory is bounded, but the convergence may be slower.
+ * Every iteration is one multiplication by the matrix and O(m * n) operations of the orthogonalization.
+ *
+ * The matrix of the system does not need to be symmetric or diagonally dominant.
+ *
+ * Asymptotic complexity: O(nnz + m * n) per iteration.
+ *
+ * Use [solveSystemByGMRESMethod] method to solve the non-symmetric system of linear equations with the dense matrix, the sparse matrix or the matrix-free linear operator.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Generalized_minimal_residual_method]
+ */
+class GMRESMethod {
+
+    companion object {
+        // The default required relative norm of the residual
+        private const val DEFAULT_EPS = 1e-10
+
+        // The default maximal count of the iterations is the size of the system multiplied by it
+        private const val DEFAULT_ITERATIONS_FACTOR = 10
+
+        // The default restart length
+        private const val DEFAULT_RESTART = 30
+    }
+
+    /**
+     * Restarted GMRES(m) method implementation for the dense matrix.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Generalized_minimal_residual_method]
+     *
+     * @param [inputA] is the input matrix of the system. It may be a view or an off-heap matrix.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the iterations stop when the euclidean norm
+     * of the residual is not greater than eps multiplied by the norm of the right side. 1e-10 is used by default.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 10 by default.
+     * @param [restart] is the restart length m: the count of the basis vectors of the Krylov subspace, 30 by default.
+     * @param [preconditioner] is the preconditioner, the method is not preconditioned by default.
+     * @param [preconditionerSide] is the side of the preconditioning, the right preconditioning by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the iterations and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByGMRESMethod(
+        inputA: Matrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        restart: Int? = null,
+        preconditioner: Preconditioner? = null,
+        preconditionerSide: Preconditioner.Side = Preconditioner.Side.RIGHT,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputA.getM()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+            } else if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+            }
+
+            runSolvingSystemByGMRESMethod(
+                inputB, initialApproximation, eps ?: DEFAULT_EPS, maxIterations, restart,
+                preconditioner, preconditionerSide, formSolution, getMultiplication(LinearOperator.of(inputA))
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Restarted GMRES(m) method implementation for the sparse matrix.
+     *
+     * The multiplication by the sparse matrix is parallel if [parallel] flag is set, it gives exactly the same result
+     * as the sequential multiplication, so the result does not depend on the flag.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Generalized_minimal_residual_method]
+     *
+     * @param [inputA] is the input sparse matrix of the system.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the iterations stop when the euclidean norm
+     * of the residual is not greater than eps multiplied by the norm of the right side. 1e-10 is used by default.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 10 by default.
+     * @param [restart] is the restart length m: the count of the basis vectors of the Krylov subspace, 30 by default.
+     * @param [preconditioner] is the preconditioner, the method is not preconditioned by default.
+     * @param [preconditionerSide] is the side of the preconditioning, the right preconditioning by default.
+     * @param [parallel] is the flag, that says that the multiplication by the matrix is parallel.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the iterations and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByGMRESMethod(
+        inputA: SparseMatrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        restart: Int? = null,
+        preconditioner: Preconditioner? = null,
+        preconditionerSide: Preconditioner.Side = Preconditioner.Side.RIGHT,
+        parallel: Boolean = false,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputA.getM()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+            } else if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+            }
+
+            runSolvingSystemByGMRESMethod(
+                inputB, initialApproximation, eps ?: DEFAULT_EPS, maxIterations, restart,
+                preconditioner, preconditionerSide, formSolution,
+                getMultiplication(LinearOperator.of(inputA, parallel))
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Restarted GMRES(m) method implementation for the linear operator.
+     *
+     * The matrix of the system is not stored: the operator computes the multiplication of the matrix and the vector,
+     * for example, by the stencil of the discretized equation, so the method takes the memory of 'm + 1' basis vectors and a few vectors.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Generalized_minimal_residual_method]
+     *
+     * @param [inputA] is the input linear operator of the system (see [LinearOperator]).
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the iterations stop when the euclidean norm
+     * of the residual is not greater than eps multiplied by the norm of the right side. 1e-10 is used by default.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 10 by default.
+     * @param [restart] is the restart length m: the count of the basis vectors of the Krylov subspace, 30 by default.
+     * @param [preconditioner] is the preconditioner, the method is not preconditioned by default.
+     * @param [preconditionerSide] is the side of the preconditioning, the right preconditioning by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the iterations and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByGMRESMethod(
+        inputA: LinearOperator,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        restart: Int? = null,
+        preconditioner: Preconditioner? = null,
+        preconditionerSide: Preconditioner.Side = Preconditioner.Side.RIGHT,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' operator must match the size of 'inputB' vector.")
+            }
+
+            runSolvingSystemByGMRESMethod(
+                inputB, initialApproximation, eps ?: DEFAULT_EPS, maxIterations, restart,
+                preconditioner, preconditionerSide, formSolution, getMultiplication(inputA)
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    @Throws(IllegalArgumentException::class, ArithmeticException::class)
+    private fun runSolvingSystemByGMRESMethod(
+        inputB: Vector,
+        initialApproximation: Vector?,
+        eps: Double,
+        maxIterations: Int?,
+        restart: Int?,
+        preconditioner: Preconditioner?,
+        preconditionerSide: Preconditioner.Side,
+        formSolution: Boolean,
+        inputMultiply: (x: DoubleArray, y: DoubleArray) -> Unit
+    ): VectorResultWithStatus {
+        var solutionString: String = ""
+        val solution: GMRESMethodSolution = GMRESMethodSolution()
+
+        val n: Int = inputB.getN()
+        checkKrylovArguments(n, initialApproximation, preconditioner, eps, maxIterations)
+        if ((restart != null) && (restart < 1)) {
+            throw IllegalArgumentException("The restart length must be positive.")
+        }
+        val iterationsLimit: Int = maxIterations ?: DEFAULT_ITERATIONS_FACTOR * n
+        val m: Int = minOf(restart ?: DEFAULT_RESTART, maxOf(n, 1))
+
+        val system = getPreconditionedSystem(inputMultiply, inputB.getData(), preconditioner, preconditionerSide)
+        val multiply = system.multiply
+        val B: DoubleArray = system.B
+        val X: DoubleArray = initialApproximation?.getData()?.copyOf() ?: DoubleArray(n)
+        val R = DoubleArray(n)
+        val Z = DoubleArray(n) // the right preconditioned basis vector or the update of the approximation
+        val V = Array(m + 1) { DoubleArray(n) } // the orthonormal basis of the Krylov subspace
+        val H = Array(m + 1) { DoubleArray(m) } // the Hessenberg matrix, which is reduced to the upper triangular matrix by the rotations
+        val cosines = DoubleArray(m)
+        val sines = DoubleArray(m)
+        val G = DoubleArray(m + 1) // the rotated right side of the least squares problem
+        val Y = DoubleArray(m)
+        val residualNorms = ArrayList<Double>()
+
+        if (formSolution) solutionString += "The GMRES(${m}) method will run until the relative norm of the residual eps = ${eps} is reached.\n"
+
+        val tolerance = eps * sqrt(dot(B, B))
+        var iterationsCounter = 0
+        var restartsCounter = 0
+        var rNorm: Double
+        while (true) {
+            multiply(X, R)
+            for (i in 0 until n) {
+                R[i] = B[i] - R[i]
+            }
+            rNorm = sqrt(dot(R, R))
+            if (!rNorm.isFinite()) {
+                throw ArithmeticException("The norm of the residual is not finite.")
+            }
+            if (residualNorms.isEmpty()) {
+                residualNorms.add(rNorm)
+            }
+            if (rNorm <= tolerance) {
+                break
+            } else if (iterationsCounter == iterationsLimit) {
+                throw ArithmeticException("The GMRES method has not converged in ${iterationsLimit} iterations.")
+            } else if (iterationsCounter > 0) {
+                restartsCounter++
+            }
+
+            for (i in 0 until n) {
+                V[0][i] = R[i] / rNorm
+            }
+            G.fill(0.0)
+            G[0] = rNorm
+
+            // The Arnoldi iteration with the modified Gram-Schmidt orthogonalization
+            var k = 0
+            while (k < m && iterationsCounter < iterationsLimit) {
+                precondition(system.rightPreconditioner, V[k], Z)
+                val W = V[k + 1]
+                multiply(Z, W)
+                for (i in 0..k) {
+                    val h = dot(W, V[i])
+                    H[i][k] = h
+                    for (j in 0 until n) {
+                        W[j] -= h * V[i][j]
+                    }
+                }
+                val wNorm = sqrt(dot(W, W))
+                H[k + 1][k] = wNorm
+
+                // The previous rotations and the new rotation, which zeroes the subdiagonal elem of the column
+                for (i in 0 until k) {
+                    val h = cosines[i] * H[i][k] + sines[i] * H[i + 1][k]
+                    H[i + 1][k] = -sines[i] * H[i][k] + cosines[i] * H[i + 1][k]
+                    H[i][k] = h
+                }
+                val radius = sqrt(H[k][k] * H[k][k] + wNorm * wNorm)
+                if (radius == 0.0) {
+                    throw ArithmeticException("The matrix inputA is singular.")
+                }
+                cosines[k] = H[k][k] / radius
+                sines[k] = wNorm / radius
+                H[k][k] = radius
+                H[k + 1][k] = 0.0
+                G[k + 1] = -sines[k] * G[k]
+                G[k] = cosines[k] * G[k]
+
+                iterationsCounter++
+                k++
+                rNorm = abs(G[k])
+                residualNorms.add(rNorm)
+                if (rNorm <= tolerance || wNorm == 0.0) {
+                    break
+                }
+                for (j in 0 until n) {
+                    W[j] /= wNorm
+                }
+            }
+
+            // The minimizer of the residual over the subspace: 'H * y = g', 'x = x + M^-1 * V * y'
+            for (i in k - 1 downTo 0) {
+                var sum = G[i]
+                for (j in i + 1 until k) {
+                    sum -= H[i][j] * Y[j]
+                }
+                Y[i] = sum / H[i][i]
+            }
+            R.fill(0.0)
+            for (j in 0 until k) {
+                for (i in 0 until n) {
+                    R[i] += Y[j] * V[j][i]
+                }
+            }
+            precondition(system.rightPreconditioner, R, Z)
+            for (i in 0 until n) {
+                X[i] += Z[i]
+            }
+        }
+
+        val result: Array<Double> = X.toTypedArray()
+        if (formSolution) {
+            solutionString += "The norm of the residual ${rNorm} is not greater than eps multiplied by the norm of the right side, required precision has achieved on the ${iterationsCounter} iteration after ${restartsCounter} restarts.\n"
+            solutionString += "The approximate solution vector is ${getPretty1DDoubleArrayString(result)}.\n"
+            solution.solutionString = solutionString
+            solution.iterations = iterationsCounter
+            solution.restarts = restartsCounter
+            solution.residualNorms = residualNorms.toDoubleArray()
+        }
+
+        return VectorResultWithStatus(
+            Vector(X),
+            result,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = if (formSolution) solution else null,
+        )
+    }
+}
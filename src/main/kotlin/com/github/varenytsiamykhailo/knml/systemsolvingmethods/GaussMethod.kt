@@ -2,7 +2,9 @@ package com.github.varenytsiamykhailo.knml.systemsolvingmethods
 
 import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.GaussClassicMethodSolution
 import com.github.varenytsiamykhailo.knml.util.*
+import com.github.varenytsiamykhailo.knml.util.results.MatrixResultWithStatus
 import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import java.io.Closeable
 import kotlin.math.abs
 import kotlin.math.max
 
@@ -105,6 +107,10 @@ class GaussMethod {
         formSolution: Boolean = false
     ): VectorResultWithStatus {
         return try {
+            if (!inputA.hasArray()) {
+                // The off-heap matrix is too large to be copied into the heap arrays
+                return runSolvingSystemByGaussMethodOnMatrix(inputA, inputB, formSolution, null)
+            }
             runSolvingSystemByGaussClassicMethod(
                 inputA.getElems(),
                 inputB.getElems(),
@@ -147,6 +153,10 @@ class GaussMethod {
         pivoting: PivotingStrategy
     ): VectorResultWithStatus {
         return try {
+            if (!inputA.hasArray()) {
+                // The off-heap matrix is too large to be copied into the heap arrays
+                return runSolvingSystemByGaussMethodOnMatrix(inputA, inputB, formSolution, pivoting)
+            }
             runSolvingSystemByGaussMethodWithPivoting(
                 inputA.getElems(),
                 inputB.getElems(),
@@ -201,6 +211,210 @@ class GaussMethod {
         }
     }
 
+    /**
+     * Gauss method implementation for the systems with many right sides.
+     *
+     * The systems A * X = B with the same matrix A and the right sides which are the columns of the matrix B
+     * are solved by one forward and one backward sweep: every elementary transformation of the matrix is applied
+     * to all the right sides at once, so the matrix is eliminated only once. The solution for every right side
+     * is the same as the solution of [solveSystemByGaussClassicMethod] for it.
+     *
+     * Asymptotic complexity: O(n^3 + n^2 * k), where k is the count of the right sides.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Gaussian_elimination], [https://ru.wikipedia.org/wiki/Метод_Гаусса]
+     *
+     * @param [inputA] is the input matrix of the system.
+     * @param [inputB] is the input matrix of the right sides of the systems, one right side per column.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a detailed solution.
+     *
+     * @return This method returns solutions of the input systems (the column 'j' is the solution for the column 'j' of [inputB])
+     * which are wrapped into [MatrixResultWithStatus] object.
+     * This object also contains solutions of matrix and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByGaussClassicMethod(
+        inputA: Matrix,
+        inputB: Matrix,
+        formSolution: Boolean = false
+    ): MatrixResultWithStatus {
+        return try {
+            runSolvingSystemsByGaussMethod(inputA, inputB, formSolution, null)
+        } catch (e: Exception) {
+            MatrixResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Gauss method implementation for the systems with many right sides.
+     *
+     * The systems with the same matrix A and the right sides from the list are solved by one forward and one backward sweep
+     * (see [solveSystemByGaussClassicMethod] for the right sides of [Matrix] type).
+     *
+     * Asymptotic complexity: O(n^3 + n^2 * k), where k is the count of the right sides.
+     *
+     * @param [inputA] is the input matrix of the system.
+     * @param [inputB] is the list of the input vectors of the right sides of the systems.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a detailed solution.
+     *
+     * @return This method returns solutions of the input systems (the column 'j' is the solution for the vector 'j' of [inputB])
+     * which are wrapped into [MatrixResultWithStatus] object.
+     */
+    fun solveSystemByGaussClassicMethod(
+        inputA: Matrix,
+        inputB: List<Vector>,
+        formSolution: Boolean = false
+    ): MatrixResultWithStatus {
+        return try {
+            runSolvingSystemsByGaussMethod(inputA, getRightSidesMatrix(inputA, inputB), formSolution, null)
+        } catch (e: Exception) {
+            MatrixResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Gauss method with choice of pivot element strategy implementation for the systems with many right sides.
+     *
+     * The systems A * X = B with the same matrix A and the right sides which are the columns of the matrix B
+     * are solved by one forward and one backward sweep: every row swap and elementary transformation of the matrix
+     * is applied to all the right sides at once, so the matrix is eliminated only once. The solution for every right side
+     * is the same as the solution of [solveSystemByGaussMethodWithPivoting] for it.
+     *
+     * Asymptotic complexity: O(n^3 + n^2 * k), where k is the count of the right sides.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Gaussian_elimination], [https://ru.wikipedia.org/wiki/Метод_Гаусса]
+     *
+     * @param [inputA] is the input matrix of the system.
+     * @param [inputB] is the input matrix of the right sides of the systems, one right side per column.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a detailed solution.
+     * @param [pivoting] is the type of the desired selection of pivoting strategy.
+     *
+     * @return This method returns solutions of the input systems (the column 'j' is the solution for the column 'j' of [inputB])
+     * which are wrapped into [MatrixResultWithStatus] object.
+     * This object also contains solutions of matrix and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByGaussMethodWithPivoting(
+        inputA: Matrix,
+        inputB: Matrix,
+        formSolution: Boolean = false,
+        pivoting: PivotingStrategy
+    ): MatrixResultWithStatus {
+        return try {
+            runSolvingSystemsByGaussMethod(inputA, inputB, formSolution, pivoting)
+        } catch (e: Exception) {
+            MatrixResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Gauss method with choice of pivot element strategy implementation for the systems with many right sides.
+     *
+     * The systems with the same matrix A and the right sides from the list are solved by one forward and one backward sweep
+     * (see [solveSystemByGaussMethodWithPivoting] for the right sides of [Matrix] type).
+     *
+     * Asymptotic complexity: O(n^3 + n^2 * k), where k is the count of the right sides.
+     *
+     * @param [inputA] is the input matrix of the system.
+     * @param [inputB] is the list of the input vectors of the right sides of the systems.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a detailed solution.
+     * @param [pivoting] is the type of the desired selection of pivoting strategy.
+     *
+     * @return This method returns solutions of the input systems (the column 'j' is the solution for the vector 'j' of [inputB])
+     * which are wrapped into [MatrixResultWithStatus] object.
+     */
+    fun solveSystemByGaussMethodWithPivoting(
+        inputA: Matrix,
+        inputB: List<Vector>,
+        formSolution: Boolean = false,
+        pivoting: PivotingStrategy
+    ): MatrixResultWithStatus {
+        return try {
+            runSolvingSystemsByGaussMethod(inputA, getRightSidesMatrix(inputA, inputB), formSolution, pivoting)
+        } catch (e: Exception) {
+            MatrixResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    // Returns the matrix which columns are the right sides from the list
+    private fun getRightSidesMatrix(inputA: Matrix, inputB: List<Vector>): Matrix {
+        val n: Int = inputA.getN()
+        if (inputB.any { it.getN() != n }) {
+            throw IllegalArgumentException("The size of 'inputA' matrix must match the 'inputB' vectors (the number of matrix rows must match the number of vector rows).")
+        }
+        val B = Matrix(n, inputB.size)
+        for ((j, vector) in inputB.withIndex()) {
+            for (i in 0 until n) {
+                B.setElem(i, j, vector.getElem(i))
+            }
+        }
+        return B
+    }
+
+    // Solves the systems with many right sides by the elimination in the workspace matrix created by the input matrix,
+    // so the off-heap matrix is not copied into the heap
+    private fun runSolvingSystemsByGaussMethod(
+        inputA: Matrix,
+        inputB: Matrix,
+        formSolution: Boolean,
+        pivoting: PivotingStrategy?
+    ): MatrixResultWithStatus {
+        var solutionString: String = ""
+        val solution: GaussClassicMethodSolution = GaussClassicMethodSolution()
+
+        // Validation of the matrix sizes
+        if (inputA.getN() != inputA.getM()) {
+            throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+        } else if (inputA.getN() != inputB.getN()) {
+            throw IllegalArgumentException("The size of 'inputA' matrix must match the 'inputB' matrix (the number of rows of the matrices must match).")
+        }
+
+        val n: Int = inputA.getN()
+        val count: Int = inputB.getM()
+        if (formSolution) solutionString += "The dimension of the system is ${n}x${n}, the count of the right sides is ${count}.\n" +
+                "The elementary transformations of the matrix are applied to all the right sides at once.\n"
+
+        val A: Matrix = inputA.createMatrix(n, n)
+        try {
+            for (i in 0 until n) {
+                for (j in 0 until n) {
+                    A.setElem(i, j, inputA.getElem(i, j))
+                }
+            }
+            val B = DoubleArray(n * count)
+            for (i in 0 until n) {
+                for (j in 0 until count) {
+                    B[i * count + j] = inputB.getElem(i, j)
+                }
+            }
+
+            if (formSolution) solutionString += if (pivoting == null) {
+                "Starting a forward sweep to bring the matrix to the upper triangular form...\n"
+            } else {
+                "Find pivot row and swap.\n"
+            }
+            val result = Matrix(n, count, runEliminationOnMatrix(A, B, count, pivoting))
+            if (formSolution) solutionString += "Starting a backward sweep: calculation of the solution...\n"
+
+            val arrayResult: Array<Array<Double>> = result.getElems()
+            if (formSolution) {
+                solutionString += "As a result of the backward sweep obtained solution matrix: ${
+                    getPretty2DDoubleArrayString(
+                        arrayResult
+                    )
+                }.\n"
+                solution.solutionString = solutionString
+            }
+
+            return MatrixResultWithStatus(
+                result,
+                arrayResult,
+                isSuccessful = true,
+                errorException = null,
+                solutionObject = if (formSolution) solution else null
+            )
+        } finally {
+            (A as? Closeable)?.close()
+        }
+    }
+
     @Throws(IllegalArgumentException::class)
     private fun runSolvingSystemByGaussClassicMethod(
         inputA: Array<Array<Double>>,
@@ -470,4 +684,209 @@ class GaussMethod {
             solutionObject = if (formSolution) solution else null
         )
     }
-}
\ No newline at end of file
+
+    // Solves the system with the matrix which is not stored in the heap array (for example, the off-heap matrix).
+    // The elimination is performed in the workspace matrix created by the input matrix, so the off-heap matrix
+    // is not copied into the heap. The arithmetic is the same as in the methods on the arrays above:
+    // without the pivoting it is the classic method, otherwise the rows are swapped by the pivoting strategy.
+    private fun runSolvingSystemByGaussMethodOnMatrix(
+        inputA: Matrix,
+        inputB: Vector,
+        formSolution: Boolean,
+        pivoting: PivotingStrategy?
+    ): VectorResultWithStatus {
+        var solutionString: String = ""
+        val solution: GaussClassicMethodSolution = GaussClassicMethodSolution()
+
+        // Validation of the matrix and vector sizes
+        if (inputA.getN() != inputA.getM()) {
+            throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+        } else if (inputA.getN() != inputB.getN()) {
+            throw IllegalArgumentException("The size of 'inputA' matrix must match the 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+        }
+
+        val n: Int = inputA.getN()
+        if (formSolution) solutionString += "The dimension of the system is ${n}x${n}.\n" +
+                "The matrix is not stored in the heap, so it is transformed in the workspace matrix of the same type.\n"
+
+        val A: Matrix = inputA.createMatrix(n, n)
+        try {
+            for (i in 0 until n) {
+                for (j in 0 until n) {
+                    A.setElem(i, j, inputA.getElem(i, j))
+                }
+            }
+            if (formSolution) solutionString += if (pivoting == null) {
+                "Starting a forward sweep to bring the matrix to the upper triangular form...\n"
+            } else {
+                "Find pivot row and swap.\n"
+            }
+            val X: DoubleArray = runEliminationOnMatrix(A, inputB.getData().copyOf(), 1, pivoting)
+            if (formSolution) solutionString += "Starting a backward sweep: calculation of the solution...\n"
+            val result: Array<Double> = X.toTypedArray()
+
+            if (formSolution) {
+                solutionString += "As a result of the backward sweep obtained solution vector: ${
+                    getPretty1DDoubleArrayString(
+                        result
+                    )
+                }.\n"
+                solution.solutionString = solutionString
+            }
+
+            return VectorResultWithStatus(
+                Vector(result),
+                result,
+                isSuccessful = true,
+                errorException = null,
+                solutionObject = if (formSolution) solution else null
+            )
+        } finally {
+            (A as? Closeable)?.close()
+        }
+    }
+
+    // Eliminates the systems with the workspace matrix 'A' and 'count' right sides which are stored in the row-major
+    // 'B' array (the row 'i' of the right sides starts at 'i * count'), both are modified. The arithmetic is the same
+    // as in the methods on the arrays above for every right side: without the pivoting it is the classic method,
+    // otherwise the rows are swapped by the pivoting strategy. Returns the solutions in the row-major array.
+    private fun runEliminationOnMatrix(
+        A: Matrix,
+        B: DoubleArray,
+        count: Int,
+        pivoting: PivotingStrategy?
+    ): DoubleArray {
+        val n: Int = A.getN()
+        // The heap workspace is eliminated in its array, the accessors are used only for the other matrices
+        return if (A.hasArray() && A.getOffset() == 0 && A.getRowStride() == n && A.getColStride() == 1) {
+            val a: DoubleArray = A.getData()
+            runElimination(n, B, count, pivoting, { i, j -> a[i * n + j] }, { i, j, value -> a[i * n + j] = value })
+        } else {
+            runElimination(n, B, count, pivoting, { i, j -> A.getElem(i, j) }, { i, j, value -> A.setElem(i, j, value) })
+        }
+    }
+
+    // Eliminates the systems as [runEliminationOnMatrix] with the elems of the n x n workspace matrix which are read
+    // by 'get' and written by 'set', the function is inlined, so the array workspace does not pay for the accessors
+    private inline fun runElimination(
+        n: Int,
+        B: DoubleArray,
+        count: Int,
+        pivoting: PivotingStrategy?,
+        get: (i: Int, j: Int) -> Double,
+        set: (i: Int, j: Int, value: Double) -> Unit
+    ): DoubleArray {
+        val result = DoubleArray(n * count)
+
+        if (pivoting == null) {
+            // Forward sweep: the k-row is divided by the pivot and subtracted from the next rows
+            for (k in 0 until n) {
+                val pivot = get(k, k)
+                for (j in k until n) {
+                    set(k, j, get(k, j) / pivot)
+                }
+                for (c in 0 until count) {
+                    B[k * count + c] = B[k * count + c] / pivot
+                }
+                for (i in k + 1 until n) {
+                    val C: Double = get(i, k) / get(k, k) // coefficient
+                    for (j in k until n) {
+                        set(i, j, get(i, j) - get(k, j) * C)
+                    }
+                    for (c in 0 until count) {
+                        B[i * count + c] = B[i * count + c] - B[k * count + c] * C
+                    }
+                }
+            }
+
+            // Backward sweep: the diagonal is 1.0, so the solution is found by the substitution
+            for (i in n - 1 downTo 0) {
+                for (c in 0 until count) {
+                    result[i * count + c] = B[i * count + c]
+                }
+                for (k in n - 1 downTo i + 1) {
+                    val a = get(i, k)
+                    for (c in 0 until count) {
+                        result[i * count + c] -= result[k * count + c] * a
+                    }
+                }
+            }
+        } else {
+            for (p in 0 until n) {
+                var max = p
+                if (pivoting == PivotingStrategy.Complete) {
+                    var maxInRow = p
+                    var maxInColumn = p
+                    for (i in p + 1 until n) {
+                        if (abs(get(i, p)) > abs(get(max, p))) {
+                            maxInRow = i
+                        }
+                        if (abs(get(p, i)) > abs(get(p, max))) {
+                            maxInColumn = i
+                        }
+                        max = max(maxInRow, maxInColumn)
+                    }
+                } else {
+                    for (i in p + 1 until n) {
+                        val swapCondition =
+                            when (pivoting) {
+                                PivotingStrategy.PartialByRow -> abs(get(i, p)) > abs(get(max, p))
+                                PivotingStrategy.PartialByColumn -> abs(get(p, i)) > abs(get(p, max))
+                                else -> false
+                            }
+                        if (swapCondition) {
+                            max = i
+                        }
+                    }
+                }
+
+                // The columns before 'p' are not used anymore, so only the rest of the rows is swapped
+                if (max != p) {
+                    for (j in p until n) {
+                        val temp = get(p, j)
+                        set(p, j, get(max, j))
+                        set(max, j, temp)
+                    }
+                    for (c in 0 until count) {
+                        val t = B[p * count + c]
+                        B[p * count + c] = B[max * count + c]
+                        B[max * count + c] = t
+                    }
+                }
+
+                // Singular or nearly singular
+                if (abs(get(p, p)) <= EPSILON) {
+                    throw ArithmeticException("Matrix is singular or nearly singular")
+                }
+
+                // Pivot within A and B
+                for (i in p + 1 until n) {
+                    val alpha: Double = get(i, p) / get(p, p)
+                    for (c in 0 until count) {
+                        B[i * count + c] -= alpha * B[p * count + c]
+                    }
+                    for (j in p until n) {
+                        set(i, j, get(i, j) - alpha * get(p, j))
+                    }
+                }
+            }
+
+            // Back substitution
+            val sum = DoubleArray(count)
+            for (i in n - 1 downTo 0) {
+                sum.fill(0.0)
+                for (j in i + 1 until n) {
+                    val a = get(i, j)
+                    for (c in 0 until count) {
+                        sum[c] += a * result[j * count + c]
+                    }
+                }
+                val diagonal = get(i, i)
+                for (c in 0 until count) {
+                    result[i * count + c] = (B[i * count + c] - sum[c]) / diagonal
+                }
+            }
+        }
+        return result
+    }
+}
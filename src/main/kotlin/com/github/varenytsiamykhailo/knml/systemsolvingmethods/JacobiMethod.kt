@@ -3,6 +3,8 @@ package com.github.varenytsiamykhailo.knml.systemsolvingmethods
 import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.JacobiMethodSolution
 import com.github.varenytsiamykhailo.knml.util.*
 import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.ForkJoinPool
 import kotlin.math.abs
 
 /**
@@ -15,7 +17,8 @@ import kotlin.math.abs
  *
  * Asymptotic complexity: O(n^3)
  *
- * Use [solveSystemByJacobiMethod] method to solve the strictly diagonally dominant system of linear equations.
+ * Use [solveSystemByJacobiMethod] method to solve the strictly diagonally dominant system of linear equations,
+ * which is given by the matrix or by the matrix-free linear operator.
  *
  * **See Also:** [https://en.wikipedia.org/wiki/Jacobi_method], [https://ru.wikipedia.org/wiki/Метод_Якоби]
  */
@@ -113,6 +116,106 @@ class JacobiMethod {
         }
     }
 
+    /**
+     * Parallel Jacobi's method implementation.
+     *
+     * The new approximation of every unknown depends only on the previous approximation, so the rows of the system
+     * are split into the blocks which are computed in parallel by the [executor]. The approximations are stored in two primitive
+     * arrays which are swapped on every iteration, and the norm of the difference of the approximations is summed
+     * by every block in the same pass, so the iteration does not allocate the memory.
+     *
+     * Every approximation is exactly the same as the approximation of [solveSystemByJacobiMethod], only the norm is summed
+     * by the blocks, so its rounding may differ.
+     *
+     * Asymptotic complexity: O(n^2 / parallelism) per iteration.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Jacobi_method], [https://ru.wikipedia.org/wiki/Метод_Якоби]
+     *
+     * @param [inputA] is the input matrix of the system. It may be a view or an off-heap matrix.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector.
+     * If the user does not pass their default values, then the following defaults will be used:
+     * [inputB] vector divided on diagonal elements of the matrix [inputA].
+     * @param [eps] is the input required precision of the result.
+     * If the user does not pass their required precision, then will be used default machine precision as the most accurate precision.
+     * @param [executor] is the executor which computes the blocks of the rows, [ForkJoinPool.commonPool] by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByParallelJacobiMethod(
+        inputA: Matrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        executor: ExecutorService = ForkJoinPool.commonPool(),
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            runSolvingSystemByParallelJacobiMethod(
+                inputA,
+                inputB,
+                initialApproximation,
+                eps ?: getMachineEps(),
+                executor,
+                formSolution
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Jacobi's method implementation for the linear operator.
+     *
+     * The matrix of the system is not stored: the iteration is written by the multiplication of the operator and the diagonal
+     * of its matrix as 'X = X + (B - A * X) / D', so the method takes the memory of a few vectors and the time
+     * of one multiplication by the operator per iteration.
+     *
+     * The diagonal dominance of the operator can not be checked, so the method throws the exception if the iterations diverge
+     * or do not converge in [maxIterations] iterations.
+     * The iterations also stop when the norm of the difference of the approximations reaches the rounding level.
+     *
+     * Asymptotic complexity: O(time of the multiplication + n) per iteration.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Jacobi_method], [https://ru.wikipedia.org/wiki/Метод_Якоби]
+     *
+     * @param [inputA] is the input linear operator of the system (see [LinearOperator]), all its diagonal elems must not be zero.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector.
+     * If the user does not pass their default values, then the following defaults will be used:
+     * [inputB] vector divided on diagonal elements of the operator [inputA].
+     * @param [eps] is the input required precision of the result.
+     * If the user does not pass their required precision, then will be used default machine precision as the most accurate precision.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 100 (but not less than 1000) by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByJacobiMethod(
+        inputA: LinearOperator,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            runSolvingSystemByJacobiMethod(
+                inputA,
+                inputB,
+                initialApproximation,
+                eps ?: getMachineEps(),
+                maxIterations,
+                formSolution
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
     @Throws(IllegalArgumentException::class)
     private fun runSolvingSystemByJacobiMethod(
         inputA: Array<Array<Double>>,
@@ -158,7 +261,8 @@ class JacobiMethod {
 
         val A: Array<Array<Double>> = inputA.map { it.clone() }.toTypedArray()
         val B: Array<Double> = inputB.clone()
-        var X: Array<Double> = initialApproximation ?: getDefaultInitialApproximation(inputA, inputB)
+        // The copy of the initial approximation is one of the two buffers which are swapped on every iteration
+        var X: Array<Double> = initialApproximation?.clone() ?: getDefaultInitialApproximation(inputA, inputB)
         val n: Int = A.size
 
         if (formSolution) solutionString += "Input values of the system matrix A are: ${
@@ -180,7 +284,7 @@ class JacobiMethod {
         if (formSolution) solutionString += "The Jacobi algorithm will run until precision eps = ${eps} is reached.\n"
 
         var iterationsCounter = 0
-        val xTmp: Array<Double> = Array(n) { 0.0 }
+        var xTmp: Array<Double> = Array(n) { 0.0 }
         var norm: Double
         do {
             if (formSolution) solutionString += "The new vector of the approximate solution will be recalculated until the norm is still smaller than eps.\n"
@@ -199,7 +303,9 @@ class JacobiMethod {
             norm = calcNorm(X, xTmp)
             if (formSolution) solutionString += "Calculated norm value = ${norm}.\n"
 
-            X = xTmp.clone()
+            val previous = X
+            X = xTmp
+            xTmp = previous
             iterationsCounter++
 
         } while (norm > eps)
@@ -220,6 +326,195 @@ class JacobiMethod {
         )
     }
 
+    @Throws(IllegalArgumentException::class)
+    private fun runSolvingSystemByParallelJacobiMethod(
+        inputA: Matrix,
+        inputB: Vector,
+        initialApproximation: Vector?,
+        eps: Double,
+        executor: ExecutorService,
+        formSolution: Boolean
+    ): VectorResultWithStatus {
+
+        var solutionString: String = ""
+        val solution: JacobiMethodSolution = JacobiMethodSolution()
+
+        // Validation of the matrix and vector sizes
+        if (inputA.getN() != inputA.getM()) {
+            throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+        } else if (inputA.getN() != inputB.getN()) {
+            throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+        } else if ((initialApproximation != null) && (inputB.getN() != initialApproximation.getN())) {
+            throw IllegalArgumentException("The size of 'inputB' vector must match the size of 'initialApproximation' vector (the number of rows must be the same).")
+        }
+
+        val n: Int = inputA.getN()
+        val a: DoubleArray? = if (inputA.hasArray()) inputA.getData() else null
+        val offset: Int = if (a != null) inputA.getOffset() else 0
+        val rowStride: Int = if (a != null) inputA.getRowStride() else 0
+        val colStride: Int = if (a != null) inputA.getColStride() else 0
+        val B: DoubleArray = inputB.getData()
+
+        // Check the sufficient condition of the convergence of the Jacobi method: must be diagonal dominance of the matrix inputA
+        for (i in 0 until n) {
+            var sumOfRowWithoutDiagElem: Double = 0.0
+            for (j in 0 until n) {
+                if (i != j) {
+                    sumOfRowWithoutDiagElem += abs(if (a != null) a[offset + i * rowStride + j * colStride] else inputA.getElem(i, j))
+                }
+            }
+            if (sumOfRowWithoutDiagElem >= abs(inputA.getElem(i, i))) {
+                throw IllegalArgumentException("The sufficient condition for the convergence of the Jacobi method is not satisfied: there is no diagonal dominance of the matrix inputA.")
+            }
+        }
+        if (formSolution) solutionString += "The dimension of the system is ${n}x${n}, the sufficient condition for the convergence is satisfied.\n" +
+                "The rows of the system are computed in parallel, the Jacobi algorithm will run until precision eps = ${eps} is reached.\n"
+
+        var X: DoubleArray = initialApproximation?.getData()?.copyOf() ?: DoubleArray(n) { i -> B[i] / inputA.getElem(i, i) }
+        var xTmp = DoubleArray(n)
+
+        val bounds = splitEvenly(n, getParallelBlockCount(n.toLong() * n, true))
+        val norms = DoubleArray(bounds.size - 1)
+        var iterationsCounter = 0
+        var norm: Double
+        do {
+            val x = X
+            val xNew = xTmp
+            forEachBlock(bounds, executor) { block, from, to ->
+                var blockNorm = 0.0
+                for (i in from until to) {
+                    // The sum skips the diagonal elem in the same order as the sequential method
+                    var sum: Double = 0.0
+                    if (a != null) {
+                        val rowOffset = offset + i * rowStride
+                        for (j in 0 until i) {
+                            sum += a[rowOffset + j * colStride] * x[j]
+                        }
+                        for (j in i + 1 until n) {
+                            sum += a[rowOffset + j * colStride] * x[j]
+                        }
+                        xNew[i] = (B[i] - sum) / a[rowOffset + i * colStride]
+                    } else {
+                        for (j in 0 until n) {
+                            if (j != i) {
+                                sum += inputA.getElem(i, j) * x[j]
+                            }
+                        }
+                        xNew[i] = (B[i] - sum) / inputA.getElem(i, i)
+                    }
+                    blockNorm += abs(x[i] - xNew[i])
+                }
+                norms[block] = blockNorm
+            }
+            norm = norms.sum()
+
+            X = xNew
+            xTmp = x
+            iterationsCounter++
+
+        } while (norm > eps)
+
+        val result: Array<Double> = X.toTypedArray()
+        if (formSolution) {
+            solutionString += "The norm is smaller than eps, required precision has achieved on the ${iterationsCounter} iteration.\n"
+            solutionString += "The approximate solution vector is ${getPretty1DDoubleArrayString(result)}.\n"
+            solution.solutionString = solutionString
+            solution.iterations = iterationsCounter
+        }
+
+        return VectorResultWithStatus(
+            Vector(X),
+            result,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = if (formSolution) solution else null
+        )
+    }
+
+    @Throws(IllegalArgumentException::class, ArithmeticException::class)
+    private fun runSolvingSystemByJacobiMethod(
+        inputA: LinearOperator,
+        inputB: Vector,
+        initialApproximation: Vector?,
+        eps: Double,
+        maxIterations: Int?,
+        formSolution: Boolean
+    ): VectorResultWithStatus {
+        var solutionString: String = ""
+        val solution: JacobiMethodSolution = JacobiMethodSolution()
+
+        // Validation of the operator and vector sizes
+        val n: Int = inputA.getN()
+        if (n != inputB.getN()) {
+            throw IllegalArgumentException("The size of 'inputA' operator must match the size of 'inputB' vector.")
+        } else if ((initialApproximation != null) && (n != initialApproximation.getN())) {
+            throw IllegalArgumentException("The size of 'inputB' vector must match the size of 'initialApproximation' vector (the number of rows must be the same).")
+        } else if ((maxIterations != null) && (maxIterations < 0)) {
+            throw IllegalArgumentException("The maximal count of the iterations must not be negative.")
+        }
+        val iterationsLimit: Int = maxIterations ?: getDefaultIterationsLimit(n)
+        val D: DoubleArray = inputA.getDiagonal().getData()
+        if (D.size != n || D.any { it == 0.0 }) {
+            throw IllegalArgumentException("The diagonal elements of the operator inputA must not be zero.")
+        }
+
+        val B: DoubleArray = inputB.getData()
+        // The approximations are stored in two buffers which are swapped on every iteration together with their vector wrappers
+        var X: DoubleArray = initialApproximation?.getData()?.copyOf() ?: DoubleArray(n) { i -> B[i] / D[i] }
+        var xNext = DoubleArray(n)
+        var xVector = Vector(X)
+        var xNextVector = Vector(xNext)
+        val AX = DoubleArray(n)
+        val axVector = Vector(AX)
+        val machineEps: Double = getMachineEps()
+
+        if (formSolution) solutionString += "The Jacobi algorithm will run until precision eps = ${eps} is reached.\n"
+
+        var iterationsCounter = 0
+        var norm: Double
+        var size: Double
+        do {
+            if (iterationsCounter == iterationsLimit) {
+                throw ArithmeticException("The Jacobi method has not converged in ${iterationsLimit} iterations.")
+            }
+            inputA.apply(xVector, axVector)
+            norm = 0.0
+            size = 0.0
+            for (i in 0 until n) {
+                xNext[i] = X[i] + (B[i] - AX[i]) / D[i]
+                norm += abs(xNext[i] - X[i])
+                size += abs(xNext[i])
+            }
+            if (!norm.isFinite()) {
+                throw ArithmeticException("The iterations diverge: the operator inputA is not diagonally dominant.")
+            }
+
+            val previous = X
+            X = xNext
+            xNext = previous
+            val previousVector = xVector
+            xVector = xNextVector
+            xNextVector = previousVector
+            iterationsCounter++
+        } while (norm > eps && norm > ROUNDING_FACTOR * machineEps * size)
+
+        val result: Array<Double> = X.toTypedArray()
+        if (formSolution) {
+            solutionString += "The norm is smaller than eps, required precision has achieved on the ${iterationsCounter} iteration.\n"
+            solutionString += "The approximate solution vector is ${getPretty1DDoubleArrayString(result)}.\n"
+            solution.solutionString = solutionString
+            solution.iterations = iterationsCounter
+        }
+
+        return VectorResultWithStatus(
+            Vector(X),
+            result,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = if (formSolution) solution else null
+        )
+    }
+
     private fun calcNorm(x1: Array<Double>, x2: Array<Double>): Double {
         var sum = 0.0
         val n: Int = x1.size
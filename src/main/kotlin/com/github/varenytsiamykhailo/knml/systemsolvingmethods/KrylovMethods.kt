@@ -0,0 +1,67 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.Preconditioner
+import com.github.varenytsiamykhailo.knml.util.LinearOperator
+import com.github.varenytsiamykhailo.knml.util.Vector
+
+// The helpers of the Krylov subspace methods, which work on the primitive arrays of the vectors
+
+// Checks the arguments of the method for the system of the size 'n'
+internal fun checkKrylovArguments(n: Int, initialApproximation: Vector?, preconditioner: Preconditioner?, eps: Double, maxIterations: Int?) {
+    if ((initialApproximation != null) && (n != initialApproximation.getN())) {
+        throw IllegalArgumentException("The size of 'inputB' vector must match the size of 'initialApproximation' vector (the number of rows must be the same).")
+    } else if ((preconditioner != null) && (n != preconditioner.getN())) {
+        throw IllegalArgumentException("The size of 'preconditioner' must match the size of 'inputB' vector.")
+    } else if (!(eps > 0.0)) {
+        throw IllegalArgumentException("The required precision 'eps' must be positive.")
+    } else if ((maxIterations != null) && (maxIterations < 0)) {
+        throw IllegalArgumentException("The maximal count of the iterations must not be negative.")
+    }
+}
+
+// Returns the multiplication of the operator, which writes 'A * x' into 'y'
+internal fun getMultiplication(operator: LinearOperator): (x: DoubleArray, y: DoubleArray) -> Unit =
+    { x, y -> operator.apply(Vector(x), Vector(y)) }
+
+// The system which is solved by the right preconditioned method: the left preconditioning is moved into the operator
+// 'M^-1 * A' and the right side 'M^-1 * b', so the methods implement only the right preconditioning
+internal class PreconditionedSystem(
+    val multiply: (x: DoubleArray, y: DoubleArray) -> Unit,
+    val B: DoubleArray,
+    val rightPreconditioner: Preconditioner?
+)
+
+internal fun getPreconditionedSystem(
+    multiply: (x: DoubleArray, y: DoubleArray) -> Unit,
+    B: DoubleArray,
+    preconditioner: Preconditioner?,
+    side: Preconditioner.Side
+): PreconditionedSystem {
+    if (preconditioner == null || side == Preconditioner.Side.RIGHT) {
+        return PreconditionedSystem(multiply, B, preconditioner)
+    }
+    val product = DoubleArray(B.size)
+    val preconditionedB = DoubleArray(B.size)
+    precondition(preconditioner, B, preconditionedB)
+    return PreconditionedSystem({ x, y ->
+        multiply(x, product)
+        precondition(preconditioner, product, y)
+    }, preconditionedB, null)
+}
+
+// Writes 'M^-1 * r' into 'z', or copies 'r' if there is no preconditioner
+internal fun precondition(preconditioner: Preconditioner?, r: DoubleArray, z: DoubleArray) {
+    if (preconditioner != null) {
+        preconditioner.apply(Vector(r), Vector(z))
+    } else {
+        System.arraycopy(r, 0, z, 0, r.size)
+    }
+}
+
+internal fun dot(x: DoubleArray, y: DoubleArray): Double {
+    var sum = 0.0
+    for (i in x.indices) {
+        sum += x[i] * y[i]
+    }
+    return sum
+}
@@ -0,0 +1,379 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.PivotedLUDecomposition
+import com.github.varenytsiamykhailo.knml.util.SparseMatrix
+import com.github.varenytsiamykhailo.knml.util.Vector
+import kotlin.math.abs
+import kotlin.math.sqrt
+
+/**
+ * Multigrid hierarchy implementation.
+ *
+ * The hierarchy is the sequence of the levels of the decreasing sizes: the matrix of every next (coarse) level is
+ * the Galerkin product 'Ac = P^T * A * P' of the matrix of the previous (fine) level and the interpolation P
+ * from the coarse level to the fine one. The coarsest level is solved by the LU decomposition if its size is not greater
+ * than the size of the coarsest level. If the coarsening stops on the larger level (for example, nothing is strongly
+ * connected in the weakly coupled matrix), the level is only smoothed, so the dense LU decomposition is never built
+ * for the large matrix.
+ *
+ * The interpolation is built by one of the coarsening methods:
+ *
+ * - [geometric] coarsening of the structured grid halves the count of the nodes in every dimension of the grid
+ * and interpolates the coarse nodes bilinearly;
+ * - [aggregation] coarsening of the algebraic multigrid (AMG) groups the strongly connected unknowns of the sparse matrix
+ * into the aggregates, which are the coarse unknowns, and smooths the piecewise constant interpolation by the Jacobi iteration,
+ * so it does not need the grid.
+ *
+ * The hierarchy is built once and reused by the solvings of the systems with the same matrix and different right sides
+ * (see [MultigridMethod]). It keeps the work vectors of its levels, so the solvings with one hierarchy must not run concurrently.
+ *
+ * @see MultigridMethod
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Multigrid_method]
+ */
+class MultigridHierarchy private constructor(private val levels: List<Level>) {
+
+    // The level of the hierarchy with its interpolation to the previous level and its work vectors
+    internal class Level(val A: CSRMatrix, val P: CSRMatrix?) {
+        val n: Int = A.getN()
+        val R: CSRMatrix? = P?.transpose()
+        val diagonal = DoubleArray(n) { i -> A.getElem(i, i) }
+        val x = DoubleArray(n)
+        val b = DoubleArray(n)
+        val residual = DoubleArray(n)
+        val work = DoubleArray(n)
+        var coarsestSolver: PivotedLUDecomposition? = null
+    }
+
+    companion object {
+        // The weight of the Jacobi smoother and of the smoothing of the aggregation interpolation
+        private const val JACOBI_WEIGHT = 2.0 / 3.0
+
+        // The maximal count of the levels
+        private const val MAX_LEVELS = 25
+
+        /**
+         * Builds the hierarchy by the geometric coarsening of the structured grid.
+         *
+         * The unknown of the node '(x, y)' of the grid with [gridRows] x [gridColumns] nodes is 'x * gridColumns + y'.
+         * Every coarse level takes every second node of the grid in every dimension, which has at least 3 nodes,
+         * and the interpolation to the other nodes is bilinear, the nodes out of the grid are zero (the Dirichlet boundary).
+         * The 1D grid is the grid with one column.
+         *
+         * Asymptotic complexity: O(nnz) for the stencil matrix.
+         *
+         * @param [matrix] is the square sparse matrix of the grid, all its diagonal elems must not be zero.
+         * @param [gridRows] is the count of the rows of the grid.
+         * @param [gridColumns] is the count of the columns of the grid.
+         * @param [coarsestSize] is the maximal size of the coarsest level, which is solved by the LU decomposition, 64 by default.
+         *
+         * @return the hierarchy which is represented as [MultigridHierarchy] type.
+         */
+        @JvmStatic
+        fun geometric(matrix: SparseMatrix, gridRows: Int, gridColumns: Int, coarsestSize: Int = 64): MultigridHierarchy {
+            require(gridRows > 0 && gridColumns > 0 && gridRows.toLong() * gridColumns == matrix.getN().toLong()) {
+                "The size of the grid must match the size of the matrix."
+            }
+            var rows = gridRows
+            var columns = gridColumns
+            return build(matrix, coarsestSize) { _ ->
+                val coarseRows = getCoarseCount(rows)
+                val coarseColumns = getCoarseCount(columns)
+                if (coarseRows == rows && coarseColumns == columns) {
+                    null
+                } else {
+                    val P = getGridInterpolation(rows, columns, coarseRows, coarseColumns)
+                    rows = coarseRows
+                    columns = coarseColumns
+                    P
+                }
+            }
+        }
+
+        /**
+         * Builds the hierarchy by the smoothed aggregation coarsening of the algebraic multigrid.
+         *
+         * The unknowns 'i' and 'j' are strongly connected if '|Aij| >= strengthThreshold * sqrt(|Aii * Ajj|)'.
+         * The aggregates are the unknowns with all their strong neighbours, which are not aggregated yet,
+         * the rest unknowns join the aggregates of their strong neighbours. The piecewise constant interpolation
+         * of the aggregates is smoothed by one weighted Jacobi iteration if [smoothed] flag is set.
+         *
+         * Asymptotic complexity: O(nnz) per level for the sparse matrix with the bounded count of the elems in the rows.
+         *
+         * @param [matrix] is the square sparse matrix, all its diagonal elems must not be zero.
+         * @param [strengthThreshold] is the threshold of the strong connection from 0 to 1, 0.08 by default.
+         * @param [smoothed] is the flag, that says that the interpolation is smoothed.
+         * @param [coarsestSize] is the maximal size of the coarsest level, which is solved by the LU decomposition, 64 by default.
+         *
+         * @return the hierarchy which is represented as [MultigridHierarchy] type.
+         */
+        @JvmStatic
+        fun aggregation(
+            matrix: SparseMatrix,
+            strengthThreshold: Double = 0.08,
+            smoothed: Boolean = true,
+            coarsestSize: Int = 64
+        ): MultigridHierarchy {
+            require(strengthThreshold in 0.0..1.0) { "The strength threshold must be from 0 to 1." }
+            return build(matrix, coarsestSize) { A ->
+                val aggregates = getAggregates(A, strengthThreshold)
+                val count = (aggregates.maxOrNull() ?: -1) + 1
+                if (count == A.getN()) {
+                    null
+                } else {
+                    val tentative = CSRMatrix.fromTriplets(A.getN(), count, IntArray(A.getN()) { it }, aggregates, DoubleArray(A.getN()) { 1.0 })
+                    if (smoothed) getSmoothedInterpolation(A, tentative) else tentative
+                }
+            }
+        }
+
+        // Builds the levels until the coarsening returns null or the level is small enough
+        private fun build(matrix: SparseMatrix, coarsestSize: Int, coarsen: (CSRMatrix) -> CSRMatrix?): MultigridHierarchy {
+            require(coarsestSize > 0) { "The size of the coarsest level must be positive." }
+            var A = matrix.toCSR()
+            require(A.getN() == A.getM()) { "The size of the matrix must be square (the number of rows must match the number of columns)." }
+
+            val levels = ArrayList<Level>()
+            var P: CSRMatrix? = null
+            while (true) {
+                val level = Level(A, P)
+                require(level.diagonal.all { it != 0.0 }) { "The diagonal elements of the matrix must not be zero." }
+                levels.add(level)
+                val interpolation = if (A.getN() > coarsestSize && levels.size < MAX_LEVELS) coarsen(A) else null
+                if (interpolation == null) {
+                    if (A.getN() <= coarsestSize) {
+                        level.coarsestSolver = PivotedLUDecomposition(A.toMatrix())
+                    }
+                    break
+                }
+                A = interpolation.transpose().multiply(A.multiply(interpolation))
+                P = interpolation
+            }
+            return MultigridHierarchy(levels)
+        }
+
+        private fun getCoarseCount(count: Int): Int = if (count < 3) count else (count - 1) / 2
+
+        // The 1D interpolation: the fine node '2 * c + 1' is the coarse node 'c', the fine node between two coarse nodes is their mean
+        private fun forEachInterpolationWeight(count: Int, coarseCount: Int, action: (fine: Int, coarse: Int, weight: Double) -> Unit) {
+            for (f in 0 until count) {
+                if (coarseCount == count) {
+                    action(f, f, 1.0)
+                } else if (f % 2 == 1) {
+                    if ((f - 1) / 2 < coarseCount) action(f, (f - 1) / 2, 1.0)
+                } else {
+                    if (f / 2 - 1 >= 0) action(f, f / 2 - 1, 0.5)
+                    if (f / 2 < coarseCount) action(f, f / 2, 0.5)
+                }
+            }
+        }
+
+        // The bilinear interpolation is the tensor product of the 1D interpolations of the rows and the columns
+        private fun getGridInterpolation(rows: Int, columns: Int, coarseRows: Int, coarseColumns: Int): CSRMatrix {
+            val rowWeights = ArrayList<Triple<Int, Int, Double>>()
+            val columnWeights = ArrayList<Triple<Int, Int, Double>>()
+            forEachInterpolationWeight(rows, coarseRows) { f, c, w -> rowWeights.add(Triple(f, c, w)) }
+            forEachInterpolationWeight(columns, coarseColumns) { f, c, w -> columnWeights.add(Triple(f, c, w)) }
+
+            val count = rowWeights.size * columnWeights.size
+            val fine = IntArray(count)
+            val coarse = IntArray(count)
+            val weights = DoubleArray(count)
+            var k = 0
+            for ((fx, cx, wx) in rowWeights) {
+                for ((fy, cy, wy) in columnWeights) {
+                    fine[k] = fx * columns + fy
+                    coarse[k] = cx * coarseColumns + cy
+                    weights[k] = wx * wy
+                    k++
+                }
+            }
+            return CSRMatrix.fromTriplets(rows * columns, coarseRows * coarseColumns, fine, coarse, weights)
+        }
+
+        // Returns the aggregate of every unknown
+        private fun getAggregates(A: CSRMatrix, strengthThreshold: Double): IntArray {
+            val n = A.getN()
+            val rowPointers = A.getRowPointers()
+            val columnIndices = A.getColumnIndices()
+            val values = A.getValues()
+            val diagonal = DoubleArray(n) { i -> abs(A.getElem(i, i)) }
+            fun isStrong(i: Int, p: Int): Boolean {
+                val j = columnIndices[p]
+                return j != i && abs(values[p]) >= strengthThreshold * sqrt(diagonal[i] * diagonal[j])
+            }
+
+            val aggregates = IntArray(n) { -1 }
+            var count = 0
+            // The unknowns with all their strong neighbours, which are not aggregated
+            for (i in 0 until n) {
+                if (aggregates[i] != -1) continue
+                var free = true
+                for (p in rowPointers[i] until rowPointers[i + 1]) {
+                    if (isStrong(i, p) && aggregates[columnIndices[p]] != -1) {
+                        free = false
+                        break
+                    }
+                }
+                if (free) {
+                    aggregates[i] = count
+                    for (p in rowPointers[i] until rowPointers[i + 1]) {
+                        if (isStrong(i, p)) aggregates[columnIndices[p]] = count
+                    }
+                    count++
+                }
+            }
+            // The rest unknowns join the aggregate of the strong neighbour of the first pass
+            val firstPass = aggregates.copyOf()
+            for (i in 0 until n) {
+                if (aggregates[i] != -1) continue
+                for (p in rowPointers[i] until rowPointers[i + 1]) {
+                    if (isStrong(i, p) && firstPass[columnIndices[p]] != -1) {
+                        aggregates[i] = firstPass[columnIndices[p]]
+                        break
+                    }
+                }
+                if (aggregates[i] == -1) {
+                    aggregates[i] = count++
+                }
+            }
+            return aggregates
+        }
+
+        // Returns 'P = (I - omega * D^-1 * A) * T', where omega is 4/3 divided by the Gershgorin estimate of the spectral radius of 'D^-1 * A'
+        private fun getSmoothedInterpolation(A: CSRMatrix, tentative: CSRMatrix): CSRMatrix {
+            val n = A.getN()
+            val rowPointers = A.getRowPointers()
+            val values = A.getValues()
+            var radius = 0.0
+            for (i in 0 until n) {
+                var sum = 0.0
+                for (p in rowPointers[i] until rowPointers[i + 1]) {
+                    sum += abs(values[p])
+                }
+                radius = maxOf(radius, sum / abs(A.getElem(i, i)))
+            }
+            val omega = 2.0 * JACOBI_WEIGHT / radius
+
+            val product = A.multiply(tentative)
+            val productPointers = product.getRowPointers()
+            val productIndices = product.getColumnIndices()
+            val productValues = product.getValues()
+            val tentativePointers = tentative.getRowPointers()
+            val tentativeIndices = tentative.getColumnIndices()
+            val tentativeValues = tentative.getValues()
+
+            // The rows of the difference are the merged rows of the sorted column indices
+            val pointers = IntArray(n + 1)
+            val indices = IntArray(productIndices.size + tentativeIndices.size)
+            val result = DoubleArray(indices.size)
+            var size = 0
+            for (i in 0 until n) {
+                val scale = omega / A.getElem(i, i)
+                var p = productPointers[i]
+                var q = tentativePointers[i]
+                while (p < productPointers[i + 1] || q < tentativePointers[i + 1]) {
+                    val productColumn = if (p < productPointers[i + 1]) productIndices[p] else Int.MAX_VALUE
+                    val tentativeColumn = if (q < tentativePointers[i + 1]) tentativeIndices[q] else Int.MAX_VALUE
+                    val column = minOf(productColumn, tentativeColumn)
+                    var value = 0.0
+                    if (tentativeColumn == column) value += tentativeValues[q++]
+                    if (productColumn == column) value -= scale * productValues[p++]
+                    indices[size] = column
+                    result[size] = value
+                    size++
+                }
+                pointers[i + 1] = size
+            }
+            return CSRMatrix.ofArrays(n, tentative.getM(), pointers, indices.copyOf(size), result.copyOf(size))
+        }
+    }
+
+    /**
+     * Returns the count of the levels of the hierarchy, starting from 1.
+     *
+     * @return This method returns the count of the levels of [Int] type value.
+     */
+    fun getLevelCount(): Int = levels.size
+
+    /**
+     * Returns the matrix of the level.
+     *
+     * @param [level] is the level, starting from 0 for the finest level.
+     *
+     * @return the matrix of the level which is represented as [CSRMatrix] type.
+     */
+    fun getMatrix(level: Int): CSRMatrix = levels[level].A
+
+    internal fun getN(): Int = levels[0].n
+
+    internal fun getFinestMatrix(): CSRMatrix = levels[0].A
+
+    // Runs the multigrid cycle for the level 'l' with the right side and the approximation of the level:
+    // 'gamma = 1' is the V-cycle, 'gamma = 2' is the W-cycle
+    internal fun runCycle(l: Int, b: DoubleArray, x: DoubleArray, gamma: Int, smoother: MultigridMethod.Smoother, smoothingSteps: Int) {
+        val level = levels[l]
+        val solver = level.coarsestSolver
+        if (solver != null) {
+            val solution = solver.solve(Vector(b.copyOf()))
+            System.arraycopy(solution.getData(), 0, x, 0, level.n)
+            return
+        }
+
+        repeat(smoothingSteps) { smooth(level, b, x, smoother, false) }
+        if (l == levels.size - 1) {
+            // The large coarsest level, which is not coarsened, is only smoothed
+            repeat(smoothingSteps) { smooth(level, b, x, smoother, true) }
+            return
+        }
+
+        // The restriction of the residual to the coarse level
+        level.A.multiplyVector(x, level.residual, false)
+        for (i in 0 until level.n) {
+            level.residual[i] = b[i] - level.residual[i]
+        }
+        val coarse = levels[l + 1]
+        coarse.R!!.multiplyVector(level.residual, coarse.b, false)
+        coarse.x.fill(0.0)
+        repeat(gamma) { runCycle(l + 1, coarse.b, coarse.x, gamma, smoother, smoothingSteps) }
+
+        // The interpolation of the coarse correction
+        coarse.P!!.multiplyVector(coarse.x, level.work, false)
+        for (i in 0 until level.n) {
+            x[i] += level.work[i]
+        }
+
+        repeat(smoothingSteps) { smooth(level, b, x, smoother, true) }
+    }
+
+    // The pre-smoothing Gauss-Seidel sweep is forward and the post-smoothing sweep is backward, so the cycle is symmetric
+    private fun smooth(level: Level, b: DoubleArray, x: DoubleArray, smoother: MultigridMethod.Smoother, post: Boolean) {
+        val n = level.n
+        val diagonal = level.diagonal
+        when (smoother) {
+            MultigridMethod.Smoother.JACOBI -> {
+                level.A.multiplyVector(x, level.work, false)
+                for (i in 0 until n) {
+                    x[i] += JACOBI_WEIGHT * (b[i] - level.work[i]) / diagonal[i]
+                }
+            }
+            MultigridMethod.Smoother.SEIDEL -> {
+                val rowPointers = level.A.getRowPointers()
+                val columnIndices = level.A.getColumnIndices()
+                val values = level.A.getValues()
+                for (step in 0 until n) {
+                    val i = if (post) n - 1 - step else step
+                    var sum = b[i]
+                    for (p in rowPointers[i] until rowPointers[i + 1]) {
+                        val j = columnIndices[p]
+                        if (j != i) {
+                            sum -= values[p] * x[j]
+                        }
+                    }
+                    x[i] = sum / diagonal[i]
+                }
+            }
+        }
+    }
+}
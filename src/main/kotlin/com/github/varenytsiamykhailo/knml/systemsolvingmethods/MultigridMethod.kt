@@ -0,0 +1,226 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.MultigridMethodSolution
+import com.github.varenytsiamykhailo.knml.util.SparseMatrix
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.getPretty1DDoubleArrayString
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import kotlin.math.sqrt
+
+/**
+ * Multigrid method implementation.
+ *
+ * In numerical analysis, a multigrid method is an algorithm for solving differential equations using a hierarchy of discretizations.
+ * The Jacobi and the Seidel iterations (the smoothers) quickly damp the oscillating components of the error,
+ * but the smooth components of the error converge slowly. The smooth error is approximated well on the coarse level
+ * of the [MultigridHierarchy], where it is oscillating again, so the cycle smooths the error, solves the residual equation
+ * on the coarse level recursively and corrects the approximation by the interpolated coarse solution.
+ * The count of the cycles does not grow with the size of the discretized elliptic equation,
+ * so the method takes O(nnz) time.
+ *
+ * The V-cycle visits every coarse level once, the W-cycle visits the coarse level twice per visit of the fine level,
+ * which is more robust for the aggregation hierarchy and takes more time per cycle.
+ *
+ * Use [solveSystemByMultigridMethod] method to solve the system of linear equations with the sparse matrix.
+ * The hierarchy is the most expensive part of the method, so build it once by [MultigridHierarchy.geometric]
+ * or [MultigridHierarchy.aggregation] and reuse it for the systems with the same matrix.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Multigrid_method]
+ */
+class MultigridMethod {
+
+    /**
+     * The cycle of the multigrid method.
+     */
+    enum class Cycle {
+        V, W
+    }
+
+    /**
+     * The smoother of the multigrid method: the weighted Jacobi iteration with the weight 2/3
+     * or the Gauss-Seidel iteration, which is forward before the coarse correction and backward after it.
+     */
+    enum class Smoother {
+        JACOBI, SEIDEL
+    }
+
+    companion object {
+        // The default required relative norm of the residual
+        private const val DEFAULT_EPS = 1e-10
+
+        // The default maximal count of the cycles
+        private const val DEFAULT_MAX_CYCLES = 100
+    }
+
+    /**
+     * Multigrid method implementation for the built hierarchy.
+     *
+     * Asymptotic complexity: O(nnz) per cycle, where nnz is the count of the non-zero elems of the matrices of all levels.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Multigrid_method]
+     *
+     * @param [hierarchy] is the hierarchy of the matrix of the system.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the cycles stop when the euclidean norm
+     * of the residual 'B - A * X' is not greater than eps multiplied by the norm of [inputB]. 1e-10 is used by default.
+     * @param [maxCycles] is the maximal count of the cycles, 100 by default.
+     * @param [cycle] is the cycle of the method, the V-cycle by default.
+     * @param [smoother] is the smoother of the method, the Seidel smoother by default.
+     * @param [smoothingSteps] is the count of the smoothing iterations before and after the coarse correction, 2 by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the cycles and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByMultigridMethod(
+        hierarchy: MultigridHierarchy,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxCycles: Int? = null,
+        cycle: Cycle = Cycle.V,
+        smoother: Smoother = Smoother.SEIDEL,
+        smoothingSteps: Int = 2,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (hierarchy.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of the matrix of 'hierarchy' must match the size of 'inputB' vector.")
+            }
+            runSolvingSystemByMultigridMethod(
+                hierarchy, inputB, initialApproximation, eps ?: DEFAULT_EPS, maxCycles ?: DEFAULT_MAX_CYCLES,
+                cycle, smoother, smoothingSteps, formSolution
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Multigrid method implementation for the sparse matrix.
+     *
+     * The method builds the hierarchy by the smoothed aggregation coarsening (see [MultigridHierarchy.aggregation])
+     * for the single solving. Build the hierarchy once and use [solveSystemByMultigridMethod] for it
+     * to solve several systems with the same matrix.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Multigrid_method]
+     *
+     * @param [inputA] is the input square sparse matrix of the system, all its diagonal elems must not be zero.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector, the zero vector by default.
+     * @param [eps] is the input required relative precision of the result: the cycles stop when the euclidean norm
+     * of the residual 'B - A * X' is not greater than eps multiplied by the norm of [inputB]. 1e-10 is used by default.
+     * @param [maxCycles] is the maximal count of the cycles, 100 by default.
+     * @param [cycle] is the cycle of the method, the V-cycle by default.
+     * @param [smoother] is the smoother of the method, the Seidel smoother by default.
+     * @param [smoothingSteps] is the count of the smoothing iterations before and after the coarse correction, 2 by default.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution,
+     * the count of the cycles and the history of the norms of the residual.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByMultigridMethod(
+        inputA: SparseMatrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxCycles: Int? = null,
+        cycle: Cycle = Cycle.V,
+        smoother: Smoother = Smoother.SEIDEL,
+        smoothingSteps: Int = 2,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputA.getM()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+            } else if (inputA.getN() != inputB.getN()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+            }
+            runSolvingSystemByMultigridMethod(
+                MultigridHierarchy.aggregation(inputA), inputB, initialApproximation, eps ?: DEFAULT_EPS, maxCycles ?: DEFAULT_MAX_CYCLES,
+                cycle, smoother, smoothingSteps, formSolution
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    @Throws(IllegalArgumentException::class, ArithmeticException::class)
+    private fun runSolvingSystemByMultigridMethod(
+        hierarchy: MultigridHierarchy,
+        inputB: Vector,
+        initialApproximation: Vector?,
+        eps: Double,
+        maxCycles: Int,
+        cycle: Cycle,
+        smoother: Smoother,
+        smoothingSteps: Int,
+        formSolution: Boolean
+    ): VectorResultWithStatus {
+        var solutionString: String = ""
+        val solution: MultigridMethodSolution = MultigridMethodSolution()
+
+        val n: Int = inputB.getN()
+        checkKrylovArguments(n, initialApproximation, null, eps, maxCycles)
+        if (smoothingSteps < 1) {
+            throw IllegalArgumentException("The count of the smoothing steps must be positive.")
+        }
+        val gamma = if (cycle == Cycle.V) 1 else 2
+
+        val A = hierarchy.getFinestMatrix()
+        val B: DoubleArray = inputB.getData()
+        val X: DoubleArray = initialApproximation?.getData()?.copyOf() ?: DoubleArray(n)
+        val AX = DoubleArray(n)
+        val residualNorms = ArrayList<Double>()
+
+        if (formSolution) solutionString += "The multigrid method with ${hierarchy.getLevelCount()} levels will run ${cycle}-cycles until the relative norm of the residual eps = ${eps} is reached.\n"
+
+        val bNorm = sqrt(dot(B, B))
+        fun getResidualNorm(): Double {
+            A.multiplyVector(X, AX, false)
+            var sum = 0.0
+            for (i in 0 until n) {
+                sum += (B[i] - AX[i]) * (B[i] - AX[i])
+            }
+            return sqrt(sum)
+        }
+
+        var rNorm = getResidualNorm()
+        residualNorms.add(rNorm)
+        var cyclesCounter = 0
+        while (rNorm > eps * bNorm) {
+            if (cyclesCounter == maxCycles) {
+                throw ArithmeticException("The multigrid method has not converged in ${maxCycles} cycles.")
+            }
+            hierarchy.runCycle(0, B, X, gamma, smoother, smoothingSteps)
+            rNorm = getResidualNorm()
+            if (!rNorm.isFinite()) {
+                throw ArithmeticException("The norm of the residual is not finite.")
+            }
+            residualNorms.add(rNorm)
+            cyclesCounter++
+        }
+
+        val result: Array<Double> = X.toTypedArray()
+        if (formSolution) {
+            solutionString += "The relative norm of the residual ${rNorm / bNorm} is not greater than eps, required precision has achieved on the ${cyclesCounter} cycle.\n"
+            solutionString += "The approximate solution vector is ${getPretty1DDoubleArrayString(result)}.\n"
+            solution.solutionString = solutionString
+            solution.iterations = cyclesCounter
+            solution.residualNorms = residualNorms.toDoubleArray()
+        }
+
+        return VectorResultWithStatus(
+            Vector(X),
+            result,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = if (formSolution) solution else null,
+        )
+    }
+}
@@ -5,6 +5,7 @@ import com.github.varenytsiamykhailo.knml.util.*
 import com.github.varenytsiamykhailo.knml.util.Vector
 import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
 import kotlin.math.abs
+import kotlin.math.sqrt
 
 /**
  * Seidel method implementation.
@@ -20,10 +21,26 @@ import kotlin.math.abs
  *
  * Use [solveSystemBySeidelMethod] method to solve the strictly diagonally dominant system of linear equations.
  *
+ * Use [solveSystemBySORMethod] method to solve the system by the successive over-relaxation (SOR or SSOR) method,
+ * and [solveSystemByMulticolorSORMethod] method to solve the sparse system with the rows of every color updated in parallel.
+ *
+ * Use [SeidelMethodSession] to solve the sequence of the systems with the same matrix, which is checked once,
+ * and the warm start from the previous solution.
+ *
  * **See Also:** [https://en.wikipedia.org/wiki/Gauss–Seidel_method], [https://ru.wikipedia.org/wiki/Метод_Гаусса_—_Зейделя_решения_системы_линейных_уравнений]
  */
 class SeidelMethod {
 
+    companion object {
+        // The minimal and the maximal count of the Gauss-Seidel sweeps which estimate the convergence rate for the optimal relaxation parameter,
+        // the maximal count grows as the size of the system divided by the divisor
+        private const val MIN_OMEGA_ESTIMATION_SWEEPS = 5
+        private const val OMEGA_ESTIMATION_SWEEPS = 20
+        private const val OMEGA_ESTIMATION_SIZE_DIVISOR = 10
+        // The estimate of the convergence rate is settled when it changes by less than this part of its distance to 1
+        private const val OMEGA_ESTIMATION_TOLERANCE = 0.003
+    }
+
     /**
      * Seidel method implementation.
      *
@@ -124,6 +141,330 @@ class SeidelMethod {
         }
     }
 
+    /**
+     * Successive over-relaxation (SOR) method implementation.
+     *
+     * The SOR method is the Gauss-Seidel method, which moves every unknown further in the direction of its Gauss-Seidel update:
+     * 'Xi = (1 - omega) * Xi + omega * (Bi - sum of Aij * Xj for j != i) / Aii'. The relaxation parameter 'omega' from 1 to 2
+     * cuts the count of the iterations by an order of magnitude for the discretized elliptic equations, 'omega = 1' is the Gauss-Seidel method.
+     * The symmetric SOR (SSOR) method makes the forward and the backward sweep on every iteration.
+     *
+     * If [omega] is not passed, the first iterations are the Gauss-Seidel sweeps which estimate their convergence rate,
+     * and the optimal parameter for the consistently ordered matrix is calculated by it: 'omega = 2 / (1 + sqrt(1 - rate))' for SOR.
+     * The ratios of the norms of the successive differences converge to the rate slowly, so they are extrapolated by the Aitken method,
+     * and the sweeps go on until the extrapolated rate settles (but not longer than the size of the system divided by 10).
+     *
+     * The method converges for the symmetric positive definite matrix with '0 < omega < 2', the diagonal dominance is not required.
+     *
+     * Asymptotic complexity: O(n^2) per iteration.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Successive_over-relaxation], [https://en.wikipedia.org/wiki/Symmetric_successive_over-relaxation]
+     *
+     * @param [inputA] is the input matrix of the system. It may be a view or an off-heap matrix.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector.
+     * If the user does not pass their default values, then the following defaults will be used:
+     * [inputB] vector divided on diagonal elements of the matrix [inputA].
+     * @param [eps] is the input required precision of the result.
+     * If the user does not pass their required precision, then will be used default machine precision as the most accurate precision.
+     * The iterations also stop when the norm of the difference of the approximations reaches the rounding level.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 100 (but not less than 1000) by default.
+     * The method throws the exception if the iterations do not converge in this count, for example, for the singular matrix.
+     * @param [omega] is the relaxation parameter from 0 to 2 (exclusive), it is estimated if it is not passed.
+     * @param [symmetric] is the flag, that says that the symmetric SOR (SSOR) method is used.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemBySORMethod(
+        inputA: Matrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        omega: Double? = null,
+        symmetric: Boolean = false,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputA.getM()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+            }
+            val n: Int = inputA.getN()
+            val diagonal = DoubleArray(n) { i -> inputA.getElem(i, i) }
+            checkSORArguments(diagonal, inputB, initialApproximation, maxIterations, omega)
+
+            val a: DoubleArray? = if (inputA.hasArray()) inputA.getData() else null
+            val offset: Int = if (a != null) inputA.getOffset() else 0
+            val rowStride: Int = if (a != null) inputA.getRowStride() else 0
+            val colStride: Int = if (a != null) inputA.getColStride() else 0
+            val B: DoubleArray = inputB.getData()
+
+            runSolvingSystemBySORMethod(B, diagonal, initialApproximation, eps ?: getMachineEps(), maxIterations, omega, symmetric, formSolution) { x, w, backward ->
+                for (step in 0 until n) {
+                    val i = if (backward) n - 1 - step else step
+                    // The sum skips the diagonal elem in the same order as the Gauss-Seidel method
+                    var sum: Double = B[i]
+                    if (a != null) {
+                        val rowOffset = offset + i * rowStride
+                        for (j in 0 until i) {
+                            sum -= a[rowOffset + j * colStride] * x[j]
+                        }
+                        for (j in i + 1 until n) {
+                            sum -= a[rowOffset + j * colStride] * x[j]
+                        }
+                    } else {
+                        for (j in 0 until n) {
+                            if (j != i) {
+                                sum -= inputA.getElem(i, j) * x[j]
+                            }
+                        }
+                    }
+                    x[i] = (1.0 - w) * x[i] + w * (sum / diagonal[i])
+                }
+            }
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Multicolor successive over-relaxation (SOR) method implementation for the sparse system.
+     *
+     * The rows of the matrix are colored so that the rows of one color are not coupled by the elems of the matrix:
+     * the unknowns of one color depend only on the unknowns of the other colors, so they are updated in parallel.
+     * The colors are assigned greedily in the natural order, so the 5-point stencil of the grid gets two colors
+     * (the red-black ordering) and the general sparse matrix gets at most 'max count of the elems in the row' colors.
+     * Every iteration updates the colors one after another by the SOR formula (see [solveSystemBySORMethod]),
+     * the symmetric SOR (SSOR) method updates them in the forward and then in the backward order.
+     * 'omega = 1' is the multicolor Gauss-Seidel method.
+     *
+     * The red-black ordering is consistently ordered, so the relaxation parameter is estimated for SOR as in [solveSystemBySORMethod].
+     * The relaxation does not accelerate the multicolor SSOR method (its backward sweep starts by the last color again),
+     * so 'omega = 1' is used for it if [omega] is not passed. The result does not depend on [parallel] flag.
+     *
+     * Asymptotic complexity: O(nnz / parallelism) per iteration.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Successive_over-relaxation], [https://en.wikipedia.org/wiki/Graph_coloring]
+     *
+     * @param [inputA] is the input sparse matrix of the system, all its diagonal elems must be stored and not zero.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector.
+     * If the user does not pass their default values, then the following defaults will be used:
+     * [inputB] vector divided on diagonal elements of the matrix [inputA].
+     * @param [eps] is the input required precision of the result.
+     * If the user does not pass their required precision, then will be used default machine precision as the most accurate precision.
+     * The iterations also stop when the norm of the difference of the approximations reaches the rounding level.
+     * @param [maxIterations] is the maximal count of the iterations, the size of the system multiplied by 100 (but not less than 1000) by default.
+     * The method throws the exception if the iterations do not converge in this count, for example, for the singular matrix.
+     * @param [omega] is the relaxation parameter from 0 to 2 (exclusive), it is estimated for SOR and is 1 for SSOR if it is not passed.
+     * @param [symmetric] is the flag, that says that the symmetric SOR (SSOR) method is used.
+     * @param [parallel] is the flag, that says that the rows of every color are updated in parallel.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solveSystemByMulticolorSORMethod(
+        inputA: CSRMatrix,
+        inputB: Vector,
+        initialApproximation: Vector? = null,
+        eps: Double? = null,
+        maxIterations: Int? = null,
+        omega: Double? = null,
+        symmetric: Boolean = false,
+        parallel: Boolean = true,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            // Validation of the matrix and vector sizes
+            if (inputA.getN() != inputA.getM()) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+            }
+            val n: Int = inputA.getN()
+            val rowPointers = inputA.getRowPointers()
+            val columnIndices = inputA.getColumnIndices()
+            val values = inputA.getValues()
+            val diagonal = DoubleArray(n) { i -> inputA.getElem(i, i) }
+            checkSORArguments(diagonal, inputB, initialApproximation, maxIterations, omega)
+            val B: DoubleArray = inputB.getData()
+
+            // The rows of the color 'c' are 'rows[colorPointers[c] until colorPointers[c + 1]]'
+            val colors = inputA.getGreedyColoring()
+            val colorCount = (colors.maxOrNull() ?: -1) + 1
+            val colorPointers = IntArray(colorCount + 1)
+            for (color in colors) {
+                colorPointers[color + 1]++
+            }
+            for (c in 0 until colorCount) {
+                colorPointers[c + 1] += colorPointers[c]
+            }
+            val rows = IntArray(n)
+            val positions = colorPointers.copyOf()
+            for (i in 0 until n) {
+                rows[positions[colors[i]]++] = i
+            }
+            val bounds = Array(colorCount) { c ->
+                val count = colorPointers[c + 1] - colorPointers[c]
+                splitEvenly(count, getParallelBlockCount(count.toLong() * (values.size / maxOf(n, 1) + 1), parallel))
+            }
+
+            // The multicolor SSOR method is not accelerated by the relaxation, so its parameter is not estimated
+            val relaxation: Double? = omega ?: if (symmetric) 1.0 else null
+            val result = runSolvingSystemBySORMethod(B, diagonal, initialApproximation, eps ?: getMachineEps(), maxIterations, relaxation, symmetric, formSolution) { x, w, backward ->
+                for (step in 0 until colorCount) {
+                    val c = if (backward) colorCount - 1 - step else step
+                    val first = colorPointers[c]
+                    forEachBlock(bounds[c]) { _, from, to ->
+                        for (r in first + from until first + to) {
+                            val i = rows[r]
+                            var sum: Double = B[i]
+                            for (p in rowPointers[i] until rowPointers[i + 1]) {
+                                val j = columnIndices[p]
+                                if (j != i) {
+                                    sum -= values[p] * x[j]
+                                }
+                            }
+                            x[i] = (1.0 - w) * x[i] + w * (sum / diagonal[i])
+                        }
+                    }
+                }
+            }
+            if (formSolution && result.solutionObject != null) {
+                result.solutionObject.solutionString = "The rows are split into ${colorCount} colors.\n" + result.solutionObject.solutionString
+            }
+            result
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    private fun checkSORArguments(diagonal: DoubleArray, inputB: Vector, initialApproximation: Vector?, maxIterations: Int?, omega: Double?) {
+        if (diagonal.size != inputB.getN()) {
+            throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+        } else if ((initialApproximation != null) && (inputB.getN() != initialApproximation.getN())) {
+            throw IllegalArgumentException("The size of 'inputB' vector must match the size of 'initialApproximation' vector (the number of rows must be the same).")
+        } else if ((maxIterations != null) && (maxIterations < 0)) {
+            throw IllegalArgumentException("The maximal count of the iterations must not be negative.")
+        } else if (omega != null && !(omega > 0.0 && omega < 2.0)) {
+            throw IllegalArgumentException("The relaxation parameter 'omega' must be from 0 to 2 (exclusive).")
+        } else if (diagonal.any { it == 0.0 }) {
+            throw IllegalArgumentException("The diagonal elements of the matrix inputA must not be zero.")
+        }
+    }
+
+    // Iterates the sweeps until the norm of the difference of the approximations is smaller than eps or the limit of the iterations is reached. The sweep updates
+    // the approximation 'x' in place by the relaxation parameter in the forward or the backward order of the rows
+    private fun runSolvingSystemBySORMethod(
+        B: DoubleArray,
+        diagonal: DoubleArray,
+        initialApproximation: Vector?,
+        eps: Double,
+        maxIterations: Int?,
+        omega: Double?,
+        symmetric: Boolean,
+        formSolution: Boolean,
+        sweep: (x: DoubleArray, omega: Double, backward: Boolean) -> Unit
+    ): VectorResultWithStatus {
+        var solutionString: String = ""
+        val solution: SeidelMethodSolution = SeidelMethodSolution()
+
+        val n: Int = B.size
+        val X: DoubleArray = initialApproximation?.getData()?.copyOf() ?: DoubleArray(n) { i -> B[i] / diagonal[i] }
+        val previous = DoubleArray(n)
+        val machineEps: Double = getMachineEps()
+        val iterationsLimit: Int = maxIterations ?: getDefaultIterationsLimit(n)
+
+        var relaxation: Double = omega ?: 1.0
+        var estimating: Boolean = omega == null
+        val estimationLimit: Int = maxOf(OMEGA_ESTIMATION_SWEEPS, n / OMEGA_ESTIMATION_SIZE_DIVISOR)
+        if (formSolution) solutionString += if (estimating) {
+            "The relaxation parameter is estimated by the Gauss-Seidel sweeps until their convergence rate settles.\n"
+        } else {
+            "The relaxation parameter is omega = ${relaxation}.\n"
+        }
+
+        var iterationsCounter = 0
+        var previousNorm = 0.0
+        var previousRate = 0.0
+        var olderRate = 0.0
+        var previousEstimate = 0.0
+        var norm: Double
+        do {
+            if (iterationsCounter == iterationsLimit) {
+                throw ArithmeticException("The SOR method has not converged in ${iterationsLimit} iterations.")
+            }
+            System.arraycopy(X, 0, previous, 0, n)
+            sweep(X, relaxation, false)
+            if (symmetric && !estimating) {
+                sweep(X, relaxation, true)
+            }
+
+            norm = 0.0
+            var size = 0.0
+            for (i in 0 until n) {
+                norm += abs(X[i] - previous[i])
+                size += abs(X[i])
+            }
+            if (!norm.isFinite()) {
+                throw ArithmeticException("The iterations diverge: the matrix is not positive definite or the relaxation parameter is wrong.")
+            }
+            iterationsCounter++
+
+            if (estimating) {
+                val rate = norm / previousNorm
+                // The Aitken extrapolation of the last three ratios, the rate is not smaller than the last ratio
+                val delta = rate - 2.0 * previousRate + olderRate
+                var estimate = if (iterationsCounter > 3 && delta < 0.0) rate - (rate - previousRate) * (rate - previousRate) / delta else rate
+                if (!(estimate < 1.0) || estimate < rate) {
+                    estimate = rate
+                }
+                val settled = iterationsCounter >= MIN_OMEGA_ESTIMATION_SWEEPS && abs(estimate - previousEstimate) <= OMEGA_ESTIMATION_TOLERANCE * (1.0 - estimate)
+                if (settled || iterationsCounter == estimationLimit) {
+                    relaxation = getOptimalOmega(estimate, symmetric)
+                    estimating = false
+                    if (formSolution) solutionString += "The estimated relaxation parameter is omega = ${relaxation} after ${iterationsCounter} sweeps.\n"
+                }
+                olderRate = previousRate
+                previousRate = rate
+                previousEstimate = estimate
+            }
+            previousNorm = norm
+            // The relaxed update may change the last bits of the approximation forever, so the iterations stop on the rounding level too
+        } while (norm > eps && norm > ROUNDING_FACTOR * machineEps * size)
+
+        val result: Array<Double> = X.toTypedArray()
+        if (formSolution) {
+            solutionString += "The norm is smaller than eps, required precision has achieved on the ${iterationsCounter} iteration.\n"
+            solutionString += "The approximate solution vector is ${getPretty1DDoubleArrayString(result)}.\n"
+            solution.solutionString = solutionString
+            solution.iterations = iterationsCounter
+        }
+
+        return VectorResultWithStatus(
+            Vector(X),
+            result,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = if (formSolution) solution else null,
+        )
+    }
+
+    // Returns the optimal relaxation parameter for the consistently ordered matrix by the convergence rate
+    // of the Gauss-Seidel method, which is the square of the spectral radius of the Jacobi method
+    private fun getOptimalOmega(rate: Double, symmetric: Boolean): Double {
+        if (!(rate < 1.0)) {
+            return 1.0
+        }
+        return if (symmetric) {
+            2.0 / (1.0 + sqrt(2.0 * (1.0 - sqrt(rate))))
+        } else {
+            2.0 / (1.0 + sqrt(1.0 - rate))
+        }
+    }
+
     @Throws(IllegalArgumentException::class)
     private fun runSolvingSystemBySeidelMethod(
         inputA: Array<Array<Double>>,
@@ -0,0 +1,197 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.SeidelMethodSolution
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.getMachineEps
+import com.github.varenytsiamykhailo.knml.util.getPretty1DDoubleArrayString
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import kotlin.math.abs
+
+/**
+ * Seidel method session implementation.
+ *
+ * The session solves the sequence of the systems with the same matrix and different right sides by the [SeidelMethod],
+ * for example, the systems of the steps of the time-stepping loop. The matrix is checked for the diagonal dominance
+ * and copied into the primitive array once, when the session is created, and the work vectors are reused by all solvings.
+ * Every solving starts from the solution of the previous solving (the warm start), so the slowly changing right sides
+ * need only a few iterations, the first solving starts from the default initial approximation 'Xi = Bi / Aii'.
+ *
+ * Asymptotic complexity: O(n^2) for the session creation and O(n^2) per iteration of the solving.
+ *
+ * The session keeps the state between the solvings, so it must not be used by several threads concurrently.
+ *
+ * @param [inputA] is the input strictly diagonally dominant matrix of the systems. It may be a view or an off-heap matrix.
+ * @param [eps] is the input required precision of the results. If the user does not pass their required precision,
+ * then will be used default machine precision as the most accurate precision. The iterations also stop
+ * when the norm of the difference of the approximations reaches the rounding level.
+ * @constructor This constructor checks the matrix and copies it into the session.
+ *
+ * @see SeidelMethod
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Gauss–Seidel_method]
+ */
+class SeidelMethodSession(inputA: Matrix, eps: Double? = null) {
+
+    private val n: Int = inputA.getN()
+
+    private val eps: Double = eps ?: getMachineEps()
+
+    // The row-major elems of the matrix
+    private val A: DoubleArray
+
+    private val diagonal: DoubleArray
+
+    // The approximation of the current solving, which is the solution of the previous solving before the solving
+    private val X: DoubleArray
+
+    private val previous: DoubleArray
+
+    private var warm: Boolean = false
+
+    init {
+        // Validation of the matrix size
+        if (inputA.getN() != inputA.getM()) {
+            throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
+        } else if (!(this.eps > 0.0)) {
+            throw IllegalArgumentException("The required precision 'eps' must be positive.")
+        }
+        A = DoubleArray(n * n)
+        diagonal = DoubleArray(n)
+        for (i in 0 until n) {
+            var sumOfRowWithoutDiagElem: Double = 0.0
+            for (j in 0 until n) {
+                val elem = inputA.getElem(i, j)
+                A[i * n + j] = elem
+                if (i != j) {
+                    sumOfRowWithoutDiagElem += abs(elem)
+                } else {
+                    diagonal[i] = elem
+                }
+            }
+            // Check the sufficient condition of the convergence of the Seidel method: must be diagonal dominance of the matrix inputA
+            if (sumOfRowWithoutDiagElem >= abs(diagonal[i])) {
+                throw IllegalArgumentException("The sufficient condition for the convergence of the Seidel method is not satisfied: there is no diagonal dominance of the matrix inputA.")
+            }
+        }
+        X = DoubleArray(n)
+        previous = DoubleArray(n)
+    }
+
+    constructor(inputA: Array<Array<Double>>, eps: Double? = null) : this(Matrix(inputA), eps)
+
+    /**
+     * Returns [n] - the size of the systems of the session, starting from 1.
+     *
+     * @return This method returns [n] of [Int] type value.
+     */
+    fun getN(): Int = this.n
+
+    /**
+     * Forgets the solution of the previous solving, so the next solving starts from the default initial approximation.
+     */
+    fun reset() {
+        warm = false
+    }
+
+    /**
+     * Solves the system with the matrix of the session by the Seidel method.
+     *
+     * Asymptotic complexity: O(n^2) per iteration.
+     *
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [initialApproximation] is the input initial approximation vector. If the user does not pass it,
+     * then the solution of the previous solving is used, or 'Xi = Bi / Aii' for the first solving and after [reset].
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a short solution.
+     *
+     * @return This method returns approximate solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector and array representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     */
+    fun solve(inputB: Vector, initialApproximation: Vector? = null, formSolution: Boolean = false): VectorResultWithStatus {
+        return try {
+            // Validation of the vector sizes
+            if (inputB.getN() != n) {
+                throw IllegalArgumentException("The size of 'inputA' matrix must match the size of 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+            } else if ((initialApproximation != null) && (initialApproximation.getN() != n)) {
+                throw IllegalArgumentException("The size of 'inputB' vector must match the size of 'initialApproximation' vector (the number of rows must be the same).")
+            }
+            runSolvingSystem(inputB.getData(), initialApproximation, formSolution)
+        } catch (e: Exception) {
+            // The approximation may be broken, so the next solving does not start from it
+            warm = false
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Solves the system with the matrix of the session by the Seidel method.
+     *
+     * @see solve
+     */
+    fun solve(inputB: Array<Double>, initialApproximation: Array<Double>? = null, formSolution: Boolean = false): VectorResultWithStatus =
+        solve(Vector(inputB), initialApproximation?.let { Vector(it) }, formSolution)
+
+    @Throws(ArithmeticException::class)
+    private fun runSolvingSystem(B: DoubleArray, initialApproximation: Vector?, formSolution: Boolean): VectorResultWithStatus {
+        var solutionString: String = ""
+        val solution: SeidelMethodSolution = SeidelMethodSolution()
+
+        if (initialApproximation != null) {
+            System.arraycopy(initialApproximation.getData(), 0, X, 0, n)
+            if (formSolution) solutionString += "The solving starts from the passed initial approximation.\n"
+        } else if (warm) {
+            if (formSolution) solutionString += "The solving starts from the solution of the previous solving.\n"
+        } else {
+            for (i in 0 until n) {
+                X[i] = B[i] / diagonal[i]
+            }
+            if (formSolution) solutionString += "The solving starts from the default initial approximation.\n"
+        }
+        warm = true
+        val machineEps: Double = getMachineEps()
+
+        var iterationsCounter = 0
+        var norm: Double
+        do {
+            System.arraycopy(X, 0, previous, 0, n)
+            for (i in 0 until n) {
+                var sum: Double = B[i]
+                val row = i * n
+                for (j in 0 until n) {
+                    if (j != i) {
+                        sum -= A[row + j] * X[j]
+                    }
+                }
+                X[i] = sum / diagonal[i]
+            }
+
+            norm = 0.0
+            var size = 0.0
+            for (i in 0 until n) {
+                norm += abs(X[i] - previous[i])
+                size += abs(X[i])
+            }
+            if (!norm.isFinite()) {
+                throw ArithmeticException("The norm of the difference of the approximations is not finite.")
+            }
+            iterationsCounter++
+            // The last bits of the approximation may change forever, so the iterations stop on the rounding level too
+        } while (norm > eps && norm > ROUNDING_FACTOR * machineEps * size)
+
+        val result: Array<Double> = X.toTypedArray()
+        if (formSolution) {
+            solutionString += "The norm is smaller than eps, required precision has achieved on the ${iterationsCounter} iteration.\n"
+            solutionString += "The approximate solution vector is ${getPretty1DDoubleArrayString(result)}.\n"
+            solution.solutionString = solutionString
+            solution.iterations = iterationsCounter
+        }
+
+        return VectorResultWithStatus(
+            Vector(X.copyOf()),
+            result,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = if (formSolution) solution else null,
+        )
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+// The stop conditions of the stationary iterative methods (Jacobi, Gauss-Seidel and SOR), which are shared by their implementations
+
+// The multiplier of the machine precision, which gives the rounding level of the norm of the difference of the approximations
+internal const val ROUNDING_FACTOR = 64.0
+
+// The default maximal count of the iterations is the size of the system multiplied by it, but not less than the minimum
+private const val DEFAULT_ITERATIONS_FACTOR = 100
+
+private const val MIN_DEFAULT_ITERATIONS = 1000
+
+// Returns the default maximal count of the iterations for the system of the size 'n'
+internal fun getDefaultIterationsLimit(n: Int): Int = maxOf(DEFAULT_ITERATIONS_FACTOR * n, MIN_DEFAULT_ITERATIONS)
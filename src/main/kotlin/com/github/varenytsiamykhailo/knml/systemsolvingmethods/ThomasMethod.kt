@@ -2,6 +2,7 @@ package com.github.varenytsiamykhailo.knml.systemsolvingmethods
 
 import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.ThomasMethodSolution
 import com.github.varenytsiamykhailo.knml.util.*
+import com.github.varenytsiamykhailo.knml.util.results.MatrixResultWithStatus
 import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
 
 /**
@@ -19,11 +20,23 @@ import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
  * But you yourself have to take care of the correctness of the input data.
  *
  * Use [solveSystemByThomasMethod] method to solve the tridiagonal system of linear equations.
+ * If the matrix is large, pass only its three diagonals in the primitive arrays to the overload with the band storage:
+ * it takes O(n) time and O(n) memory. Use [solveSystemsByThomasMethod] method to solve many independent systems at once
+ * and [solveSystemByParallelThomasMethod] method to split one very large system between the threads.
  *
  * **See Also:** [https://en.wikipedia.org/wiki/Tridiagonal_matrix_algorithm], [https://ru.wikipedia.org/wiki/Метод_прогонки]
  */
 class ThomasMethod {
 
+    companion object {
+        // The batch is swept in the tiles of the systems which coefficients of all the rows fit in the cache,
+        // so the backward sweep reads the coefficients computed by the forward sweep from the cache
+        private const val BATCH_TILE_BYTES = 1 shl 18
+
+        // The minimal count of the systems in the tile, the elems of one row of the tile fill the cache line
+        private const val MIN_BATCH_TILE = 8
+    }
+
     /**
      * Thomas method (tridiagonal matrix algorithm) implementation.
      *
@@ -108,6 +121,421 @@ class ThomasMethod {
         }
     }
 
+    /**
+     * Thomas method (tridiagonal matrix algorithm) implementation for the matrix in the band storage.
+     *
+     * The tridiagonal matrix A is passed by its three diagonals, so the matrix of any size is not allocated:
+     * A[i][i - 1] = lowerDiagonal[i - 1], A[i][i] = mainDiagonal[i], A[i][i + 1] = upperDiagonal[i].
+     * The input arrays are not modified.
+     *
+     * Asymptotic complexity: O(n), the method uses O(n) additional memory.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Tridiagonal_matrix_algorithm], [https://ru.wikipedia.org/wiki/Метод_прогонки]
+     *
+     * @param [lowerDiagonal] is the diagonal below the main diagonal of the matrix of the system, its size is n - 1.
+     * @param [mainDiagonal] is the main diagonal of the matrix of the system, its size is n.
+     * @param [upperDiagonal] is the diagonal above the main diagonal of the matrix of the system, its size is n - 1.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [formSolution] is the flag, that says that the method need to form a solution object with the text of a detailed solution.
+     *
+     * @return This method returns solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * This object also contains solution of vector representation, successful flag, error-exception object if unsuccess, and solution object if needed.
+     * The array representation is not formed to avoid boxing of every elem of the solution, use 'vectorResult.getData()' instead.
+     */
+    fun solveSystemByThomasMethod(
+        lowerDiagonal: DoubleArray,
+        mainDiagonal: DoubleArray,
+        upperDiagonal: DoubleArray,
+        inputB: DoubleArray,
+        formSolution: Boolean = false
+    ): VectorResultWithStatus {
+        return try {
+            runSolvingBandSystemByThomasMethod(
+                lowerDiagonal,
+                mainDiagonal,
+                upperDiagonal,
+                inputB,
+                formSolution
+            )
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    /**
+     * Batched Thomas method (tridiagonal matrix algorithm) implementation for many independent systems of the same size.
+     *
+     * The diagonals and the right sides of the systems are passed in the structure-of-arrays layout: the row 'i' of all the systems
+     * is stored contiguously, so the elem of the system 's' is located at the position 'i * count + s' of every array
+     * (it is the row-major [Matrix] of the size n x count, which column 's' belongs to the system 's'):
+     * A_s[i][i - 1] = lowerDiagonals[(i - 1) * count + s], A_s[i][i] = mainDiagonals[i * count + s], A_s[i][i + 1] = upperDiagonals[i * count + s].
+     *
+     * All the systems are swept together row by row, so the inner loop over the systems reads the contiguous elems and is vectorized by the JIT compiler.
+     * The systems are split into the tiles which coefficients fit in the cache, and the tiles are split between the threads
+     * of the [java.util.concurrent.ForkJoinPool.commonPool] if [parallel] is true. Every system is solved with the same arithmetic as by the single-system
+     * [solveSystemByThomasMethod] method, so the solutions are exactly the same. The input arrays are not modified (except [dest] if it is [inputB]).
+     *
+     * Asymptotic complexity: O(n * count / parallelism), the method uses O(n * count) additional memory.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Tridiagonal_matrix_algorithm], [https://en.wikipedia.org/wiki/Alternating-direction_implicit_method]
+     *
+     * @param [lowerDiagonals] are the diagonals below the main diagonals of the systems, the size of the array is (n - 1) * count.
+     * @param [mainDiagonals] are the main diagonals of the systems, the size of the array is n * count.
+     * @param [upperDiagonals] are the diagonals above the main diagonals of the systems, the size of the array is (n - 1) * count.
+     * @param [inputB] are the right sides of the systems, the size of the array is n * count.
+     * @param [count] is the count of the systems.
+     * @param [parallel] is the flag, that says that the systems are solved by all the available processors.
+     * @param [dest] is the array of the size n * count for the solutions in the same layout. It may be [inputB], then the right sides are replaced by the solutions.
+     *
+     * @return This method returns the solutions of the systems which are wrapped into [MatrixResultWithStatus] object:
+     * the column 's' of the n x count matrix, which shares the [dest] array, is the solution of the system 's'.
+     * The array representation is not formed to avoid boxing of every elem of the solutions.
+     */
+    fun solveSystemsByThomasMethod(
+        lowerDiagonals: DoubleArray,
+        mainDiagonals: DoubleArray,
+        upperDiagonals: DoubleArray,
+        inputB: DoubleArray,
+        count: Int,
+        parallel: Boolean = true,
+        dest: DoubleArray = DoubleArray(inputB.size)
+    ): MatrixResultWithStatus {
+        return try {
+            runSolvingBandSystemsByThomasMethod(lowerDiagonals, mainDiagonals, upperDiagonals, inputB, count, parallel, dest)
+        } catch (e: Exception) {
+            MatrixResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    @Throws(IllegalArgumentException::class)
+    private fun runSolvingBandSystemsByThomasMethod(
+        lowerDiagonals: DoubleArray,
+        mainDiagonals: DoubleArray,
+        upperDiagonals: DoubleArray,
+        inputB: DoubleArray,
+        count: Int,
+        parallel: Boolean,
+        dest: DoubleArray
+    ): MatrixResultWithStatus {
+
+        // Validation of the diagonals and vectors sizes
+        if (count <= 0) {
+            throw IllegalArgumentException("The count of the systems must be positive.")
+        } else if (mainDiagonals.isEmpty() || mainDiagonals.size % count != 0) {
+            throw IllegalArgumentException("The size of 'mainDiagonals' array must be the positive multiple of the count of the systems.")
+        }
+        val n: Int = mainDiagonals.size / count
+        if (lowerDiagonals.size != (n - 1) * count || upperDiagonals.size != (n - 1) * count) {
+            throw IllegalArgumentException("The size of 'lowerDiagonals' and 'upperDiagonals' arrays must be (n - 1) * count.")
+        } else if (inputB.size != n * count || dest.size != n * count) {
+            throw IllegalArgumentException("The size of 'inputB' and 'dest' arrays must match the size of 'mainDiagonals' array.")
+        }
+
+        val tile = minOf(maxOf(BATCH_TILE_BYTES / (n * 2 * java.lang.Double.BYTES) / MIN_BATCH_TILE * MIN_BATCH_TILE, MIN_BATCH_TILE), count)
+        val tiles = (count + tile - 1) / tile
+        val bounds = splitEvenly(tiles, minOf(getParallelBlockCount(n.toLong() * count, parallel), tiles))
+
+        forEachBlock(bounds) { _, tileFrom, tileTo ->
+            // The "alpha" coefficients of the tile, the "betta" coefficients are stored in 'dest' and replaced by the solutions
+            val alpha = DoubleArray(n * tile)
+            for (t in tileFrom until tileTo) {
+                val from = t * tile
+                val to = minOf(from + tile, count)
+
+                // Forward sweep
+                for (s in from until to) {
+                    val y = mainDiagonals[s]
+                    dest[s] = inputB[s] / y
+                    alpha[s - from] = if (n != 1) -upperDiagonals[s] / y else 0.0
+                }
+                for (i in 1 until n) {
+                    val row = i * count
+                    val previousRow = row - count
+                    val alphaRow = i * tile - from
+                    val previousAlphaRow = alphaRow - tile
+                    if (i != n - 1) {
+                        for (s in from until to) {
+                            val a = lowerDiagonals[previousRow + s]
+                            val y = mainDiagonals[row + s] + a * alpha[previousAlphaRow + s]
+                            dest[row + s] = (inputB[row + s] - a * dest[previousRow + s]) / y
+                            alpha[alphaRow + s] = -upperDiagonals[row + s] / y
+                        }
+                    } else { // For the last line, alpha is not needed
+                        for (s in from until to) {
+                            val a = lowerDiagonals[previousRow + s]
+                            val y = mainDiagonals[row + s] + a * alpha[previousAlphaRow + s]
+                            dest[row + s] = (inputB[row + s] - a * dest[previousRow + s]) / y
+                        }
+                    }
+                }
+
+                // Backward sweep
+                for (i in n - 2 downTo 0) {
+                    val row = i * count
+                    val nextRow = row + count
+                    val alphaRow = i * tile - from
+                    for (s in from until to) {
+                        dest[row + s] = alpha[alphaRow + s] * dest[nextRow + s] + dest[row + s]
+                    }
+                }
+            }
+        }
+
+        return MatrixResultWithStatus(
+            Matrix(n, count, dest),
+            null,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = null
+        )
+    }
+
+    /**
+     * Parallel partition method for the tridiagonal system in the band storage.
+     *
+     * The rows of the system are split into the partitions by the separator rows. The unknowns of every partition depend only on
+     * the unknowns of the two neighbouring separators, so the partitions are swept by the Thomas algorithm in parallel:
+     * the first parallel pass computes the dependence of the first and the last unknowns of every partition on the separators
+     * (the top-down and the bottom-up sweeps), the tridiagonal system of the separator unknowns is solved by the Thomas algorithm,
+     * and the second parallel pass sweeps every partition with the known separators.
+     * The partitions are computed in the [java.util.concurrent.ForkJoinPool.commonPool].
+     *
+     * The partitions are solved without pivoting, so the matrix must be, for example, diagonally dominant or symmetric positive definite.
+     * The result may differ from the result of [solveSystemByThomasMethod] by the rounding errors. With the single partition the method
+     * is the Thomas algorithm and the result is exactly the same.
+     *
+     * Asymptotic complexity: O(n / parallelism + partitionCount), the method uses O(n) additional memory.
+     *
+     * **See Also:** [https://en.wikipedia.org/wiki/Tridiagonal_matrix_algorithm], [https://en.wikipedia.org/wiki/Spike_algorithm]
+     *
+     * @param [lowerDiagonal] is the diagonal below the main diagonal of the matrix of the system, its size is n - 1.
+     * @param [mainDiagonal] is the main diagonal of the matrix of the system, its size is n.
+     * @param [upperDiagonal] is the diagonal above the main diagonal of the matrix of the system, its size is n - 1.
+     * @param [inputB] is the input vector of the right side of the system.
+     * @param [partitionCount] is the count of the partitions, every partition contains at least two rows.
+     * By default (if it is *0*) it depends on the size of the system and the count of the available processors.
+     *
+     * @return This method returns solution of the input system which is wrapped into [VectorResultWithStatus] object.
+     * The array representation is not formed to avoid boxing of every elem of the solution, use 'vectorResult.getData()' instead.
+     */
+    fun solveSystemByParallelThomasMethod(
+        lowerDiagonal: DoubleArray,
+        mainDiagonal: DoubleArray,
+        upperDiagonal: DoubleArray,
+        inputB: DoubleArray,
+        partitionCount: Int = 0
+    ): VectorResultWithStatus {
+        return try {
+            runSolvingBandSystemByPartitionMethod(lowerDiagonal, mainDiagonal, upperDiagonal, inputB, partitionCount)
+        } catch (e: Exception) {
+            VectorResultWithStatus(null, null, false, e, null)
+        }
+    }
+
+    @Throws(IllegalArgumentException::class)
+    private fun runSolvingBandSystemByPartitionMethod(
+        lowerDiagonal: DoubleArray,
+        mainDiagonal: DoubleArray,
+        upperDiagonal: DoubleArray,
+        inputB: DoubleArray,
+        partitionCount: Int
+    ): VectorResultWithStatus {
+        val n: Int = mainDiagonal.size
+        if (partitionCount < 0) {
+            throw IllegalArgumentException("The count of the partitions must not be negative.")
+        }
+
+        // Every partition contains the separator row and at least one row of the block, the last partition does not contain the separator
+        val partitions = minOf(if (partitionCount == 0) getParallelBlockCount(n.toLong(), true) else partitionCount, n / 2)
+        if (partitions <= 1) {
+            return runSolvingBandSystemByThomasMethod(lowerDiagonal, mainDiagonal, upperDiagonal, inputB, false)
+        }
+        if (lowerDiagonal.size != n - 1 || upperDiagonal.size != n - 1) {
+            throw IllegalArgumentException("The size of 'lowerDiagonal' and 'upperDiagonal' arrays must be less by one than the size of 'mainDiagonal' array.")
+        } else if (inputB.size != n) {
+            throw IllegalArgumentException("The size of 'mainDiagonal' array must match the 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+        }
+
+        // The block 'k' contains the rows from 'bounds[k] + 1' (from 0 for the first block) until 'bounds[k + 1]',
+        // the row 'bounds[k]' is the separator between the blocks 'k - 1' and 'k'
+        val bounds = splitEvenly(n, partitions)
+        val blockFrom = IntArray(partitions) { k -> if (k == 0) 0 else bounds[k] + 1 }
+
+        // The unknowns of the block are 'x = x0 - v * xLeft - w * xRight', where 'x0' is the solution of the block with zero separators,
+        // 'v' and 'w' are the solutions of the block with the elems of the matrix which couple it with the left and the right separators
+        val firstX = DoubleArray(partitions)
+        val lastX = DoubleArray(partitions)
+        val firstV = DoubleArray(partitions)
+        val lastV = DoubleArray(partitions)
+        val firstW = DoubleArray(partitions)
+        val lastW = DoubleArray(partitions)
+        val alpha = DoubleArray(n)
+
+        forEachBlock(IntArray(partitions + 1) { it }) { k, _, _ ->
+            val from = blockFrom[k]
+            val last = bounds[k + 1] - 1
+
+            // Top-down sweep, it gives the last unknown and the right spike 'w' which is non-zero only in the last row of the right side
+            var y = mainDiagonal[from]
+            var betta = inputB[from] / y
+            var alphaProduct = 1.0
+            for (i in from + 1..last) {
+                alpha[i - 1] = -upperDiagonal[i - 1] / y
+                alphaProduct *= alpha[i - 1]
+                y = mainDiagonal[i] + lowerDiagonal[i - 1] * alpha[i - 1]
+                betta = (inputB[i] - lowerDiagonal[i - 1] * betta) / y
+            }
+            lastX[k] = betta
+            if (k != partitions - 1) {
+                lastW[k] = upperDiagonal[last] / y
+                firstW[k] = lastW[k] * alphaProduct
+            }
+
+            // Bottom-up sweep, it gives the first unknown and the left spike 'v' which is non-zero only in the first row of the right side
+            var z = mainDiagonal[last]
+            var delta = inputB[last] / z
+            var gammaProduct = 1.0
+            for (i in last - 1 downTo from) {
+                val gamma = -lowerDiagonal[i] / z
+                gammaProduct *= gamma
+                z = mainDiagonal[i] + upperDiagonal[i] * gamma
+                delta = (inputB[i] - upperDiagonal[i] * delta) / z
+            }
+            firstX[k] = delta
+            if (k != 0) {
+                firstV[k] = lowerDiagonal[from - 1] / z
+                lastV[k] = firstV[k] * gammaProduct
+            }
+        }
+
+        // The system of the separator unknowns: the separator row with the substituted neighbouring unknowns of the blocks
+        val separators = partitions - 1
+        val separatorLower = DoubleArray(separators - 1)
+        val separatorMain = DoubleArray(separators)
+        val separatorUpper = DoubleArray(separators - 1)
+        val separatorB = DoubleArray(separators)
+        for (k in 1..separators) {
+            val s = bounds[k]
+            val a = lowerDiagonal[s - 1]
+            val c = upperDiagonal[s]
+            if (k > 1) separatorLower[k - 2] = -a * lastV[k - 1]
+            separatorMain[k - 1] = mainDiagonal[s] - a * lastW[k - 1] - c * firstV[k]
+            if (k < separators) separatorUpper[k - 1] = -c * firstW[k]
+            separatorB[k - 1] = inputB[s] - a * lastX[k - 1] - c * firstX[k]
+        }
+        val separatorX = runSolvingBandSystemByThomasMethod(separatorLower, separatorMain, separatorUpper, separatorB, false).vectorResult!!.getData()
+
+        // Thomas sweeps of the blocks with the known separators, the "alpha" coefficients of the first pass are reused
+        val ans = DoubleArray(n)
+        forEachBlock(IntArray(partitions + 1) { it }) { k, _, _ ->
+            val from = blockFrom[k]
+            val last = bounds[k + 1] - 1
+            val leftCoupling = if (k != 0) lowerDiagonal[from - 1] * separatorX[k - 1] else 0.0
+            val rightCoupling = if (k != partitions - 1) upperDiagonal[last] * separatorX[k] else 0.0
+
+            var y = mainDiagonal[from]
+            ans[from] = (inputB[from] - leftCoupling - (if (from == last) rightCoupling else 0.0)) / y
+            for (i in from + 1..last) {
+                y = mainDiagonal[i] + lowerDiagonal[i - 1] * alpha[i - 1]
+                val b = if (i == last) inputB[i] - rightCoupling else inputB[i]
+                ans[i] = (b - lowerDiagonal[i - 1] * ans[i - 1]) / y
+            }
+            for (i in last - 1 downTo from) {
+                ans[i] = alpha[i] * ans[i + 1] + ans[i]
+            }
+            if (k != partitions - 1) {
+                ans[last + 1] = separatorX[k]
+            }
+        }
+
+        return VectorResultWithStatus(
+            Vector(ans),
+            null,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = null
+        )
+    }
+
+    @Throws(IllegalArgumentException::class)
+    private fun runSolvingBandSystemByThomasMethod(
+        lowerDiagonal: DoubleArray,
+        mainDiagonal: DoubleArray,
+        upperDiagonal: DoubleArray,
+        inputB: DoubleArray,
+        formSolution: Boolean
+    ): VectorResultWithStatus {
+
+        var solutionString: String = ""
+        val solution: ThomasMethodSolution = ThomasMethodSolution()
+
+        if (formSolution) solutionString += "The fully system solving solution of the Thomas method.\nChecking the dimensions of the input diagonals and vector...\n"
+
+        val n: Int = mainDiagonal.size
+
+        // Validation of the diagonals and vector sizes
+        if (n == 0) {
+            throw IllegalArgumentException("The 'mainDiagonal' array must not be empty.")
+        } else if (lowerDiagonal.size != n - 1 || upperDiagonal.size != n - 1) {
+            throw IllegalArgumentException("The size of 'lowerDiagonal' and 'upperDiagonal' arrays must be less by one than the size of 'mainDiagonal' array.")
+        } else if (inputB.size != n) {
+            throw IllegalArgumentException("The size of 'mainDiagonal' array must match the 'inputB' vector (the number of matrix rows must match the number of vector rows).")
+        }
+
+        if (formSolution) solutionString += "The dimensions of the input data correspond to each other.\n"
+        if (formSolution) solutionString += "The dimension of the system is ${n}x${n}.\n"
+        if (formSolution) solutionString += "The Thomas's algorithm will perform forward and backward sweeps.\n"
+
+        // The "alpha" coefficients are stored in the separate array, the "betta" coefficients are stored in the array of the solution
+        // and are replaced by the elems of the solution during the backward sweep
+        val alpha = DoubleArray(n)
+        val ans = DoubleArray(n)
+
+        // Forward sweep
+        if (formSolution) solutionString += "Starting a forward sweep...\n"
+        for (i in 0 until n) {
+            val y: Double
+            if (i == 0) {
+                y = mainDiagonal[i]
+                ans[i] = inputB[i] / y
+            } else {
+                y = mainDiagonal[i] + lowerDiagonal[i - 1] * alpha[i - 1]
+                ans[i] = (inputB[i] - lowerDiagonal[i - 1] * ans[i - 1]) / y
+            }
+            alpha[i] = if (i != n - 1) { // For the last line, alpha is not needed
+                -upperDiagonal[i] / y
+            } else {
+                0.0
+            }
+        }
+
+        if (formSolution) {
+            solutionString += "Calculated alpha and betta coefficients for each matrix line are:\n"
+            for (i in 0 until n) {
+                solutionString += "For the line ${i + 1} alpha coefficient = ${alpha[i]}, betta coefficient = ${ans[i]}.\n"
+            }
+        }
+
+        // Backward sweep
+        if (formSolution) solutionString += "Starting a backward sweep...\n"
+        for (i in n - 2 downTo 0) {
+            ans[i] = alpha[i] * ans[i + 1] + ans[i]
+        }
+        if (formSolution) {
+            solutionString += "As a result of the backward sweep obtained solution vector:\n"
+            solutionString += "The solution vector is elems=[${ans.joinToString(" \t")}].\n"
+            solution.solutionString = solutionString
+        }
+
+        return VectorResultWithStatus(
+            Vector(ans),
+            null,
+            isSuccessful = true,
+            errorException = null,
+            solutionObject = if (formSolution) solution else null
+        )
+    }
+
     @Throws(IllegalArgumentException::class)
     private fun runSolvingSystemByThomasMethod(
         inputA: Array<Array<Double>>,
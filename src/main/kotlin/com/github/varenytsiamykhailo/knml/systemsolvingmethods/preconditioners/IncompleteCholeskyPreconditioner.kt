@@ -0,0 +1,137 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners
+
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.SparseMatrix
+import com.github.varenytsiamykhailo.knml.util.Vector
+import kotlin.math.sqrt
+
+/**
+ * Incomplete Cholesky IC(0) preconditioner implementation.
+ *
+ * The preconditioner matrix is 'M = L * L^T', where the lower triangular matrix L has the same non-zero elems
+ * as the lower triangular part of the matrix, and the elems of the Cholesky decomposition out of it are dropped.
+ * The factorization takes the memory of the lower part of the matrix, and the application of the preconditioner
+ * is the forward and the backward substitution. The substitutions are level scheduled: the unknowns, which do not depend
+ * on each other, are computed in parallel if [parallel] flag is set, and the result does not depend on the flag.
+ *
+ * The factorization may break down for the symmetric positive definite matrix, which is not an M-matrix.
+ * The [shift] adds 'shift * A_ii' to every diagonal elem before the factorization (the Manteuffel shift),
+ * which makes the factorization stable for the large enough shift.
+ *
+ * Only the lower triangular part of the matrix is used, the matrix must be symmetric.
+ *
+ * Asymptotic complexity: O(sum of the squares of the counts of the elems in the rows) for the factorization,
+ * O(nnz) per application, O(nnz / parallelism + count of the levels) for the parallel substitutions.
+ *
+ * @param [matrix] is the symmetric positive definite sparse matrix, all its diagonal elems must be stored.
+ * @param [shift] is the non-negative relative shift of the diagonal elems.
+ * @param [parallel] is the flag, that says that the substitutions are parallel.
+ * @constructor This constructor computes the factorization.
+ * @throws ArithmeticException if the factorization breaks down: the diagonal elem of L is not positive.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Incomplete_Cholesky_factorization]
+ */
+class IncompleteCholeskyPreconditioner(matrix: SparseMatrix, val shift: Double = 0.0, parallel: Boolean = false) : Preconditioner {
+
+    // The lower triangular factor, the diagonal elem is the last elem of every row
+    private val lower: CSRMatrix
+
+    private val lowerSolver: SparseTriangularSolver
+
+    // The transposed factor, the diagonal elem is the first elem of every row
+    private val upperSolver: SparseTriangularSolver
+
+    init {
+        require(shift >= 0.0) { "The shift must not be negative." }
+        val csr = matrix.toCSR()
+        val n = csr.getN()
+        require(n == csr.getM()) { "The size of the matrix must be square (the number of rows must match the number of columns)." }
+        val rowPointers = csr.getRowPointers()
+        val columnIndices = csr.getColumnIndices()
+        val values = csr.getValues()
+
+        // The pattern of L is the lower triangular part of the matrix
+        val lowerPointers = IntArray(n + 1)
+        for (i in 0 until n) {
+            var p = rowPointers[i]
+            while (p < rowPointers[i + 1] && columnIndices[p] <= i) {
+                p++
+            }
+            require(p > rowPointers[i] && columnIndices[p - 1] == i) { "The diagonal elements of the matrix must be stored." }
+            lowerPointers[i + 1] = lowerPointers[i] + (p - rowPointers[i])
+        }
+        val lowerIndices = IntArray(lowerPointers[n])
+        val lowerValues = DoubleArray(lowerPointers[n])
+        for (i in 0 until n) {
+            System.arraycopy(columnIndices, rowPointers[i], lowerIndices, lowerPointers[i], lowerPointers[i + 1] - lowerPointers[i])
+            System.arraycopy(values, rowPointers[i], lowerValues, lowerPointers[i], lowerPointers[i + 1] - lowerPointers[i])
+        }
+
+        // Row by row: 'L_ik = (A_ik - sum of L_ij * L_kj for j < k) / L_kk', the sum is over the common columns of the rows
+        for (i in 0 until n) {
+            val rowFrom = lowerPointers[i]
+            val diagonalPosition = lowerPointers[i + 1] - 1
+            for (p in rowFrom until diagonalPosition) {
+                val k = lowerIndices[p]
+                var sum = lowerValues[p]
+                var q = rowFrom
+                var s = lowerPointers[k]
+                val kDiagonalPosition = lowerPointers[k + 1] - 1
+                while (q < p && s < kDiagonalPosition) {
+                    val column = lowerIndices[q]
+                    val kColumn = lowerIndices[s]
+                    if (column == kColumn) {
+                        sum -= lowerValues[q] * lowerValues[s]
+                        q++
+                        s++
+                    } else if (column < kColumn) {
+                        q++
+                    } else {
+                        s++
+                    }
+                }
+                lowerValues[p] = sum / lowerValues[kDiagonalPosition]
+            }
+            var diagonal = lowerValues[diagonalPosition] * (1.0 + shift)
+            for (p in rowFrom until diagonalPosition) {
+                diagonal -= lowerValues[p] * lowerValues[p]
+            }
+            if (!(diagonal > 0.0)) {
+                throw ArithmeticException("The incomplete Cholesky factorization breaks down on the row $i: the matrix is not positive definite or the shift is too small.")
+            }
+            lowerValues[diagonalPosition] = sqrt(diagonal)
+        }
+
+        lower = CSRMatrix(n, n, lowerPointers, lowerIndices, lowerValues)
+        lowerSolver = SparseTriangularSolver(lower, lower = true, unitDiagonal = false, parallel = parallel)
+        upperSolver = SparseTriangularSolver(lower.transpose(), lower = false, unitDiagonal = false, parallel = parallel)
+    }
+
+    /**
+     * This constructor converts the dense matrix into the sparse matrix.
+     *
+     * @param [matrix] is the symmetric positive definite matrix. It may be a view or an off-heap matrix.
+     * @param [shift] is the non-negative relative shift of the diagonal elems.
+     * @param [parallel] is the flag, that says that the substitutions are parallel.
+     */
+    constructor(matrix: Matrix, shift: Double = 0.0, parallel: Boolean = false) : this(CSRMatrix(matrix), shift, parallel)
+
+    /**
+     * Returns the lower triangular factor L of the preconditioner 'M = L * L^T'.
+     *
+     * @return the lower triangular factor which is represented as [CSRMatrix] type.
+     */
+    fun getLowerTriangularMatrix(): CSRMatrix = lower
+
+    override fun getN(): Int = lower.getN()
+
+    override fun apply(r: Vector, z: Vector) {
+        val n = getN()
+        require(r.getN() == n && z.getN() == n) { "The size of the vectors must match the size of the preconditioner." }
+        require(r.getData() !== z.getData()) { "The 'z' vector must not share the storage with the 'r' vector." }
+        // L * y = r, L^T * z = y
+        lowerSolver.solve(r.getData(), z.getData())
+        upperSolver.solve(z.getData(), z.getData())
+    }
+}
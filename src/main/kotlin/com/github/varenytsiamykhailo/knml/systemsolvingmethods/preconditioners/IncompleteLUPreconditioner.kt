@@ -0,0 +1,276 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners
+
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.SparseMatrix
+import com.github.varenytsiamykhailo.knml.util.Vector
+import kotlin.math.abs
+import kotlin.math.sqrt
+
+/**
+ * Incomplete LU preconditioner implementation.
+ *
+ * The preconditioner matrix is 'M = L * U', where L is the unit lower triangular matrix and U is the upper triangular matrix
+ * of the incomplete LU decomposition of the matrix, which drops the elems of the exact decomposition:
+ *
+ * - ILU(0) (see [ilu0]) keeps only the elems at the positions of the non-zero elems of the matrix,
+ * so the factors take the memory of the matrix;
+ * - ILUT (see [ilut]) keeps the elems, which are not smaller than the drop tolerance multiplied by the norm of the row
+ * of the matrix, and at most the fill limit of the largest elems in every row of L and U, so the preconditioner
+ * is closer to the matrix for the smaller tolerance and the larger limit.
+ *
+ * The application of the preconditioner is the forward and the backward substitution. The substitutions are level scheduled:
+ * the unknowns, which do not depend on each other, are computed in parallel if the parallel flag is set,
+ * and the result does not depend on the flag.
+ *
+ * The matrix does not need to be symmetric, so the preconditioner is used by the [com.github.varenytsiamykhailo.knml.systemsolvingmethods.GMRESMethod]
+ * and the [com.github.varenytsiamykhailo.knml.systemsolvingmethods.BiCGSTABMethod].
+ *
+ * Asymptotic complexity: O(nnz) per application, O(nnz / parallelism + count of the levels) for the parallel substitutions.
+ *
+ * @see IncompleteCholeskyPreconditioner
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Incomplete_LU_factorization]
+ */
+class IncompleteLUPreconditioner private constructor(
+    private val lower: CSRMatrix,
+    private val upper: CSRMatrix,
+    parallel: Boolean
+) : Preconditioner {
+
+    private val lowerSolver = SparseTriangularSolver(lower, lower = true, unitDiagonal = true, parallel = parallel)
+    private val upperSolver = SparseTriangularSolver(upper, lower = false, unitDiagonal = false, parallel = parallel)
+
+    companion object {
+        /**
+         * Computes the ILU(0) decomposition: the factors have the same non-zero elems as the matrix.
+         *
+         * Asymptotic complexity: O(sum of the products of the counts of the elems in the rows of L and U)
+         *
+         * @param [matrix] is the square sparse matrix, all its diagonal elems must be stored.
+         * @param [parallel] is the flag, that says that the substitutions are parallel.
+         *
+         * @return the preconditioner which is represented as [IncompleteLUPreconditioner] type.
+         * @throws ArithmeticException if the diagonal elem of U is zero.
+         */
+        @JvmStatic
+        fun ilu0(matrix: SparseMatrix, parallel: Boolean = false): IncompleteLUPreconditioner {
+            val csr = matrix.toCSR()
+            val n = csr.getN()
+            require(n == csr.getM()) { "The size of the matrix must be square (the number of rows must match the number of columns)." }
+            val rowPointers = csr.getRowPointers()
+            val columnIndices = csr.getColumnIndices()
+            val values = csr.getValues().copyOf()
+
+            val diagonalPositions = IntArray(n) { i ->
+                var p = rowPointers[i]
+                while (p < rowPointers[i + 1] && columnIndices[p] < i) {
+                    p++
+                }
+                require(p < rowPointers[i + 1] && columnIndices[p] == i) { "The diagonal elements of the matrix must be stored." }
+                p
+            }
+
+            // The IKJ variant of the Gaussian elimination, which updates only the stored elems of the row 'i'
+            val positions = IntArray(n) { -1 }
+            for (i in 0 until n) {
+                for (p in rowPointers[i] until rowPointers[i + 1]) {
+                    positions[columnIndices[p]] = p
+                }
+                for (p in rowPointers[i] until diagonalPositions[i]) {
+                    val k = columnIndices[p]
+                    values[p] /= values[diagonalPositions[k]]
+                    val factor = values[p]
+                    for (q in diagonalPositions[k] + 1 until rowPointers[k + 1]) {
+                        val position = positions[columnIndices[q]]
+                        if (position != -1) {
+                            values[position] -= factor * values[q]
+                        }
+                    }
+                }
+                for (p in rowPointers[i] until rowPointers[i + 1]) {
+                    positions[columnIndices[p]] = -1
+                }
+                checkPivot(i, values[diagonalPositions[i]])
+            }
+
+            val lower = RowsBuilder(n)
+            val upper = RowsBuilder(n)
+            for (i in 0 until n) {
+                for (p in rowPointers[i] until diagonalPositions[i]) {
+                    lower.add(columnIndices[p], values[p])
+                }
+                for (p in diagonalPositions[i] until rowPointers[i + 1]) {
+                    upper.add(columnIndices[p], values[p])
+                }
+                lower.endRow()
+                upper.endRow()
+            }
+            return IncompleteLUPreconditioner(lower.build(), upper.build(), parallel)
+        }
+
+        /**
+         * Computes the ILUT decomposition with the threshold dropping.
+         *
+         * The elem of the row 'i' is dropped if its absolute value is smaller than [dropTolerance] multiplied by
+         * the euclidean norm of the row 'i' of the matrix, and only [fillLimit] of the largest elems of the row
+         * are kept in L and in U, the diagonal elem of U is always kept.
+         *
+         * Asymptotic complexity: O(n * (fillLimit + count of the elems in the row)^2) in the worst case.
+         *
+         * @param [matrix] is the square sparse matrix.
+         * @param [dropTolerance] is the non-negative relative drop tolerance, 1e-4 by default.
+         * @param [fillLimit] is the positive maximal count of the elems of every row of L and U except the diagonal, 20 by default.
+         * @param [parallel] is the flag, that says that the substitutions are parallel.
+         *
+         * @return the preconditioner which is represented as [IncompleteLUPreconditioner] type.
+         * @throws ArithmeticException if the diagonal elem of U is zero.
+         */
+        @JvmStatic
+        fun ilut(matrix: SparseMatrix, dropTolerance: Double = 1e-4, fillLimit: Int = 20, parallel: Boolean = false): IncompleteLUPreconditioner {
+            require(dropTolerance >= 0.0) { "The drop tolerance must not be negative." }
+            require(fillLimit > 0) { "The fill limit must be positive." }
+            val csr = matrix.toCSR()
+            val n = csr.getN()
+            require(n == csr.getM()) { "The size of the matrix must be square (the number of rows must match the number of columns)." }
+            val rowPointers = csr.getRowPointers()
+            val columnIndices = csr.getColumnIndices()
+            val values = csr.getValues()
+
+            val lower = RowsBuilder(n)
+            val upper = RowsBuilder(n)
+            // The dense work row with the list of its non-zero columns
+            val work = DoubleArray(n)
+            val markers = IntArray(n) { -1 }
+            var columns = IntArray(16)
+            for (i in 0 until n) {
+                var count = 0
+                var norm = 0.0
+                for (p in rowPointers[i] until rowPointers[i + 1]) {
+                    val j = columnIndices[p]
+                    if (count == columns.size) columns = columns.copyOf(count * 2)
+                    columns[count++] = j
+                    markers[j] = i
+                    work[j] = values[p]
+                    norm += values[p] * values[p]
+                }
+                val tolerance = dropTolerance * sqrt(norm)
+
+                // The columns of L are eliminated in the increasing order, the fill-in may add the new columns
+                var last = -1
+                while (true) {
+                    var k = i
+                    for (c in 0 until count) {
+                        val j = columns[c]
+                        if (j in (last + 1) until k) {
+                            k = j
+                        }
+                    }
+                    if (k == i) {
+                        break
+                    }
+                    last = k
+                    val upperRowFrom = upper.getRowStart(k)
+                    val upperRowTo = upper.getRowStart(k + 1)
+                    work[k] /= upper.values[upperRowFrom]
+                    val factor = work[k]
+                    if (abs(factor) < tolerance || factor == 0.0) {
+                        work[k] = 0.0
+                        continue
+                    }
+                    for (q in upperRowFrom + 1 until upperRowTo) {
+                        val j = upper.indices[q]
+                        if (markers[j] != i) {
+                            if (count == columns.size) columns = columns.copyOf(count * 2)
+                            columns[count++] = j
+                            markers[j] = i
+                            work[j] = 0.0
+                        }
+                        work[j] -= factor * upper.values[q]
+                    }
+                }
+
+                val diagonal = if (markers[i] == i) work[i] else 0.0
+                checkPivot(i, diagonal)
+                lower.addLargest(columns, count, work, tolerance, fillLimit) { j -> j < i }
+                upper.add(i, diagonal)
+                upper.addLargest(columns, count, work, tolerance, fillLimit) { j -> j > i }
+                lower.endRow()
+                upper.endRow()
+                for (c in 0 until count) {
+                    work[columns[c]] = 0.0
+                }
+            }
+            return IncompleteLUPreconditioner(lower.build(), upper.build(), parallel)
+        }
+
+        private fun checkPivot(i: Int, pivot: Double) {
+            if (pivot == 0.0 || !pivot.isFinite()) {
+                throw ArithmeticException("The incomplete LU decomposition breaks down on the row $i: the diagonal element of U is zero.")
+            }
+        }
+    }
+
+    /**
+     * Returns the strictly lower triangular part of the unit lower triangular factor L, the unit diagonal is not stored.
+     *
+     * @return the strictly lower triangular part of L which is represented as [CSRMatrix] type.
+     */
+    fun getLowerTriangularMatrix(): CSRMatrix = lower
+
+    /**
+     * Returns the upper triangular factor U.
+     *
+     * @return the upper triangular factor which is represented as [CSRMatrix] type.
+     */
+    fun getUpperTriangularMatrix(): CSRMatrix = upper
+
+    override fun getN(): Int = upper.getN()
+
+    override fun apply(r: Vector, z: Vector) {
+        val n = getN()
+        require(r.getN() == n && z.getN() == n) { "The size of the vectors must match the size of the preconditioner." }
+        require(r.getData() !== z.getData()) { "The 'z' vector must not share the storage with the 'r' vector." }
+        // L * y = r, U * z = y
+        lowerSolver.solve(r.getData(), z.getData())
+        upperSolver.solve(z.getData(), z.getData())
+    }
+
+    // Builds the CSR arrays of the factor row by row, the elems of every row are added in the increasing order of the columns
+    private class RowsBuilder(private val n: Int) {
+        private val pointers = IntArray(n + 1)
+        private var rowCount = 0
+        var indices = IntArray(16)
+        var values = DoubleArray(16)
+        private var size = 0
+
+        fun getRowStart(row: Int): Int = if (row == rowCount) size else pointers[row]
+
+        fun add(column: Int, value: Double) {
+            if (size == indices.size) {
+                indices = indices.copyOf(size * 2)
+                values = values.copyOf(size * 2)
+            }
+            indices[size] = column
+            values[size] = value
+            size++
+        }
+
+        // Adds at most 'limit' of the largest elems of the work row, which are not smaller than the tolerance and match the filter
+        fun addLargest(columns: IntArray, count: Int, work: DoubleArray, tolerance: Double, limit: Int, filter: (Int) -> Boolean) {
+            val kept = (0 until count).map { columns[it] }
+                .filter { j -> filter(j) && work[j] != 0.0 && abs(work[j]) >= tolerance }
+                .sortedByDescending { j -> abs(work[j]) }
+                .take(limit)
+                .sorted()
+            for (j in kept) {
+                add(j, work[j])
+            }
+        }
+
+        fun endRow() {
+            pointers[++rowCount] = size
+        }
+
+        fun build(): CSRMatrix = CSRMatrix(n, n, pointers, indices.copyOf(size), values.copyOf(size))
+    }
+}
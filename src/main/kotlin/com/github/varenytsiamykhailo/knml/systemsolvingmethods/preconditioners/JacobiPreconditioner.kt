@@ -0,0 +1,66 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners
+
+import com.github.varenytsiamykhailo.knml.util.LinearOperator
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.SparseMatrix
+import com.github.varenytsiamykhailo.knml.util.Vector
+
+/**
+ * Jacobi (diagonal) preconditioner implementation.
+ *
+ * The preconditioner matrix is the diagonal of the matrix of the system: 'z_i = r_i / A_ii'.
+ * It is the cheapest preconditioner, which equalizes the scales of the rows of the system.
+ *
+ * Asymptotic complexity: O(n) per application.
+ *
+ * @param [diagonal] is the array of the diagonal elems of the matrix, all of them must not be zero.
+ * @constructor This constructor copies the diagonal elems.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Preconditioner#Jacobi_(or_diagonal)_preconditioner]
+ */
+class JacobiPreconditioner(diagonal: DoubleArray) : Preconditioner {
+
+    private val inverseDiagonal: DoubleArray = DoubleArray(diagonal.size) { i ->
+        require(diagonal[i] != 0.0) { "The diagonal elements of the matrix must not be zero." }
+        1.0 / diagonal[i]
+    }
+
+    /**
+     * This constructor takes the diagonal of the dense matrix.
+     *
+     * @param [matrix] is the square matrix. It may be a view or an off-heap matrix.
+     */
+    constructor(matrix: Matrix) : this(getDiagonal(matrix.getN(), matrix.getM()) { i -> matrix.getElem(i, i) })
+
+    /**
+     * This constructor takes the diagonal of the sparse matrix.
+     *
+     * @param [matrix] is the square sparse matrix.
+     */
+    constructor(matrix: SparseMatrix) : this(getDiagonal(matrix.getN(), matrix.getM()) { i -> matrix.getElem(i, i) })
+
+    /**
+     * This constructor takes the diagonal of the linear operator.
+     *
+     * @param [operator] is the linear operator.
+     */
+    constructor(operator: LinearOperator) : this(operator.getDiagonal().getData())
+
+    private companion object {
+        fun getDiagonal(n: Int, m: Int, elem: (Int) -> Double): DoubleArray {
+            require(n == m) { "The size of the matrix must be square (the number of rows must match the number of columns)." }
+            return DoubleArray(n, elem)
+        }
+    }
+
+    override fun getN(): Int = inverseDiagonal.size
+
+    override fun apply(r: Vector, z: Vector) {
+        require(r.getN() == getN() && z.getN() == getN()) { "The size of the vectors must match the size of the preconditioner." }
+        val rElems = r.getData()
+        val zElems = z.getData()
+        for (i in inverseDiagonal.indices) {
+            zElems[i] = rElems[i] * inverseDiagonal[i]
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners
+
+import com.github.varenytsiamykhailo.knml.util.Vector
+
+/**
+ * Preconditioner of the iterative methods.
+ *
+ * The preconditioner is the matrix M, which is close to the matrix A of the system, but the system 'M * z = r'
+ * is much cheaper to solve. The iterative method solves the system with the matrix 'M^-1 * A', which has
+ * the smaller condition number, so the method needs much fewer iterations.
+ *
+ * The symmetric positive definite preconditioner is required by the conjugate gradient method.
+ *
+ * @see JacobiPreconditioner
+ * @see SSORPreconditioner
+ * @see IncompleteCholeskyPreconditioner
+ * @see IncompleteLUPreconditioner
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Preconditioner]
+ */
+interface Preconditioner {
+
+    /**
+     * The side of the preconditioning of the non-symmetric methods.
+     *
+     * The left preconditioning solves the system 'M^-1 * A * x = M^-1 * b', so the method measures the norm
+     * of the preconditioned residual 'M^-1 * (b - A * x)'. The right preconditioning solves the system
+     * 'A * M^-1 * u = b' with 'x = M^-1 * u', so the method measures the norm of the true residual.
+     */
+    enum class Side {
+        LEFT,
+        RIGHT
+    }
+
+    /**
+     * Returns n - the size of the preconditioner matrix, starting from 1.
+     *
+     * @return This method returns n of [Int] type value.
+     */
+    fun getN(): Int
+
+    /**
+     * Applies the preconditioner: solves the system 'M * z = r'.
+     *
+     * @param [r] is the input vector of the size [getN], it is not changed.
+     * @param [z] is the output vector of the size [getN]. It must not be the [r] vector.
+     */
+    fun apply(r: Vector, z: Vector)
+}
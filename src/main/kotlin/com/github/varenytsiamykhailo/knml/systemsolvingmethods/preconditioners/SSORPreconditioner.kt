@@ -0,0 +1,100 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners
+
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.SparseMatrix
+import com.github.varenytsiamykhailo.knml.util.Vector
+
+/**
+ * Symmetric successive over-relaxation (SSOR) preconditioner implementation.
+ *
+ * The preconditioner matrix is 'M = omega / (2 - omega) * (D / omega + L) * (D / omega)^-1 * (D / omega + U)',
+ * where D, L and U are the diagonal, the strictly lower and the strictly upper triangular parts of the matrix.
+ * The application of the preconditioner is one forward and one backward SOR sweep, so it takes
+ * the time of one multiplication by the matrix and does not need the memory except the matrix.
+ * The preconditioner is symmetric positive definite for the symmetric positive definite matrix and '0 < omega < 2',
+ * 'omega = 1' is the symmetric Gauss-Seidel preconditioner.
+ *
+ * Asymptotic complexity: O(nnz) per application.
+ *
+ * @param [matrix] is the square sparse matrix, all its diagonal elems must be stored and not zero.
+ * @param [omega] is the relaxation parameter from 0 to 2 (exclusive).
+ * @constructor This constructor uses the arrays of the matrix without copying, so the changes of the matrix values
+ * are reflected in the preconditioner.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Symmetric_successive_over-relaxation]
+ */
+class SSORPreconditioner(matrix: SparseMatrix, private val omega: Double = 1.0) : Preconditioner {
+
+    private val matrix: CSRMatrix = matrix.toCSR()
+
+    // The position of the diagonal elem of every row, the elems before it are in the lower part of the matrix
+    private val diagonalPositions: IntArray
+
+    init {
+        require(omega > 0.0 && omega < 2.0) { "The relaxation parameter 'omega' must be from 0 to 2 (exclusive)." }
+        val csr = this.matrix
+        require(csr.getN() == csr.getM()) { "The size of the matrix must be square (the number of rows must match the number of columns)." }
+        val rowPointers = csr.getRowPointers()
+        val columnIndices = csr.getColumnIndices()
+        val values = csr.getValues()
+        diagonalPositions = IntArray(csr.getN()) { i ->
+            var p = rowPointers[i]
+            while (p < rowPointers[i + 1] && columnIndices[p] < i) {
+                p++
+            }
+            require(p < rowPointers[i + 1] && columnIndices[p] == i && values[p] != 0.0) {
+                "The diagonal elements of the matrix must not be zero."
+            }
+            p
+        }
+    }
+
+    /**
+     * This constructor converts the dense matrix into the sparse matrix.
+     *
+     * @param [matrix] is the square matrix. It may be a view or an off-heap matrix.
+     * @param [omega] is the relaxation parameter from 0 to 2 (exclusive).
+     */
+    constructor(matrix: Matrix, omega: Double = 1.0) : this(CSRMatrix(matrix), omega)
+
+    override fun getN(): Int = matrix.getN()
+
+    override fun apply(r: Vector, z: Vector) {
+        val n = getN()
+        require(r.getN() == n && z.getN() == n) { "The size of the vectors must match the size of the preconditioner." }
+        require(r.getData() !== z.getData()) { "The 'z' vector must not share the storage with the 'r' vector." }
+        val rowPointers = matrix.getRowPointers()
+        val columnIndices = matrix.getColumnIndices()
+        val values = matrix.getValues()
+        val rElems = r.getData()
+        val zElems = z.getData()
+
+        // Forward sweep: (D / omega + L) * y = r, then y = D / omega * y
+        for (i in 0 until n) {
+            var sum = rElems[i]
+            val diagonalPosition = diagonalPositions[i]
+            for (p in rowPointers[i] until diagonalPosition) {
+                sum -= values[p] * zElems[columnIndices[p]]
+            }
+            zElems[i] = sum * omega / values[diagonalPosition]
+        }
+        for (i in 0 until n) {
+            zElems[i] *= values[diagonalPositions[i]] / omega
+        }
+
+        // Backward sweep: (D / omega + U) * z = y, then z = (2 - omega) / omega * z
+        val scale = (2.0 - omega) / omega
+        for (i in n - 1 downTo 0) {
+            var sum = zElems[i]
+            val diagonalPosition = diagonalPositions[i]
+            for (p in diagonalPosition + 1 until rowPointers[i + 1]) {
+                sum -= values[p] * zElems[columnIndices[p]]
+            }
+            zElems[i] = sum * omega / values[diagonalPosition]
+        }
+        for (i in 0 until n) {
+            zElems[i] *= scale
+        }
+    }
+}
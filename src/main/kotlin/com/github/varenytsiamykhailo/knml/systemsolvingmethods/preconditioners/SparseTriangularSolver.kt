@@ -0,0 +1,109 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners
+
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.forEachBlock
+import com.github.varenytsiamykhailo.knml.util.getParallelBlockCount
+import com.github.varenytsiamykhailo.knml.util.splitEvenly
+
+// The forward or the backward substitution by the sparse triangular matrix with the level scheduling.
+// The level of the row is the length of the longest chain of the rows, which its unknown depends on, so the unknowns
+// of one level depend only on the unknowns of the previous levels and are computed in parallel. Every unknown
+// is computed by a single block in the same order of its elems, so the result does not depend on the parallel flag.
+//
+// The lower triangular matrix stores the diagonal elem as the last elem of every row, or does not store it
+// if the diagonal is unit. The upper triangular matrix stores the diagonal elem as the first elem of every row.
+internal class SparseTriangularSolver(
+    private val matrix: CSRMatrix,
+    private val lower: Boolean,
+    private val unitDiagonal: Boolean,
+    parallel: Boolean
+) {
+
+    // The rows of the level 'l' are 'rows[levelPointers[l] until levelPointers[l + 1]]'
+    private val levelPointers: IntArray
+    private val rows: IntArray
+
+    // The blocks of the rows of every level
+    private val bounds: Array<IntArray>
+
+    init {
+        val n = matrix.getN()
+        val rowPointers = matrix.getRowPointers()
+        val columnIndices = matrix.getColumnIndices()
+
+        val levels = IntArray(n)
+        var levelCount = 0
+        for (step in 0 until n) {
+            val i = if (lower) step else n - 1 - step
+            var level = 0
+            for (p in rowPointers[i] until rowPointers[i + 1]) {
+                val j = columnIndices[p]
+                if (j != i) {
+                    level = maxOf(level, levels[j] + 1)
+                }
+            }
+            levels[i] = level
+            levelCount = maxOf(levelCount, level + 1)
+        }
+
+        levelPointers = IntArray(levelCount + 1)
+        for (level in levels) {
+            levelPointers[level + 1]++
+        }
+        for (l in 0 until levelCount) {
+            levelPointers[l + 1] += levelPointers[l]
+        }
+        rows = IntArray(n)
+        val positions = levelPointers.copyOf()
+        for (step in 0 until n) {
+            val i = if (lower) step else n - 1 - step
+            rows[positions[levels[i]]++] = i
+        }
+
+        bounds = Array(levelCount) { l ->
+            val from = levelPointers[l]
+            val to = levelPointers[l + 1]
+            var work = 0L
+            for (r in from until to) {
+                work += rowPointers[rows[r] + 1] - rowPointers[rows[r]]
+            }
+            splitEvenly(to - from, getParallelBlockCount(work, parallel))
+        }
+    }
+
+    fun getLevelCount(): Int = bounds.size
+
+    // Solves the system with the right side 'b' into 'x', 'x' may be 'b'
+    fun solve(b: DoubleArray, x: DoubleArray) {
+        val rowPointers = matrix.getRowPointers()
+        val columnIndices = matrix.getColumnIndices()
+        val values = matrix.getValues()
+        for (l in bounds.indices) {
+            val first = levelPointers[l]
+            forEachBlock(bounds[l]) { _, from, to ->
+                for (r in first + from until first + to) {
+                    val i = rows[r]
+                    var sum = b[i]
+                    if (unitDiagonal) {
+                        for (p in rowPointers[i] until rowPointers[i + 1]) {
+                            sum -= values[p] * x[columnIndices[p]]
+                        }
+                        x[i] = sum
+                    } else if (lower) {
+                        val diagonalPosition = rowPointers[i + 1] - 1
+                        for (p in rowPointers[i] until diagonalPosition) {
+                            sum -= values[p] * x[columnIndices[p]]
+                        }
+                        x[i] = sum / values[diagonalPosition]
+                    } else {
+                        val diagonalPosition = rowPointers[i]
+                        for (p in diagonalPosition + 1 until rowPointers[i + 1]) {
+                            sum -= values[p] * x[columnIndices[p]]
+                        }
+                        x[i] = sum / values[diagonalPosition]
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions
+
+import com.github.varenytsiamykhailo.knml.util.Solution
+
+class ConjugateGradientMethodSolution internal constructor() : Solution {
+
+    override var solutionString: String = ""
+    override var iterations: Int = 0
+
+    // The euclidean norms of the residual 'B - A * X' of the initial approximation and of every iteration
+    var residualNorms: DoubleArray = DoubleArray(0)
+        internal set
+
+}
@@ -0,0 +1,18 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions
+
+import com.github.varenytsiamykhailo.knml.util.Solution
+
+class GMRESMethodSolution internal constructor() : Solution {
+
+    override var solutionString: String = ""
+    override var iterations: Int = 0
+
+    // The count of the restarts of the method
+    var restarts: Int = 0
+        internal set
+
+    // The euclidean norms of the (preconditioned for the left preconditioning) residual of the initial approximation and of every iteration
+    var residualNorms: DoubleArray = DoubleArray(0)
+        internal set
+
+}
@@ -0,0 +1,14 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions
+
+import com.github.varenytsiamykhailo.knml.util.Solution
+
+class MultigridMethodSolution internal constructor() : Solution {
+
+    override var solutionString: String = ""
+    override var iterations: Int = 0 // the count of the cycles
+
+    // The euclidean norms of the residual 'B - A * X' of the initial approximation and of every cycle
+    var residualNorms: DoubleArray = DoubleArray(0)
+        internal set
+
+}
@@ -0,0 +1,171 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.channels.FileChannel
+
+/**
+ * Binary matrix file format implementation.
+ *
+ * The file consists of the header of [HEADER_SIZE] bytes and the elems of the matrix. All the values are little-endian.
+ *
+ * | Offset | Size | Value                                                  |
+ * |--------|------|--------------------------------------------------------|
+ * | 0      | 4    | the magic bytes 'KNML'                                 |
+ * | 4      | 4    | the version of the format, [VERSION]                   |
+ * | 8      | 8    | n - the count of rows                                  |
+ * | 16     | 8    | m - the count of columns                               |
+ * | 24     | 4    | the type of the elems, [DTYPE_FLOAT64] (IEEE 754 double) |
+ * | 28     | 4    | the layout of the elems, see [Layout]                  |
+ * | 32     | 8*n*m | the elems of the matrix in the layout order           |
+ *
+ * Use [write] method to write the matrix into the file and [map] method to open the file as the read-only
+ * [OffHeapMatrix] without reading it: the file is mapped into the memory by [FileChannel.map], so the matrix
+ * of any size is opened immediately and the elems are loaded by the operating system on the first access.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Memory-mapped_file]
+ */
+class BinaryMatrixFile {
+
+    /**
+     * The order of the elems of the matrix in the file.
+     */
+    enum class Layout(val code: Int) {
+        /** The elems are stored row by row. */
+        RowMajor(0),
+
+        /** The elems are stored column by column. */
+        ColumnMajor(1)
+    }
+
+    companion object {
+        /** The size of the header in bytes, the elems start at this offset. */
+        const val HEADER_SIZE: Int = 32
+
+        /** The version of the format. */
+        const val VERSION: Int = 1
+
+        /** The code of the 64-bit IEEE 754 floating point type of the elems. */
+        const val DTYPE_FLOAT64: Int = 1
+
+        private val MAGIC: ByteArray = byteArrayOf('K'.code.toByte(), 'N'.code.toByte(), 'M'.code.toByte(), 'L'.code.toByte())
+
+        private const val WRITE_BUFFER_SIZE = 1 shl 16
+    }
+
+    /**
+     * Writes the matrix into the file in the binary format.
+     *
+     * @param [matrix] is the matrix to write. It may be a heap or an off-heap matrix.
+     * @param [file] is the output file. It is overwritten if it exists.
+     * @param [layout] is the order of the elems in the file. By default it is [Layout.RowMajor].
+     *
+     * Asymptotic complexity: O(n * m)
+     */
+    @Throws(IOException::class)
+    fun write(matrix: Matrix, file: File, layout: Layout = Layout.RowMajor) {
+        val n = matrix.getN()
+        val m = matrix.getM()
+
+        RandomAccessFile(file, "rw").use { raf ->
+            raf.setLength(0)
+            val channel = raf.channel
+            val buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+
+            buffer.put(MAGIC)
+            buffer.putInt(VERSION)
+            buffer.putLong(n.toLong())
+            buffer.putLong(m.toLong())
+            buffer.putInt(DTYPE_FLOAT64)
+            buffer.putInt(layout.code)
+
+            val outer = if (layout == Layout.RowMajor) n else m
+            val inner = if (layout == Layout.RowMajor) m else n
+            for (i in 0 until outer) {
+                for (j in 0 until inner) {
+                    if (buffer.remaining() < java.lang.Double.BYTES) {
+                        flush(channel, buffer)
+                    }
+                    buffer.putDouble(if (layout == Layout.RowMajor) matrix.getElem(i, j) else matrix.getElem(j, i))
+                }
+            }
+            flush(channel, buffer)
+        }
+    }
+
+    /**
+     * Opens the file in the binary format as the read-only matrix without reading it.
+     *
+     * The file is mapped into the memory in the chunks of [chunkSize] elems, no elems are copied.
+     * The returned matrix must be closed to unmap the file, the file can be changed or deleted only after that
+     * on some operating systems. The file must not be changed while it is mapped.
+     *
+     * @param [file] is the input file.
+     * @param [chunkSize] is the count of elems in one mapped buffer, must be the power of two not greater than [OffHeapMatrix.MAX_CHUNK_SIZE].
+     *
+     * @return the read-only [OffHeapMatrix] which elems are the elems of the file.
+     * @throws IllegalArgumentException if the file is not in the binary matrix format.
+     *
+     * Asymptotic complexity: O(n * m / chunkSize)
+     */
+    @Throws(IOException::class)
+    fun map(file: File, chunkSize: Int = OffHeapMatrix.DEFAULT_CHUNK_SIZE): OffHeapMatrix {
+        OffHeapStorage.checkChunkSize(chunkSize)
+
+        RandomAccessFile(file, "r").use { raf ->
+            val channel = raf.channel
+            val header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+            while (header.hasRemaining()) {
+                require(channel.read(header) >= 0) { "The file '$file' is too small for the header of the binary matrix format." }
+            }
+            header.flip()
+
+            val magic = ByteArray(MAGIC.size)
+            header.get(magic)
+            require(magic.contentEquals(MAGIC)) { "The file '$file' is not in the binary matrix format." }
+            val version = header.int
+            require(version == VERSION) { "The version $version of the binary matrix format is not supported." }
+            val n = header.long
+            val m = header.long
+            require(n in 0..Int.MAX_VALUE && m in 0..Int.MAX_VALUE) { "The size ${n}x${m} of the matrix is not supported." }
+            val dtype = header.int
+            require(dtype == DTYPE_FLOAT64) { "The type $dtype of the elems is not supported." }
+            val layoutCode = header.int
+            val layout = Layout.values().firstOrNull { it.code == layoutCode }
+                ?: throw IllegalArgumentException("The layout $layoutCode of the elems is not supported.")
+
+            // The size in bytes and the count of the chunks of the hostile header must not overflow
+            val size = n * m
+            require(size <= (Long.MAX_VALUE - HEADER_SIZE) / java.lang.Double.BYTES && (size + chunkSize - 1) / chunkSize <= Int.MAX_VALUE) {
+                "The size ${n}x${m} of the matrix is not supported."
+            }
+            require(channel.size() >= HEADER_SIZE + size * java.lang.Double.BYTES) { "The file '$file' is too small for the ${n}x${m} matrix." }
+
+            // The mapped buffers stay valid after the channel is closed
+            val chunkCount = ((size + chunkSize - 1) / chunkSize).toInt()
+            val buffers = Array(chunkCount) { i ->
+                val position = HEADER_SIZE + i.toLong() * chunkSize * java.lang.Double.BYTES
+                val elems = minOf(chunkSize.toLong(), size - i.toLong() * chunkSize)
+                channel.map(FileChannel.MapMode.READ_ONLY, position, elems * java.lang.Double.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+            }
+
+            val storage = OffHeapStorage(buffers, chunkSize)
+            return if (layout == Layout.RowMajor) {
+                OffHeapMatrix.ofStorage(n.toInt(), m.toInt(), storage, m, 1L)
+            } else {
+                OffHeapMatrix.ofStorage(n.toInt(), m.toInt(), storage, 1L, n)
+            }
+        }
+    }
+
+    private fun flush(channel: FileChannel, buffer: ByteBuffer) {
+        buffer.flip()
+        while (buffer.hasRemaining()) {
+            channel.write(buffer)
+        }
+        buffer.clear()
+    }
+}
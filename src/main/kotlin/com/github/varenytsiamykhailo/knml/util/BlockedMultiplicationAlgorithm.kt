@@ -0,0 +1,347 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import java.io.File
+
+/**
+ * Cache-blocked (tiled) matrix multiplication algorithm implementation.
+ *
+ * The classic triple loop walks the columns of the right matrix with a stride of the whole row, so once
+ * the matrices do not fit into the processor caches almost every access of the right matrix is a cache miss.
+ * This algorithm splits the matrices into tiles which fit into the processor caches and multiplies tile by tile:
+ * a [depthTile] x [colTile] panel of the right matrix and a [rowTile] x [depthTile] block of the left matrix
+ * are packed into contiguous arrays, so they are read sequentially while they are reused from the L2 cache.
+ * The packed tiles are multiplied by the register-blocked micro-kernel, which keeps 4 x 4 elems of the result
+ * in local variables (processor registers) during the whole [depthTile] loop, so the result matrix is
+ * read and written once per tile instead of once per multiplication.
+ *
+ * Every elem of the result is accumulated in the same order as by the classic algorithm,
+ * so the result is exactly the same.
+ *
+ * Asymptotic complexity: O(n * m * p).
+ *
+ * @param [rowTile] is the count of the rows of the left matrix in one tile.
+ * @param [depthTile] is the count of the columns of the left matrix (rows of the right matrix) in one tile.
+ * @param [colTile] is the count of the columns of the right matrix in one tile.
+ * @constructor If the tile sizes are not passed, they are detected from the cache sizes of the processor.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Loop_nest_optimization], [https://en.wikipedia.org/wiki/Matrix_multiplication_algorithm]
+ */
+class BlockedMultiplicationAlgorithm(
+    val rowTile: Int = DEFAULT_ROW_TILE,
+    val depthTile: Int = DEFAULT_DEPTH_TILE,
+    val colTile: Int = DEFAULT_COL_TILE
+) {
+
+    init {
+        require(rowTile > 0 && depthTile > 0 && colTile > 0) { "The tile sizes must be positive." }
+    }
+
+    companion object {
+        private const val DOUBLE_SIZE = 8
+        private const val MICRO_TILE = 4 // the size of the result block computed by the micro-kernel
+
+        private const val DEFAULT_L1_CACHE_SIZE = 32 * 1024
+        private const val DEFAULT_L2_CACHE_SIZE = 256 * 1024
+
+        private val l1CacheSize: Int = readCacheSize(1) ?: DEFAULT_L1_CACHE_SIZE
+        private val l2CacheSize: Int = readCacheSize(2) ?: DEFAULT_L2_CACHE_SIZE
+
+        // Half of the L1 cache holds the packed strips of the left and the right matrices used by the micro-kernel
+        private val DEFAULT_DEPTH_TILE: Int = roundDown((l1CacheSize / 2 / (2 * MICRO_TILE * DOUBLE_SIZE)).coerceIn(16, 512), 8)
+
+        // Half of the L2 cache holds the packed 'rowTile' x 'depthTile' block of the left matrix
+        private val DEFAULT_ROW_TILE: Int = roundDown((l2CacheSize / 2 / (DOUBLE_SIZE * DEFAULT_DEPTH_TILE)).coerceIn(16, 1024), MICRO_TILE)
+
+        // The packed 'depthTile' x 'colTile' panel of the right matrix is streamed from the L2 (or L3) cache
+        private val DEFAULT_COL_TILE: Int = roundDown((l2CacheSize / (DOUBLE_SIZE * DEFAULT_DEPTH_TILE)).coerceIn(64, 4096), MICRO_TILE)
+
+        /**
+         * The instance with the tile sizes detected from the cache sizes of the processor.
+         * It is used by [Matrix.multiply] and [Matrix.multiplyInto].
+         */
+        @JvmStatic
+        val DEFAULT: BlockedMultiplicationAlgorithm = BlockedMultiplicationAlgorithm()
+
+        private fun roundDown(value: Int, multiple: Int): Int = value / multiple * multiple
+
+        // Reads the size of the data (or unified) cache of the required level on Linux, returns null if it is unknown
+        private fun readCacheSize(level: Int): Int? {
+            return try {
+                val caches = File("/sys/devices/system/cpu/cpu0/cache").listFiles { file -> file.name.startsWith("index") }
+                    ?: return null
+                for (cache in caches) {
+                    if (File(cache, "level").readText().trim().toInt() != level) continue
+                    if (File(cache, "type").readText().trim() == "Instruction") continue
+                    val size = File(cache, "size").readText().trim()
+                    return when {
+                        size.endsWith("K") -> size.dropLast(1).toInt() * 1024
+                        size.endsWith("M") -> size.dropLast(1).toInt() * 1024 * 1024
+                        else -> size.toInt()
+                    }
+                }
+                null
+            } catch (e: Exception) {
+                null
+            }
+        }
+    }
+
+    /**
+     * Matrix multiplication with using cache-blocked algorithm.
+     *
+     * This method implements matrix multiplication of current matrix and input matrix of the [Matrix] type.
+     *
+     * @param [A] the first matrix.
+     * @param [B] the second matrix.
+     *
+     * @return the result of the multiplication of two matrices which is represented as new [Matrix] output type.
+     *
+     * Asymptotic complexity: O(n * m * p)
+     */
+    fun multiply(A: Matrix, B: Matrix): Matrix {
+        return multiplyInto(A, B, Matrix(A.getN(), B.getM()))
+    }
+
+    /**
+     * Matrix multiplication with using cache-blocked algorithm into the destination matrix.
+     *
+     * This method implements matrix multiplication of current matrix and input matrix of the [Matrix] type
+     * and writes the result into the [C] matrix instead of allocating a new one.
+     *
+     * @param [A] the first matrix.
+     * @param [B] the second matrix.
+     * @param [C] the matrix for the result. It must not be one of the operands.
+     *
+     * @return the [C] matrix which contains the result of the multiplication of two matrices.
+     *
+     * Asymptotic complexity: O(n * m * p)
+     */
+    fun multiplyInto(A: Matrix, B: Matrix, C: Matrix): Matrix {
+        require(A.getM() == B.getN()) { "The size of 'matrix1.m' does not match to size of 'matrix2.n'" }
+        require(C.getN() == A.getN() && C.getM() == B.getM()) { "The size of 'dest' matrix does not match to size of the result." }
+        require(C.getStorage() !== A.getStorage() && C.getStorage() !== B.getStorage()) { "The 'dest' matrix must not share the storage with the multiplied matrices." }
+
+        zeroBlock(C, 0, C.getN(), 0, C.getM())
+        multiplyBlock(A, B, C, 0, A.getN(), 0, B.getM())
+
+        return C
+    }
+
+    /**
+     * Fills the block of the rows from [rowFrom] (inclusive) to [rowTo] (exclusive) and the columns
+     * from [colFrom] (inclusive) to [colTo] (exclusive) of the matrix [C] by zeros.
+     */
+    internal fun zeroBlock(C: Matrix, rowFrom: Int, rowTo: Int, colFrom: Int, colTo: Int) {
+        if (!C.hasArray()) {
+            for (i in rowFrom until rowTo) {
+                for (j in colFrom until colTo) {
+                    C.setElem(i, j, 0.0)
+                }
+            }
+            return
+        }
+
+        val c = C.getData()
+        val cRowStride = C.getRowStride()
+        val cColStride = C.getColStride()
+        for (i in rowFrom until rowTo) {
+            val rowOffset = C.getOffset() + i * cRowStride
+            if (cColStride == 1) {
+                c.fill(0.0, rowOffset + colFrom, rowOffset + colTo)
+            } else {
+                for (j in colFrom until colTo) {
+                    c[rowOffset + j * cColStride] = 0.0
+                }
+            }
+        }
+    }
+
+    /**
+     * Accumulates the block of the rows from [rowFrom] (inclusive) to [rowTo] (exclusive) and the columns
+     * from [colFrom] (inclusive) to [colTo] (exclusive) of the product A * B into the matrix [C].
+     * The block of [C] must be zeroed (or contain the values to add the product to) before the call.
+     * The calls for the disjoint blocks of [C] may be executed concurrently.
+     */
+    internal fun multiplyBlock(A: Matrix, B: Matrix, C: Matrix, rowFrom: Int, rowTo: Int, colFrom: Int, colTo: Int) {
+        // The blocks of the matrix without the heap array are accumulated in the 4 x 4 heap tile
+        val tile = if (C.hasArray()) null else DoubleArray(MICRO_TILE * MICRO_TILE)
+        val c = tile ?: C.getData()
+        val cRowStride = if (tile == null) C.getRowStride() else MICRO_TILE
+        val cColStride = if (tile == null) C.getColStride() else 1
+        val depth = A.getM()
+
+        val packedA = DoubleArray(roundUp(minOf(rowTile, rowTo - rowFrom), MICRO_TILE) * minOf(depthTile, depth))
+        val packedB = DoubleArray(minOf(depthTile, depth) * roundUp(minOf(colTile, colTo - colFrom), MICRO_TILE))
+
+        // The order of the tiles keeps the 'k' index ascending for every elem of the result
+        for (jj in colFrom until colTo step colTile) {
+            val nc = minOf(colTile, colTo - jj)
+            for (kk in 0 until depth step depthTile) {
+                val kc = minOf(depthTile, depth - kk)
+                packB(B, kk, kc, jj, nc, packedB)
+                for (ii in rowFrom until rowTo step rowTile) {
+                    val mc = minOf(rowTile, rowTo - ii)
+                    packA(A, ii, mc, kk, kc, packedA)
+                    for (jr in 0 until nc step MICRO_TILE) {
+                        for (ir in 0 until mc step MICRO_TILE) {
+                            val cOffset = if (tile == null) C.getOffset() + (ii + ir) * cRowStride + (jj + jr) * cColStride else 0
+                            val rows = minOf(MICRO_TILE, mc - ir)
+                            val columns = minOf(MICRO_TILE, nc - jr)
+                            if (tile != null) {
+                                loadTile(C, ii + ir, jj + jr, rows, columns, tile)
+                            }
+                            if (rows == MICRO_TILE && columns == MICRO_TILE) {
+                                microKernel(packedA, ir * kc, packedB, jr * kc, kc, c, cOffset, cRowStride, cColStride)
+                            } else {
+                                edgeKernel(packedA, ir * kc, packedB, jr * kc, kc, c, cOffset, cRowStride, cColStride, rows, columns)
+                            }
+                            if (tile != null) {
+                                storeTile(C, ii + ir, jj + jr, rows, columns, tile)
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private fun roundUp(value: Int, multiple: Int): Int = (value + multiple - 1) / multiple * multiple
+
+    private fun loadTile(C: Matrix, row: Int, col: Int, rows: Int, columns: Int, tile: DoubleArray) {
+        for (i in 0 until rows) {
+            for (j in 0 until columns) {
+                tile[i * MICRO_TILE + j] = C.getElem(row + i, col + j)
+            }
+        }
+    }
+
+    private fun storeTile(C: Matrix, row: Int, col: Int, rows: Int, columns: Int, tile: DoubleArray) {
+        for (i in 0 until rows) {
+            for (j in 0 until columns) {
+                C.setElem(row + i, col + j, tile[i * MICRO_TILE + j])
+            }
+        }
+    }
+
+    // Packs the 'mc' x 'kc' block of the left matrix into the strips of 4 rows, each strip is stored column by column.
+    // The packing also gathers the elems of the strided views (for example, transposed ones) into the contiguous strips.
+    private fun packA(A: Matrix, rowOffset: Int, mc: Int, kk: Int, kc: Int, packed: DoubleArray) {
+        if (!A.hasArray()) {
+            for (ir in 0 until mc step MICRO_TILE) {
+                for (q in 0 until MICRO_TILE) {
+                    for (k in 0 until kc) {
+                        packed[ir * kc + k * MICRO_TILE + q] = if (ir + q < mc) A.getElem(rowOffset + ir + q, kk + k) else 0.0
+                    }
+                }
+            }
+            return
+        }
+
+        val a = A.getData()
+        val aRowStride = A.getRowStride()
+        val aColStride = A.getColStride()
+        for (ir in 0 until mc step MICRO_TILE) {
+            val stripOffset = ir * kc
+            for (q in 0 until MICRO_TILE) {
+                if (ir + q < mc) {
+                    val aRowOffset = A.getOffset() + (rowOffset + ir + q) * aRowStride + kk * aColStride
+                    for (k in 0 until kc) {
+                        packed[stripOffset + k * MICRO_TILE + q] = a[aRowOffset + k * aColStride]
+                    }
+                } else {
+                    for (k in 0 until kc) {
+                        packed[stripOffset + k * MICRO_TILE + q] = 0.0
+                    }
+                }
+            }
+        }
+    }
+
+    // Packs the 'kc' x 'nc' panel of the right matrix into the strips of 4 columns, each strip is stored row by row
+    private fun packB(B: Matrix, kk: Int, kc: Int, colOffset: Int, nc: Int, packed: DoubleArray) {
+        if (!B.hasArray()) {
+            for (jr in 0 until nc step MICRO_TILE) {
+                for (k in 0 until kc) {
+                    for (q in 0 until MICRO_TILE) {
+                        packed[jr * kc + k * MICRO_TILE + q] = if (jr + q < nc) B.getElem(kk + k, colOffset + jr + q) else 0.0
+                    }
+                }
+            }
+            return
+        }
+
+        val b = B.getData()
+        val bRowStride = B.getRowStride()
+        val bColStride = B.getColStride()
+        for (jr in 0 until nc step MICRO_TILE) {
+            val stripOffset = jr * kc
+            val columns = minOf(MICRO_TILE, nc - jr)
+            for (k in 0 until kc) {
+                val bRowOffset = B.getOffset() + (kk + k) * bRowStride + (colOffset + jr) * bColStride
+                val packedOffset = stripOffset + k * MICRO_TILE
+                for (q in 0 until MICRO_TILE) {
+                    packed[packedOffset + q] = if (q < columns) b[bRowOffset + q * bColStride] else 0.0
+                }
+            }
+        }
+    }
+
+    // Accumulates the product of the packed 4 x 'kc' strip of the left matrix and 'kc' x 4 strip of the right matrix
+    // into the 4 x 4 block of the result, the block is kept in local variables during the whole loop
+    private fun microKernel(
+        packedA: DoubleArray, aOffset: Int,
+        packedB: DoubleArray, bOffset: Int,
+        kc: Int,
+        c: DoubleArray, cOffset: Int, cRowStride: Int, cColStride: Int
+    ) {
+        val c0 = cOffset
+        val c1 = c0 + cRowStride
+        val c2 = c1 + cRowStride
+        val c3 = c2 + cRowStride
+        val j1 = cColStride
+        val j2 = j1 + cColStride
+        val j3 = j2 + cColStride
+        var c00 = c[c0]; var c01 = c[c0 + j1]; var c02 = c[c0 + j2]; var c03 = c[c0 + j3]
+        var c10 = c[c1]; var c11 = c[c1 + j1]; var c12 = c[c1 + j2]; var c13 = c[c1 + j3]
+        var c20 = c[c2]; var c21 = c[c2 + j1]; var c22 = c[c2 + j2]; var c23 = c[c2 + j3]
+        var c30 = c[c3]; var c31 = c[c3 + j1]; var c32 = c[c3 + j2]; var c33 = c[c3 + j3]
+
+        var pa = aOffset
+        var pb = bOffset
+        for (k in 0 until kc) {
+            val a0 = packedA[pa]; val a1 = packedA[pa + 1]; val a2 = packedA[pa + 2]; val a3 = packedA[pa + 3]
+            val b0 = packedB[pb]; val b1 = packedB[pb + 1]; val b2 = packedB[pb + 2]; val b3 = packedB[pb + 3]
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3
+            pa += MICRO_TILE
+            pb += MICRO_TILE
+        }
+
+        c[c0] = c00; c[c0 + j1] = c01; c[c0 + j2] = c02; c[c0 + j3] = c03
+        c[c1] = c10; c[c1 + j1] = c11; c[c1 + j2] = c12; c[c1 + j3] = c13
+        c[c2] = c20; c[c2 + j1] = c21; c[c2 + j2] = c22; c[c2 + j3] = c23
+        c[c3] = c30; c[c3 + j1] = c31; c[c3 + j2] = c32; c[c3 + j3] = c33
+    }
+
+    // The same as 'microKernel' for the blocks on the border of the result, which have less than 4 rows or columns
+    private fun edgeKernel(
+        packedA: DoubleArray, aOffset: Int,
+        packedB: DoubleArray, bOffset: Int,
+        kc: Int,
+        c: DoubleArray, cOffset: Int, cRowStride: Int, cColStride: Int,
+        rows: Int, columns: Int
+    ) {
+        for (i in 0 until rows) {
+            for (j in 0 until columns) {
+                val index = cOffset + i * cRowStride + j * cColStride
+                var sum = c[index]
+                for (k in 0 until kc) {
+                    sum += packedA[aOffset + k * MICRO_TILE + i] * packedB[bOffset + k * MICRO_TILE + j]
+                }
+                c[index] = sum
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.github.varenytsiamykhailo.knml.util
+
+/**
+ * Compressed sparse column (CSC) matrix implementation.
+ *
+ * The elems of the column 'j' are stored at the positions from 'columnPointers[j]' until 'columnPointers[j + 1]'
+ * of the [getRowIndices] and [getValues] arrays, the row indices of every column are sorted and unique.
+ * The columns are stored one after another, so the CSC format is the best for the access to the columns,
+ * for example, by the direct solvers. The arrays of the CSC matrix are the arrays of the [CSRMatrix]
+ * of the transposed matrix, so the conversion between the formats is the transposition.
+ *
+ * @param [n] is the count of rows (first dimension) of the matrix, starting from 1.
+ * @param [m] is the count of columns (second dimension) of the matrix, starting from 1.
+ * @param [columnPointers] is the array of the size m + 1 of the positions of the first elems of the columns.
+ * @param [rowIndices] is the array of the row indices of the elems.
+ * @param [values] is the array of the values of the elems.
+ * @constructor This constructor checks the arrays and uses them as the storage of the matrix without copying.
+ *
+ * Use [fromTriplets] method to build the matrix from the unordered elems.
+ *
+ * @see SparseMatrix
+ * @see CSRMatrix
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Sparse_matrix#Compressed_sparse_column_(CSC_or_CCS)]
+ */
+class CSCMatrix private constructor(
+    n: Int,
+    m: Int,
+    columnPointers: IntArray,
+    rowIndices: IntArray,
+    values: DoubleArray,
+    check: Boolean
+) : SparseMatrix(n, m, columnPointers, rowIndices, values) {
+
+    init {
+        if (check) {
+            checkArrays(m, n, columnPointers, rowIndices, values)
+        }
+    }
+
+    constructor(n: Int, m: Int, columnPointers: IntArray, rowIndices: IntArray, values: DoubleArray) :
+            this(n, m, columnPointers, rowIndices, values, true)
+
+    /**
+     *
+     * This constructor converts the dense matrix into the sparse matrix, the zero elems are not stored.
+     *
+     * Asymptotic complexity: O(n * m)
+     */
+    constructor(matrix: Matrix) : this(CSRMatrix(matrix.transposedView()).asTransposedCSC())
+
+    private constructor(matrix: CSCMatrix) :
+            this(matrix.getN(), matrix.getM(), matrix.pointers, matrix.indices, matrix.values, false)
+
+    companion object {
+        /**
+         * Builds the matrix from the elems in the coordinate (COO) format.
+         *
+         * The elems may be in any order, the values of the elems with the same row and column are summed.
+         *
+         * @param [n] is the count of rows (first dimension) of the matrix, starting from 1.
+         * @param [m] is the count of columns (second dimension) of the matrix, starting from 1.
+         * @param [rows] is the array of the row indices of the elems.
+         * @param [columns] is the array of the column indices of the elems.
+         * @param [values] is the array of the values of the elems.
+         *
+         * @return the new [CSCMatrix] with the elems.
+         *
+         * Asymptotic complexity: O(nnz + n + m)
+         */
+        @JvmStatic
+        fun fromTriplets(n: Int, m: Int, rows: IntArray, columns: IntArray, values: DoubleArray): CSCMatrix =
+            CSRMatrix.fromTriplets(m, n, columns, rows, values).asTransposedCSC()
+
+        internal fun ofArrays(n: Int, m: Int, columnPointers: IntArray, rowIndices: IntArray, values: DoubleArray): CSCMatrix =
+            CSCMatrix(n, m, columnPointers, rowIndices, values, false)
+    }
+
+    /**
+     * Returns the positions of the first elems of the columns without copying, the size of the array is m + 1.
+     */
+    fun getColumnPointers(): IntArray = this.pointers
+
+    /**
+     * Returns the row indices of the stored elems without copying.
+     */
+    fun getRowIndices(): IntArray = this.indices
+
+    override fun getElem(n: Int, m: Int): Double = findElem(m, n)
+
+    // The columns are scattered into the result, so the blocks split the rows of the result instead of the columns:
+    // every block finds its rows in every column by the binary search and the elems of the result are summed
+    // in the order of the columns as by the CSR matrix
+    override fun multiplyVector(x: DoubleArray, y: DoubleArray, parallel: Boolean) {
+        val n = getN()
+        val m = getM()
+        val columnPointers = this.pointers
+        val rowIndices = this.indices
+        val values = this.values
+
+        val bounds = splitEvenly(n, getParallelBlockCount(getNonZeroCount().toLong() + n, parallel))
+        forEachBlock(bounds) { _, rowFrom, rowTo ->
+            y.fill(0.0, rowFrom, rowTo)
+            for (j in 0 until m) {
+                val xj = x[j]
+                val to = columnPointers[j + 1]
+                var p = if (rowFrom == 0) columnPointers[j] else lowerBound(rowIndices, columnPointers[j], to, rowFrom)
+                while (p < to && rowIndices[p] < rowTo) {
+                    y[rowIndices[p]] += values[p] * xj
+                    p++
+                }
+            }
+        }
+    }
+
+    override fun multiplyMatrix(B: Matrix, c: DoubleArray, parallel: Boolean) {
+        val n = getN()
+        val m = getM()
+        val columnPointers = this.pointers
+        val rowIndices = this.indices
+        val values = this.values
+        val p = B.getM()
+
+        val b = if (B.hasArray()) B.getData() else null
+        val bOffset = if (B.hasArray()) B.getOffset() else 0
+        val bRowStride = if (B.hasArray()) B.getRowStride() else 0
+        val bColStride = if (B.hasArray()) B.getColStride() else 0
+
+        val bounds = splitEvenly(n, getParallelBlockCount((getNonZeroCount().toLong() + n) * p, parallel))
+        forEachBlock(bounds) { _, rowFrom, rowTo ->
+            // The elem (i, k) of A adds the row 'k' of B multiplied by it to the row 'i' of the result
+            for (k in 0 until m) {
+                val to = columnPointers[k + 1]
+                var q = if (rowFrom == 0) columnPointers[k] else lowerBound(rowIndices, columnPointers[k], to, rowFrom)
+                while (q < to && rowIndices[q] < rowTo) {
+                    val a = values[q]
+                    val cRow = rowIndices[q] * p
+                    if (b != null) {
+                        val bRow = bOffset + k * bRowStride
+                        for (j in 0 until p) {
+                            c[cRow + j] += a * b[bRow + j * bColStride]
+                        }
+                    } else {
+                        for (j in 0 until p) {
+                            c[cRow + j] += a * B.getElem(k, j)
+                        }
+                    }
+                    q++
+                }
+            }
+        }
+    }
+
+    /**
+     * Sparse matrix multiplicate sparse matrix (SpGEMM).
+     *
+     * This method implements multiplication of current sparse matrix and input sparse matrix.
+     * The CSC arrays of the product A * B are the CSR arrays of the product B^T * A^T, so it is computed
+     * by the Gustavson's algorithm of [CSRMatrix.multiply] without the conversion of the matrices.
+     *
+     * @param [matrix] the input sparse matrix.
+     *
+     * @return the result of the multiplication of two matrices which is represented as new [CSCMatrix] output type.
+     *
+     * Asymptotic complexity: O(flops + n + p), where flops is the count of the multiplications of the non-zero elems.
+     */
+    fun multiply(matrix: CSCMatrix): CSCMatrix {
+        require(getM() == matrix.getN()) { "The size of 'matrix1.m' does not match to size of 'matrix2.n'" }
+        return matrix.asTransposedCSR().multiply(asTransposedCSR()).asTransposedCSC()
+    }
+
+    /**
+     * Parallel sparse matrix multiplicate sparse matrix (SpGEMM).
+     *
+     * The result is exactly the same as the result of [multiply].
+     *
+     * @param [matrix] the input sparse matrix.
+     *
+     * @return the result of the multiplication of two matrices which is represented as new [CSCMatrix] output type.
+     *
+     * Asymptotic complexity: O((flops + p) / parallelism + n * parallelism)
+     */
+    fun multiplyParallel(matrix: CSCMatrix): CSCMatrix {
+        require(getM() == matrix.getN()) { "The size of 'matrix1.m' does not match to size of 'matrix2.n'" }
+        return matrix.asTransposedCSR().multiplyParallel(asTransposedCSR()).asTransposedCSC()
+    }
+
+    override fun transpose(): CSCMatrix = asTransposedCSR().transposeArrays(false).asTransposedCSC()
+
+    override fun transposeParallel(): CSCMatrix = asTransposedCSR().transposeArrays(true).asTransposedCSC()
+
+    // Returns the CSR matrix of the transposed matrix which shares the arrays with this matrix
+    private fun asTransposedCSR(): CSRMatrix = CSRMatrix.ofArrays(getM(), getN(), pointers, indices, values)
+
+    // The CSC arrays of the transposed matrix are the CSR arrays of the matrix
+    override fun toCSR(): CSRMatrix = asTransposedCSR().transpose()
+
+    override fun toCSC(): CSCMatrix = this
+
+    override fun toMatrix(): Matrix {
+        val result = Matrix(getN(), getM())
+        for (j in 0 until getM()) {
+            for (p in pointers[j] until pointers[j + 1]) {
+                result.setElem(indices[p], j, values[p])
+            }
+        }
+        return result
+    }
+}
@@ -0,0 +1,421 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import java.util.Arrays
+
+/**
+ * Compressed sparse row (CSR) matrix implementation.
+ *
+ * The elems of the row 'i' are stored at the positions from 'rowPointers[i]' until 'rowPointers[i + 1]'
+ * of the [getColumnIndices] and [getValues] arrays, the column indices of every row are sorted and unique.
+ * The rows are stored one after another, so the CSR format is the best for the multiplication by the vector,
+ * which reads the rows sequentially (see [multiply]).
+ *
+ * @param [n] is the count of rows (first dimension) of the matrix, starting from 1.
+ * @param [m] is the count of columns (second dimension) of the matrix, starting from 1.
+ * @param [rowPointers] is the array of the size n + 1 of the positions of the first elems of the rows.
+ * @param [columnIndices] is the array of the column indices of the elems.
+ * @param [values] is the array of the values of the elems.
+ * @constructor This constructor checks the arrays and uses them as the storage of the matrix without copying.
+ *
+ * Use [fromTriplets] method to build the matrix from the unordered elems.
+ *
+ * @see SparseMatrix
+ * @see CSCMatrix
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Sparse_matrix#Compressed_sparse_row_(CSR,_CRS_or_Yale_format)]
+ */
+class CSRMatrix private constructor(
+    n: Int,
+    m: Int,
+    rowPointers: IntArray,
+    columnIndices: IntArray,
+    values: DoubleArray,
+    check: Boolean
+) : SparseMatrix(n, m, rowPointers, columnIndices, values) {
+
+    init {
+        if (check) {
+            checkArrays(n, m, rowPointers, columnIndices, values)
+        }
+    }
+
+    constructor(n: Int, m: Int, rowPointers: IntArray, columnIndices: IntArray, values: DoubleArray) :
+            this(n, m, rowPointers, columnIndices, values, true)
+
+    /**
+     *
+     * This constructor converts the dense matrix into the sparse matrix, the zero elems are not stored.
+     *
+     * Asymptotic complexity: O(n * m)
+     */
+    constructor(matrix: Matrix) : this(compress(matrix))
+
+    private constructor(matrix: CSRMatrix) :
+            this(matrix.getN(), matrix.getM(), matrix.pointers, matrix.indices, matrix.values, false)
+
+    companion object {
+        /**
+         * Builds the matrix from the elems in the coordinate (COO) format.
+         *
+         * The elems may be in any order, the values of the elems with the same row and column are summed,
+         * so the matrix of the finite element method can be assembled from the elems of the finite elements.
+         *
+         * @param [n] is the count of rows (first dimension) of the matrix, starting from 1.
+         * @param [m] is the count of columns (second dimension) of the matrix, starting from 1.
+         * @param [rows] is the array of the row indices of the elems.
+         * @param [columns] is the array of the column indices of the elems.
+         * @param [values] is the array of the values of the elems.
+         *
+         * @return the new [CSRMatrix] with the elems.
+         *
+         * Asymptotic complexity: O(nnz + n + m)
+         */
+        @JvmStatic
+        fun fromTriplets(n: Int, m: Int, rows: IntArray, columns: IntArray, values: DoubleArray): CSRMatrix {
+            require(n >= 0 && m >= 0) { "The size of the sparse matrix must not be negative." }
+            require(rows.size == columns.size && rows.size == values.size) { "The sizes of 'rows', 'columns' and 'values' arrays must be the same." }
+
+            // The elems are sorted by the columns into the CSR matrix of the transposed matrix (the counting sort),
+            // the transposition of it sorts them by the rows, so the elems of every row are sorted by the columns
+            val columnPointers = IntArray(m + 1)
+            for (p in columns.indices) {
+                require(rows[p] in 0 until n && columns[p] in 0 until m) { "The elem (${rows[p]}, ${columns[p]}) is out of the size of the sparse matrix." }
+                columnPointers[columns[p] + 1]++
+            }
+            for (j in 0 until m) {
+                columnPointers[j + 1] += columnPointers[j]
+            }
+            val next = columnPointers.copyOf(m)
+            val rowIndices = IntArray(rows.size)
+            val columnValues = DoubleArray(rows.size)
+            for (p in columns.indices) {
+                val position = next[columns[p]]++
+                rowIndices[position] = rows[p]
+                columnValues[position] = values[p]
+            }
+            val sorted = CSRMatrix(m, n, columnPointers, rowIndices, columnValues, false).transposeArrays(false)
+
+            // The duplicates are neighbours now, they are summed in place
+            val rowPointers = sorted.pointers
+            val columnIndices = sorted.indices
+            val sums = sorted.values
+            var count = 0
+            var rowStart = 0
+            for (i in 0 until n) {
+                val rowEnd = rowPointers[i + 1]
+                val first = count
+                for (p in rowStart until rowEnd) {
+                    if (count > first && columnIndices[count - 1] == columnIndices[p]) {
+                        sums[count - 1] += sums[p]
+                    } else {
+                        columnIndices[count] = columnIndices[p]
+                        sums[count] = sums[p]
+                        count++
+                    }
+                }
+                rowStart = rowEnd
+                rowPointers[i + 1] = count
+            }
+
+            return CSRMatrix(n, m, rowPointers, columnIndices.copyOf(count), sums.copyOf(count), false)
+        }
+
+        internal fun ofArrays(n: Int, m: Int, rowPointers: IntArray, columnIndices: IntArray, values: DoubleArray): CSRMatrix =
+            CSRMatrix(n, m, rowPointers, columnIndices, values, false)
+
+        private fun compress(matrix: Matrix): CSRMatrix {
+            val n = matrix.getN()
+            val m = matrix.getM()
+            val rowPointers = IntArray(n + 1)
+            for (i in 0 until n) {
+                var count = 0
+                for (j in 0 until m) {
+                    if (matrix.getElem(i, j) != 0.0) count++
+                }
+                rowPointers[i + 1] = rowPointers[i] + count
+            }
+
+            val columnIndices = IntArray(rowPointers[n])
+            val values = DoubleArray(rowPointers[n])
+            var position = 0
+            for (i in 0 until n) {
+                for (j in 0 until m) {
+                    val elem = matrix.getElem(i, j)
+                    if (elem != 0.0) {
+                        columnIndices[position] = j
+                        values[position] = elem
+                        position++
+                    }
+                }
+            }
+            return CSRMatrix(n, m, rowPointers, columnIndices, values, false)
+        }
+    }
+
+    /**
+     * Returns the positions of the first elems of the rows without copying, the size of the array is n + 1.
+     */
+    fun getRowPointers(): IntArray = this.pointers
+
+    /**
+     * Returns the column indices of the stored elems without copying.
+     */
+    fun getColumnIndices(): IntArray = this.indices
+
+    override fun getElem(n: Int, m: Int): Double = findElem(n, m)
+
+    override fun multiplyVector(x: DoubleArray, y: DoubleArray, parallel: Boolean) {
+        val rowPointers = this.pointers
+        val columnIndices = this.indices
+        val values = this.values
+
+        val bounds = splitByNonZeros(rowPointers, getN(), getParallelBlockCount(getNonZeroCount().toLong() + getN(), parallel))
+        forEachBlock(bounds) { _, rowFrom, rowTo ->
+            for (i in rowFrom until rowTo) {
+                var sum = 0.0
+                for (p in rowPointers[i] until rowPointers[i + 1]) {
+                    sum += values[p] * x[columnIndices[p]]
+                }
+                y[i] = sum
+            }
+        }
+    }
+
+    override fun multiplyMatrix(B: Matrix, c: DoubleArray, parallel: Boolean) {
+        val rowPointers = this.pointers
+        val columnIndices = this.indices
+        val values = this.values
+        val p = B.getM()
+
+        val bounds = splitByNonZeros(rowPointers, getN(), getParallelBlockCount((getNonZeroCount().toLong() + getN()) * p, parallel))
+        forEachBlock(bounds) { _, rowFrom, rowTo ->
+            // The row 'i' of the result is the sum of the rows of B multiplied by the elems of the row 'i' of A
+            if (B.hasArray()) {
+                val b = B.getData()
+                val bOffset = B.getOffset()
+                val bRowStride = B.getRowStride()
+                val bColStride = B.getColStride()
+                for (i in rowFrom until rowTo) {
+                    val cRow = i * p
+                    for (k in rowPointers[i] until rowPointers[i + 1]) {
+                        val a = values[k]
+                        val bRow = bOffset + columnIndices[k] * bRowStride
+                        for (j in 0 until p) {
+                            c[cRow + j] += a * b[bRow + j * bColStride]
+                        }
+                    }
+                }
+            } else {
+                for (i in rowFrom until rowTo) {
+                    val cRow = i * p
+                    for (k in rowPointers[i] until rowPointers[i + 1]) {
+                        val a = values[k]
+                        val row = columnIndices[k]
+                        for (j in 0 until p) {
+                            c[cRow + j] += a * B.getElem(row, j)
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sparse matrix multiplicate sparse matrix (SpGEMM).
+     *
+     * This method implements multiplication of current sparse matrix and input sparse matrix by the Gustavson's algorithm:
+     * the row 'i' of the result is accumulated from the rows of the input matrix multiplied by the elems of the row 'i'.
+     *
+     * @param [matrix] the input sparse matrix.
+     *
+     * @return the result of the multiplication of two matrices which is represented as new [CSRMatrix] output type.
+     *
+     * Asymptotic complexity: O(flops + n + p), where flops is the count of the multiplications of the non-zero elems.
+     */
+    fun multiply(matrix: CSRMatrix): CSRMatrix = multiply(matrix, false)
+
+    /**
+     * Parallel sparse matrix multiplicate sparse matrix (SpGEMM).
+     *
+     * The result is exactly the same as the result of [multiply].
+     *
+     * @param [matrix] the input sparse matrix.
+     *
+     * @return the result of the multiplication of two matrices which is represented as new [CSRMatrix] output type.
+     *
+     * Asymptotic complexity: O((flops + n) / parallelism + p * parallelism)
+     */
+    fun multiplyParallel(matrix: CSRMatrix): CSRMatrix = multiply(matrix, true)
+
+    private fun multiply(matrix: CSRMatrix, parallel: Boolean): CSRMatrix {
+        require(getM() == matrix.getN()) { "The size of 'matrix1.m' does not match to size of 'matrix2.n'" }
+
+        val n = getN()
+        val p = matrix.getM()
+        val aPointers = this.pointers
+        val aIndices = this.indices
+        val aValues = this.values
+        val bPointers = matrix.pointers
+        val bIndices = matrix.indices
+        val bValues = matrix.values
+
+        val bounds = splitByNonZeros(aPointers, n, getParallelBlockCount(getNonZeroCount().toLong() + n, parallel))
+
+        // The symbolic phase counts the elems of every row of the result,
+        // 'marker[j] == i' means that the column 'j' is already in the row 'i'
+        val rowCounts = LongArray(n)
+        forEachBlock(bounds) { _, rowFrom, rowTo ->
+            val marker = IntArray(p) { -1 }
+            for (i in rowFrom until rowTo) {
+                var count = 0L
+                for (k in aPointers[i] until aPointers[i + 1]) {
+                    val row = aIndices[k]
+                    for (q in bPointers[row] until bPointers[row + 1]) {
+                        val j = bIndices[q]
+                        if (marker[j] != i) {
+                            marker[j] = i
+                            count++
+                        }
+                    }
+                }
+                rowCounts[i] = count
+            }
+        }
+        val rowPointers = IntArray(n + 1)
+        var total = 0L
+        for (i in 0 until n) {
+            total += rowCounts[i]
+            require(total <= Int.MAX_VALUE - 8) { "The count of the non-zero elems of the result is too large." }
+            rowPointers[i + 1] = total.toInt()
+        }
+
+        // The numeric phase accumulates the elems of every row in the dense array
+        val columnIndices = IntArray(total.toInt())
+        val values = DoubleArray(total.toInt())
+        forEachBlock(bounds) { _, rowFrom, rowTo ->
+            val marker = IntArray(p) { -1 }
+            val accumulator = DoubleArray(p)
+            for (i in rowFrom until rowTo) {
+                var position = rowPointers[i]
+                for (k in aPointers[i] until aPointers[i + 1]) {
+                    val a = aValues[k]
+                    val row = aIndices[k]
+                    for (q in bPointers[row] until bPointers[row + 1]) {
+                        val j = bIndices[q]
+                        if (marker[j] != i) {
+                            marker[j] = i
+                            accumulator[j] = a * bValues[q]
+                            columnIndices[position++] = j
+                        } else {
+                            accumulator[j] += a * bValues[q]
+                        }
+                    }
+                }
+                Arrays.sort(columnIndices, rowPointers[i], rowPointers[i + 1])
+                for (q in rowPointers[i] until rowPointers[i + 1]) {
+                    values[q] = accumulator[columnIndices[q]]
+                }
+            }
+        }
+
+        return CSRMatrix(n, p, rowPointers, columnIndices, values, false)
+    }
+
+    override fun transpose(): CSRMatrix = transposeArrays(false)
+
+    override fun transposeParallel(): CSRMatrix = transposeArrays(true)
+
+    // Transposes the matrix, the indices of the rows of the input matrix do not have to be sorted
+    internal fun transposeArrays(parallel: Boolean): CSRMatrix {
+        val n = getN()
+        val m = getM()
+        val rowPointers = this.pointers
+        val columnIndices = this.indices
+        val values = this.values
+        val nonZeros = getNonZeroCount()
+
+        // Every block counts the elems of its rows in every column, so the blocks are limited to keep the counters not larger than the matrix
+        val blocks = minOf(getParallelBlockCount(nonZeros.toLong() + n + m, parallel), maxOf(nonZeros / maxOf(m, 1), 1))
+        val bounds = splitByNonZeros(rowPointers, n, blocks)
+        val next = Array(blocks) { IntArray(m) }
+        forEachBlock(bounds) { block, rowFrom, rowTo ->
+            val counts = next[block]
+            for (p in rowPointers[rowFrom] until rowPointers[rowTo]) {
+                counts[columnIndices[p]]++
+            }
+        }
+
+        // The elems of the column are placed block by block, so the row indices stay sorted
+        val transposedPointers = IntArray(m + 1)
+        var position = 0
+        for (j in 0 until m) {
+            transposedPointers[j] = position
+            for (block in 0 until blocks) {
+                val count = next[block][j]
+                next[block][j] = position
+                position += count
+            }
+        }
+        transposedPointers[m] = position
+
+        val transposedIndices = IntArray(nonZeros)
+        val transposedValues = DoubleArray(nonZeros)
+        forEachBlock(bounds) { block, rowFrom, rowTo ->
+            val positions = next[block]
+            for (i in rowFrom until rowTo) {
+                for (p in rowPointers[i] until rowPointers[i + 1]) {
+                    val q = positions[columnIndices[p]]++
+                    transposedIndices[q] = i
+                    transposedValues[q] = values[p]
+                }
+            }
+        }
+
+        return CSRMatrix(m, n, transposedPointers, transposedIndices, transposedValues, false)
+    }
+
+    // Returns the CSC matrix of the transposed matrix which shares the arrays with this matrix
+    internal fun asTransposedCSC(): CSCMatrix = CSCMatrix.ofArrays(getM(), getN(), pointers, indices, values)
+
+    // Colors the rows of the square matrix greedily in the natural order: the rows of one color are not coupled
+    // by the elems of the matrix in any direction, so they can be updated in parallel by the Gauss-Seidel method.
+    // The 5-point stencil of the grid in the natural order gets two colors (the red-black ordering).
+    internal fun getGreedyColoring(): IntArray {
+        val n = getN()
+        val transposed = transpose()
+        val colors = IntArray(n) { -1 }
+        // 'used[c] == i' means that the color 'c' is used by the neighbour of the row 'i'
+        val used = IntArray(n + 1) { -1 }
+        for (i in 0 until n) {
+            for (p in pointers[i] until pointers[i + 1]) {
+                val color = colors[indices[p]]
+                if (color >= 0) used[color] = i
+            }
+            for (p in transposed.pointers[i] until transposed.pointers[i + 1]) {
+                val color = colors[transposed.indices[p]]
+                if (color >= 0) used[color] = i
+            }
+            var color = 0
+            while (used[color] == i) {
+                color++
+            }
+            colors[i] = color
+        }
+        return colors
+    }
+
+    override fun toCSR(): CSRMatrix = this
+
+    // The CSR arrays of the transposed matrix are the CSC arrays of the matrix
+    override fun toCSC(): CSCMatrix = transpose().asTransposedCSC()
+
+    override fun toMatrix(): Matrix {
+        val result = Matrix(getN(), getM())
+        for (i in 0 until getN()) {
+            for (p in pointers[i] until pointers[i + 1]) {
+                result.setElem(i, indices[p], values[p])
+            }
+        }
+        return result
+    }
+}
@@ -0,0 +1,387 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import kotlin.math.ln
+import kotlin.math.sqrt
+
+/**
+ * Blocked Cholesky decomposition of the symmetric matrix.
+ *
+ * This class calculates one of the decompositions of the symmetric matrix A (see [Form]):
+ * - A = L * L^T, where L is the lower triangular matrix with the positive diagonal. It exists if A is positive definite.
+ * - A = L * D * L^T, where L is the lower triangular matrix with the unit diagonal and D is the diagonal matrix.
+ * It exists if all leading principal minors of A are not zero, it does not take the square roots.
+ *
+ * The decomposition takes half of the operations and the memory of the LU decomposition. Only the lower triangle of the input
+ * matrix is read, and only the lower triangle of the factor is stored: the rows of L are stored one after another
+ * in one array of the size n * (n + 1) / 2 (D is stored on the diagonal of L for [Form.LDLT] form).
+ *
+ * The decomposition is computed by the blocked right-looking algorithm: the panel of [blockSize] columns is factorized,
+ * and the lower triangle of the rest of the matrix is updated by the matrix multiplication of the cache-blocked kernel
+ * of [BlockedMultiplicationAlgorithm]. If [parallel] is set, the rows of the panel below the diagonal block and the update
+ * are split into the blocks of the rows, which are computed in [java.util.concurrent.ForkJoinPool.commonPool].
+ * The factor is exactly the same as the sequential one.
+ *
+ * The decomposition is computed once and then used to solve the systems with many right sides by [solve] method
+ * in O(n^2) time per right side.
+ *
+ * Asymptotic complexity: O(n^3) for the decomposition (n^3 / 3 multiplications), O(n^2) for every solved right side.
+ *
+ * @param [matrix] is the input square symmetric matrix.
+ * @param [form] is the form of the decomposition.
+ * @param [blockSize] is the count of the columns of the panel.
+ * @param [parallel] is the flag, that says that the decomposition is multi-threaded.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Cholesky_decomposition]
+ *
+ * @see PivotedLUDecomposition
+ */
+class CholeskyDecomposition(
+    matrix: Matrix,
+    val form: Form = Form.LLT,
+    val blockSize: Int = DEFAULT_BLOCK_SIZE,
+    val parallel: Boolean = false
+) {
+
+    /**
+     * The form of the decomposition.
+     */
+    enum class Form {
+        /**
+         * A = L * L^T, L has the positive diagonal.
+         */
+        LLT,
+
+        /**
+         * A = L * D * L^T, L has the unit diagonal.
+         */
+        LDLT
+    }
+
+    companion object {
+        private const val DEFAULT_BLOCK_SIZE = 64
+
+        // Returns the position of the first elem of the row 'i' in the packed lower triangle
+        private fun getRowStart(i: Int): Int = (i.toLong() * (i + 1) / 2).toInt()
+    }
+
+    private val n: Int = matrix.getN()
+
+    // The rows of the lower triangle of the factor one after another
+    private val L: DoubleArray
+
+    // The count of the factorized columns, the decomposition does not exist if it is less than n
+    private var factorizedCount: Int = 0
+
+    /**
+     * Checks if the decomposition exists, so the matrix is non-singular and the systems can be solved.
+     */
+    val isNonSingular: Boolean
+        get() = factorizedCount == n
+
+    /**
+     * Checks if the matrix is symmetric positive definite: the decomposition exists and all the elems of D are positive.
+     */
+    val isSymmetricPositiveDefinite: Boolean
+        get() {
+            if (!isNonSingular) return false
+            for (i in 0 until n) {
+                if (L[getRowStart(i) + i] <= 0.0) return false
+            }
+            return true
+        }
+
+    init {
+        require(matrix.isSquare()) { "The matrix must be square." }
+        require(blockSize > 0) { "The block size must be positive." }
+        require(n.toLong() * (n + 1) / 2 <= Int.MAX_VALUE) { "The matrix is too large for the packed lower triangle." }
+
+        L = DoubleArray(getRowStart(n))
+        for (i in 0 until n) {
+            val rowI = getRowStart(i)
+            for (j in 0..i) {
+                L[rowI + j] = matrix.getElem(i, j)
+            }
+        }
+
+        var k = 0
+        while (k < n && factorizePanel(k, minOf(blockSize, n - k))) {
+            k += minOf(blockSize, n - k)
+        }
+    }
+
+    // Factorizes the columns from 'k' until 'k + kb' and updates the rest of the matrix by them,
+    // returns false if the decomposition does not exist
+    private fun factorizePanel(k: Int, kb: Int): Boolean {
+        val end = k + kb
+
+        // The diagonal block is factorized by the unblocked algorithm
+        for (j in k until end) {
+            val rowJ = getRowStart(j)
+            var d = L[rowJ + j]
+            for (p in k until j) {
+                d -= getScaled(rowJ, p) * L[rowJ + p]
+            }
+            if (if (form == Form.LLT) !(d > 0.0) else d == 0.0) {
+                return false
+            }
+            L[rowJ + j] = if (form == Form.LLT) sqrt(d) else d
+            factorizedCount = j + 1
+
+            for (i in j + 1 until end) {
+                factorizeElem(getRowStart(i), rowJ, k, j)
+            }
+        }
+
+        if (end == n) {
+            return true
+        }
+        val rows = n - end
+
+        // The rows of the panel below the diagonal block are independent
+        forEachBlock(splitEvenly(rows, getParallelBlockCount(rows.toLong() * kb * kb, parallel))) { _, from, to ->
+            for (i in end + from until end + to) {
+                val rowI = getRowStart(i)
+                for (j in k until end) {
+                    factorizeElem(rowI, getRowStart(j), k, j)
+                }
+            }
+        }
+
+        // The lower triangle of the rest of the matrix is updated by 'A22 = A22 - L21 * D1 * L21^T' (D1 = I for LL^T)
+        val L21 = Matrix(rows, kb)
+        val l21 = L21.getData()
+        for (i in 0 until rows) {
+            System.arraycopy(L, getRowStart(end + i) + k, l21, i * kb, kb)
+        }
+        val scaledL21 = if (form == Form.LLT) L21 else Matrix(rows, kb)
+        if (form == Form.LDLT) {
+            val scaled = scaledL21.getData()
+            for (i in 0 until rows) {
+                for (p in 0 until kb) {
+                    scaled[i * kb + p] = l21[i * kb + p] * L[getRowStart(k + p) + k + p]
+                }
+            }
+        }
+
+        // Every tile of the rows computes the product only up to its last row, so the upper triangle is mostly skipped
+        val tiles = (rows + blockSize - 1) / blockSize
+        val blocks = minOf(getParallelBlockCount(rows.toLong() * rows * kb / 2, parallel), tiles)
+        forEachBlock(splitEvenly(tiles, blocks)) { _, tileFrom, tileTo ->
+            for (t in tileFrom until tileTo) {
+                val rowFrom = t * blockSize
+                val rowTo = minOf(rows, rowFrom + blockSize)
+                val product = Matrix(rowTo - rowFrom, rowTo)
+                BlockedMultiplicationAlgorithm.DEFAULT.multiplyBlock(
+                    L21.subMatrixView(rowFrom, 0, rowTo - rowFrom, kb),
+                    scaledL21.subMatrixView(0, 0, rowTo, kb).transposedView(),
+                    product, 0, rowTo - rowFrom, 0, rowTo
+                )
+                val p = product.getData()
+                for (i in rowFrom until rowTo) {
+                    val rowI = getRowStart(end + i) + end
+                    val productRow = (i - rowFrom) * rowTo
+                    for (j in 0..i) {
+                        L[rowI + j] -= p[productRow + j]
+                    }
+                }
+            }
+        }
+        return true
+    }
+
+    // Returns the elem 'p' of the row which starts at 'row' multiplied by the elem 'p' of D (it is 1 for LL^T)
+    private fun getScaled(row: Int, p: Int): Double =
+        if (form == Form.LLT) L[row + p] else L[row + p] * L[getRowStart(p) + p]
+
+    // Computes the elem (i, j) of L by the columns of the panel from 'k' until 'j', the rows start at 'rowI' and 'rowJ'
+    private fun factorizeElem(rowI: Int, rowJ: Int, k: Int, j: Int) {
+        var sum = L[rowI + j]
+        for (p in k until j) {
+            sum -= getScaled(rowI, p) * L[rowJ + p]
+        }
+        L[rowI + j] = sum / L[rowJ + j]
+    }
+
+    /**
+     * Returns the lower triangular factor L.
+     *
+     * @return This method returns lower triangular matrix of [Matrix] type, its diagonal is unit for [Form.LDLT] form.
+     */
+    fun getLowerTriangularMatrix(): Matrix {
+        val result = Matrix(n, n)
+        for (i in 0 until n) {
+            val rowI = getRowStart(i)
+            for (j in 0 until i) {
+                result.setElem(i, j, L[rowI + j])
+            }
+            result.setElem(i, i, if (form == Form.LLT) L[rowI + i] else 1.0)
+        }
+        return result
+    }
+
+    /**
+     * Returns the diagonal of the factor D.
+     *
+     * @return This method returns the diagonal of D of [Vector] type, it is unit for [Form.LLT] form.
+     */
+    fun getDiagonal(): Vector = Vector(DoubleArray(n) { i -> if (form == Form.LLT) 1.0 else L[getRowStart(i) + i] })
+
+    private fun checkNonSingular() {
+        if (!isNonSingular) {
+            throw RuntimeException(if (form == Form.LLT) "Matrix is not symmetric positive definite." else "Matrix has a singular leading minor.")
+        }
+    }
+
+    /**
+     * Matrix determinant.
+     *
+     * @return the determinant of the input matrix which is represented as [Double] output type.
+     * @exception RuntimeException The decomposition does not exist.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun determinant(): Double {
+        checkNonSingular()
+        var det = 1.0
+        for (i in 0 until n) {
+            det *= L[getRowStart(i) + i]
+        }
+        return if (form == Form.LLT) det * det else det
+    }
+
+    /**
+     * Natural logarithm of the matrix determinant.
+     *
+     * The logarithm is summed by the elems of the diagonal, so it does not overflow as the determinant of the large matrix.
+     *
+     * @return the logarithm of the determinant of the input matrix which is represented as [Double] output type,
+     * it is *NaN* if the determinant is negative.
+     * @exception RuntimeException The decomposition does not exist.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun logDeterminant(): Double {
+        checkNonSingular()
+        var sum = 0.0
+        for (i in 0 until n) {
+            sum += ln(L[getRowStart(i) + i])
+        }
+        return if (form == Form.LLT) 2.0 * sum else sum
+    }
+
+    /**
+     * Solves the system A * x = b by the decomposition.
+     *
+     * @param [b] is the right side of the system of the size n.
+     *
+     * @return the solution x which is represented as new [Vector] output type.
+     * @exception IllegalArgumentException The size of the vector does not match to the size of the matrix.
+     * @exception RuntimeException The decomposition does not exist.
+     *
+     * Asymptotic complexity: O(n^2)
+     */
+    fun solve(b: Vector): Vector {
+        require(b.getN() == n) { "The size of 'b' vector does not match to size of the matrix." }
+        checkNonSingular()
+
+        val x = b.getData().copyOf()
+        // Solve L * y = b
+        for (i in 0 until n) {
+            val rowI = getRowStart(i)
+            var sum = x[i]
+            for (p in 0 until i) {
+                sum -= L[rowI + p] * x[p]
+            }
+            // The unit diagonal of L of LDL^T form is not stored
+            x[i] = if (form == Form.LLT) sum / L[rowI + i] else sum
+        }
+        // Solve D * z = y
+        if (form == Form.LDLT) {
+            for (i in 0 until n) {
+                x[i] /= L[getRowStart(i) + i]
+            }
+        }
+        // Solve L^T * x = z by the rows of L
+        for (i in n - 1 downTo 0) {
+            val rowI = getRowStart(i)
+            if (form == Form.LLT) {
+                x[i] /= L[rowI + i]
+            }
+            val xi = x[i]
+            for (p in 0 until i) {
+                x[p] -= L[rowI + p] * xi
+            }
+        }
+        return Vector(x)
+    }
+
+    /**
+     * Solves the systems A * X = B with many right sides (the columns of B) by the decomposition.
+     *
+     * @param [B] is the matrix with n rows, which columns are the right sides of the systems.
+     *
+     * @return the solutions X (the column 'j' is the solution for the column 'j' of B) which are represented as new [Matrix] output type.
+     * @exception IllegalArgumentException The count of the rows of B does not match to the size of the matrix.
+     * @exception RuntimeException The decomposition does not exist.
+     *
+     * Asymptotic complexity: O(n^2 * p), where p is the count of the right sides.
+     */
+    fun solve(B: Matrix): Matrix {
+        require(B.getN() == n) { "Matrix row dimensions must agree." }
+        checkNonSingular()
+
+        val p = B.getM()
+        val result = Matrix(n, p)
+        val x = result.getData()
+        for (i in 0 until n) {
+            for (j in 0 until p) {
+                x[i * p + j] = B.getElem(i, j)
+            }
+        }
+
+        // Solve L * Y = B, the rows of X are updated as the whole, so the inner loops are contiguous
+        for (i in 0 until n) {
+            val rowI = getRowStart(i)
+            for (k in 0 until i) {
+                val l = L[rowI + k]
+                if (l == 0.0) continue
+                for (j in 0 until p) {
+                    x[i * p + j] -= l * x[k * p + j]
+                }
+            }
+            if (form == Form.LLT) {
+                val diagonal = L[rowI + i]
+                for (j in 0 until p) {
+                    x[i * p + j] /= diagonal
+                }
+            }
+        }
+        // Solve D * Z = Y
+        if (form == Form.LDLT) {
+            for (i in 0 until n) {
+                val diagonal = L[getRowStart(i) + i]
+                for (j in 0 until p) {
+                    x[i * p + j] /= diagonal
+                }
+            }
+        }
+        // Solve L^T * X = Z by the rows of L
+        for (i in n - 1 downTo 0) {
+            val rowI = getRowStart(i)
+            if (form == Form.LLT) {
+                val diagonal = L[rowI + i]
+                for (j in 0 until p) {
+                    x[i * p + j] /= diagonal
+                }
+            }
+            for (k in 0 until i) {
+                val l = L[rowI + k]
+                if (l == 0.0) continue
+                for (j in 0 until p) {
+                    x[k * p + j] -= l * x[i * p + j]
+                }
+            }
+        }
+        return result
+    }
+}
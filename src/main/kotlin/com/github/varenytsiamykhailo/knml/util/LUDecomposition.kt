@@ -5,6 +5,8 @@ package com.github.varenytsiamykhailo.knml.util
  *
  * This method calculates matrix LU decomposition of the [Double] type.
  *
+ * If the input matrix is the [OffHeapMatrix], the lower and the upper matrices are off-heap too and should be closed.
+ *
  * @param [matrix] is the input matrix.
  *
  * @return the result of the calculation of LU decomposition of current matrix
@@ -12,9 +14,10 @@ package com.github.varenytsiamykhailo.knml.util
 class LUDecomposition(private var matrix: Matrix) {
     private val n = matrix.getN()
 
-    var lowerMatrix = Matrix(n, n)
+    // The factors are created by the input matrix, so the factors of the off-heap matrix are off-heap too
+    var lowerMatrix = matrix.createMatrix(n, n)
 
-    var upperMatrix = Matrix(n, n)
+    var upperMatrix = matrix.createMatrix(n, n)
 
     /**
      * Returns lower triangular matrix.
@@ -0,0 +1,126 @@
+package com.github.varenytsiamykhailo.knml.util
+
+/**
+ * Linear operator implementation.
+ *
+ * The linear operator is the square matrix, which is known only by its multiplication by the vector and its diagonal:
+ * the iterative methods do not need the elems of the matrix, so the operator may compute the multiplication
+ * by the stencil of the discretized equation in O(n) time without the storage of the matrix.
+ * The system with 10^7 unknowns takes the memory of a few vectors.
+ *
+ * Use [of] methods to wrap the dense or the sparse matrix into the operator.
+ *
+ * @see Matrix
+ * @see SparseMatrix
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Matrix-free_methods]
+ */
+interface LinearOperator {
+
+    /**
+     * Returns n - the count of rows and columns of the operator matrix, starting from 1.
+     *
+     * @return This method returns n of [Int] type value.
+     */
+    fun getN(): Int
+
+    /**
+     * Multiplies the operator matrix by the vector: 'y = A * x'.
+     *
+     * @param [x] is the input vector of the size [getN], it is not changed.
+     * @param [y] is the output vector of the size [getN]. It must not be the [x] vector.
+     */
+    fun apply(x: Vector, y: Vector)
+
+    /**
+     * Returns the diagonal of the operator matrix.
+     *
+     * @return This method returns the diagonal elems which are represented as [Vector] of the size [getN].
+     */
+    fun getDiagonal(): Vector
+
+    companion object {
+        /**
+         * Wraps the dense matrix into the operator without copying, so the changes of the matrix are reflected in the operator.
+         *
+         * Asymptotic complexity: O(n^2) per multiplication.
+         *
+         * @param [matrix] is the square matrix. It may be a view or an off-heap matrix.
+         *
+         * @return the operator of the matrix which is represented as [LinearOperator] type.
+         */
+        @JvmStatic
+        fun of(matrix: Matrix): LinearOperator {
+            require(matrix.getN() == matrix.getM()) { "The size of the matrix must be square (the number of rows must match the number of columns)." }
+            return MatrixOperator(matrix)
+        }
+
+        /**
+         * Wraps the sparse matrix into the operator without copying, so the changes of the matrix values are reflected in the operator.
+         *
+         * The parallel multiplication gives exactly the same result as the sequential one.
+         *
+         * Asymptotic complexity: O(nnz + n) per multiplication.
+         *
+         * @param [matrix] is the square sparse matrix.
+         * @param [parallel] is the flag, that says that the multiplication is parallel.
+         *
+         * @return the operator of the matrix which is represented as [LinearOperator] type.
+         */
+        @JvmStatic
+        fun of(matrix: SparseMatrix, parallel: Boolean = false): LinearOperator {
+            require(matrix.getN() == matrix.getM()) { "The size of the matrix must be square (the number of rows must match the number of columns)." }
+            return SparseMatrixOperator(matrix, parallel)
+        }
+
+        // Checks the sizes of the vectors of the multiplication
+        internal fun checkVectors(n: Int, x: Vector, y: Vector) {
+            require(x.getN() == n && y.getN() == n) { "The size of the vectors must match the size of the operator." }
+            require(x.getData() !== y.getData()) { "The 'y' vector must not share the storage with the 'x' vector." }
+        }
+    }
+}
+
+private class MatrixOperator(private val matrix: Matrix) : LinearOperator {
+
+    override fun getN(): Int = matrix.getN()
+
+    override fun apply(x: Vector, y: Vector) {
+        val n = getN()
+        LinearOperator.checkVectors(n, x, y)
+        val xElems = x.getData()
+        val yElems = y.getData()
+        val a: DoubleArray? = if (matrix.hasArray()) matrix.getData() else null
+        val offset: Int = if (a != null) matrix.getOffset() else 0
+        val rowStride: Int = if (a != null) matrix.getRowStride() else 0
+        val colStride: Int = if (a != null) matrix.getColStride() else 0
+        for (i in 0 until n) {
+            var sum = 0.0
+            if (a != null) {
+                val rowOffset = offset + i * rowStride
+                for (j in 0 until n) {
+                    sum += a[rowOffset + j * colStride] * xElems[j]
+                }
+            } else {
+                for (j in 0 until n) {
+                    sum += matrix.getElem(i, j) * xElems[j]
+                }
+            }
+            yElems[i] = sum
+        }
+    }
+
+    override fun getDiagonal(): Vector = Vector(DoubleArray(getN()) { i -> matrix.getElem(i, i) })
+}
+
+private class SparseMatrixOperator(private val matrix: SparseMatrix, private val parallel: Boolean) : LinearOperator {
+
+    override fun getN(): Int = matrix.getN()
+
+    override fun apply(x: Vector, y: Vector) {
+        LinearOperator.checkVectors(getN(), x, y)
+        matrix.multiplyVector(x.getData(), y.getData(), parallel)
+    }
+
+    override fun getDiagonal(): Vector = Vector(DoubleArray(getN()) { i -> matrix.getElem(i, i) })
+}
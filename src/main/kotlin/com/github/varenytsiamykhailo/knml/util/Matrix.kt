@@ -20,27 +20,69 @@ import kotlin.math.abs
  * Use [setElem] or [setElems] methods to set values after creating instance by this constructor.
  *
  * @see Vector
+ * @see OffHeapMatrix
  */
-class Matrix constructor(
+open class Matrix constructor(
     private var n: Int,
     private var m: Int
 ) : Serializable { // getter methods for the 'n', 'm' fields defined below
 
-    private var elems: Array<Array<Double>> =
-        emptyArray() // getter and setter methods for the 'elems' field defined below
+    // Elements are stored in a flat primitive array: the elem (i, j) is located at 'offset + i * rowStride + j * colStride'.
+    // This avoids boxing of each element into java.lang.Double and the additional pointer hop to the row array.
+    // The views (see 'subMatrixView' and 'transposedView') share the array of the parent matrix with other offset and strides.
+    private var elems: DoubleArray = DoubleArray(0) // getter and setter methods for the 'elems' field defined below
+
+    private var offset: Int = 0 // the position in 'elems' of the elem (0, 0)
+
+    private var rowStride: Int = 0 // the distance in 'elems' between the first elems of two neighbouring rows
+
+    private var colStride: Int = 1 // the distance in 'elems' between two neighbouring elems of a row
 
     init {
-        this.elems = Array(n) { Array(m) { 0.0 } }
+        this.elems = DoubleArray(n * m)
+        this.rowStride = m
     }
 
     /**
      *
      * This constructor initializes the matrix by the input [Array]<[Array]<[Double]>> elems.
      *
+     * The input elems are copied into the internal primitive storage of the matrix.
+     *
      * Use [setElem] or [setElems] methods to set values after creating instance by this constructor.
      */
     constructor(elems: Array<Array<Double>>) : this(elems.size, elems[0].size) {
-        this.elems = elems
+        copyFrom(elems)
+    }
+
+    /**
+     *
+     * This constructor initializes the matrix by the input row-major [DoubleArray] elems without copying them.
+     *
+     * The elem (i, j) of the matrix is located at the position 'i * rowStride + j' of the [data] array.
+     *
+     * @param [n] is the count of rows (first dimension) of the matrix, starting from 1.
+     * @param [m] is the count of columns (second dimension) of the matrix, starting from 1.
+     * @param [data] is the row-major storage of the matrix elems.
+     * @param [rowStride] is the distance between the first elems of two neighbouring rows, must be not less than [m].
+     */
+    constructor(n: Int, m: Int, data: DoubleArray, rowStride: Int = m) : this(0, 0) {
+        require(rowStride >= m) { "The 'rowStride' must be not less than the count of columns 'm'." }
+        require(n == 0 || data.size >= (n - 1) * rowStride + m) { "The size of 'data' array is too small for the ${n}x${m} matrix with the row stride ${rowStride}." }
+        this.n = n
+        this.m = m
+        this.elems = data
+        this.rowStride = rowStride
+    }
+
+    // Creates the view of the 'data' array, the bounds are checked by the callers
+    protected constructor(n: Int, m: Int, data: DoubleArray, offset: Int, rowStride: Int, colStride: Int) : this(0, 0) {
+        this.n = n
+        this.m = m
+        this.elems = data
+        this.offset = offset
+        this.rowStride = rowStride
+        this.colStride = colStride
     }
 
     /**
@@ -53,7 +95,7 @@ class Matrix constructor(
      *
      * @return This method returns elem (coordinate) of [Double] type value by [n] and [m] - position of the elem in the matrix.
      */
-    fun getElem(n: Int, m: Int): Double = elems[n][m]
+    open fun getElem(n: Int, m: Int): Double = elems[offset + n * rowStride + m * colStride]
 
     /**
      * Sets elem (coordinate).
@@ -64,32 +106,126 @@ class Matrix constructor(
      * @param [n] is the count of rows (first dimension) of the matrix, starting from 1.
      * @param [m] is the count of columns (second dimension) of the matrix, starting from 1.
      */
-    fun setElem(n: Int, m: Int, elem: Double) {
-        elems[n][m] = elem
+    open fun setElem(n: Int, m: Int, elem: Double) {
+        elems[offset + n * rowStride + m * colStride] = elem
     }
 
     /**
      * Returns [Array]<[Array]<[Double]>> elems (coordinates) of the matrix.
      *
+     * The returned array is a boxed copy of the internal storage, so its changes are not reflected in the matrix.
+     * Use [setElem] or [setElems] methods to change the matrix, or [getData] method to access the primitive storage.
+     *
      * If you need only one elem (coordinate) by it's position in the matrix, you can use [getElem] method.
      *
      * @return This method returns elems (coordinates) of [Array]<[Array]<[Double]>> type value of the matrix.
      */
-    fun getElems(): Array<Array<Double>> = this.elems
+    fun getElems(): Array<Array<Double>> = Array(n) { i ->
+        if (hasArray()) {
+            val rowOffset = offset + i * rowStride
+            Array(m) { j -> elems[rowOffset + j * colStride] }
+        } else {
+            Array(m) { j -> getElem(i, j) }
+        }
+    }
 
     /**
      * Sets [Array]<[Array]<[Double]>> elems (coordinates) of the matrix.
      *
+     * The input elems are copied into the new internal primitive storage of the matrix,
+     * so if the matrix is a view, it is detached from the storage of the parent matrix.
+     *
      * If you need to set only one elem (coordinate) by it's position in the matrix, you can use [setElem] method.
      *
      * @param [elems] This method sets elems (coordinates) of [Array]<[Array]<[Double]>> type value of the matrix.
      */
-    fun setElems(elems: Array<Array<Double>>) {
-        this.elems = elems
+    open fun setElems(elems: Array<Array<Double>>) {
         this.n = elems.size
         this.m = elems[0].size
+        copyFrom(elems)
+    }
+
+    /**
+     * Returns the primitive storage of the matrix without copying.
+     *
+     * The elem (i, j) of the matrix is located at the position '[getOffset] + i * [getRowStride] + j * [getColStride]'
+     * of the returned array, so the changes of the returned array are reflected in the matrix.
+     *
+     * @return This method returns the storage of the matrix of [DoubleArray] type.
+     * @throws UnsupportedOperationException if the matrix is not stored on the heap (see [hasArray]).
+     */
+    open fun getData(): DoubleArray = this.elems
+
+    /**
+     * Checks if the elems of the matrix are stored in the [DoubleArray] on the heap.
+     *
+     * @return `true` if the [getData], [getOffset], [getRowStride] and [getColStride] methods describe the storage of the matrix,
+     * `false` if the matrix is stored in other way (for example, off-heap, see [OffHeapMatrix]).
+     */
+    open fun hasArray(): Boolean = true
+
+    /**
+     * Returns the offset of the matrix storage.
+     *
+     * @return This method returns the position of the elem (0, 0) in the [getData] array.
+     */
+    open fun getOffset(): Int = this.offset
+
+    /**
+     * Returns the row stride of the matrix storage.
+     *
+     * @return This method returns the distance between the first elems of two neighbouring rows in the [getData] array.
+     */
+    open fun getRowStride(): Int = this.rowStride
+
+    /**
+     * Returns the column stride of the matrix storage.
+     *
+     * It is 1 for the row-major matrices and it is not 1 for the transposed views.
+     *
+     * @return This method returns the distance between two neighbouring elems of a row in the [getData] array.
+     */
+    open fun getColStride(): Int = this.colStride
+
+    /**
+     * Returns the view of the block of the matrix without copying.
+     *
+     * The view shares the storage with the current matrix, so the changes of the view are reflected in the matrix and vice versa.
+     *
+     * @param [row] is the index of the first row of the block.
+     * @param [col] is the index of the first column of the block.
+     * @param [n] is the count of rows of the block.
+     * @param [m] is the count of columns of the block.
+     *
+     * @return This method returns the [n] x [m] view of the [Matrix] type, which elem (i, j) is the elem (row + i, col + j) of the current matrix.
+     */
+    open fun subMatrixView(row: Int, col: Int, n: Int, m: Int): Matrix {
+        checkBlock(row, col, n, m)
+        return Matrix(n, m, elems, offset + row * rowStride + col * colStride, rowStride, colStride)
     }
 
+    /**
+     * Returns the transposed view of the matrix without copying.
+     *
+     * The view shares the storage with the current matrix, so the changes of the view are reflected in the matrix and vice versa.
+     * Use [transpose] method to get the transposed copy of the matrix.
+     *
+     * @return This method returns the [getM] x [getN] view of the [Matrix] type, which elem (i, j) is the elem (j, i) of the current matrix.
+     */
+    open fun transposedView(): Matrix = Matrix(m, n, elems, offset, colStride, rowStride)
+
+    protected fun checkBlock(row: Int, col: Int, n: Int, m: Int) {
+        require(row >= 0 && col >= 0 && n >= 0 && m >= 0 && row + n <= this.n && col + m <= this.m) {
+            "The block [$row, ${row + n}) x [$col, ${col + m}) is out of the bounds of the ${this.n}x${this.m} matrix."
+        }
+    }
+
+    // Returns the object which identifies the storage, the matrices with the same storage may overlap
+    internal open fun getStorage(): Any = this.elems
+
+    // Creates the matrix for the results of the operations, the off-heap matrices create the off-heap results
+    internal open fun createMatrix(n: Int, m: Int): Matrix = Matrix(n, m)
+
     /**
      * Returns [n] - the count of rows (first dimension) of the matrix, starting from 1.
      *
@@ -108,6 +244,21 @@ class Matrix constructor(
      */
     fun getM() = this.m
 
+    private fun copyFrom(elems: Array<Array<Double>>) {
+        val data = DoubleArray(n * m)
+        for (i in 0 until n) {
+            val row = elems[i]
+            val rowOffset = i * m
+            for (j in 0 until m) {
+                data[rowOffset + j] = row[j]
+            }
+        }
+        this.elems = data
+        this.offset = 0
+        this.rowStride = m
+        this.colStride = 1
+    }
+
     /**
      * Returns `true` if the matrix is square, meaning it has the same number of [rows][.n] and [columns][.m].
      * @return `true` if this matrix is square, `false` if it is rectangular.
@@ -144,56 +295,125 @@ class Matrix constructor(
      * Matrix multiplication.
      *
      * This method implements matrix multiplication of current matrix and input matrix of the [Matrix] type.
+     * The cache-blocked kernel of [BlockedMultiplicationAlgorithm] is used.
      *
      * @param [matrix] the input matrix.
      *
      * @return the result of the multiplication of two matrices which is represented as new [Matrix] output type.
      *
-     * Asymptotic complexity: O(n * m)
+     * Asymptotic complexity: O(n * m * p)
      */
     @Throws(java.lang.Exception::class)
     fun multiply(matrix: Matrix): Matrix {
-        require(this.getM() == matrix.getN() || this.getN() == matrix.getM()) { "The size of 'matrix1.m' does not match to size of 'matrix2.n'" }
+        require(this.getM() == matrix.getN()) { "The size of 'matrix1.m' does not match to size of 'matrix2.n'" }
 
-        val matrixElemsResult: Array<Array<Double>> =
-            Array(this.getN()) { Array(matrix.getM()) { 0.0 } }
+        return multiplyInto(matrix, createMatrix(this.getN(), matrix.getM()))
+    }
 
-        // index 'i' matches to this matrix row and result matrix row
-        for (i in 0 until this.getN()) {
-            // index 'j' matches to 'matrix' column and result matrix column
-            for (j in 0 until matrix.getM()) {
-                // index 'k' matches to this matrix column and 'matrix' row
-                for (k in 0 until this.getM()) {
-                    matrixElemsResult[i][j] += this.getElem(i, k) * matrix.getElem(k, j)
-                }
-            }
-        }
+    /**
+     * Matrix multiplication into the destination matrix.
+     *
+     * This method implements matrix multiplication of current matrix and input matrix of the [Matrix] type
+     * and writes the result into the [dest] matrix instead of allocating a new one.
+     *
+     * @param [matrix] the input matrix.
+     * @param [dest] the matrix of the size [getN] x matrix.[getM] for the result. It must not be one of the operands.
+     *
+     * @return the [dest] matrix which contains the result of the multiplication of two matrices.
+     *
+     * Asymptotic complexity: O(n * m * p)
+     */
+    @Throws(java.lang.Exception::class)
+    fun multiplyInto(matrix: Matrix, dest: Matrix): Matrix {
+        return BlockedMultiplicationAlgorithm.DEFAULT.multiplyInto(this, matrix, dest)
+    }
 
-        return Matrix(matrixElemsResult)
+    /**
+     * Parallel matrix multiplication.
+     *
+     * This method implements matrix multiplication of current matrix and input matrix of the [Matrix] type
+     * on all the available processors with using [ParallelMultiplicationAlgorithm].
+     * The result is exactly the same as the result of [multiply].
+     * To set the parallelism level create the [ParallelMultiplicationAlgorithm] instance.
+     *
+     * @param [matrix] the input matrix.
+     *
+     * @return the result of the multiplication of two matrices which is represented as new [Matrix] output type.
+     *
+     * Asymptotic complexity: O(n * m * p / parallelism)
+     */
+    @Throws(java.lang.Exception::class)
+    fun multiplyParallel(matrix: Matrix): Matrix {
+        require(this.getM() == matrix.getN()) { "The size of 'matrix1.m' does not match to size of 'matrix2.n'" }
+
+        return ParallelMultiplicationAlgorithm.DEFAULT.multiply(this, matrix)
     }
 
     /**
      * Matrix multiplicate number.
      *
      * This method implements multiplication of current matrix of the [Matrix] type and number of the [Double] type.
+     * The elems of the current matrix are multiplied in place, no new matrix is allocated.
      *
      * @param [number] the input number with type Double.
      *
-     * @return the result of the multiplication of matrix and number which is represented as new [Matrix] output type.
+     * @return the current matrix which contains the result of the multiplication of matrix and number.
      *
      * Asymptotic complexity: O(n * m)
      */
     @Throws(Exception::class)
     fun multiply(number: Double): Matrix {
-        // index 'i' matches to matrix row and result vector row
+        return multiplyInto(number, this)
+    }
+
+    /**
+     * Matrix multiplicate number into the destination matrix.
+     *
+     * This method implements multiplication of current matrix of the [Matrix] type and number of the [Double] type
+     * and writes the result into the [dest] matrix instead of allocating a new one.
+     *
+     * @param [number] the input number with type Double.
+     * @param [dest] the matrix of the same size for the result. It may be the current matrix.
+     *
+     * @return the [dest] matrix which contains the result of the multiplication of matrix and number.
+     *
+     * Asymptotic complexity: O(n * m)
+     */
+    @Throws(Exception::class)
+    fun multiplyInto(number: Double, dest: Matrix): Matrix {
+        require(this.getN() == dest.getN() && this.getM() == dest.getM()) { "The size of this matrix does not match to size of 'dest'." }
+
+        if (!this.hasArray() || !dest.hasArray()) {
+            for (i in 0 until this.getN()) {
+                for (j in 0 until this.getM()) {
+                    dest.setElem(i, j, this.getElem(i, j) * number)
+                }
+            }
+            return dest
+        }
+
+        val a = this.elems
+        val c = dest.elems
+        // index 'i' matches to matrix row and result matrix row
         for (i in 0 until this.getN()) {
-            // index 'j' matches to matrix column and 'vector' row
+            val aRowOffset = this.offset + i * this.rowStride
+            val cRowOffset = dest.offset + i * dest.rowStride
+            // index 'j' matches to matrix column and result matrix column
             for (j in 0 until this.getM()) {
-                this.setElem(i, j, this.getElem(i, j) * number)
+                c[cRowOffset + j * dest.colStride] = a[aRowOffset + j * this.colStride] * number
             }
         }
 
-        return this
+        return dest
+    }
+
+    /**
+     * Multiplies the current matrix by the number in place, the same as [multiply] by number.
+     *
+     * @param [number] the input number with type Double.
+     */
+    operator fun timesAssign(number: Double) {
+        multiplyInto(number, this)
     }
 
     /**
@@ -211,17 +431,56 @@ class Matrix constructor(
     fun multiply(vector: Vector): Vector {
         require(this.getM() == vector.getN()) { "The size of 'matrix' does not match to size of 'vector'." }
 
-        val vectorElemsResult: Array<Double> = Array(this.getN()) { 0.0 }
+        return multiplyInto(vector, Vector(this.getN()))
+    }
+
+    /**
+     * Matrix multiplicate vector into the destination vector.
+     *
+     * This method implements multiplication of current matrix of the [Matrix] type and vector of the [Vector] type
+     * and writes the result into the [dest] vector instead of allocating a new one.
+     *
+     * @param [vector] the input vector.
+     * @param [dest] the vector of the size [getN] for the result. It must not be the input vector.
+     *
+     * @return the [dest] vector which contains the result of the multiplication of matrix and vector.
+     *
+     * Asymptotic complexity: O(n * m)
+     */
+    @Throws(Exception::class)
+    fun multiplyInto(vector: Vector, dest: Vector): Vector {
+        require(this.getM() == vector.getN()) { "The size of 'matrix' does not match to size of 'vector'." }
+        require(this.getN() == dest.getN()) { "The size of 'matrix' does not match to size of 'dest' vector." }
+        require(vector.getData() !== dest.getData()) { "The 'dest' vector must not share the storage with the multiplied vector." }
+
+        val vectorElemsResult = dest.getData()
+        val x = vector.getData()
+
+        if (!this.hasArray()) {
+            for (i in 0 until this.getN()) {
+                var sum = 0.0
+                for (j in 0 until this.getM()) {
+                    sum += this.getElem(i, j) * x[j]
+                }
+                vectorElemsResult[i] = sum
+            }
+            return dest
+        }
+
+        val a = this.elems
 
         // index 'i' matches to matrix row and result vector row
         for (i in 0 until this.getN()) {
+            val rowOffset = this.offset + i * this.rowStride
+            var sum = 0.0
             // index 'j' matches to matrix column and 'vector' row
             for (j in 0 until this.getM()) {
-                vectorElemsResult[i] += this.getElem(i, j) * vector.getElem(j)
+                sum += a[rowOffset + j * this.colStride] * x[j]
             }
+            vectorElemsResult[i] = sum
         }
 
-        return Vector(vectorElemsResult)
+        return dest
     }
 
     /**
@@ -239,14 +498,75 @@ class Matrix constructor(
     fun add(matrix: Matrix): Matrix {
         require(this.getN() == matrix.getN() && this.getM() == matrix.getM()) { "The size of this matrix does not match to size of 'matrix'." }
 
-        val result = Matrix(this.getN(), this.getM())
+        return addInto(matrix, createMatrix(this.getN(), this.getM()))
+    }
+
+    /**
+     * Matrix addition matrix into the destination matrix.
+     *
+     * This method implements matrix addition of current matrix and input matrix of the [Matrix] type
+     * and writes the result into the [dest] matrix instead of allocating a new one.
+     *
+     * @param [matrix] the input matrix.
+     * @param [dest] the matrix of the same size for the result. It may be one of the operands.
+     *
+     * @return the [dest] matrix which contains the result of the addition of two matriсes.
+     *
+     * Asymptotic complexity: O(n * m)
+     */
+    @Throws(Exception::class)
+    fun addInto(matrix: Matrix, dest: Matrix): Matrix {
+        require(this.getN() == matrix.getN() && this.getM() == matrix.getM()) { "The size of this matrix does not match to size of 'matrix'." }
+        require(this.getN() == dest.getN() && this.getM() == dest.getM()) { "The size of this matrix does not match to size of 'dest'." }
+
+        if (!this.hasArray() || !matrix.hasArray() || !dest.hasArray()) {
+            for (i in 0 until dest.getN()) {
+                for (j in 0 until dest.getM()) {
+                    dest.setElem(i, j, this.getElem(i, j) + matrix.getElem(i, j))
+                }
+            }
+            return dest
+        }
+
+        val a = this.elems
+        val b = matrix.elems
+        val c = dest.elems
 
-        for (i in 0 until result.getN()) {
-            for (j in 0 until result.getM()) {
-                result.setElem(i, j, this.getElem(i, j) + matrix.getElem(i, j))
+        for (i in 0 until dest.getN()) {
+            val aRowOffset = this.offset + i * this.rowStride
+            val bRowOffset = matrix.offset + i * matrix.rowStride
+            val cRowOffset = dest.offset + i * dest.rowStride
+            for (j in 0 until dest.getM()) {
+                c[cRowOffset + j * dest.colStride] = a[aRowOffset + j * this.colStride] + b[bRowOffset + j * matrix.colStride]
             }
         }
-        return result
+        return dest
+    }
+
+    /**
+     * Matrix addition matrix in place.
+     *
+     * This method implements matrix addition of current matrix and input matrix of the [Matrix] type
+     * and writes the result into the current matrix.
+     *
+     * @param [matrix] the input matrix.
+     *
+     * @return the current matrix which contains the result of the addition of two matriсes.
+     *
+     * Asymptotic complexity: O(n * m)
+     */
+    @Throws(Exception::class)
+    fun addInPlace(matrix: Matrix): Matrix {
+        return addInto(matrix, this)
+    }
+
+    /**
+     * Addition of the input matrix in place, the same as [addInPlace].
+     *
+     * @param [matrix] the input matrix.
+     */
+    operator fun plusAssign(matrix: Matrix) {
+        addInto(matrix, this)
     }
 
     /**
@@ -264,14 +584,75 @@ class Matrix constructor(
     fun sub(matrix: Matrix): Matrix {
         require(this.getN() == matrix.getN() && this.getM() == matrix.getM()) { "The size of this matrix does not match to size of 'matrix'." }
 
-        val result = Matrix(this.getN(), this.getM())
+        return subInto(matrix, createMatrix(this.getN(), this.getM()))
+    }
 
-        for (i in 0 until result.getN()) {
-            for (j in 0 until result.getM()) {
-                result.setElem(i, j, this.getElem(i, j) - matrix.getElem(i, j))
+    /**
+     * Matrix substraction matrix into the destination matrix.
+     *
+     * This method implements matrix substraction of current matrix and input matrix of the [Matrix] type
+     * and writes the result into the [dest] matrix instead of allocating a new one.
+     *
+     * @param [matrix] the input matrix.
+     * @param [dest] the matrix of the same size for the result. It may be one of the operands.
+     *
+     * @return the [dest] matrix which contains the result of the substraction of two matriсes.
+     *
+     * Asymptotic complexity: O(n * m)
+     */
+    @Throws(Exception::class)
+    fun subInto(matrix: Matrix, dest: Matrix): Matrix {
+        require(this.getN() == matrix.getN() && this.getM() == matrix.getM()) { "The size of this matrix does not match to size of 'matrix'." }
+        require(this.getN() == dest.getN() && this.getM() == dest.getM()) { "The size of this matrix does not match to size of 'dest'." }
+
+        if (!this.hasArray() || !matrix.hasArray() || !dest.hasArray()) {
+            for (i in 0 until dest.getN()) {
+                for (j in 0 until dest.getM()) {
+                    dest.setElem(i, j, this.getElem(i, j) - matrix.getElem(i, j))
+                }
             }
+            return dest
         }
-        return result
+
+        val a = this.elems
+        val b = matrix.elems
+        val c = dest.elems
+
+        for (i in 0 until dest.getN()) {
+            val aRowOffset = this.offset + i * this.rowStride
+            val bRowOffset = matrix.offset + i * matrix.rowStride
+            val cRowOffset = dest.offset + i * dest.rowStride
+            for (j in 0 until dest.getM()) {
+                c[cRowOffset + j * dest.colStride] = a[aRowOffset + j * this.colStride] - b[bRowOffset + j * matrix.colStride]
+            }
+        }
+        return dest
+    }
+
+    /**
+     * Matrix substraction matrix in place.
+     *
+     * This method implements matrix substraction of current matrix and input matrix of the [Matrix] type
+     * and writes the result into the current matrix.
+     *
+     * @param [matrix] the input matrix.
+     *
+     * @return the current matrix which contains the result of the substraction of two matriсes.
+     *
+     * Asymptotic complexity: O(n * m)
+     */
+    @Throws(Exception::class)
+    fun subInPlace(matrix: Matrix): Matrix {
+        return subInto(matrix, this)
+    }
+
+    /**
+     * Substraction of the input matrix in place, the same as [subInPlace].
+     *
+     * @param [matrix] the input matrix.
+     */
+    operator fun minusAssign(matrix: Matrix) {
+        subInto(matrix, this)
     }
 
     /**
@@ -284,46 +665,68 @@ class Matrix constructor(
      * Asymptotic complexity: O(n * m)
      */
     fun transpose(): Matrix {
-        val matrixElems: Array<Array<Double>> = this.getElems()
-        val resultMatrixElems = Array(matrixElems[0].size) { Array(matrixElems.size) { 0.0 } }
+        val result = createMatrix(this.getM(), this.getN())
 
-        for (i in matrixElems.indices) {
-            for (j in matrixElems[0].indices) {
-                resultMatrixElems[j][i] = matrixElems[i][j]
+        if (!this.hasArray() || !result.hasArray()) {
+            for (i in 0 until this.getN()) {
+                for (j in 0 until this.getM()) {
+                    result.setElem(j, i, this.getElem(i, j))
+                }
             }
+            return result
         }
 
-        return Matrix(resultMatrixElems)
+        val a = this.elems
+        val c = result.elems
+
+        for (i in 0 until this.getN()) {
+            val aRowOffset = this.offset + i * this.rowStride
+            for (j in 0 until this.getM()) {
+                c[j * result.rowStride + i] = a[aRowOffset + j * this.colStride]
+            }
+        }
+
+        return result
     }
 
     /**
      * Invertible Matrix.
      *
-     * Inverse of a matrix exists only if the matrix is non-singular i.e., determinant should not be 0. Using determinant and adjoint, we can easily find the inverse of a square matrix.
+     * Inverse of a matrix exists only if the matrix is non-singular i.e., determinant should not be 0.
+     * The inverse matrix is computed by the LU decomposition with partial pivoting (see [PivotedLUDecomposition]):
+     * its columns are the solutions of the systems with the columns of the identity matrix.
      *
      * This method implements inverse of matrix of the [Matrix] type.
      *
-     * @return the result of the inversion of matrix which is represented as new [Matrix] output type.
+     * @return the result of the inversion of matrix which is represented as new [Matrix] output type,
+     * or *null* if the matrix is singular.
      *
-     * Asymptotic complexity: O(n^2) * O_det
+     * Asymptotic complexity: O(n^3), the decomposition and the result take 2 * n^2 memory.
      */
     fun invertible(): Matrix? {
-        val n = this.getN()
-        val det = this.determinantWithGauss()
-        if (det == 0.0) {
+        val decomposition = PivotedLUDecomposition(this)
+        if (!decomposition.isNonSingular) {
             println("Singular matrix, can't find its inverse")
             return null
         }
+        return decomposition.inverse()
+    }
 
-        val inverseMatrix = Matrix(n, n)
-        val adjMatrix = this.adjoint()
+    // The determinant of the leading n x n block by the cofactor expansion along the first row, O(n!).
+    // It is exact for the small integer matrices, so it is kept for the adjoint matrix
+    private fun getCofactorDeterminant(n: Int): Double {
+        if (n == 1) return this.getElem(0, 0)
 
-        for (i in 0 until n) {
-            for (j in 0 until n) {
-                inverseMatrix.setElem(i, j, adjMatrix.getElem(i, j) / det)
-            }
+        val temp = Matrix(n, n)
+        var sign = 1
+        var det = 0.0
+
+        for (f in 0 until n) {
+            getCofactor(this, temp, 0, f, n)
+            det += sign * this.getElem(0, f) * temp.getCofactorDeterminant(n - 1)
+            sign = -sign
         }
-        return inverseMatrix
+        return det
     }
 
     private fun getCofactor(mat: Matrix, temp: Matrix, p: Int, q: Int, n: Int) {
@@ -346,27 +749,36 @@ class Matrix constructor(
     /**
      * Matrix determinant.
      *
-     * This is a classic method that calculates matrix determinant of the [Double] type.
+     * This method calculates matrix determinant of the [Double] type by the LU decomposition with partial pivoting
+     * (see [PivotedLUDecomposition]): it is the product of the diagonal elems of U and the sign of the permutation.
      *
-     * @param [n] the row size of input matrix.
+     * @param [n] the row size of input matrix. The determinant of the leading n x n block is calculated if it is less than the size.
      *
      * @return the result of the calculation of determinant of current matrix which is represented as [Double] output type.
      *
-     * Asymptotic complexity: O(n!)
+     * Asymptotic complexity: O(n^3)
      */
     fun determinant(n: Int): Double {
         if (n == 1) return this.getElem(0, 0)
 
-        val temp = Matrix(n, n)
-        var sign = 1
-        var det = 0.0
+        val matrix = if (n == this.n && n == this.m) this else subMatrixView(0, 0, n, n)
+        return PivotedLUDecomposition(matrix).determinant()
+    }
 
-        for (f in 0 until n) {
-            getCofactor(this, temp, 0, f, n)
-            det += sign * this.getElem(0, f) * temp.determinant(n - 1)
-            sign = -sign
-        }
-        return det
+    /**
+     * Natural logarithm of the absolute value of the matrix determinant.
+     *
+     * The determinant of the large matrix overflows (or underflows) the [Double] type, but its logarithm does not,
+     * because it is summed by the diagonal elems of U of the LU decomposition with partial pivoting (see [PivotedLUDecomposition]).
+     *
+     * @return the logarithm of the absolute value of the determinant of current matrix which is represented as [Double] output type,
+     * it is *-Infinity* for the singular matrix.
+     *
+     * Asymptotic complexity: O(n^3)
+     */
+    fun logDeterminant(): Double {
+        require(isSquare()) { "The matrix must be square." }
+        return PivotedLUDecomposition(this).logAbsDeterminant()
     }
 
     /**
@@ -384,8 +796,9 @@ class Matrix constructor(
         val upperTriangleMatrix = getUpperTriangularMatrix()
         var res = 1.0
         for (i in 0 until upperTriangleMatrix.n) {
-            res *= upperTriangleMatrix.elems[i][i]
+            res *= upperTriangleMatrix.getElem(i, i)
         }
+        (upperTriangleMatrix as? OffHeapMatrix)?.close()
         return res
     }
 
@@ -402,23 +815,49 @@ class Matrix constructor(
      */
     fun getUpperTriangularMatrix(): Matrix {
         // Validation of the matrix and vector sizes
-        if (this.elems.size != this.elems[0].size) {
+        if (this.n != this.m) {
             throw IllegalArgumentException("The size of 'inputA' matrix must be square (the number of rows must match the number of columns).")
         }
 
-        val matrixClone: Array<Array<Double>> = this.elems.map { it.clone() }.toTypedArray()
-        val n: Int = matrixClone.size
+        val n: Int = this.n
+
+        if (!this.hasArray()) {
+            val result = createMatrix(n, n)
+            for (i in 0 until n) {
+                for (j in 0 until n) {
+                    result.setElem(i, j, this.getElem(i, j))
+                }
+            }
+            for (k in 0 until n) {
+                for (i in k + 1 until n) {
+                    val scaler = result.getElem(i, k) / result.getElem(k, k)
+                    for (j in 0 until n) {
+                        result.setElem(i, j, result.getElem(i, j) - scaler * result.getElem(k, j))
+                    }
+                }
+            }
+            return result
+        }
+
+        val result = Matrix(n, n)
+        val matrixClone: DoubleArray = result.elems
+        for (i in 0 until n) {
+            val rowOffset = this.offset + i * this.rowStride
+            for (j in 0 until n) {
+                matrixClone[i * n + j] = this.elems[rowOffset + j * this.colStride]
+            }
+        }
 
         for (k in 0 until n) {
             for (i in k + 1 until n) {
-                val scaler = matrixClone[i][k] / matrixClone[k][k]
+                val scaler = matrixClone[i * n + k] / matrixClone[k * n + k]
                 for (j in 0 until n) {
-                    matrixClone[i][j] = matrixClone[i][j] - scaler * matrixClone[k][j]
+                    matrixClone[i * n + j] = matrixClone[i * n + j] - scaler * matrixClone[k * n + j]
                 }
             }
         }
 
-        return Matrix(matrixClone)
+        return result
     }
 
     /**
@@ -454,7 +893,7 @@ class Matrix constructor(
             for (j in 0 until n) {
                 getCofactor(this, temp, i, j, n)
                 sign = if ((i + j) % 2 == 0) 1 else -1
-                adj.setElem(j, i, sign * temp.determinant(n - 1))
+                adj.setElem(j, i, sign * temp.getCofactorDeterminant(n - 1))
             }
         }
         return adj
@@ -471,15 +910,22 @@ class Matrix constructor(
      */
     fun norm(): Double {
         var max = -1.0
-        val sumVec = Vector(this.getM())
-        for (i in 0 until this.getM()) {
-            var sum = 0.0
-            for (j in 0 until this.getN()) {
-                sum += abs(this.getElem(j, i))
+        val a = this.elems
+        // Column sums are accumulated row by row to walk the storage sequentially
+        val sums = DoubleArray(this.getM())
+        for (j in 0 until this.getN()) {
+            if (!hasArray()) {
+                for (i in 0 until this.getM()) {
+                    sums[i] += abs(getElem(j, i))
+                }
+                continue
+            }
+            val rowOffset = this.offset + j * this.rowStride
+            for (i in 0 until this.getM()) {
+                sums[i] += abs(a[rowOffset + i * this.colStride])
             }
-            sumVec.setElem(i, sum)
         }
-        for (x in sumVec.getElems()) {
+        for (x in sums) {
             if (max <= x) {
                 max = x
             }
@@ -530,13 +976,16 @@ class Matrix constructor(
 
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
-        if (javaClass != other?.javaClass) return false
-
-        other as Matrix
+        if (other !is Matrix) return false
 
         if (n != other.n) return false
         if (m != other.m) return false
-        if (!elems.contentDeepEquals(other.elems)) return false
+        for (i in 0 until n) {
+            for (j in 0 until m) {
+                // Elems are compared the same way as boxed java.lang.Double values are compared by 'equals'
+                if (getElem(i, j).toBits() != other.getElem(i, j).toBits()) return false
+            }
+        }
 
         return true
     }
@@ -544,16 +993,20 @@ class Matrix constructor(
     override fun hashCode(): Int {
         var result = n
         result = 31 * result + m
-        result = 31 * result + elems.contentDeepHashCode()
+        for (i in 0 until n) {
+            for (j in 0 until m) {
+                result = 31 * result + getElem(i, j).hashCode()
+            }
+        }
         return result
     }
 
     override fun toString(): String {
         var elemsStr: String = "\n"
-        for (i in elems.indices) {
+        for (i in 0 until n) {
             elemsStr += "\t"
-            for (elem in elems[i]) {
-                elemsStr += "$elem "
+            for (j in 0 until m) {
+                elemsStr += "${getElem(i, j)} "
             }
             elemsStr += "\n"
         }
@@ -0,0 +1,249 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import java.io.Closeable
+import java.lang.reflect.Method
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.DoubleBuffer
+
+/**
+ * Off-heap matrix implementation.
+ *
+ * This class implements the [Matrix] which elems are stored outside of the Java heap in the direct [ByteBuffer]s,
+ * so the matrices larger than the heap can be created and they do not load the garbage collector.
+ * One direct buffer can not be larger than 2 GB, so the elems are stored row by row in the chunks of [chunkSize] elems.
+ *
+ * The off-heap matrix can be used everywhere the [Matrix] is accepted. The operations of the off-heap matrix
+ * (for example, [multiply], [add], [transpose]) return the off-heap matrices, which must be closed too.
+ * The off-heap matrix has no heap array, so [getData] method throws [UnsupportedOperationException] (see [hasArray]).
+ *
+ * The memory is freed by the [close] method. The garbage collector frees the memory of the matrices
+ * which are not closed, but it does not happen until the heap is collected, so it is better to close
+ * the matrices explicitly, for example with the 'use' function.
+ *
+ * @param [n] is the count of rows (first dimension) of the matrix, starting from 1.
+ * @param [m] is the count of columns (second dimension) of the matrix, starting from 1.
+ * @param [chunkSize] is the count of elems in one direct buffer, must be the power of two not greater than [MAX_CHUNK_SIZE].
+ * By default it is 2^27 (1 GB).
+ * @constructor This constructor allocates the off-heap memory and sets zero values *0.0* to each element of the matrix.
+ *
+ * @see Matrix
+ */
+class OffHeapMatrix private constructor(
+    n: Int,
+    m: Int,
+    private val storage: OffHeapStorage,
+    private val offset: Long,
+    private val rowStride: Long,
+    private val colStride: Long,
+    private val isOwner: Boolean // only the matrix which allocated the storage frees it, the views do not
+) : Matrix(n, m, DoubleArray(0), 0, 0, 0), Closeable {
+
+    constructor(n: Int, m: Int, chunkSize: Int = DEFAULT_CHUNK_SIZE) :
+            this(n, m, OffHeapStorage.allocate(n.toLong() * m, chunkSize), 0L, m.toLong(), 1L, true)
+
+    /**
+     *
+     * This constructor allocates the off-heap memory and copies the elems of the input [matrix] into it.
+     */
+    constructor(matrix: Matrix, chunkSize: Int = DEFAULT_CHUNK_SIZE) : this(matrix.getN(), matrix.getM(), chunkSize) {
+        for (i in 0 until matrix.getN()) {
+            for (j in 0 until matrix.getM()) {
+                setElem(i, j, matrix.getElem(i, j))
+            }
+        }
+    }
+
+    companion object {
+        /**
+         * The default count of elems in one direct buffer: 2^27 elems take 1 GB.
+         */
+        const val DEFAULT_CHUNK_SIZE: Int = 1 shl 27
+
+        /**
+         * The maximal count of elems in one direct buffer: the size of 2^28 elems in bytes does not fit the [Int] capacity of the buffer.
+         */
+        const val MAX_CHUNK_SIZE: Int = 1 shl 27
+
+        // Creates the matrix which owns the storage, for example, the storage of the memory-mapped file
+        internal fun ofStorage(n: Int, m: Int, storage: OffHeapStorage, rowStride: Long, colStride: Long): OffHeapMatrix =
+            OffHeapMatrix(n, m, storage, 0L, rowStride, colStride, true)
+    }
+
+    /**
+     * Returns the count of elems in one direct buffer of the matrix storage.
+     */
+    val chunkSize: Int
+        get() = storage.chunkSize
+
+    /**
+     * Checks if the matrix is read-only, for example, if it is mapped from the file by [BinaryMatrixFile.map].
+     * The [setElem] method of the read-only matrix throws [java.nio.ReadOnlyBufferException].
+     */
+    val isReadOnly: Boolean
+        get() = storage.isReadOnly
+
+    override fun getElem(n: Int, m: Int): Double = storage.get(offset + n * rowStride + m * colStride)
+
+    override fun setElem(n: Int, m: Int, elem: Double) {
+        storage.set(offset + n * rowStride + m * colStride, elem)
+    }
+
+    /**
+     * Sets [Array]<[Array]<[Double]>> elems (coordinates) of the matrix.
+     *
+     * The input elems are copied into the off-heap storage, so the size of the input array must match the size of the matrix.
+     *
+     * @param [elems] This method sets elems (coordinates) of [Array]<[Array]<[Double]>> type value of the matrix.
+     */
+    override fun setElems(elems: Array<Array<Double>>) {
+        require(elems.size == getN() && elems.all { it.size == getM() }) { "The size of 'elems' does not match to size of the off-heap matrix." }
+        for (i in 0 until getN()) {
+            for (j in 0 until getM()) {
+                setElem(i, j, elems[i][j])
+            }
+        }
+    }
+
+    override fun hasArray(): Boolean = false
+
+    override fun getData(): DoubleArray = throw UnsupportedOperationException("The off-heap matrix is not stored in the heap array.")
+
+    override fun getOffset(): Int = throw UnsupportedOperationException("The off-heap matrix is not stored in the heap array.")
+
+    override fun getRowStride(): Int = throw UnsupportedOperationException("The off-heap matrix is not stored in the heap array.")
+
+    override fun getColStride(): Int = throw UnsupportedOperationException("The off-heap matrix is not stored in the heap array.")
+
+    /**
+     * Returns the off-heap view of the block of the matrix without copying.
+     *
+     * The view shares the storage with the current matrix, closing the view does not free the storage.
+     */
+    override fun subMatrixView(row: Int, col: Int, n: Int, m: Int): Matrix {
+        checkBlock(row, col, n, m)
+        return OffHeapMatrix(n, m, storage, offset + row * rowStride + col * colStride, rowStride, colStride, false)
+    }
+
+    /**
+     * Returns the off-heap transposed view of the matrix without copying.
+     *
+     * The view shares the storage with the current matrix, closing the view does not free the storage.
+     */
+    override fun transposedView(): Matrix = OffHeapMatrix(getM(), getN(), storage, offset, colStride, rowStride, false)
+
+    override fun getStorage(): Any = storage
+
+    override fun createMatrix(n: Int, m: Int): Matrix = OffHeapMatrix(n, m, storage.chunkSize)
+
+    /**
+     * Frees the off-heap memory of the matrix. The matrix can not be used after closing.
+     *
+     * The views of the matrix (see [subMatrixView] and [transposedView]) do not free the memory,
+     * it is freed only by the matrix which allocated it.
+     */
+    override fun close() {
+        if (isOwner) {
+            storage.free()
+        }
+    }
+
+    // The off-heap storage is serialized as the heap matrix
+    @Suppress("unused")
+    private fun writeReplace(): Any = Matrix(getElems())
+}
+
+// The chunked storage of the doubles in the direct (or memory-mapped) buffers,
+// every buffer except the last one contains 'chunkSize' doubles
+internal class OffHeapStorage(buffers: Array<ByteBuffer>, val chunkSize: Int) {
+
+    private val shift: Int
+    private val mask: Long
+
+    val isReadOnly: Boolean = buffers.any { it.isReadOnly }
+
+    @Volatile
+    private var buffers: Array<ByteBuffer>? = null
+    private var chunks: Array<DoubleBuffer>? = null
+
+    init {
+        checkChunkSize(chunkSize)
+        shift = Integer.numberOfTrailingZeros(chunkSize)
+        mask = chunkSize - 1L
+
+        this.chunks = Array(buffers.size) { i -> buffers[i].asDoubleBuffer() }
+        this.buffers = buffers
+    }
+
+    fun get(index: Long): Double {
+        val chunks = this.chunks ?: throw IllegalStateException("The off-heap matrix is closed.")
+        return chunks[(index ushr shift).toInt()].get((index and mask).toInt())
+    }
+
+    fun set(index: Long, value: Double) {
+        val chunks = this.chunks ?: throw IllegalStateException("The off-heap matrix is closed.")
+        chunks[(index ushr shift).toInt()].put((index and mask).toInt(), value)
+    }
+
+    @Synchronized
+    fun free() {
+        val buffers = this.buffers ?: return
+        this.chunks = null
+        this.buffers = null
+        buffers.forEach { freeBuffer(it) }
+    }
+
+    companion object {
+        fun checkChunkSize(chunkSize: Int) {
+            require(chunkSize > 0 && chunkSize and (chunkSize - 1) == 0) { "The 'chunkSize' must be the power of two." }
+            require(chunkSize <= OffHeapMatrix.MAX_CHUNK_SIZE) { "The 'chunkSize' must not be greater than ${OffHeapMatrix.MAX_CHUNK_SIZE}." }
+        }
+
+        // Allocates the storage of 'size' doubles in the direct buffers in the native byte order
+        fun allocate(size: Long, chunkSize: Int): OffHeapStorage {
+            require(size >= 0) { "The size of the off-heap matrix must not be negative." }
+            checkChunkSize(chunkSize)
+            val chunkCount = ((size + chunkSize - 1) / chunkSize).toInt()
+            val buffers = Array(chunkCount) { i ->
+                val elems = minOf(chunkSize.toLong(), size - i.toLong() * chunkSize).toInt()
+                ByteBuffer.allocateDirect(elems * java.lang.Double.BYTES).order(ByteOrder.nativeOrder())
+            }
+            return OffHeapStorage(buffers, chunkSize)
+        }
+
+        // Java 9+ frees the direct buffer with 'sun.misc.Unsafe.invokeCleaner', Java 8 with 'sun.nio.ch.DirectBuffer.cleaner'
+        private val unsafe: Any? by lazy {
+            try {
+                val field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe")
+                field.isAccessible = true
+                field.get(null)
+            } catch (e: Exception) {
+                null
+            }
+        }
+
+        private val invokeCleaner: Method? by lazy {
+            try {
+                unsafe?.javaClass?.getMethod("invokeCleaner", ByteBuffer::class.java)
+            } catch (e: Exception) {
+                null
+            }
+        }
+
+        private fun freeBuffer(buffer: ByteBuffer) {
+            try {
+                val invokeCleaner = invokeCleaner
+                if (invokeCleaner != null) {
+                    invokeCleaner.invoke(unsafe, buffer)
+                } else {
+                    val cleanerMethod = buffer.javaClass.getMethod("cleaner")
+                    cleanerMethod.isAccessible = true
+                    val cleaner = cleanerMethod.invoke(buffer) ?: return
+                    cleaner.javaClass.getMethod("clean").invoke(cleaner)
+                }
+            } catch (e: Exception) {
+                // The buffer is freed by the garbage collector
+            }
+        }
+    }
+}
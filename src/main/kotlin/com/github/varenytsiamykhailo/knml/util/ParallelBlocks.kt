@@ -0,0 +1,69 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+
+// The helpers of the operations which split their work into the independent blocks and compute them in
+// the common fork/join pool. Every elem of the result of such operation must be computed by a single block,
+// so the result does not depend on the count of the blocks.
+
+// The operations with less work (for example, the count of the multiplications) are computed in the calling thread
+private const val MIN_BLOCK_WORK = 1 shl 13
+
+// The count of the blocks per thread which lets the work-stealing balance the load
+private const val BLOCKS_PER_THREAD = 4
+
+// Returns the count of the blocks for the operation which does 'work' elementary operations
+internal fun getParallelBlockCount(work: Long, parallel: Boolean): Int {
+    if (!parallel) {
+        return 1
+    }
+    val parallelism = maxOf(ForkJoinPool.getCommonPoolParallelism(), Runtime.getRuntime().availableProcessors())
+    return minOf(work / MIN_BLOCK_WORK, parallelism.toLong() * BLOCKS_PER_THREAD).toInt().coerceAtLeast(1)
+}
+
+// Splits '0 until count' into the blocks of similar sizes
+internal fun splitEvenly(count: Int, blocks: Int): IntArray = IntArray(blocks + 1) { b -> (count.toLong() * b / blocks).toInt() }
+
+// Runs the action for every block 'b' from 'bounds[b]' until 'bounds[b + 1]', the blocks are run in parallel if there are several of them
+internal fun forEachBlock(bounds: IntArray, action: (block: Int, from: Int, to: Int) -> Unit) =
+    forEachBlock(bounds, ForkJoinPool.commonPool(), action)
+
+// Runs the blocks in the executor: the fork/join pool splits them recursively, other executors run one task per block.
+// The exception of the action is rethrown in the calling thread
+internal fun forEachBlock(bounds: IntArray, executor: ExecutorService, action: (block: Int, from: Int, to: Int) -> Unit) {
+    if (bounds.size == 2) {
+        action(0, bounds[0], bounds[1])
+    } else if (executor is ForkJoinPool) {
+        executor.invoke(BlockTask(bounds, 0, bounds.size - 1, action))
+    } else {
+        val tasks = (0 until bounds.size - 1).map { b -> Callable { action(b, bounds[b], bounds[b + 1]) } }
+        for (future in executor.invokeAll(tasks)) {
+            try {
+                future.get()
+            } catch (e: ExecutionException) {
+                throw e.cause ?: e
+            }
+        }
+    }
+}
+
+private class BlockTask(
+    private val bounds: IntArray,
+    private val blockFrom: Int,
+    private val blockTo: Int,
+    private val action: (Int, Int, Int) -> Unit
+) : RecursiveAction() {
+
+    override fun compute() {
+        if (blockTo - blockFrom == 1) {
+            action(blockFrom, bounds[blockFrom], bounds[blockFrom + 1])
+        } else {
+            val middle = (blockFrom + blockTo) ushr 1
+            invokeAll(BlockTask(bounds, blockFrom, middle, action), BlockTask(bounds, middle, blockTo, action))
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+
+/**
+ * Parallel (fork/join) matrix multiplication algorithm implementation.
+ *
+ * The result matrix is recursively split in half along its larger dimension into the row or the column blocks
+ * until there are enough blocks to load every thread of the [ForkJoinPool]. Every block is computed independently
+ * by the cache-blocked kernel of [BlockedMultiplicationAlgorithm], so the threads do not share any written memory
+ * and the work-stealing of the pool balances the load between the threads.
+ *
+ * Every elem of the result is computed by a single thread in the same order as by the classic algorithm,
+ * so the result does not depend on the [parallelism] level and is exactly the same as the result of [Matrix.multiply].
+ *
+ * Asymptotic complexity: O(n * m * p / parallelism).
+ *
+ * @param [parallelism] is the count of the threads which multiply the matrices. By default it is the count of the available processors.
+ * @param [blockedAlgorithm] is the sequential cache-blocked algorithm which multiplies the blocks of the result.
+ * @constructor Creates the algorithm with its own [ForkJoinPool] of the [parallelism] level.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Matrix_multiplication_algorithm#Parallel_and_distributed_algorithms]
+ */
+class ParallelMultiplicationAlgorithm(
+    val parallelism: Int = Runtime.getRuntime().availableProcessors(),
+    private val blockedAlgorithm: BlockedMultiplicationAlgorithm = BlockedMultiplicationAlgorithm.DEFAULT
+) {
+
+    init {
+        require(parallelism > 0) { "The parallelism level must be positive." }
+    }
+
+    companion object {
+        // The products with less multiplications are computed in the calling thread
+        private const val SEQUENTIAL_THRESHOLD = 64L * 64 * 64
+
+        // The count of the blocks per thread which lets the work-stealing balance the load
+        private const val BLOCKS_PER_THREAD = 4
+
+        // The minimal size of the block side, the blocks are split on the multiples of the micro-kernel size
+        private const val MIN_BLOCK_SIDE = 16
+
+        /**
+         * The instance which uses all the available processors.
+         * It is used by [Matrix.multiplyParallel].
+         */
+        @JvmStatic
+        val DEFAULT: ParallelMultiplicationAlgorithm by lazy { ParallelMultiplicationAlgorithm() }
+    }
+
+    private val pool: ForkJoinPool by lazy { ForkJoinPool(parallelism) }
+
+    /**
+     * Parallel matrix multiplication.
+     *
+     * This method implements matrix multiplication of current matrix and input matrix of the [Matrix] type.
+     *
+     * @param [A] the first matrix.
+     * @param [B] the second matrix.
+     *
+     * @return the result of the multiplication of two matrices which is represented as new [Matrix] output type.
+     *
+     * Asymptotic complexity: O(n * m * p / parallelism)
+     */
+    fun multiply(A: Matrix, B: Matrix): Matrix {
+        return multiplyInto(A, B, Matrix(A.getN(), B.getM()))
+    }
+
+    /**
+     * Parallel matrix multiplication into the destination matrix.
+     *
+     * This method implements matrix multiplication of current matrix and input matrix of the [Matrix] type
+     * and writes the result into the [C] matrix instead of allocating a new one.
+     *
+     * @param [A] the first matrix.
+     * @param [B] the second matrix.
+     * @param [C] the matrix for the result. It must not be one of the operands.
+     *
+     * @return the [C] matrix which contains the result of the multiplication of two matrices.
+     *
+     * Asymptotic complexity: O(n * m * p / parallelism)
+     */
+    fun multiplyInto(A: Matrix, B: Matrix, C: Matrix): Matrix {
+        val n = A.getN()
+        val m = A.getM()
+        val p = B.getM()
+
+        if (parallelism == 1 || n.toLong() * m * p <= SEQUENTIAL_THRESHOLD) {
+            return blockedAlgorithm.multiplyInto(A, B, C)
+        }
+
+        require(m == B.getN()) { "The size of 'matrix1.m' does not match to size of 'matrix2.n'" }
+        require(C.getN() == n && C.getM() == p) { "The size of 'dest' matrix does not match to size of the result." }
+        require(C.getStorage() !== A.getStorage() && C.getStorage() !== B.getStorage()) { "The 'dest' matrix must not share the storage with the multiplied matrices." }
+
+        val blockArea = maxOf(n.toLong() * p / (parallelism * BLOCKS_PER_THREAD), MIN_BLOCK_SIDE.toLong() * MIN_BLOCK_SIDE)
+        pool.invoke(MultiplyBlockTask(A, B, C, 0, n, 0, p, blockArea))
+
+        return C
+    }
+
+    private inner class MultiplyBlockTask(
+        private val A: Matrix,
+        private val B: Matrix,
+        private val C: Matrix,
+        private val rowFrom: Int,
+        private val rowTo: Int,
+        private val colFrom: Int,
+        private val colTo: Int,
+        private val blockArea: Long
+    ) : RecursiveAction() {
+
+        override fun compute() {
+            val rows = rowTo - rowFrom
+            val cols = colTo - colFrom
+
+            if (rows.toLong() * cols <= blockArea || (rows < 2 * MIN_BLOCK_SIDE && cols < 2 * MIN_BLOCK_SIDE)) {
+                blockedAlgorithm.zeroBlock(C, rowFrom, rowTo, colFrom, colTo)
+                blockedAlgorithm.multiplyBlock(A, B, C, rowFrom, rowTo, colFrom, colTo)
+                return
+            }
+
+            // The larger side is split, so the blocks stay close to squares and reuse the operands better
+            if (rows >= cols) {
+                val middle = rowFrom + half(rows)
+                invokeAll(
+                    MultiplyBlockTask(A, B, C, rowFrom, middle, colFrom, colTo, blockArea),
+                    MultiplyBlockTask(A, B, C, middle, rowTo, colFrom, colTo, blockArea)
+                )
+            } else {
+                val middle = colFrom + half(cols)
+                invokeAll(
+                    MultiplyBlockTask(A, B, C, rowFrom, rowTo, colFrom, middle, blockArea),
+                    MultiplyBlockTask(A, B, C, rowFrom, rowTo, middle, colTo, blockArea)
+                )
+            }
+        }
+
+        // Half of the size rounded to the multiple of 4, so the micro-kernel does not process the borders
+        private fun half(size: Int): Int = maxOf(size / 2 / 4 * 4, MIN_BLOCK_SIDE)
+    }
+}
@@ -0,0 +1,416 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import kotlin.math.abs
+import kotlin.math.ln
+
+/**
+ * Blocked LU decomposition with partial pivoting.
+ *
+ * This class calculates the decomposition P * A = L * U of the square matrix A, where P is the permutation matrix,
+ * L is the lower triangular matrix with the unit diagonal and U is the upper triangular matrix. On every step the row
+ * with the largest elem of the column is swapped to the diagonal (partial pivoting), so the decomposition exists
+ * for every matrix and is stable in practice.
+ *
+ * The factors are stored in one n x n matrix (see [getLU]): L below the diagonal (its unit diagonal is not stored) and U
+ * on and above the diagonal. The decomposition is computed by the blocked right-looking algorithm: the panel of [blockSize]
+ * columns is factorized, and the rest of the matrix is updated by one matrix multiplication of the cache-blocked kernel
+ * of [BlockedMultiplicationAlgorithm], which does almost all the work of the decomposition.
+ *
+ * The decomposition is computed once and then used to solve the systems with many right sides by [solve] method
+ * in O(n^2) time per right side.
+ *
+ * If [parallel] is set, the panels are still factorized by the calling thread, but the update of the rest of the matrix
+ * after every panel is split into the blocks of the columns, which are computed in [java.util.concurrent.ForkJoinPool.commonPool].
+ * Every elem is computed by a single thread in the same order, so the factors are exactly the same as the sequential ones.
+ *
+ * Asymptotic complexity: O(n^3) for the decomposition (O(n^3 / parallelism) if [parallel] is set),
+ * O(n^2) for every solved right side.
+ *
+ * @param [matrix] is the input square matrix.
+ * @param [inPlace] is the flag, that says that the factors are stored in the input matrix instead of its copy,
+ * so the input matrix is overwritten. The input matrix must have the heap array (see [Matrix.hasArray]).
+ * @param [blockSize] is the count of the columns of the panel.
+ * @param [parallel] is the flag, that says that the update of the matrix after every panel is multi-threaded.
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/LU_decomposition#LU_factorization_with_partial_pivoting]
+ *
+ * @see LUDecomposition
+ */
+class PivotedLUDecomposition(
+    matrix: Matrix,
+    inPlace: Boolean = false,
+    val blockSize: Int = DEFAULT_BLOCK_SIZE,
+    val parallel: Boolean = false
+) {
+
+    companion object {
+        // The panel is factorized by the unblocked algorithm, so it should fit into the L2 cache with the row of the matrix
+        private const val DEFAULT_BLOCK_SIZE = 64
+
+        // The narrower blocks of the columns of the update make the multiplication kernel inefficient
+        private const val MIN_PARALLEL_COLUMNS = 32
+    }
+
+    private val n: Int = matrix.getN()
+
+    private val LU: Matrix
+
+    // 'pivot[i]' is the row of the input matrix which is the row 'i' of the factors
+    private val pivot: IntArray = IntArray(n) { it }
+
+    private var pivotSign: Int = 1
+
+    /**
+     * Checks if the matrix is non-singular: all the diagonal elems of U are not zero.
+     */
+    val isNonSingular: Boolean
+        get() {
+            for (i in 0 until n) {
+                if (LU.getElem(i, i) == 0.0) return false
+            }
+            return true
+        }
+
+    init {
+        require(matrix.isSquare()) { "The matrix must be square." }
+        require(blockSize > 0) { "The block size must be positive." }
+        require(!inPlace || matrix.hasArray()) { "The matrix without the heap array can not be decomposed in place." }
+
+        LU = if (inPlace) {
+            matrix
+        } else {
+            val copy = Matrix(n, n)
+            val data = copy.getData()
+            for (i in 0 until n) {
+                for (j in 0 until n) {
+                    data[i * n + j] = matrix.getElem(i, j)
+                }
+            }
+            copy
+        }
+
+        for (k in 0 until n step blockSize) {
+            val kb = minOf(blockSize, n - k)
+            factorizePanel(k, kb)
+            if (k + kb < n) {
+                updateTrailingMatrix(k, kb)
+            }
+        }
+    }
+
+    // Factorizes the columns from 'k' until 'k + kb' by the unblocked algorithm with partial pivoting,
+    // the rows are swapped in the whole matrix
+    private fun factorizePanel(k: Int, kb: Int) {
+        val a = LU.getData()
+        val offset = LU.getOffset()
+        val rowStride = LU.getRowStride()
+        val colStride = LU.getColStride()
+
+        for (j in k until k + kb) {
+            // Find the pivot: the largest elem of the column 'j' on and below the diagonal
+            var p = j
+            var max = abs(a[offset + j * rowStride + j * colStride])
+            for (i in j + 1 until n) {
+                val value = abs(a[offset + i * rowStride + j * colStride])
+                if (value > max) {
+                    max = value
+                    p = i
+                }
+            }
+
+            if (p != j) {
+                val rowP = offset + p * rowStride
+                val rowJ = offset + j * rowStride
+                for (c in 0 until n) {
+                    val temp = a[rowP + c * colStride]
+                    a[rowP + c * colStride] = a[rowJ + c * colStride]
+                    a[rowJ + c * colStride] = temp
+                }
+                val temp = pivot[p]
+                pivot[p] = pivot[j]
+                pivot[j] = temp
+                pivotSign = -pivotSign
+            }
+
+            // The zero pivot means that the matrix is singular, the column is already eliminated
+            val diagonal = a[offset + j * rowStride + j * colStride]
+            if (diagonal == 0.0) {
+                continue
+            }
+
+            val rowJ = offset + j * rowStride
+            for (i in j + 1 until n) {
+                val rowI = offset + i * rowStride
+                val l = a[rowI + j * colStride] / diagonal
+                a[rowI + j * colStride] = l
+                if (l != 0.0) {
+                    for (c in j + 1 until k + kb) {
+                        a[rowI + c * colStride] -= l * a[rowJ + c * colStride]
+                    }
+                }
+            }
+        }
+    }
+
+    // Updates the rows of the panel right of it (U12 = L11^-1 * A12) and the trailing matrix (A22 = A22 - L21 * U12),
+    // the columns of the both blocks are independent, so they are split into the blocks
+    private fun updateTrailingMatrix(k: Int, kb: Int) {
+        val a = LU.getData()
+        val offset = LU.getOffset()
+        val rowStride = LU.getRowStride()
+        val colStride = LU.getColStride()
+        val end = k + kb
+        val rows = n - end
+
+        // The negated L21 block is packed, so the update is the accumulation of the product by the blocked kernel
+        val negatedL21 = Matrix(rows, kb)
+        val l21 = negatedL21.getData()
+        for (i in 0 until rows) {
+            val rowI = offset + (end + i) * rowStride
+            for (j in 0 until kb) {
+                l21[i * kb + j] = -a[rowI + (k + j) * colStride]
+            }
+        }
+        val U12 = LU.subMatrixView(k, end, kb, rows)
+        val A22 = LU.subMatrixView(end, end, rows, rows)
+
+        val blocks = minOf(
+            getParallelBlockCount(rows.toLong() * rows * kb, parallel),
+            maxOf(1, rows / MIN_PARALLEL_COLUMNS)
+        )
+        forEachBlock(splitEvenly(rows, blocks)) { _, colFrom, colTo ->
+            // Forward substitution with the unit lower triangular block L11, row by row
+            for (i in k + 1 until end) {
+                val rowI = offset + i * rowStride
+                for (j in k until i) {
+                    val l = a[rowI + j * colStride]
+                    if (l == 0.0) continue
+                    val rowJ = offset + j * rowStride
+                    for (c in end + colFrom until end + colTo) {
+                        a[rowI + c * colStride] -= l * a[rowJ + c * colStride]
+                    }
+                }
+            }
+            BlockedMultiplicationAlgorithm.DEFAULT.multiplyBlock(negatedL21, U12, A22, 0, rows, colFrom, colTo)
+        }
+    }
+
+    /**
+     * Returns the matrix which contains the factors: L below the diagonal (its unit diagonal is not stored)
+     * and U on and above the diagonal. It is the input matrix if it is decomposed in place.
+     *
+     * @return This method returns the factors of [Matrix] type
+     */
+    fun getLU(): Matrix = LU
+
+    /**
+     * Returns lower triangular matrix with the unit diagonal.
+     *
+     * @return This method returns lower triangular matrix of [Matrix] type
+     */
+    fun getLowerTriangularMatrix(): Matrix {
+        val L = Matrix(n, n)
+        for (i in 0 until n) {
+            for (j in 0 until i) {
+                L.setElem(i, j, LU.getElem(i, j))
+            }
+            L.setElem(i, i, 1.0)
+        }
+        return L
+    }
+
+    /**
+     * Returns upper triangular matrix.
+     *
+     * @return This method returns upper triangular matrix of [Matrix] type
+     */
+    fun getUpperTriangularMatrix(): Matrix {
+        val U = Matrix(n, n)
+        for (i in 0 until n) {
+            for (j in i until n) {
+                U.setElem(i, j, LU.getElem(i, j))
+            }
+        }
+        return U
+    }
+
+    /**
+     * Returns the permutation of the rows: the row 'i' of the factors is the row 'pivot[i]' of the input matrix.
+     *
+     * @return This method returns the copy of the permutation of [IntArray] type
+     */
+    fun getPivot(): IntArray = pivot.copyOf()
+
+    /**
+     * Matrix determinant.
+     *
+     * This method calculates the determinant of the input matrix as the product of the diagonal elems of U
+     * and the sign of the permutation.
+     *
+     * @return the determinant of the input matrix which is represented as [Double] output type.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun determinant(): Double {
+        var det = pivotSign.toDouble()
+        for (i in 0 until n) {
+            det *= LU.getElem(i, i)
+        }
+        return det
+    }
+
+    /**
+     * Natural logarithm of the absolute value of the matrix determinant.
+     *
+     * The logarithm is summed by the diagonal elems of U, so it does not overflow as the determinant of the large matrix.
+     * The sign of the determinant is the sign of [determinant].
+     *
+     * @return the logarithm of the absolute value of the determinant of the input matrix which is represented as [Double] output type,
+     * it is *-Infinity* for the singular matrix.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun logAbsDeterminant(): Double {
+        var sum = 0.0
+        for (i in 0 until n) {
+            sum += ln(abs(LU.getElem(i, i)))
+        }
+        return sum
+    }
+
+    /**
+     * Solves the system A * x = b by the decomposition.
+     *
+     * @param [b] is the right side of the system of the size n.
+     *
+     * @return the solution x which is represented as new [Vector] output type.
+     * @exception IllegalArgumentException The size of the vector does not match to the size of the matrix.
+     * @exception RuntimeException The matrix is singular.
+     *
+     * Asymptotic complexity: O(n^2)
+     */
+    fun solve(b: Vector): Vector {
+        require(b.getN() == n) { "The size of 'b' vector does not match to size of the matrix." }
+        if (!isNonSingular) {
+            throw RuntimeException("Matrix is singular.")
+        }
+
+        val a = LU.getData()
+        val offset = LU.getOffset()
+        val rowStride = LU.getRowStride()
+        val colStride = LU.getColStride()
+        val source = b.getData()
+        val x = DoubleArray(n) { i -> source[pivot[i]] }
+
+        // Solve L * y = P * b
+        for (i in 1 until n) {
+            val rowI = offset + i * rowStride
+            var sum = x[i]
+            for (j in 0 until i) {
+                sum -= a[rowI + j * colStride] * x[j]
+            }
+            x[i] = sum
+        }
+        // Solve U * x = y
+        for (i in n - 1 downTo 0) {
+            val rowI = offset + i * rowStride
+            var sum = x[i]
+            for (j in i + 1 until n) {
+                sum -= a[rowI + j * colStride] * x[j]
+            }
+            x[i] = sum / a[rowI + i * colStride]
+        }
+        return Vector(x)
+    }
+
+    /**
+     * Solves the systems A * X = B with many right sides (the columns of B) by the decomposition.
+     *
+     * @param [B] is the matrix with n rows, which columns are the right sides of the systems.
+     *
+     * @return the solutions X (the column 'j' is the solution for the column 'j' of B) which are represented as new [Matrix] output type.
+     * @exception IllegalArgumentException The count of the rows of B does not match to the size of the matrix.
+     * @exception RuntimeException The matrix is singular.
+     *
+     * Asymptotic complexity: O(n^2 * p), where p is the count of the right sides.
+     */
+    fun solve(B: Matrix): Matrix {
+        require(B.getN() == n) { "Matrix row dimensions must agree." }
+        if (!isNonSingular) {
+            throw RuntimeException("Matrix is singular.")
+        }
+
+        val p = B.getM()
+        val result = Matrix(n, p)
+        val x = result.getData()
+        for (i in 0 until n) {
+            for (j in 0 until p) {
+                x[i * p + j] = B.getElem(pivot[i], j)
+            }
+        }
+        substitute(x, p)
+        return result
+    }
+
+    /**
+     * Inverse of the matrix by the decomposition.
+     *
+     * The columns of the inverse matrix are the solutions of the systems with the columns of the identity matrix,
+     * they are computed in the result matrix, so the method takes only n^2 additional memory.
+     *
+     * @return the inverse matrix which is represented as new [Matrix] output type.
+     * @exception RuntimeException The matrix is singular.
+     *
+     * Asymptotic complexity: O(n^3)
+     */
+    fun inverse(): Matrix {
+        if (!isNonSingular) {
+            throw RuntimeException("Matrix is singular.")
+        }
+
+        // P * I: the row 'i' has 1.0 in the column 'pivot[i]'
+        val result = Matrix(n, n)
+        val x = result.getData()
+        for (i in 0 until n) {
+            x[i * n + pivot[i]] = 1.0
+        }
+        substitute(x, n)
+        return result
+    }
+
+    // Solves L * U * X = Y in place, where 'x' is the row-major array of Y with 'p' columns.
+    // The rows of X are updated as the whole, so the inner loops are contiguous
+    private fun substitute(x: DoubleArray, p: Int) {
+        val a = LU.getData()
+        val offset = LU.getOffset()
+        val rowStride = LU.getRowStride()
+        val colStride = LU.getColStride()
+
+        // Solve L * Z = Y
+        for (i in 1 until n) {
+            val rowI = offset + i * rowStride
+            for (k in 0 until i) {
+                val l = a[rowI + k * colStride]
+                if (l == 0.0) continue
+                for (j in 0 until p) {
+                    x[i * p + j] -= l * x[k * p + j]
+                }
+            }
+        }
+        // Solve U * X = Z
+        for (i in n - 1 downTo 0) {
+            val rowI = offset + i * rowStride
+            for (k in i + 1 until n) {
+                val u = a[rowI + k * colStride]
+                if (u == 0.0) continue
+                for (j in 0 until p) {
+                    x[i * p + j] -= u * x[k * p + j]
+                }
+            }
+            val diagonal = a[rowI + i * colStride]
+            for (j in 0 until p) {
+                x[i * p + j] /= diagonal
+            }
+        }
+    }
+}
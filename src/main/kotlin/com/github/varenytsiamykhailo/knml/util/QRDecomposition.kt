@@ -47,8 +47,7 @@ class QRDecomposition(matrix: Matrix) {
      */
     private val H: Matrix
         get() {
-            val X = Matrix(m, n)
-            val H: Array<Array<Double>> = X.getElems()
+            val H: Array<Array<Double>> = Array(m) { Array(n) { 0.0 } }
             for (i in 0 until m) {
                 for (j in 0 until n) {
                     if (i >= j) {
@@ -58,7 +57,7 @@ class QRDecomposition(matrix: Matrix) {
                     }
                 }
             }
-            return X
+            return Matrix(H)
         }
 
     /** Return the upper triangular factor as [Matrix] output type.
@@ -66,8 +65,7 @@ class QRDecomposition(matrix: Matrix) {
      */
     val R: Matrix
         get() {
-            val X = Matrix(n, n)
-            val R: Array<Array<Double>> = X.getElems()
+            val R: Array<Array<Double>> = Array(n) { Array(n) { 0.0 } }
             for (i in 0 until n) {
                 for (j in 0 until n) {
                     if (i < j) {
@@ -79,7 +77,7 @@ class QRDecomposition(matrix: Matrix) {
                     }
                 }
             }
-            return X
+            return Matrix(R)
         }
 
     /** Generate and return the orthogonal factor as [Matrix] output type.
@@ -87,8 +85,7 @@ class QRDecomposition(matrix: Matrix) {
      */
     val Q: Matrix
         get() {
-            val X = Matrix(m, n)
-            val Q: Array<Array<Double>> = X.getElems()
+            val Q: Array<Array<Double>> = Array(m) { Array(n) { 0.0 } }
             for (k in n - 1 downTo 0) {
                 for (i in 0 until m) {
                     Q[i][k] = 0.0
@@ -107,7 +104,7 @@ class QRDecomposition(matrix: Matrix) {
                     }
                 }
             }
-            return X
+            return Matrix(Q)
         }
 
     /** Least squares solution of A*X = B
@@ -489,16 +489,15 @@ class SVD(matrix: Matrix) : Serializable {
      * @return     S
      */
     fun getS(): Matrix {
-        val X = Matrix(m, m)
         println("Singular values: " + singularValues.size)
-        val S: Array<Array<Double>> = X.getElems()
+        val S: Array<Array<Double>> = Array(m) { Array(m) { 0.0 } }
         for (i in 0 until m) {
             for (j in 0 until m) {
                 S[i][j] = 0.0
             }
             S[i][i] = singularValues[i]
         }
-        return X
+        return Matrix(S)
     }
 
     /** Two norm
@@ -0,0 +1,307 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import java.io.Serializable
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * Sparse matrix implementation.
+ *
+ * This class is the base of the compressed sparse matrices [CSRMatrix] and [CSCMatrix], which store only
+ * the non-zero elems of the matrix in three arrays: the pointers to the starts of the rows (or the columns),
+ * the column (or the row) indices of the elems and the values of the elems. The matrix takes O(nnz) memory
+ * instead of O(n * m), so the systems with millions of unknowns fit in the memory, and the operations
+ * take O(nnz) time, where nnz is the count of the non-zero elems (see [getNonZeroCount]).
+ *
+ * The indices of the elems of every row (or column) are sorted and unique.
+ *
+ * The parallel operations (for example, [multiplyParallel]) split the matrix into the blocks of similar
+ * count of the non-zero elems and compute them in [ForkJoinPool.commonPool]. Every elem of the result
+ * is computed by a single thread in the same order as by the sequential operation, so the results of
+ * the parallel and the sequential operations are exactly the same.
+ *
+ * @see CSRMatrix
+ * @see CSCMatrix
+ * @see Matrix
+ *
+ * **See Also:** [https://en.wikipedia.org/wiki/Sparse_matrix]
+ */
+abstract class SparseMatrix internal constructor(
+    private val n: Int,
+    private val m: Int,
+    internal val pointers: IntArray, // 'pointers[k] until pointers[k + 1]' are the positions of the elems of the row (or column) 'k'
+    internal val indices: IntArray, // the column (or row) indices of the elems
+    internal val values: DoubleArray
+) : Serializable {
+
+    companion object {
+        // Checks the compressed arrays of the matrix with 'majorCount' rows (or columns) and 'minorCount' columns (or rows)
+        internal fun checkArrays(majorCount: Int, minorCount: Int, pointers: IntArray, indices: IntArray, values: DoubleArray) {
+            require(majorCount >= 0 && minorCount >= 0) { "The size of the sparse matrix must not be negative." }
+            require(pointers.size == majorCount + 1) { "The size of the pointers array must be ${majorCount + 1}." }
+            require(pointers[0] == 0 && pointers[majorCount] == indices.size && indices.size == values.size) {
+                "The pointers array does not match to the sizes of the indices and values arrays."
+            }
+            for (k in 0 until majorCount) {
+                require(pointers[k] <= pointers[k + 1]) { "The pointers array must not decrease." }
+                for (p in pointers[k] until pointers[k + 1]) {
+                    require(indices[p] in 0 until minorCount) { "The index ${indices[p]} is out of the size of the sparse matrix." }
+                    require(p == pointers[k] || indices[p - 1] < indices[p]) { "The indices of the elems of one row (or column) must be sorted and unique." }
+                }
+            }
+        }
+
+        // Splits the rows (or columns) '0 until count' into the blocks with similar count of the non-zero elems
+        internal fun splitByNonZeros(pointers: IntArray, count: Int, blocks: Int): IntArray {
+            val bounds = IntArray(blocks + 1)
+            val nonZeros = pointers[count].toLong()
+            var k = 0
+            for (b in 1 until blocks) {
+                val target = nonZeros * b / blocks
+                while (k < count && pointers[k] < target) {
+                    k++
+                }
+                bounds[b] = k
+            }
+            bounds[blocks] = count
+            return bounds
+        }
+
+        // Returns the first position in 'from until to' of the sorted indices which index is not less than 'key'
+        internal fun lowerBound(indices: IntArray, from: Int, to: Int, key: Int): Int {
+            var low = from
+            var high = to
+            while (low < high) {
+                val middle = (low + high) ushr 1
+                if (indices[middle] < key) low = middle + 1 else high = middle
+            }
+            return low
+        }
+    }
+
+    /**
+     * Returns [n] - the count of rows (first dimension) of the matrix, starting from 1.
+     *
+     * @return This method returns [n] of [Int] type value.
+     */
+    fun getN() = this.n
+
+    /**
+     * Returns [m] - the count of columns (second dimension) of the matrix, starting from 1.
+     *
+     * @return This method returns [m] of [Int] type value.
+     */
+    fun getM() = this.m
+
+    /**
+     * Returns the count of the stored (non-zero) elems of the matrix.
+     */
+    fun getNonZeroCount(): Int = this.values.size
+
+    /**
+     * Returns the values of the stored elems without copying.
+     *
+     * The changes of the returned array are reflected in the matrix.
+     */
+    fun getValues(): DoubleArray = this.values
+
+    /**
+     * Returns elem (coordinate).
+     *
+     * @param [n] is the row of the elem, starting from 0.
+     * @param [m] is the column of the elem, starting from 0.
+     *
+     * @return This method returns elem of [Double] type value by [n] and [m] - position of the elem in the matrix,
+     * or *0.0* if the elem is not stored.
+     *
+     * Asymptotic complexity: O(log(nnz in the row or column))
+     */
+    abstract fun getElem(n: Int, m: Int): Double
+
+    // Finds the stored elem by the index of the row (or column) and the index in it
+    protected fun findElem(major: Int, minor: Int): Double {
+        val position = lowerBound(indices, pointers[major], pointers[major + 1], minor)
+        return if (position < pointers[major + 1] && indices[position] == minor) values[position] else 0.0
+    }
+
+    /**
+     * Sparse matrix multiplicate vector (SpMV).
+     *
+     * This method implements multiplication of current sparse matrix and vector of the [Vector] type.
+     *
+     * @param [vector] the input vector.
+     *
+     * @return the result of the multiplication of matrix and vector which is represented as new [Vector] output type.
+     *
+     * Asymptotic complexity: O(nnz + n)
+     */
+    fun multiply(vector: Vector): Vector = multiplyInto(vector, Vector(n))
+
+    /**
+     * Sparse matrix multiplicate vector (SpMV) into the destination vector.
+     *
+     * This method implements multiplication of current sparse matrix and vector of the [Vector] type
+     * and writes the result into the [dest] vector instead of allocating a new one.
+     *
+     * @param [vector] the input vector.
+     * @param [dest] the vector of the size [getN] for the result. It must not be the input vector.
+     *
+     * @return the [dest] vector which contains the result of the multiplication of matrix and vector.
+     *
+     * Asymptotic complexity: O(nnz + n)
+     */
+    fun multiplyInto(vector: Vector, dest: Vector): Vector = multiplyInto(vector, dest, false)
+
+    /**
+     * Parallel sparse matrix multiplicate vector (SpMV).
+     *
+     * The result is exactly the same as the result of [multiply].
+     *
+     * @param [vector] the input vector.
+     *
+     * @return the result of the multiplication of matrix and vector which is represented as new [Vector] output type.
+     *
+     * Asymptotic complexity: O((nnz + n) / parallelism)
+     */
+    fun multiplyParallel(vector: Vector): Vector = multiplyParallelInto(vector, Vector(n))
+
+    /**
+     * Parallel sparse matrix multiplicate vector (SpMV) into the destination vector.
+     *
+     * The result is exactly the same as the result of [multiplyInto].
+     *
+     * @param [vector] the input vector.
+     * @param [dest] the vector of the size [getN] for the result. It must not be the input vector.
+     *
+     * @return the [dest] vector which contains the result of the multiplication of matrix and vector.
+     *
+     * Asymptotic complexity: O((nnz + n) / parallelism)
+     */
+    fun multiplyParallelInto(vector: Vector, dest: Vector): Vector = multiplyInto(vector, dest, true)
+
+    private fun multiplyInto(vector: Vector, dest: Vector, parallel: Boolean): Vector {
+        require(this.m == vector.getN()) { "The size of 'matrix' does not match to size of 'vector'." }
+        require(this.n == dest.getN()) { "The size of 'matrix' does not match to size of 'dest' vector." }
+        require(vector.getData() !== dest.getData()) { "The 'dest' vector must not share the storage with the multiplied vector." }
+
+        multiplyVector(vector.getData(), dest.getData(), parallel)
+        return dest
+    }
+
+    /**
+     * Sparse matrix multiplicate dense matrix (SpMM).
+     *
+     * This method implements multiplication of current sparse matrix and dense matrix of the [Matrix] type.
+     *
+     * @param [matrix] the input dense matrix. It may be a view or an off-heap matrix.
+     *
+     * @return the result of the multiplication which is represented as new dense [Matrix] output type.
+     *
+     * Asymptotic complexity: O(nnz * p + n * p), where p is the count of columns of the input matrix.
+     */
+    fun multiply(matrix: Matrix): Matrix = multiply(matrix, false)
+
+    /**
+     * Parallel sparse matrix multiplicate dense matrix (SpMM).
+     *
+     * The result is exactly the same as the result of [multiply].
+     *
+     * @param [matrix] the input dense matrix. It may be a view or an off-heap matrix.
+     *
+     * @return the result of the multiplication which is represented as new dense [Matrix] output type.
+     *
+     * Asymptotic complexity: O((nnz * p + n * p) / parallelism), where p is the count of columns of the input matrix.
+     */
+    fun multiplyParallel(matrix: Matrix): Matrix = multiply(matrix, true)
+
+    private fun multiply(matrix: Matrix, parallel: Boolean): Matrix {
+        require(this.m == matrix.getN()) { "The size of 'matrix1.m' does not match to size of 'matrix2.n'" }
+
+        val result = Matrix(n, matrix.getM())
+        multiplyMatrix(matrix, result.getData(), parallel)
+        return result
+    }
+
+    // Computes 'y = A * x', the arrays are checked by the caller
+    internal abstract fun multiplyVector(x: DoubleArray, y: DoubleArray, parallel: Boolean)
+
+    // Computes 'C = A * B' into the zero row-major 'c' array of the n x B.m matrix, the sizes are checked by the caller
+    internal abstract fun multiplyMatrix(B: Matrix, c: DoubleArray, parallel: Boolean)
+
+    /**
+     * Sparse matrix transposition.
+     *
+     * @return the transposed matrix in the same sparse format.
+     *
+     * Asymptotic complexity: O(nnz + n + m)
+     */
+    abstract fun transpose(): SparseMatrix
+
+    /**
+     * Parallel sparse matrix transposition.
+     *
+     * The result is exactly the same as the result of [transpose].
+     *
+     * @return the transposed matrix in the same sparse format.
+     *
+     * Asymptotic complexity: O((nnz + n + m) / parallelism + m * parallelism)
+     */
+    abstract fun transposeParallel(): SparseMatrix
+
+    /**
+     * Converts the matrix into the compressed sparse row format.
+     *
+     * @return the [CSRMatrix] with the same elems, or this matrix if it is [CSRMatrix].
+     *
+     * Asymptotic complexity: O(nnz + n + m)
+     */
+    abstract fun toCSR(): CSRMatrix
+
+    /**
+     * Converts the matrix into the compressed sparse column format.
+     *
+     * @return the [CSCMatrix] with the same elems, or this matrix if it is [CSCMatrix].
+     *
+     * Asymptotic complexity: O(nnz + n + m)
+     */
+    abstract fun toCSC(): CSCMatrix
+
+    /**
+     * Converts the sparse matrix into the dense matrix.
+     *
+     * @return the new dense [Matrix] with the same elems.
+     *
+     * Asymptotic complexity: O(nnz + n * m)
+     */
+    abstract fun toMatrix(): Matrix
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as SparseMatrix
+
+        if (n != other.n) return false
+        if (m != other.m) return false
+        if (!pointers.contentEquals(other.pointers)) return false
+        if (!indices.contentEquals(other.indices)) return false
+        if (!values.contentEquals(other.values)) return false
+
+        return true
+    }
+
+    override fun hashCode(): Int {
+        var result = n
+        result = 31 * result + m
+        result = 31 * result + indices.contentHashCode()
+        result = 31 * result + values.contentHashCode()
+        return result
+    }
+
+    override fun toString(): String {
+        return javaClass.simpleName + "{" +
+                "n=" + n +
+                ", m=" + m +
+                ", nnz=" + values.size +
+                '}'
+    }
+}
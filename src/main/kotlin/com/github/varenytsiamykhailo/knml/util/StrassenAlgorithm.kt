@@ -38,6 +38,7 @@ class StrassenAlgorithm {
      * Asymptotic complexity: O(n^log_2(7))
      */
     fun multiply(A: Matrix, B: Matrix): Matrix {
+        // Small matrices are multiplied by the cache-blocked kernel of the Matrix.multiply
         if (A.getN() <= 64) {
             return A.multiply(B)
         }
@@ -51,27 +52,16 @@ class StrassenAlgorithm {
             R.setElem(0, 0, A.getElem(0, 0) * B.getElem(0, 0))
         } else {
             // Dividing Matrix into parts
-            // by storing sub-parts to variables
-            val A11 = Matrix(n / 2, n / 2)
-            val A12 = Matrix(n / 2, n / 2)
-            val A21 = Matrix(n / 2, n / 2)
-            val A22 = Matrix(n / 2, n / 2)
-            val B11 = Matrix(n / 2, n / 2)
-            val B12 = Matrix(n / 2, n / 2)
-            val B21 = Matrix(n / 2, n / 2)
-            val B22 = Matrix(n / 2, n / 2)
-
-            // Dividing matrix A into 4 halves
-            split(A, A11, 0, 0)
-            split(A, A12, 0, n / 2)
-            split(A, A21, n / 2, 0)
-            split(A, A22, n / 2, n / 2)
-
-            // Dividing matrix B into 4 halves
-            split(B, B11, 0, 0)
-            split(B, B12, 0, n / 2)
-            split(B, B21, n / 2, 0)
-            split(B, B22, n / 2, n / 2)
+            // by creating the views of the sub-parts, so no elems are copied
+            val h = n / 2
+            val A11 = A.subMatrixView(0, 0, h, h)
+            val A12 = A.subMatrixView(0, h, h, h)
+            val A21 = A.subMatrixView(h, 0, h, h)
+            val A22 = A.subMatrixView(h, h, h, h)
+            val B11 = B.subMatrixView(0, 0, h, h)
+            val B12 = B.subMatrixView(0, h, h, h)
+            val B21 = B.subMatrixView(h, 0, h, h)
+            val B22 = B.subMatrixView(h, h, h, h)
 
             // Using Formulas as described in algorithm
             // M1:=(A1+A3)×(B1+B2)
@@ -95,23 +85,24 @@ class StrassenAlgorithm {
             // M7:=A4×(B3−B1)
             val M7 = multiply(A12.sub(A22), B21.add(B22))
 
+            // The quadrants of the result are the views of the result matrix,
+            // so the sums are written directly into it without joining
+            val R11 = R.subMatrixView(0, 0, h, h)
+            val R12 = R.subMatrixView(0, h, h, h)
+            val R21 = R.subMatrixView(h, 0, h, h)
+            val R22 = R.subMatrixView(h, h, h, h)
+
             // P:=M2+M3−M6−M7
-            val C11 = M1.add(M4).sub(M5).add(M7)
+            M1.addInto(M4, R11).subInPlace(M5).addInPlace(M7)
 
             // Q:=M4+M6
-            val C12 = M3.add(M5)
+            M3.addInto(M5, R12)
 
             // R:=M5+M7
-            val C21 = M2.add(M4)
+            M2.addInto(M4, R21)
 
             // S:=M1−M3−M4−M5
-            val C22 = M1.add(M3).sub(M2).add(M6)
-
-            // Step 3: Join 4 halves into one result matrix
-            join(C11, R, 0, 0)
-            join(C12, R, 0, n / 2)
-            join(C21, R, n / 2, 0)
-            join(C22, R, n / 2, n / 2)
+            M1.addInto(M3, R22).subInPlace(M2).addInPlace(M6)
         }
 
         return R
@@ -144,27 +135,16 @@ class StrassenAlgorithm {
             R.setElem(0, 0, m1.getElem(0, 0) * m2.getElem(0, 0))
         } else {
             // Dividing Matrix into parts
-            // by storing sub-parts to variables
-            val A11 = Matrix(n / 2, n / 2)
-            val A12 = Matrix(n / 2, n / 2)
-            val A21 = Matrix(n / 2, n / 2)
-            val A22 = Matrix(n / 2, n / 2)
-            val B11 = Matrix(n / 2, n / 2)
-            val B12 = Matrix(n / 2, n / 2)
-            val B21 = Matrix(n / 2, n / 2)
-            val B22 = Matrix(n / 2, n / 2)
-
-            // Dividing matrix A into 4 halves
-            split(m1, A11, 0, 0)
-            split(m1, A12, 0, n / 2)
-            split(m1, A21, n / 2, 0)
-            split(m1, A22, n / 2, n / 2)
-
-            // Dividing matrix B into 4 halves
-            split(m2, B11, 0, 0)
-            split(m2, B12, 0, n / 2)
-            split(m2, B21, n / 2, 0)
-            split(m2, B22, n / 2, n / 2)
+            // by creating the views of the sub-parts, so no elems are copied
+            val h = n / 2
+            val A11 = m1.subMatrixView(0, 0, h, h)
+            val A12 = m1.subMatrixView(0, h, h, h)
+            val A21 = m1.subMatrixView(h, 0, h, h)
+            val A22 = m1.subMatrixView(h, h, h, h)
+            val B11 = m2.subMatrixView(0, 0, h, h)
+            val B12 = m2.subMatrixView(0, h, h, h)
+            val B21 = m2.subMatrixView(h, 0, h, h)
+            val B22 = m2.subMatrixView(h, h, h, h)
 
             // Using Formulas as described in algorithm
             // M1:=(A1+A3)×(B1+B2)
@@ -188,69 +168,29 @@ class StrassenAlgorithm {
             // M7:=A4×(B3−B1)
             val M7 = withContext(Dispatchers.IO) { multiplyAsync(A12.sub(A22), B21.add(B22)) }
 
+            // The quadrants of the result are the views of the result matrix,
+            // so the sums are written directly into it without joining
+            val R11 = R.subMatrixView(0, 0, h, h)
+            val R12 = R.subMatrixView(0, h, h, h)
+            val R21 = R.subMatrixView(h, 0, h, h)
+            val R22 = R.subMatrixView(h, h, h, h)
+
             // P:=M2+M3−M6−M7
-            val C11 = M1.add(M4).sub(M5).add(M7)
+            M1.addInto(M4, R11).subInPlace(M5).addInPlace(M7)
 
             // Q:=M4+M6
-            val C12 = M3.add(M5)
+            M3.addInto(M5, R12)
 
             // R:=M5+M7
-            val C21 = M2.add(M4)
+            M2.addInto(M4, R21)
 
             // S:=M1−M3−M4−M5
-            val C22 = M1.add(M3).sub(M2).add(M6)
-
-            // Join 4 halves into one result matrix
-            join(C11, R, 0, 0)
-            join(C12, R, 0, n / 2)
-            join(C21, R, n / 2, 0)
-            join(C22, R, n / 2, n / 2)
+            M1.addInto(M3, R22).subInPlace(M2).addInPlace(M6)
         }
 
         return R
     }
 
-    // Function to split parent matrix into child matrices
-    private fun split(P: Matrix, C: Matrix, iB: Int, jB: Int) {
-        // Iterating over elements of 2D matrix using nested for loops
-
-        // Outer loop for rows
-        var i1 = 0
-        var i2 = iB
-        while (i1 < C.getN()) {
-            // Inner loop for columns
-            var j1 = 0
-            var j2 = jB
-            while (j1 < C.getN()) {
-                C.setElem(i1, j1, P.getElem(i2, j2))
-                j1++
-                j2++
-            }
-            i1++
-            i2++
-        }
-    }
-
-    // Function to join child matrices into (to) parent matrix
-    private fun join(C: Matrix, P: Matrix, iB: Int, jB: Int) { // Iterating over elements of 2D matrix using nested for loops
-
-        // Outer loop for rows
-        var i1 = 0
-        var i2 = iB
-        while (i1 < C.getN()) {
-            // Inner loop for columns
-            var j1 = 0
-            var j2 = jB
-            while (j1 < C.getN()) {
-                P.setElem(i2, j2, C.getElem(i1, j1))
-                j1++
-                j2++
-            }
-            i1++
-            i2++
-        }
-    }
-
     /**
      * Matrix async multiplication with using Strassen algorithm.
      * It can be called from Java code.
@@ -19,19 +19,33 @@ import kotlin.math.sqrt
  */
 class Vector constructor(private var n: Int) : Serializable {
 
-    private var elems: Array<Double> = emptyArray()
+    // Elements are stored in a primitive array to avoid boxing of each element into java.lang.Double
+    private var elems: DoubleArray = DoubleArray(0)
 
     init {
-        this.elems = Array(n) { 0.0 }
+        this.elems = DoubleArray(n)
     }
 
     /**
      * This constructor initializes the vector by the input [Array]<[Double]> elems (coordinates).
      *
+     * The input elems are copied into the internal primitive storage of the vector.
+     *
      * Use [setElem] or [setElems] methods to set values after creating instance by this constructor.
      */
-    constructor(elems: Array<Double>) : this(elems.size) {
+    constructor(elems: Array<Double>) : this(0) {
+        this.elems = elems.toDoubleArray()
+        this.n = elems.size
+    }
+
+    /**
+     * This constructor initializes the vector by the input [DoubleArray] elems (coordinates) without copying them.
+     *
+     * The changes of the input array are reflected in the vector and vice versa.
+     */
+    constructor(elems: DoubleArray) : this(0) {
         this.elems = elems
+        this.n = elems.size
     }
 
     /**
@@ -61,25 +75,39 @@ class Vector constructor(private var n: Int) : Serializable {
     /**
      * Returns [Array]<[Double]> elems (coordinates) of the vector.
      *
+     * The returned array is a boxed copy of the internal storage, so its changes are not reflected in the vector.
+     * Use [setElem] or [setElems] methods to change the vector, or [getData] method to access the primitive storage.
+     *
      * If you need only one elem (coordinate) by it's position in the vector, you can use [getElem] method.
      *
      * @return This method returns elems (coordinates) of [Array]<[Double]> type value of the vector.
      */
-    fun getElems(): Array<Double> = this.elems
+    fun getElems(): Array<Double> = this.elems.toTypedArray()
 
     /**
      * Sets [Array]<[Double]> elems (coordinates) into the vector.
      *
+     * The input elems are copied into the internal primitive storage of the vector.
+     *
      * If you need to set only one elem (coordinate) by it's position in the vector, you can use [setElem] method.
      *
      * @param [elems] This method sets elems (coordinates) of [Array]<[Double]> type value into the vector.
      *
      */
     fun setElems(elems: Array<Double>) {
-        this.elems = elems
+        this.elems = elems.toDoubleArray()
         this.n = elems.size
     }
 
+    /**
+     * Returns the primitive storage of the vector without copying.
+     *
+     * The changes of the returned array are reflected in the vector.
+     *
+     * @return This method returns elems (coordinates) of [DoubleArray] type value of the vector.
+     */
+    fun getData(): DoubleArray = this.elems
+
     /**
      * Returns [n] - the size (dimension/index) of the vector, starting from 1.
      *
@@ -101,9 +129,40 @@ class Vector constructor(private var n: Int) : Serializable {
      * Asymptotic complexity: O(n)
      */
     fun multiply(number: Double): Vector {
-        val vec = Vector(this.getElems())
-        vec.getElems().forEach { it * number }
-        return vec
+        return multiplyInto(number, Vector(this.n))
+    }
+
+    /**
+     * Vector multiplicate number into the destination vector.
+     *
+     * This method implements multiplication of current vector of the [Vector] type and number of the [Double] type
+     * and writes the result into the [dest] vector instead of allocating a new one.
+     *
+     * @param [number] the input number with type Double.
+     * @param [dest] the vector of the same size for the result. It may be the current vector.
+     *
+     * @return the [dest] vector which contains the result of the multiplication of vector and number.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun multiplyInto(number: Double, dest: Vector): Vector {
+        require(this.getN() == dest.getN()) { "The size of this vector does not match to size of 'dest'." }
+
+        val a = this.elems
+        val c = dest.elems
+        for (i in 0 until this.n) {
+            c[i] = a[i] * number
+        }
+        return dest
+    }
+
+    /**
+     * Multiplies the current vector by the number in place.
+     *
+     * @param [number] the input number with type Double.
+     */
+    operator fun timesAssign(number: Double) {
+        multiplyInto(number, this)
     }
 
     /**
@@ -120,13 +179,34 @@ class Vector constructor(private var n: Int) : Serializable {
     fun multiply(vector: Vector): Vector {
         require(this.getN() == vector.getN()) { "The size of this vector does not match to size of 'vector'." }
 
-        val vec = Vector(this.getElems())
+        return multiplyInto(vector, Vector(this.n))
+    }
 
-        for (i in 0 until vector.getN()) {
-            vec.setElem(i, vec.getElem(i) * vector.getElem(i))
+    /**
+     * Vector multiplicate Vector into the destination vector.
+     *
+     * This method implements multiplication of current vector of the [Vector] type and Vector of the [Vector] type
+     * and writes the result into the [dest] vector instead of allocating a new one.
+     *
+     * @param [vector] the input vector with type Vector.
+     * @param [dest] the vector of the same size for the result. It may be one of the operands.
+     *
+     * @return the [dest] vector which contains the result of the multiplication of two vectors.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun multiplyInto(vector: Vector, dest: Vector): Vector {
+        require(this.getN() == vector.getN()) { "The size of this vector does not match to size of 'vector'." }
+        require(this.getN() == dest.getN()) { "The size of this vector does not match to size of 'dest'." }
+
+        val a = this.elems
+        val b = vector.elems
+        val c = dest.elems
+        for (i in 0 until this.n) {
+            c[i] = a[i] * b[i]
         }
 
-        return vec
+        return dest
     }
 
     /**
@@ -142,12 +222,59 @@ class Vector constructor(private var n: Int) : Serializable {
      */
     fun sub(vector: Vector): Vector {
         require(this.getN() == vector.getN()) { "The size of this vector does not match to size of 'vector2.n'" }
-        val n = this.getN()
-        val v = Vector(n)
-        for (i in 0 until n) {
-            v.setElem(i, this.getElem(i) - vector.getElem(i))
+
+        return subInto(vector, Vector(this.n))
+    }
+
+    /**
+     * Vector subtraction into the destination vector.
+     *
+     * This method implements vector subtraction of this vector and input vector of the [Vector] type
+     * and writes the result into the [dest] vector instead of allocating a new one.
+     *
+     * @param [vector] the input vector.
+     * @param [dest] the vector of the same size for the result. It may be one of the operands.
+     *
+     * @return the [dest] vector which contains the result of the subtraction of two vectors.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun subInto(vector: Vector, dest: Vector): Vector {
+        require(this.getN() == vector.getN()) { "The size of this vector does not match to size of 'vector2.n'" }
+        require(this.getN() == dest.getN()) { "The size of this vector does not match to size of 'dest'." }
+
+        val a = this.elems
+        val b = vector.elems
+        val c = dest.elems
+        for (i in 0 until this.n) {
+            c[i] = a[i] - b[i]
         }
-        return v
+        return dest
+    }
+
+    /**
+     * Vector subtraction in place.
+     *
+     * This method implements vector subtraction of this vector and input vector of the [Vector] type
+     * and writes the result into this vector.
+     *
+     * @param [vector] the input vector.
+     *
+     * @return this vector which contains the result of the subtraction of two vectors.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun subInPlace(vector: Vector): Vector {
+        return subInto(vector, this)
+    }
+
+    /**
+     * Vector subtraction in place, the same as [subInPlace].
+     *
+     * @param [vector] the input vector.
+     */
+    operator fun minusAssign(vector: Vector) {
+        subInto(vector, this)
     }
 
     /**
@@ -163,10 +290,12 @@ class Vector constructor(private var n: Int) : Serializable {
     fun scalarProduct(vector: Vector): Double {
         require(this.getN() == vector.getN()) { "The size of this vector does not equals the size of 'v2'. The size of 'v1.n' must be equal to the size of 'v2.n'." }
 
+        val a = this.elems
+        val b = vector.elems
         var result = 0.0
 
-        for (i in 0 until this.getN()) {
-            result += this.getElem(i) * vector.getElem(i)
+        for (i in 0 until this.n) {
+            result += a[i] * b[i]
         }
 
         return result
@@ -186,12 +315,58 @@ class Vector constructor(private var n: Int) : Serializable {
     fun add(vector: Vector): Vector {
         require(this.getN() == vector.getN()) { "The size of this vector does not match to size of 'vector2.n'" }
 
-        val n = this.getN()
-        val v = Vector(n)
-        for (i in 0 until n) {
-            v.setElem(i, this.getElem(i) + vector.getElem(i))
+        return addInto(vector, Vector(this.n))
+    }
+
+    /**
+     * Vector addition into the destination vector.
+     *
+     * This method implements vector addition of this vector and input vector of the [Vector] type
+     * and writes the result into the [dest] vector instead of allocating a new one.
+     *
+     * @param [vector] the input vector.
+     * @param [dest] the vector of the same size for the result. It may be one of the operands.
+     *
+     * @return the [dest] vector which contains the result of the addition of two vectors.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun addInto(vector: Vector, dest: Vector): Vector {
+        require(this.getN() == vector.getN()) { "The size of this vector does not match to size of 'vector2.n'" }
+        require(this.getN() == dest.getN()) { "The size of this vector does not match to size of 'dest'." }
+
+        val a = this.elems
+        val b = vector.elems
+        val c = dest.elems
+        for (i in 0 until this.n) {
+            c[i] = a[i] + b[i]
         }
-        return v
+        return dest
+    }
+
+    /**
+     * Vector addition in place.
+     *
+     * This method implements vector addition of this vector and input vector of the [Vector] type
+     * and writes the result into this vector.
+     *
+     * @param [vector] the input vector.
+     *
+     * @return this vector which contains the result of the addition of two vectors.
+     *
+     * Asymptotic complexity: O(n)
+     */
+    fun addInPlace(vector: Vector): Vector {
+        return addInto(vector, this)
+    }
+
+    /**
+     * Vector addition in place, the same as [addInPlace].
+     *
+     * @param [vector] the input vector.
+     */
+    operator fun plusAssign(vector: Vector) {
+        addInto(vector, this)
     }
 
     /**
@@ -205,8 +380,8 @@ class Vector constructor(private var n: Int) : Serializable {
      */
     fun norm(): Double {
         var sumOfSqrs = 0.0
-        val elements = this.getElems().toDoubleArray()
-        for (i in 0 until this.getN()) {
+        val elements = this.elems
+        for (i in 0 until this.n) {
             sumOfSqrs += elements[i] * elements[i]
         }
         return sqrt(sumOfSqrs)
@@ -0,0 +1,114 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.JacobiPreconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.Preconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.SSORPreconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.BiCGSTABMethodSolution
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.LinearOperator
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.PivotedLUDecomposition
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import org.junit.jupiter.api.Test
+
+import org.junit.jupiter.api.Assertions.*
+
+internal class BiCGSTABMethodTest {
+
+    @Test
+    fun test1SolveSystemByBiCGSTABMethod() {
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(5.0, 2.0, 0.0, -1.0),
+                arrayOf(-3.0, 6.0, 2.0, 0.0),
+                arrayOf(1.0, 0.0, 4.0, 2.0),
+                arrayOf(0.0, 3.0, -1.0, 5.0)
+            )
+        )
+        val B: Vector = Vector(arrayOf(1.0, 2.0, 3.0, 4.0))
+        val expected = PivotedLUDecomposition(A).solve(B)
+
+        val dense: VectorResultWithStatus = BiCGSTABMethod().solveSystemByBiCGSTABMethod(A, B, eps = 1e-13, formSolution = true)
+        val sparse = BiCGSTABMethod().solveSystemByBiCGSTABMethod(CSRMatrix(A), B, eps = 1e-13)
+        assert(dense.isSuccessful && sparse.isSuccessful)
+        for (i in 0 until 4) {
+            assertEquals(expected.getElem(i), dense.vectorResult!!.getElem(i), 1e-11)
+            assertEquals(expected.getElem(i), sparse.vectorResult!!.getElem(i), 1e-11)
+        }
+        val solution = dense.solutionObject as BiCGSTABMethodSolution
+        assertEquals(solution.iterations + 1, solution.residualNorms.size)
+    }
+
+    /**
+     * The left and the right preconditioning on the non-symmetric sparse system.
+     */
+    @Test
+    fun test2SolveSystemByBiCGSTABMethod() {
+        val A: CSRMatrix = getConvectionDiffusionMatrix(20, 1.5)
+        val n = A.getN()
+        val B: Vector = Vector(Array<Double>(n) { i -> 1.0 + i % 3 })
+        val expected = PivotedLUDecomposition(A.toMatrix()).solve(B)
+
+        val method = BiCGSTABMethod()
+        val plain = method.solveSystemByBiCGSTABMethod(A, B, formSolution = true)
+        val right = method.solveSystemByBiCGSTABMethod(A, B, preconditioner = SSORPreconditioner(A), formSolution = true)
+        val left = method.solveSystemByBiCGSTABMethod(
+            A, B, preconditioner = SSORPreconditioner(A), preconditionerSide = Preconditioner.Side.LEFT, formSolution = true
+        )
+        val jacobi = method.solveSystemByBiCGSTABMethod(A, B, preconditioner = JacobiPreconditioner(A), formSolution = true)
+
+        for (result in arrayOf(plain, right, left, jacobi)) {
+            assert(result.isSuccessful)
+            for (i in 0 until n) {
+                assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-7)
+            }
+        }
+        assert(right.solutionObject!!.iterations < plain.solutionObject!!.iterations)
+        assert(left.solutionObject!!.iterations < plain.solutionObject!!.iterations)
+    }
+
+    @Test
+    fun test3SolveSystemByBiCGSTABMethod() {
+        val A: CSRMatrix = getConvectionDiffusionMatrix(25, 1.2)
+        val n = A.getN()
+        val B: Vector = Vector(Array<Double>(n) { i -> (i % 4) - 1.5 })
+
+        val method = BiCGSTABMethod()
+        val sequential = method.solveSystemByBiCGSTABMethod(A, B, preconditioner = SSORPreconditioner(A))
+        val parallel = method.solveSystemByBiCGSTABMethod(A, B, preconditioner = SSORPreconditioner(A), parallel = true)
+        assert(sequential.isSuccessful && parallel.isSuccessful)
+        assertArrayEquals(sequential.arrayResult, parallel.arrayResult)
+
+        val operator = method.solveSystemByBiCGSTABMethod(LinearOperator.of(A, true), B, preconditioner = SSORPreconditioner(A))
+        assertArrayEquals(sequential.arrayResult, operator.arrayResult)
+
+        val residual = A.multiply(sequential.vectorResult!!)
+        for (i in 0 until n) {
+            assertEquals(B.getElem(i), residual.getElem(i), 1e-7)
+        }
+    }
+
+    /**
+     * Exception test: the iterations are not enough, the method breaks down on the zero matrix, the sizes do not match.
+     */
+    @Test
+    fun test4SolveSystemByBiCGSTABMethod() {
+        val A: CSRMatrix = getConvectionDiffusionMatrix(10, 1.5)
+        val B: Vector = Vector(Array<Double>(A.getN()) { 1.0 })
+        val method = BiCGSTABMethod()
+
+        val notConverged = method.solveSystemByBiCGSTABMethod(A, B, maxIterations = 2, formSolution = true)
+        assert(!notConverged.isSuccessful)
+        assert(notConverged.errorException is ArithmeticException)
+        assert(notConverged.solutionObject == null)
+
+        val singular = method.solveSystemByBiCGSTABMethod(Matrix(2, 2), Vector(arrayOf(1.0, 1.0)))
+        assert(!singular.isSuccessful)
+        assert(singular.errorException is ArithmeticException)
+
+        val wrongSize = method.solveSystemByBiCGSTABMethod(A, Vector(arrayOf(1.0, 1.0)))
+        assert(!wrongSize.isSuccessful)
+        assert(wrongSize.errorException is IllegalArgumentException)
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.IncompleteCholeskyPreconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.JacobiPreconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.SSORPreconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.ConjugateGradientMethodSolution
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.LinearOperator
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.PivotedLUDecomposition
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import org.junit.jupiter.api.Test
+
+import org.junit.jupiter.api.Assertions.*
+import kotlin.math.sqrt
+
+internal class ConjugateGradientMethodTest {
+
+    @Test
+    fun test1SolveSystemByConjugateGradientMethod() {
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(4.0, -1.0, -1.0, -2.0),
+                arrayOf(-1.0, 4.0, -1.0, -2.0),
+                arrayOf(-1.0, -1.0, 4.0, -1.0),
+                arrayOf(-2.0, -2.0, -1.0, 6.0)
+            )
+        )
+        val B: Vector = Vector(arrayOf(1.0, 2.0, 3.0, 4.0))
+        val expected = PivotedLUDecomposition(A).solve(B)
+
+        val result: VectorResultWithStatus = ConjugateGradientMethod().solveSystemByConjugateGradientMethod(A, B, eps = 1e-14, formSolution = true)
+        assert(result.isSuccessful)
+        for (i in 0 until 4) {
+            assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-12)
+        }
+        // CG converges in at most n iterations in exact arithmetic
+        assert(result.solutionObject!!.iterations <= 5)
+
+        // The sparse matrix and the matrix view give the same solution
+        val sparse = ConjugateGradientMethod().solveSystemByConjugateGradientMethod(CSRMatrix(A), B, eps = 1e-14)
+        val view = ConjugateGradientMethod().solveSystemByConjugateGradientMethod(A.transposedView(), B, eps = 1e-14)
+        for (i in 0 until 4) {
+            assertEquals(expected.getElem(i), sparse.vectorResult!!.getElem(i), 1e-12)
+            assertEquals(expected.getElem(i), view.vectorResult!!.getElem(i), 1e-12)
+        }
+    }
+
+    /**
+     * The preconditioners reduce the count of the iterations, the residual history ends with the required precision.
+     */
+    @Test
+    fun test2SolveSystemByConjugateGradientMethod() {
+        val A: CSRMatrix = getPoissonMatrix(30)
+        val n = A.getN()
+        val B: Vector = Vector(Array<Double>(n) { i -> 1.0 + i % 5 })
+        val expected = PivotedLUDecomposition(A.toMatrix()).solve(B)
+        val bNorm = sqrt(B.getData().sumOf { it * it })
+
+        val method = ConjugateGradientMethod()
+        val plain = method.solveSystemByConjugateGradientMethod(A, B, formSolution = true)
+        val jacobi = method.solveSystemByConjugateGradientMethod(A, B, preconditioner = JacobiPreconditioner(A), formSolution = true)
+        val ssor = method.solveSystemByConjugateGradientMethod(A, B, preconditioner = SSORPreconditioner(A, 1.5), formSolution = true)
+        val ic = method.solveSystemByConjugateGradientMethod(A, B, preconditioner = IncompleteCholeskyPreconditioner(A), formSolution = true)
+
+        for (result in arrayOf(plain, jacobi, ssor, ic)) {
+            assert(result.isSuccessful)
+            for (i in 0 until n) {
+                assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-7)
+            }
+            val solution = result.solutionObject as ConjugateGradientMethodSolution
+            assertEquals(solution.iterations + 1, solution.residualNorms.size)
+            assert(solution.residualNorms.last() <= 1e-10 * bNorm)
+        }
+        assert(ssor.solutionObject!!.iterations < plain.solutionObject!!.iterations)
+        assert(ic.solutionObject!!.iterations < plain.solutionObject!!.iterations)
+    }
+
+    /**
+     * The matrix-free linear operator and the parallel multiplication by the sparse matrix.
+     */
+    @Test
+    fun test3SolveSystemByConjugateGradientMethod() {
+        val size = 40
+        val A: CSRMatrix = getPoissonMatrix(size)
+        val n = A.getN()
+        val B: Vector = Vector(Array<Double>(n) { i -> (i % 3) - 1.0 })
+
+        val stencil = object : LinearOperator {
+            override fun getN(): Int = n
+
+            override fun apply(x: Vector, y: Vector) {
+                for (i in 0 until n) {
+                    val row = i / size
+                    val column = i % size
+                    var sum = 4.0 * x.getElem(i)
+                    if (row > 0) sum -= x.getElem(i - size)
+                    if (row < size - 1) sum -= x.getElem(i + size)
+                    if (column > 0) sum -= x.getElem(i - 1)
+                    if (column < size - 1) sum -= x.getElem(i + 1)
+                    y.setElem(i, sum)
+                }
+            }
+
+            override fun getDiagonal(): Vector = Vector(DoubleArray(n) { 4.0 })
+        }
+
+        val method = ConjugateGradientMethod()
+        val sequential = method.solveSystemByConjugateGradientMethod(A, B, eps = 1e-12)
+        val parallel = method.solveSystemByConjugateGradientMethod(A, B, eps = 1e-12, parallel = true)
+        val matrixFree = method.solveSystemByConjugateGradientMethod(stencil, B, eps = 1e-12, preconditioner = JacobiPreconditioner(stencil))
+        assert(sequential.isSuccessful && parallel.isSuccessful && matrixFree.isSuccessful)
+        assertArrayEquals(sequential.arrayResult, parallel.arrayResult)
+        for (i in 0 until n) {
+            assertEquals(sequential.vectorResult!!.getElem(i), matrixFree.vectorResult!!.getElem(i), 1e-9)
+        }
+
+        // The initial approximation is the solution
+        val warm = method.solveSystemByConjugateGradientMethod(A, B, initialApproximation = sequential.vectorResult, eps = 1e-8, formSolution = true)
+        assertEquals(0, warm.solutionObject!!.iterations)
+    }
+
+    /**
+     * Exception test: the matrix is not positive definite, the iterations are not enough, the sizes do not match.
+     */
+    @Test
+    fun test4SolveSystemByConjugateGradientMethod() {
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(-4.0, 1.0),
+                arrayOf(1.0, -4.0)
+            )
+        )
+        val B: Vector = Vector(arrayOf(1.0, 2.0))
+        val method = ConjugateGradientMethod()
+
+        val indefinite = method.solveSystemByConjugateGradientMethod(A, B, formSolution = true)
+        assert(!indefinite.isSuccessful)
+        assert(indefinite.errorException is ArithmeticException)
+        assert(indefinite.vectorResult == null)
+        assert(indefinite.solutionObject == null)
+
+        val poisson = getPoissonMatrix(10)
+        val notConverged = method.solveSystemByConjugateGradientMethod(poisson, Vector(poisson.getN()).also { it.setElem(0, 1.0) }, maxIterations = 2)
+        assert(!notConverged.isSuccessful)
+        assert(notConverged.errorException is ArithmeticException)
+
+        val wrongSize = method.solveSystemByConjugateGradientMethod(poisson, B)
+        assert(!wrongSize.isSuccessful)
+        assert(wrongSize.errorException is IllegalArgumentException)
+
+        val wrongPreconditioner = method.solveSystemByConjugateGradientMethod(A, B, preconditioner = JacobiPreconditioner(poisson))
+        assert(!wrongPreconditioner.isSuccessful)
+        assert(wrongPreconditioner.errorException is IllegalArgumentException)
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.JacobiPreconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.Preconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners.SSORPreconditioner
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.GMRESMethodSolution
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.LinearOperator
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.PivotedLUDecomposition
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import org.junit.jupiter.api.Test
+
+import org.junit.jupiter.api.Assertions.*
+
+internal class GMRESMethodTest {
+
+    /**
+     * The full GMRES method converges in at most n iterations.
+     */
+    @Test
+    fun test1SolveSystemByGMRESMethod() {
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(1.0, 2.0, 0.0, -3.0),
+                arrayOf(-4.0, 1.0, 5.0, 0.0),
+                arrayOf(2.0, 0.0, 1.0, 1.0),
+                arrayOf(0.0, 3.0, -1.0, 1.0)
+            )
+        )
+        val B: Vector = Vector(arrayOf(1.0, 2.0, 3.0, 4.0))
+        val expected = PivotedLUDecomposition(A).solve(B)
+
+        val result: VectorResultWithStatus = GMRESMethod().solveSystemByGMRESMethod(A, B, eps = 1e-13, formSolution = true)
+        assert(result.isSuccessful)
+        for (i in 0 until 4) {
+            assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-11)
+        }
+        assert(result.solutionObject!!.iterations <= 4)
+
+        val sparse = GMRESMethod().solveSystemByGMRESMethod(CSRMatrix(A), B, eps = 1e-13)
+        for (i in 0 until 4) {
+            assertEquals(expected.getElem(i), sparse.vectorResult!!.getElem(i), 1e-11)
+        }
+    }
+
+    /**
+     * The restarted and the preconditioned method on the non-symmetric sparse system, the norm of the residual does not increase.
+     */
+    @Test
+    fun test2SolveSystemByGMRESMethod() {
+        val A: CSRMatrix = getConvectionDiffusionMatrix(20, 1.5)
+        val n = A.getN()
+        val B: Vector = Vector(Array<Double>(n) { i -> 1.0 + i % 3 })
+        val expected = PivotedLUDecomposition(A.toMatrix()).solve(B)
+
+        val method = GMRESMethod()
+        val plain = method.solveSystemByGMRESMethod(A, B, restart = 20, formSolution = true)
+        val right = method.solveSystemByGMRESMethod(A, B, restart = 20, preconditioner = SSORPreconditioner(A), formSolution = true)
+        val left = method.solveSystemByGMRESMethod(
+            A, B, restart = 20, preconditioner = JacobiPreconditioner(A), preconditionerSide = Preconditioner.Side.LEFT, formSolution = true
+        )
+
+        for (result in arrayOf(plain, right, left)) {
+            assert(result.isSuccessful)
+            for (i in 0 until n) {
+                assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-7)
+            }
+            val solution = result.solutionObject as GMRESMethodSolution
+            assertEquals(solution.iterations + 1, solution.residualNorms.size)
+            for (k in 1 until solution.residualNorms.size) {
+                assert(solution.residualNorms[k] <= solution.residualNorms[k - 1] * (1 + 1e-12))
+            }
+        }
+        assert((plain.solutionObject as GMRESMethodSolution).restarts > 0)
+        assert(right.solutionObject!!.iterations < plain.solutionObject!!.iterations)
+    }
+
+    /**
+     * The parallel multiplication and the linear operator give the same result, the short restart bounds the memory.
+     */
+    @Test
+    fun test3SolveSystemByGMRESMethod() {
+        val A: CSRMatrix = getConvectionDiffusionMatrix(25, 1.2)
+        val n = A.getN()
+        val B: Vector = Vector(Array<Double>(n) { i -> (i % 4) - 1.5 })
+        val preconditioner = SSORPreconditioner(A)
+
+        val method = GMRESMethod()
+        val sequential = method.solveSystemByGMRESMethod(A, B, restart = 10, preconditioner = preconditioner)
+        val parallel = method.solveSystemByGMRESMethod(A, B, restart = 10, preconditioner = preconditioner, parallel = true)
+        assert(sequential.isSuccessful && parallel.isSuccessful)
+        assertArrayEquals(sequential.arrayResult, parallel.arrayResult)
+
+        val operator = method.solveSystemByGMRESMethod(LinearOperator.of(A), B, restart = 10, preconditioner = preconditioner)
+        assertArrayEquals(sequential.arrayResult, operator.arrayResult)
+
+        val residual = A.multiply(sequential.vectorResult!!)
+        for (i in 0 until n) {
+            assertEquals(B.getElem(i), residual.getElem(i), 1e-7)
+        }
+    }
+
+    /**
+     * Exception test: the restart length is not positive, the iterations are not enough, the matrix is singular.
+     */
+    @Test
+    fun test4SolveSystemByGMRESMethod() {
+        val A: CSRMatrix = getConvectionDiffusionMatrix(10, 1.5)
+        val B: Vector = Vector(Array<Double>(A.getN()) { 1.0 })
+        val method = GMRESMethod()
+
+        val wrongRestart = method.solveSystemByGMRESMethod(A, B, restart = 0, formSolution = true)
+        assert(!wrongRestart.isSuccessful)
+        assert(wrongRestart.errorException is IllegalArgumentException)
+        assert(wrongRestart.solutionObject == null)
+
+        val notConverged = method.solveSystemByGMRESMethod(A, B, maxIterations = 3)
+        assert(!notConverged.isSuccessful)
+        assert(notConverged.errorException is ArithmeticException)
+
+        val singular = method.solveSystemByGMRESMethod(Matrix(2, 2), Vector(arrayOf(1.0, 1.0)))
+        assert(!singular.isSuccessful)
+        assert(singular.errorException is ArithmeticException)
+    }
+}
@@ -1,9 +1,13 @@
 package com.github.varenytsiamykhailo.knml.systemsolvingmethods
 
 import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.OffHeapMatrix
 import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.getMatrixWithRandomElementsAndDiagonalDominance
+import com.github.varenytsiamykhailo.knml.util.getVectorWithRandomElements
 import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
 import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Test
 import kotlin.math.abs
 import kotlin.math.roundToInt
@@ -402,7 +406,8 @@ internal class GaussMethodTest {
             true,
             GaussMethod.PivotingStrategy.PartialByColumn
         )
-        assert(resultWithPivotingByRow.arrayResult.contentEquals(resultWithPivotingByColumn.arrayResult))
+        // The strategies choose the other pivots, so the results differ in the last bits
+        assertArrayEquals(resultWithPivotingByRow.arrayResult!!.toDoubleArray(), resultWithPivotingByColumn.arrayResult!!.toDoubleArray(), 1e-12)
 
         val resultWithCompletePivoting: VectorResultWithStatus = GaussMethod().solveSystemByGaussMethodWithPivoting(
             A,
@@ -410,6 +415,83 @@ internal class GaussMethodTest {
             true,
             GaussMethod.PivotingStrategy.Complete
         )
-        assert(resultWithPivotingByRow.arrayResult.contentEquals(resultWithCompletePivoting.arrayResult))
+        assertArrayEquals(resultWithPivotingByRow.arrayResult!!.toDoubleArray(), resultWithCompletePivoting.arrayResult!!.toDoubleArray(), 1e-12)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun test12SolveSystemByGaussMethodWithOffHeapMatrix() {
+        val A: Matrix = getMatrixWithRandomElementsAndDiagonalDominance(30, 0, 15, 1)
+        val B: Vector = Vector(Array(30) { it + 1.0 })
+
+        OffHeapMatrix(A, chunkSize = 64).use { offHeapA ->
+            val classic = GaussMethod().solveSystemByGaussClassicMethod(offHeapA, B, formSolution = true)
+            assert(classic.isSuccessful)
+            assert(classic.solutionObject!!.solutionString.isNotEmpty())
+            assertArrayEquals(GaussMethod().solveSystemByGaussClassicMethod(A, B).arrayResult, classic.arrayResult)
+
+            GaussMethod.PivotingStrategy.values().forEach { pivoting ->
+                val result = GaussMethod().solveSystemByGaussMethodWithPivoting(offHeapA, B, false, pivoting)
+                assert(result.isSuccessful)
+                assertArrayEquals(GaussMethod().solveSystemByGaussMethodWithPivoting(A, B, false, pivoting).arrayResult, result.arrayResult)
+            }
+
+            // The input matrix is not modified
+            assert(A == offHeapA)
+
+            val singular = GaussMethod().solveSystemByGaussMethodWithPivoting(OffHeapMatrix(2, 2), Vector(2), false, GaussMethod.PivotingStrategy.PartialByRow)
+            assert(!singular.isSuccessful)
+            assert(singular.errorException is ArithmeticException)
+        }
+    }
+
+    @Test
+    fun test13SolveSystemByGaussMethodWithManyRightSides() {
+        val A: Matrix = getMatrixWithRandomElementsAndDiagonalDominance(25, 0, 15, 1)
+        val vectors: List<Vector> = List(4) { getVectorWithRandomElements(25, 0, 15) }
+        val B = Matrix(25, 4)
+        for (j in 0 until 4) {
+            for (i in 0 until 25) {
+                B.setElem(i, j, vectors[j].getElem(i))
+            }
+        }
+
+        // Every column is exactly the solution of the system with one right side
+        val classic = GaussMethod().solveSystemByGaussClassicMethod(A, B, formSolution = true)
+        assert(classic.isSuccessful)
+        assert(classic.solutionObject!!.solutionString.isNotEmpty())
+        assert(classic.matrixResult == GaussMethod().solveSystemByGaussClassicMethod(A, vectors).matrixResult)
+        for (j in 0 until 4) {
+            val expected = GaussMethod().solveSystemByGaussClassicMethod(A, vectors[j]).arrayResult!!
+            assertArrayEquals(expected, Array(25) { i -> classic.matrixResult!!.getElem(i, j) })
+        }
+
+        GaussMethod.PivotingStrategy.values().forEach { pivoting ->
+            val result = GaussMethod().solveSystemByGaussMethodWithPivoting(A, B, false, pivoting)
+            assert(result.isSuccessful)
+            assert(result == GaussMethod().solveSystemByGaussMethodWithPivoting(A, vectors, false, pivoting))
+            for (j in 0 until 4) {
+                val expected = GaussMethod().solveSystemByGaussMethodWithPivoting(A, vectors[j], false, pivoting).arrayResult!!
+                assertArrayEquals(expected, result.arrayResult!!.map { it[j] }.toTypedArray())
+            }
+        }
+
+        // The heap matrix is eliminated in its array and the off-heap matrix by the accessors with the same result
+        OffHeapMatrix(A, chunkSize = 64).use { offHeapA ->
+            assertEquals(classic.matrixResult, GaussMethod().solveSystemByGaussClassicMethod(offHeapA, B).matrixResult)
+            GaussMethod.PivotingStrategy.values().forEach { pivoting ->
+                assertEquals(
+                    GaussMethod().solveSystemByGaussMethodWithPivoting(A, B, false, pivoting).matrixResult,
+                    GaussMethod().solveSystemByGaussMethodWithPivoting(offHeapA, B, false, pivoting).matrixResult
+                )
+            }
+        }
+
+        val wrongSize = GaussMethod().solveSystemByGaussClassicMethod(A, listOf(Vector(25), Vector(24)))
+        assert(!wrongSize.isSuccessful)
+        assert(wrongSize.errorException is IllegalArgumentException)
+
+        val singular = GaussMethod().solveSystemByGaussMethodWithPivoting(Matrix(2, 2), Matrix(2, 3), false, GaussMethod.PivotingStrategy.PartialByRow)
+        assert(!singular.isSuccessful)
+        assert(singular.errorException is ArithmeticException)
+    }
+}
@@ -1,11 +1,17 @@
 package com.github.varenytsiamykhailo.knml.systemsolvingmethods
 
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.LinearOperator
 import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.OffHeapMatrix
 import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.getMatrixWithRandomElementsAndDiagonalDominance
+import com.github.varenytsiamykhailo.knml.util.getVectorWithRandomElements
 import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
 import org.junit.jupiter.api.Test
 
 import org.junit.jupiter.api.Assertions.*
+import java.util.concurrent.Executors
 import kotlin.math.abs
 
 internal class JacobiMethodTest {
@@ -270,4 +276,129 @@ internal class JacobiMethodTest {
         assert(result.solutionObject == null)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun test9SolveSystemByParallelJacobiMethod() {
+        val A: Matrix = getMatrixWithRandomElementsAndDiagonalDominance(200, 0, 10, 1)
+        for (i in 0 until 200) {
+            A.setElem(i, i, (0 until 200).sumOf { j -> abs(A.getElem(i, j)) } + 1.0)
+        }
+        val B: Vector = getVectorWithRandomElements(200, 0, 10)
+        val expected = JacobiMethod().solveSystemByJacobiMethod(A, B, eps = 1e-10)
+
+        val result = JacobiMethod().solveSystemByParallelJacobiMethod(A, B, eps = 1e-10, formSolution = true)
+        assert(result.isSuccessful)
+        assert(result.solutionObject!!.iterations > 0)
+        assertArrayEquals(expected.arrayResult!!.toDoubleArray(), result.arrayResult!!.toDoubleArray(), 1e-9)
+
+        // The custom executor and the off-heap matrix
+        val executor = Executors.newFixedThreadPool(3)
+        try {
+            OffHeapMatrix(A).use { offHeapA ->
+                val offHeapResult = JacobiMethod().solveSystemByParallelJacobiMethod(offHeapA, B, eps = 1e-10, executor = executor)
+                assertArrayEquals(result.arrayResult, offHeapResult.arrayResult)
+            }
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun test10SolveSystemByParallelJacobiMethod() {
+        // The matrix without diagonal dominance
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(1.0, 2.0),
+                arrayOf(3.0, 4.0)
+            )
+        )
+        val result = JacobiMethod().solveSystemByParallelJacobiMethod(A, Vector(arrayOf(1.0, 2.0)))
+        assert(!result.isSuccessful)
+        assert(result.errorException is IllegalArgumentException)
+
+        val wrongSize = JacobiMethod().solveSystemByParallelJacobiMethod(Matrix(2, 2), Vector(3))
+        assert(!wrongSize.isSuccessful)
+    }
+
+    @Test
+    fun test11SolveSystemByJacobiMethodWithLinearOperator() {
+        val A: Array<Array<Double>> = arrayOf(
+            arrayOf(115.0, -20.0, -75.0),
+            arrayOf(15.0, -50.0, -5.0),
+            arrayOf(6.0, 2.0, 20.0)
+        )
+        val B: Array<Double> = arrayOf(20.0, -40.0, 28.0)
+
+        val expected = JacobiMethod().solveSystemByJacobiMethod(A, B, eps = 1e-12)
+        val dense = JacobiMethod().solveSystemByJacobiMethod(LinearOperator.of(Matrix(A)), Vector(B), eps = 1e-12, formSolution = true)
+        val sparse = JacobiMethod().solveSystemByJacobiMethod(LinearOperator.of(CSRMatrix(Matrix(A))), Vector(B), eps = 1e-12)
+        assert(dense.isSuccessful && sparse.isSuccessful)
+        assert(dense.solutionObject!!.iterations > 0)
+        for (i in 0 until 3) {
+            assertEquals(expected.vectorResult!!.getElem(i), dense.vectorResult!!.getElem(i), 1e-10)
+            assertEquals(expected.vectorResult!!.getElem(i), sparse.vectorResult!!.getElem(i), 1e-10)
+        }
+
+        // The stencil of the 1D diffusion equation with the reaction: '3 * Xi - X(i-1) - X(i+1)', which is never stored
+        val n = 100000
+        val stencil = object : LinearOperator {
+            override fun getN(): Int = n
+
+            override fun apply(x: Vector, y: Vector) {
+                val xElems = x.getData()
+                val yElems = y.getData()
+                for (i in 0 until n) {
+                    var sum = 3.0 * xElems[i]
+                    if (i > 0) sum -= xElems[i - 1]
+                    if (i < n - 1) sum -= xElems[i + 1]
+                    yElems[i] = sum
+                }
+            }
+
+            override fun getDiagonal(): Vector = Vector(DoubleArray(n) { 3.0 })
+        }
+        val right = Vector(DoubleArray(n) { 1.0 })
+        val result = JacobiMethod().solveSystemByJacobiMethod(stencil, right, eps = 1e-9)
+        assert(result.isSuccessful)
+        val residual = Vector(n)
+        stencil.apply(result.vectorResult!!, residual)
+        for (i in 0 until n) {
+            assertEquals(1.0, residual.getElem(i), 1e-8)
+        }
+    }
+
+    @Test
+    fun test12SolveSystemByJacobiMethodWithLinearOperator() {
+        // The iterations diverge without diagonal dominance
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(1.0, 2.0),
+                arrayOf(3.0, 4.0)
+            )
+        )
+        val diverging = JacobiMethod().solveSystemByJacobiMethod(LinearOperator.of(A), Vector(arrayOf(1.0, 2.0)))
+        assert(!diverging.isSuccessful)
+        assert(diverging.errorException is ArithmeticException)
+
+        val zeroDiagonal = JacobiMethod().solveSystemByJacobiMethod(LinearOperator.of(Matrix(2, 2)), Vector(arrayOf(1.0, 2.0)))
+        assert(!zeroDiagonal.isSuccessful)
+        assert(zeroDiagonal.errorException is IllegalArgumentException)
+
+        val wrongSize = JacobiMethod().solveSystemByJacobiMethod(LinearOperator.of(A), Vector(3))
+        assert(!wrongSize.isSuccessful)
+        assert(wrongSize.errorException is IllegalArgumentException)
+
+        // The iterations of the singular system neither converge nor overflow, so they stop on the maximal count
+        val singular = LinearOperator.of(Matrix(arrayOf(arrayOf(1.0, 1.0), arrayOf(1.0, 1.0))))
+        val notConverging = JacobiMethod().solveSystemByJacobiMethod(singular, Vector(arrayOf(1.0, 2.0)))
+        assert(!notConverging.isSuccessful)
+        assert(notConverging.errorException is ArithmeticException)
+
+        val limited = JacobiMethod().solveSystemByJacobiMethod(LinearOperator.of(A), Vector(arrayOf(1.0, 2.0)), maxIterations = 5)
+        assert(!limited.isSuccessful)
+        assert(limited.errorException is ArithmeticException)
+
+        val negativeLimit = JacobiMethod().solveSystemByJacobiMethod(singular, Vector(arrayOf(1.0, 2.0)), maxIterations = -1)
+        assert(!negativeLimit.isSuccessful)
+        assert(negativeLimit.errorException is IllegalArgumentException)
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.MultigridMethodSolution
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.PivotedLUDecomposition
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import org.junit.jupiter.api.Test
+
+import org.junit.jupiter.api.Assertions.*
+
+internal class MultigridMethodTest {
+
+    private fun getRightSide(n: Int): Vector = Vector(Array(n) { i -> 1.0 + (i % 7) - 0.5 * (i % 3) })
+
+    private fun getCycles(result: VectorResultWithStatus): Int = (result.solutionObject as MultigridMethodSolution).iterations
+
+    /**
+     * The geometric V-cycle with the Seidel smoother converges in a few cycles to the solution of the LU decomposition.
+     */
+    @Test
+    fun test1SolveSystemByGeometricMultigrid() {
+        val size = 31
+        val A = getPoissonMatrix(size)
+        val B = getRightSide(size * size)
+        val expected = PivotedLUDecomposition(A.toMatrix()).solve(B)
+
+        val hierarchy = MultigridHierarchy.geometric(A, size, size, coarsestSize = 16)
+        assertEquals(4, hierarchy.getLevelCount())
+        assertEquals(15 * 15, hierarchy.getMatrix(1).getN())
+        assertEquals(3 * 3, hierarchy.getMatrix(3).getN())
+
+        val result = MultigridMethod().solveSystemByMultigridMethod(hierarchy, B, formSolution = true)
+        assert(result.isSuccessful)
+        assertTrue(getCycles(result) <= 15)
+        for (i in 0 until size * size) {
+            assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-8)
+        }
+        val residualNorms = (result.solutionObject as MultigridMethodSolution).residualNorms
+        assertEquals(getCycles(result) + 1, residualNorms.size)
+    }
+
+    /**
+     * The count of the cycles does not grow with the size of the grid.
+     */
+    @Test
+    fun test2CyclesDoNotGrowWithGrid() {
+        val cycles = intArrayOf(15, 63).map { size ->
+            val A = getPoissonMatrix(size)
+            val hierarchy = MultigridHierarchy.geometric(A, size, size)
+            getCycles(MultigridMethod().solveSystemByMultigridMethod(hierarchy, getRightSide(size * size), formSolution = true))
+        }
+        assertTrue(cycles[1] <= cycles[0] + 2)
+    }
+
+    /**
+     * The aggregation hierarchy with V- and W-cycles and both smoothers.
+     */
+    @Test
+    fun test3SolveSystemByAggregationMultigrid() {
+        val size = 40
+        val A = getPoissonMatrix(size)
+        val B = getRightSide(size * size)
+        val expected = PivotedLUDecomposition(A.toMatrix()).solve(B)
+
+        val hierarchy = MultigridHierarchy.aggregation(A)
+        assertTrue(hierarchy.getLevelCount() >= 2)
+        for (level in 1 until hierarchy.getLevelCount()) {
+            assertTrue(hierarchy.getMatrix(level).getN() < hierarchy.getMatrix(level - 1).getN())
+        }
+
+        var vCycles = 0
+        for (cycle in MultigridMethod.Cycle.values()) {
+            for (smoother in MultigridMethod.Smoother.values()) {
+                val result = MultigridMethod().solveSystemByMultigridMethod(
+                    hierarchy, B, cycle = cycle, smoother = smoother, formSolution = true
+                )
+                assert(result.isSuccessful)
+                for (i in 0 until size * size) {
+                    assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-7)
+                }
+                if (cycle == MultigridMethod.Cycle.V && smoother == MultigridMethod.Smoother.SEIDEL) {
+                    vCycles = getCycles(result)
+                } else if (cycle == MultigridMethod.Cycle.W && smoother == MultigridMethod.Smoother.SEIDEL) {
+                    assertTrue(getCycles(result) <= vCycles)
+                }
+            }
+        }
+
+        // The method for the matrix builds the same aggregation hierarchy
+        val result = MultigridMethod().solveSystemByMultigridMethod(A, B)
+        assert(result.isSuccessful)
+        for (i in 0 until size * size) {
+            assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-7)
+        }
+    }
+
+    /**
+     * The hierarchy is reused for the other right side and the initial approximation.
+     */
+    @Test
+    fun test4ReuseHierarchy() {
+        val size = 20
+        val A = getPoissonMatrix(size)
+        val hierarchy = MultigridHierarchy.aggregation(A, smoothed = false)
+        val method = MultigridMethod()
+
+        val B1 = getRightSide(size * size)
+        val B2 = Vector(Array(size * size) { i -> if (i % 2 == 0) 1.0 else -2.0 })
+        val result1 = method.solveSystemByMultigridMethod(hierarchy, B1, cycle = MultigridMethod.Cycle.W)
+        val result2 = method.solveSystemByMultigridMethod(hierarchy, B2, cycle = MultigridMethod.Cycle.W)
+        assert(result1.isSuccessful && result2.isSuccessful)
+        val expected2 = PivotedLUDecomposition(A.toMatrix()).solve(B2)
+        for (i in 0 until size * size) {
+            assertEquals(expected2.getElem(i), result2.vectorResult!!.getElem(i), 1e-7)
+        }
+
+        // The solution is the initial approximation, so no cycles are needed
+        val result3 = method.solveSystemByMultigridMethod(
+            hierarchy, B1, initialApproximation = result1.vectorResult, eps = 1e-8, formSolution = true
+        )
+        assertEquals(0, getCycles(result3))
+    }
+
+    /**
+     * The weakly coupled matrix is not coarsened by the aggregation, so its single level is only smoothed
+     * instead of the dense LU decomposition.
+     */
+    @Test
+    fun test5WeaklyCoupledMatrix() {
+        val n = 500
+        val rows = IntArray(3 * n - 2)
+        val columns = IntArray(3 * n - 2)
+        val values = DoubleArray(3 * n - 2)
+        var k = 0
+        for (i in 0 until n) {
+            for (j in maxOf(i - 1, 0)..minOf(i + 1, n - 1)) {
+                rows[k] = i
+                columns[k] = j
+                values[k] = if (i == j) 2.0 else 1e-3
+                k++
+            }
+        }
+        val A = CSRMatrix.fromTriplets(n, n, rows, columns, values)
+        val hierarchy = MultigridHierarchy.aggregation(A, coarsestSize = 16)
+        assertEquals(1, hierarchy.getLevelCount())
+
+        val B = getRightSide(n)
+        val result = MultigridMethod().solveSystemByMultigridMethod(hierarchy, B)
+        assertTrue(result.isSuccessful)
+        val residual = A.multiply(result.vectorResult!!)
+        for (i in 0 until n) {
+            assertEquals(B.getElem(i), residual.getElem(i), 1e-8)
+        }
+    }
+
+    /**
+     * The errors are reported by the result.
+     */
+    @Test
+    fun test6Errors() {
+        val A = getPoissonMatrix(8)
+        val hierarchy = MultigridHierarchy.geometric(A, 8, 8, coarsestSize = 4)
+        val method = MultigridMethod()
+
+        var result = method.solveSystemByMultigridMethod(hierarchy, Vector(Array(10) { 1.0 }))
+        assertFalse(result.isSuccessful)
+        assert(result.errorException is IllegalArgumentException)
+
+        result = method.solveSystemByMultigridMethod(hierarchy, getRightSide(64), smoothingSteps = 0)
+        assertFalse(result.isSuccessful)
+        assert(result.errorException is IllegalArgumentException)
+
+        result = method.solveSystemByMultigridMethod(hierarchy, getRightSide(64), maxCycles = 1)
+        assertFalse(result.isSuccessful)
+        assert(result.errorException is ArithmeticException)
+
+        assertThrows(IllegalArgumentException::class.java) { MultigridHierarchy.geometric(A, 7, 8) }
+        assertThrows(IllegalArgumentException::class.java) { MultigridHierarchy.aggregation(A, strengthThreshold = 2.0) }
+    }
+}
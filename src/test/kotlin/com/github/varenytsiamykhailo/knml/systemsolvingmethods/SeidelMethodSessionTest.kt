@@ -0,0 +1,96 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.solutions.SeidelMethodSolution
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.PivotedLUDecomposition
+import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
+import org.junit.jupiter.api.Test
+
+import org.junit.jupiter.api.Assertions.*
+
+internal class SeidelMethodSessionTest {
+
+    private fun getMatrix(n: Int): Matrix {
+        val A = Matrix(n, n)
+        for (i in 0 until n) {
+            for (j in 0 until n) {
+                A.setElem(i, j, if (i == j) 2.0 * n else 1.0 / (1 + i + j))
+            }
+        }
+        return A
+    }
+
+    private fun getIterations(result: VectorResultWithStatus): Int = (result.solutionObject as SeidelMethodSolution).iterations
+
+    /**
+     * The first solving of the session gives the same result as the Seidel method.
+     */
+    @Test
+    fun test1SolveAsSeidelMethod() {
+        val A: Array<Array<Double>> = arrayOf(
+            arrayOf(115.0, -20.0, -75.0),
+            arrayOf(15.0, -50.0, -5.0),
+            arrayOf(6.0, 2.0, 20.0)
+        )
+        val B: Array<Double> = arrayOf(20.0, -40.0, 28.0)
+
+        val expected = SeidelMethod().solveSystemBySeidelMethod(A, B, eps = 0.01, formSolution = true)
+        val result = SeidelMethodSession(A, eps = 0.01).solve(B, formSolution = true)
+        assert(result.isSuccessful)
+        assertArrayEquals(expected.arrayResult, result.arrayResult)
+        assertEquals(getIterations(expected), getIterations(result))
+    }
+
+    /**
+     * The slowly changing right sides start from the previous solution and need fewer iterations.
+     */
+    @Test
+    fun test2WarmStart() {
+        val n = 50
+        val A = getMatrix(n)
+        val LU = PivotedLUDecomposition(A)
+        val session = SeidelMethodSession(A, eps = 1e-12)
+
+        var B = Vector(Array(n) { i -> 1.0 + i })
+        val first = session.solve(B, formSolution = true)
+        assert(first.isSuccessful)
+        for (step in 1..5) {
+            B = Vector(Array(n) { i -> B.getElem(i) + 1e-6 * step })
+            val result = session.solve(B, formSolution = true)
+            assert(result.isSuccessful)
+            assertTrue(getIterations(result) < getIterations(first))
+            val expected = LU.solve(B)
+            for (i in 0 until n) {
+                assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-10)
+            }
+        }
+
+        // The result does not share the work vector of the session
+        val kept = first.vectorResult!!.getElem(0)
+        session.solve(Vector(Array(n) { 100.0 }))
+        assertEquals(kept, first.vectorResult!!.getElem(0))
+
+        // The solving after the reset starts from the default initial approximation
+        session.reset()
+        val cold = session.solve(Vector(Array(n) { i -> 1.0 + i }), formSolution = true)
+        assertEquals(getIterations(first), getIterations(cold))
+    }
+
+    /**
+     * The errors are reported by the constructor and by the result.
+     */
+    @Test
+    fun test3Errors() {
+        assertThrows(IllegalArgumentException::class.java) {
+            SeidelMethodSession(arrayOf(arrayOf(1.0, 2.0), arrayOf(3.0, 1.0)))
+        }
+        assertThrows(IllegalArgumentException::class.java) { SeidelMethodSession(Matrix(2, 3)) }
+
+        val session = SeidelMethodSession(getMatrix(4))
+        val result = session.solve(Vector(Array(3) { 1.0 }))
+        assertFalse(result.isSuccessful)
+        assert(result.errorException is IllegalArgumentException)
+        assert(session.solve(Vector(Array(4) { 1.0 })).isSuccessful)
+    }
+}
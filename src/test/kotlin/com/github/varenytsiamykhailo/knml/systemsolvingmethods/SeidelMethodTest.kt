@@ -1,6 +1,8 @@
 package com.github.varenytsiamykhailo.knml.systemsolvingmethods
 
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
 import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.PivotedLUDecomposition
 import com.github.varenytsiamykhailo.knml.util.Vector
 import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
 import org.junit.jupiter.api.Test
@@ -270,4 +272,157 @@ internal class SeidelMethodTest {
         assert(result.solutionObject == null)
     }
 
-}
\ No newline at end of file
+    /**
+     * The multicolor Gauss-Seidel method on the red-black ordering of the grid.
+     */
+    @Test
+    fun test9SolveSystemByMulticolorSORMethod() {
+        val A: CSRMatrix = getPoissonMatrix(20)
+        val n = A.getN()
+        val B: Vector = Vector(Array<Double>(n) { i -> 1.0 + i % 7 })
+
+        val expected = PivotedLUDecomposition(A.toMatrix()).solve(B)
+        val result: VectorResultWithStatus = SeidelMethod().solveSystemByMulticolorSORMethod(A, B, eps = 1e-10, omega = 1.0, formSolution = true)
+        assert(result.isSuccessful)
+        for (i in 0 until n) {
+            assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-7)
+        }
+        assert(result.solutionObject!!.solutionString.startsWith("The rows are split into 2 colors."))
+    }
+
+    /**
+     * The estimated relaxation parameter cuts the count of the iterations, the parallel result is the same as the sequential one.
+     */
+    @Test
+    fun test10SolveSystemByMulticolorSORMethod() {
+        val A: CSRMatrix = getPoissonMatrix(30)
+        val n = A.getN()
+        val B: Vector = Vector(Array<Double>(n) { i -> 1.0 + i % 5 })
+        val expected = PivotedLUDecomposition(A.toMatrix()).solve(B)
+
+        val gaussSeidel = SeidelMethod().solveSystemByMulticolorSORMethod(A, B, eps = 1e-8, omega = 1.0, formSolution = true)
+        val sor = SeidelMethod().solveSystemByMulticolorSORMethod(A, B, eps = 1e-8, parallel = false, formSolution = true)
+        val parallelSor = SeidelMethod().solveSystemByMulticolorSORMethod(A, B, eps = 1e-8, parallel = true, formSolution = true)
+        val ssor = SeidelMethod().solveSystemByMulticolorSORMethod(A, B, eps = 1e-8, symmetric = true, formSolution = true)
+        assert(gaussSeidel.isSuccessful && sor.isSuccessful && parallelSor.isSuccessful && ssor.isSuccessful)
+
+        assert(sor.solutionObject!!.iterations * 3 < gaussSeidel.solutionObject!!.iterations)
+        // The multicolor SSOR method uses 'omega = 1', its iteration is not longer than the Gauss-Seidel one
+        assert(ssor.solutionObject!!.iterations <= gaussSeidel.solutionObject!!.iterations)
+        assertArrayEquals(sor.arrayResult, parallelSor.arrayResult)
+        for (i in 0 until n) {
+            assertEquals(expected.getElem(i), sor.vectorResult!!.getElem(i), 1e-5)
+            assertEquals(expected.getElem(i), ssor.vectorResult!!.getElem(i), 1e-5)
+        }
+    }
+
+    /**
+     * The dense SOR and SSOR methods on the symmetric positive definite system without the strict diagonal dominance.
+     */
+    @Test
+    fun test11SolveSystemBySORMethod() {
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(4.0, -1.0, -1.0, -2.0),
+                arrayOf(-1.0, 4.0, -1.0, -2.0),
+                arrayOf(-1.0, -1.0, 4.0, -1.0),
+                arrayOf(-2.0, -2.0, -1.0, 6.0)
+            )
+        )
+        val B: Vector = Vector(arrayOf(1.0, 2.0, 3.0, 4.0))
+        val expected = PivotedLUDecomposition(A).solve(B)
+
+        for (symmetric in arrayOf(false, true)) {
+            for (omega in arrayOf(null, 0.8, 1.0, 1.5)) {
+                val result = SeidelMethod().solveSystemBySORMethod(A, B, eps = 1e-12, omega = omega, symmetric = symmetric)
+                assert(result.isSuccessful)
+                for (i in 0 until 4) {
+                    assertEquals(expected.getElem(i), result.vectorResult!!.getElem(i), 1e-9)
+                }
+            }
+        }
+
+        // The matrix view gives the same result as the matrix
+        val view: Matrix = A.transposedView()
+        assertArrayEquals(
+            SeidelMethod().solveSystemBySORMethod(A, B, omega = 1.2).arrayResult,
+            SeidelMethod().solveSystemBySORMethod(view, B, omega = 1.2).arrayResult
+        )
+    }
+
+    /**
+     * Exception test: the relaxation parameter is out of (0, 2), the diagonal elem is zero.
+     */
+    @Test
+    fun test12SolveSystemBySORMethod() {
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(4.0, -1.0),
+                arrayOf(-1.0, 4.0)
+            )
+        )
+        val B: Vector = Vector(arrayOf(1.0, 2.0))
+
+        for (omega in arrayOf(0.0, 2.0, -1.0, Double.NaN)) {
+            val result = SeidelMethod().solveSystemBySORMethod(A, B, omega = omega, formSolution = true)
+            assert(!result.isSuccessful)
+            assert(result.errorException is IllegalArgumentException)
+            assert(result.vectorResult == null)
+        }
+
+        val sparse = CSRMatrix.fromTriplets(2, 2, intArrayOf(0, 1), intArrayOf(1, 0), doubleArrayOf(1.0, 1.0))
+        val result = SeidelMethod().solveSystemByMulticolorSORMethod(sparse, B)
+        assert(!result.isSuccessful)
+        assert(result.errorException is IllegalArgumentException)
+    }
+
+    /**
+     * Exception test: the iterations of the singular system do not converge, so they stop on the maximal count.
+     */
+    @Test
+    fun test13SolveSystemBySORMethod() {
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(1.0, 1.0),
+                arrayOf(1.0, 1.0)
+            )
+        )
+        val B: Vector = Vector(arrayOf(1.0, 2.0))
+
+        for (symmetric in arrayOf(false, true)) {
+            val result = SeidelMethod().solveSystemBySORMethod(A, B, omega = 1.0, symmetric = symmetric)
+            assert(!result.isSuccessful)
+            assert(result.errorException is ArithmeticException)
+        }
+
+        val sparse = SeidelMethod().solveSystemByMulticolorSORMethod(CSRMatrix(A), B, maxIterations = 100)
+        assert(!sparse.isSuccessful)
+        assert(sparse.errorException is ArithmeticException)
+
+        val negativeLimit = SeidelMethod().solveSystemBySORMethod(A, B, maxIterations = -1)
+        assert(!negativeLimit.isSuccessful)
+        assert(negativeLimit.errorException is IllegalArgumentException)
+    }
+
+    /**
+     * The estimated relaxation parameter is close to the optimal one 'omega = 2 / (1 + sin(pi / (size + 1)))' of the Poisson grid.
+     */
+    @Test
+    fun test14SolveSystemBySORMethod() {
+        val size = 30
+        val A: Matrix = getPoissonMatrix(size).toMatrix()
+        val n = A.getN()
+        val B: Vector = Vector(Array<Double>(n) { i -> 1.0 + i % 5 })
+
+        val optimalOmega = 2.0 / (1.0 + Math.sin(Math.PI / (size + 1)))
+        val optimal = SeidelMethod().solveSystemBySORMethod(A, B, eps = 1e-8, omega = optimalOmega, formSolution = true)
+        val estimated = SeidelMethod().solveSystemBySORMethod(A, B, eps = 1e-8, formSolution = true)
+        assert(optimal.isSuccessful && estimated.isSuccessful)
+
+        assert(estimated.solutionObject!!.iterations * 2 < optimal.solutionObject!!.iterations * 3)
+        for (i in 0 until n) {
+            assertEquals(optimal.vectorResult!!.getElem(i), estimated.vectorResult!!.getElem(i), 1e-5)
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods
+
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+
+// The sparse matrices of the discretized equations, which are shared by the tests of the iterative methods
+
+// Returns the matrix of the 5-point stencil of the 2D Poisson equation on the 'size' x 'size' grid
+internal fun getPoissonMatrix(size: Int): CSRMatrix {
+    val rows = ArrayList<Int>()
+    val columns = ArrayList<Int>()
+    val values = ArrayList<Double>()
+    fun add(i: Int, j: Int, value: Double) {
+        rows.add(i)
+        columns.add(j)
+        values.add(value)
+    }
+    for (x in 0 until size) {
+        for (y in 0 until size) {
+            val i = x * size + y
+            add(i, i, 4.0)
+            if (x > 0) add(i, i - size, -1.0)
+            if (x < size - 1) add(i, i + size, -1.0)
+            if (y > 0) add(i, i - 1, -1.0)
+            if (y < size - 1) add(i, i + 1, -1.0)
+        }
+    }
+    return CSRMatrix.fromTriplets(size * size, size * size, rows.toIntArray(), columns.toIntArray(), values.toDoubleArray())
+}
+
+// Returns the matrix of the central differences of the 2D convection-diffusion equation on the 'size' x 'size' grid,
+// the matrix is not symmetric and not diagonally dominant for the convection greater than 1
+internal fun getConvectionDiffusionMatrix(size: Int, convection: Double): CSRMatrix {
+    val rows = ArrayList<Int>()
+    val columns = ArrayList<Int>()
+    val values = ArrayList<Double>()
+    fun add(i: Int, j: Int, value: Double) {
+        rows.add(i)
+        columns.add(j)
+        values.add(value)
+    }
+    for (x in 0 until size) {
+        for (y in 0 until size) {
+            val i = x * size + y
+            add(i, i, 4.0)
+            if (x > 0) add(i, i - size, -1.0)
+            if (x < size - 1) add(i, i + size, -1.0)
+            if (y > 0) add(i, i - 1, -1.0 - convection)
+            if (y < size - 1) add(i, i + 1, -1.0 + convection)
+        }
+    }
+    return CSRMatrix.fromTriplets(size * size, size * size, rows.toIntArray(), columns.toIntArray(), values.toDoubleArray())
+}
@@ -2,6 +2,7 @@ package com.github.varenytsiamykhailo.knml.systemsolvingmethods
 
 import com.github.varenytsiamykhailo.knml.util.Matrix
 import com.github.varenytsiamykhailo.knml.util.Vector
+import com.github.varenytsiamykhailo.knml.util.results.MatrixResultWithStatus
 import com.github.varenytsiamykhailo.knml.util.results.VectorResultWithStatus
 import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.Test
@@ -240,4 +241,176 @@ internal class ThomasMethodTest {
         assert(result.errorException != null)
         assert(result.solutionObject == null)
     }
-}
\ No newline at end of file
+
+    /**
+     * The band storage gives the same solution as the full matrix.
+     */
+    @Test
+    fun test8SolveSystemByThomasMethodWithBandStorage() {
+        val A: Matrix = Matrix(
+            arrayOf(
+                arrayOf(2.0, -1.0, 0.0, 0.0),
+                arrayOf(5.0, 4.0, 2.0, 0.0),
+                arrayOf(0.0, 1.0, -3.0, 7.0),
+                arrayOf(0.0, 0.0, 0.5, 6.0)
+            )
+        )
+        val B: Vector = Vector(arrayOf(3.0, 6.0, 2.0, -1.0))
+
+        val expected: VectorResultWithStatus = ThomasMethod().solveSystemByThomasMethod(A, B)
+        val result: VectorResultWithStatus = ThomasMethod().solveSystemByThomasMethod(
+            doubleArrayOf(5.0, 1.0, 0.5),
+            doubleArrayOf(2.0, 4.0, -3.0, 6.0),
+            doubleArrayOf(-1.0, 2.0, 7.0),
+            B.getData(),
+            formSolution = true
+        )
+
+        assert(result.isSuccessful)
+        assert(result.errorException == null)
+        assert(result.arrayResult == null)
+        assert(result.solutionObject!!.solutionString.length >= 10)
+        assertEquals(expected.vectorResult, result.vectorResult)
+        assertArrayEquals(doubleArrayOf(3.0, 6.0, 2.0, -1.0), B.getData())
+
+        val single: VectorResultWithStatus = ThomasMethod().solveSystemByThomasMethod(DoubleArray(0), doubleArrayOf(4.0), DoubleArray(0), doubleArrayOf(2.0))
+        assertEquals(0.5, single.vectorResult!!.getElem(0))
+    }
+
+    /**
+     * The large system, which matrix can not be allocated in the full storage.
+     */
+    @Test
+    fun test9SolveSystemByThomasMethodWithBandStorage() {
+        val n = 1_000_000
+        val lower = DoubleArray(n - 1) { -1.0 }
+        val main = DoubleArray(n) { 4.0 }
+        val upper = DoubleArray(n - 1) { i -> if (i % 2 == 0) -1.0 else -2.0 }
+        val B = DoubleArray(n) { i -> main[i] + (if (i > 0) lower[i - 1] else 0.0) + (if (i < n - 1) upper[i] else 0.0) }
+
+        val result: VectorResultWithStatus = ThomasMethod().solveSystemByThomasMethod(lower, main, upper, B)
+
+        assert(result.isSuccessful)
+        val x = result.vectorResult!!.getData()
+        for (i in 0 until n) {
+            assertEquals(1.0, x[i], 1e-12)
+        }
+    }
+
+    /**
+     * Exception test: the sizes of the diagonals do not match.
+     */
+    @Test
+    fun test10SolveSystemByThomasMethodWithBandStorage() {
+        val result: VectorResultWithStatus = ThomasMethod().solveSystemByThomasMethod(
+            doubleArrayOf(1.0, 1.0, 1.0),
+            doubleArrayOf(4.0, 4.0, 4.0),
+            doubleArrayOf(1.0, 1.0),
+            doubleArrayOf(5.0, 6.0, 5.0),
+            formSolution = true
+        )
+        assert(result.vectorResult == null)
+        assert(!result.isSuccessful)
+        assert(result.errorException is IllegalArgumentException)
+        assert(result.solutionObject == null)
+
+        val result2: VectorResultWithStatus = ThomasMethod().solveSystemByThomasMethod(
+            doubleArrayOf(1.0, 1.0),
+            doubleArrayOf(4.0, 4.0, 4.0),
+            doubleArrayOf(1.0, 1.0),
+            doubleArrayOf(5.0, 6.0)
+        )
+        assert(!result2.isSuccessful)
+        assert(result2.errorException is IllegalArgumentException)
+    }
+
+    /**
+     * The batched method gives the same solutions as the single-system method.
+     */
+    @Test
+    fun test11SolveSystemsByThomasMethod() {
+        val n = 37
+        val count = 300
+        val lower = DoubleArray((n - 1) * count) { i -> (i % 7) - 3.0 }
+        val main = DoubleArray(n * count) { i -> 10.0 + i % 5 }
+        val upper = DoubleArray((n - 1) * count) { i -> (i % 3) + 0.5 }
+        val B = DoubleArray(n * count) { i -> (i % 11) - 5.0 }
+
+        val result: MatrixResultWithStatus = ThomasMethod().solveSystemsByThomasMethod(lower, main, upper, B, count)
+        val sequentialResult: MatrixResultWithStatus = ThomasMethod().solveSystemsByThomasMethod(lower, main, upper, B, count, parallel = false)
+
+        assert(result.isSuccessful)
+        assert(result.errorException == null)
+        assert(result.arrayResult == null)
+        assertEquals(n, result.matrixResult!!.getN())
+        assertEquals(count, result.matrixResult!!.getM())
+        assertEquals(sequentialResult.matrixResult, result.matrixResult)
+        for (s in 0 until count) {
+            val expected: VectorResultWithStatus = ThomasMethod().solveSystemByThomasMethod(
+                DoubleArray(n - 1) { i -> lower[i * count + s] },
+                DoubleArray(n) { i -> main[i * count + s] },
+                DoubleArray(n - 1) { i -> upper[i * count + s] },
+                DoubleArray(n) { i -> B[i * count + s] }
+            )
+            for (i in 0 until n) {
+                assertEquals(expected.vectorResult!!.getElem(i), result.matrixResult!!.getElem(i, s))
+            }
+        }
+
+        // The right sides are replaced by the solutions
+        val inPlace = B.copyOf()
+        ThomasMethod().solveSystemsByThomasMethod(lower, main, upper, inPlace, count, dest = inPlace)
+        assertArrayEquals(result.matrixResult!!.getData(), inPlace)
+    }
+
+    /**
+     * Exception test: the sizes of the arrays do not match to the count of the systems.
+     */
+    @Test
+    fun test12SolveSystemsByThomasMethod() {
+        val result: MatrixResultWithStatus = ThomasMethod().solveSystemsByThomasMethod(
+            DoubleArray(4), DoubleArray(6) { 4.0 }, DoubleArray(3), DoubleArray(6), 2
+        )
+        assert(result.matrixResult == null)
+        assert(!result.isSuccessful)
+        assert(result.errorException is IllegalArgumentException)
+
+        val result2: MatrixResultWithStatus = ThomasMethod().solveSystemsByThomasMethod(
+            DoubleArray(4), DoubleArray(7) { 4.0 }, DoubleArray(4), DoubleArray(7), 2
+        )
+        assert(!result2.isSuccessful)
+        assert(result2.errorException is IllegalArgumentException)
+    }
+
+    /**
+     * The partition method gives the same solution as the Thomas method up to the rounding errors.
+     */
+    @Test
+    fun test13SolveSystemByParallelThomasMethod() {
+        val n = 1001
+        val lower = DoubleArray(n - 1) { i -> (i % 7) - 3.0 }
+        val main = DoubleArray(n) { i -> 10.0 + i % 5 }
+        val upper = DoubleArray(n - 1) { i -> (i % 3) + 0.5 }
+        val B = DoubleArray(n) { i -> (i % 11) - 5.0 }
+
+        val expected = ThomasMethod().solveSystemByThomasMethod(lower, main, upper, B).vectorResult!!.getData()
+        for (partitions in intArrayOf(0, 1, 2, 3, 7, 64, 500)) {
+            val result: VectorResultWithStatus = ThomasMethod().solveSystemByParallelThomasMethod(lower, main, upper, B, partitions)
+            assert(result.isSuccessful)
+            assertArrayEquals(expected, result.vectorResult!!.getData(), 1e-12)
+        }
+        assertArrayEquals(expected, ThomasMethod().solveSystemByParallelThomasMethod(lower, main, upper, B, 1).vectorResult!!.getData())
+
+        val large = 100_000
+        val largeB = DoubleArray(large) { i -> 4.0 - (if (i > 0) 1.0 else 0.0) - (if (i < large - 1) 1.0 else 0.0) }
+        val largeResult = ThomasMethod().solveSystemByParallelThomasMethod(DoubleArray(large - 1) { -1.0 }, DoubleArray(large) { 4.0 }, DoubleArray(large - 1) { -1.0 }, largeB)
+        assert(largeResult.isSuccessful)
+        for (i in 0 until large) {
+            assertEquals(1.0, largeResult.vectorResult!!.getElem(i), 1e-12)
+        }
+
+        val failed = ThomasMethod().solveSystemByParallelThomasMethod(lower, main, upper, B.copyOf(n - 1), 4)
+        assert(!failed.isSuccessful)
+        assert(failed.errorException is IllegalArgumentException)
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners
+
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.Vector
+import org.junit.jupiter.api.Test
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.assertThrows
+
+internal class IncompleteCholeskyPreconditionerTest {
+
+    /**
+     * The Cholesky decomposition of the tridiagonal matrix has no fill-in, so IC(0) is exact.
+     */
+    @Test
+    fun testTridiagonalFactorization() {
+        val n = 6
+        val A = Matrix(n, n)
+        for (i in 0 until n) {
+            A.setElem(i, i, 2.0 + i)
+            if (i > 0) {
+                A.setElem(i, i - 1, -1.0)
+                A.setElem(i - 1, i, -1.0)
+            }
+        }
+
+        val preconditioner = IncompleteCholeskyPreconditioner(A)
+        val L = preconditioner.getLowerTriangularMatrix().toMatrix()
+        val product = L.multiply(L.transpose())
+        for (i in 0 until n) {
+            for (j in 0 until n) {
+                assertEquals(A.getElem(i, j), product.getElem(i, j), 1e-12)
+            }
+        }
+
+        // The application of the exact preconditioner solves the system
+        val r = Vector(DoubleArray(n) { i -> i + 1.0 })
+        val z = Vector(n)
+        preconditioner.apply(r, z)
+        val Az = CSRMatrix(A).multiply(z)
+        for (i in 0 until n) {
+            assertEquals(r.getElem(i), Az.getElem(i), 1e-12)
+        }
+    }
+
+    /**
+     * The preconditioners are symmetric: 'x^T * M^-1 * y = y^T * M^-1 * x'.
+     */
+    @Test
+    fun testSymmetry() {
+        val size = 5
+        val n = size * size
+        val A = Matrix(n, n)
+        for (i in 0 until n) {
+            A.setElem(i, i, 4.0)
+            if (i % size > 0) A.setElem(i, i - 1, -1.0)
+            if (i % size < size - 1) A.setElem(i, i + 1, -1.0)
+            if (i >= size) A.setElem(i, i - size, -1.0)
+            if (i < n - size) A.setElem(i, i + size, -1.0)
+        }
+        val x = Vector(DoubleArray(n) { i -> (i * 7 % 5) - 2.0 })
+        val y = Vector(DoubleArray(n) { i -> (i * 3 % 4) + 1.0 })
+
+        for (preconditioner in arrayOf(JacobiPreconditioner(A), SSORPreconditioner(A, 1.3), IncompleteCholeskyPreconditioner(A))) {
+            val mx = Vector(n)
+            val my = Vector(n)
+            preconditioner.apply(x, mx)
+            preconditioner.apply(y, my)
+            assertEquals(y.getData().zip(mx.getData()).sumOf { it.first * it.second }, x.getData().zip(my.getData()).sumOf { it.first * it.second }, 1e-10)
+        }
+    }
+
+    @Test
+    fun testBreakdownWithException() {
+        val A = Matrix(
+            arrayOf(
+                arrayOf(1.0, 2.0),
+                arrayOf(2.0, 1.0)
+            )
+        )
+        assertThrows<ArithmeticException> { IncompleteCholeskyPreconditioner(A) }
+        assertThrows<IllegalArgumentException> { IncompleteCholeskyPreconditioner(A, -1.0) }
+        assertThrows<IllegalArgumentException> { SSORPreconditioner(A, 2.0) }
+
+        // The shift makes the factorization stable
+        IncompleteCholeskyPreconditioner(A, 4.0)
+    }
+
+    /**
+     * The level scheduled parallel substitutions give the same result as the sequential ones.
+     */
+    @Test
+    fun testParallel() {
+        val size = 60
+        val n = size * size
+        val rows = ArrayList<Int>()
+        val columns = ArrayList<Int>()
+        val values = ArrayList<Double>()
+        for (i in 0 until n) {
+            for ((j, value) in listOf(i to 4.0, i - 1 to -1.0, i + 1 to -1.0, i - size to -1.0, i + size to -1.0)) {
+                if (j in 0 until n && (j == i || j / size == i / size || j % size == i % size)) {
+                    rows.add(i)
+                    columns.add(j)
+                    values.add(value)
+                }
+            }
+        }
+        val A = CSRMatrix.fromTriplets(n, n, rows.toIntArray(), columns.toIntArray(), values.toDoubleArray())
+        val r = Vector(DoubleArray(n) { i -> (i % 7) - 3.0 })
+
+        val sequential = Vector(n)
+        val parallel = Vector(n)
+        IncompleteCholeskyPreconditioner(A).apply(r, sequential)
+        IncompleteCholeskyPreconditioner(A, parallel = true).apply(r, parallel)
+        assertArrayEquals(sequential.getData(), parallel.getData())
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.varenytsiamykhailo.knml.systemsolvingmethods.preconditioners
+
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.BiCGSTABMethod
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.GMRESMethod
+import com.github.varenytsiamykhailo.knml.systemsolvingmethods.getConvectionDiffusionMatrix
+import com.github.varenytsiamykhailo.knml.util.CSRMatrix
+import com.github.varenytsiamykhailo.knml.util.Matrix
+import com.github.varenytsiamykhailo.knml.util.Vector
+import org.junit.jupiter.api.Test
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.assertThrows
+
+internal class IncompleteLUPreconditionerTest {
+
+    // Returns 'L * U', where L is the unit lower triangular matrix
+    private fun getProduct(preconditioner: IncompleteLUPreconditioner): Matrix {
+        val n = preconditioner.getN()
+        val L = preconditioner.getLowerTriangularMatrix().toMatrix()
+        for (i in 0 until n) {
+            L.setElem(i, i, 1.0)
+        }
+        return L.multiply(preconditioner.getUpperTriangularMatrix().toMatrix())
+    }
+
+    /**
+     * The product of the ILU(0) factors matches the matrix at the positions of its non-zero elems.
+     */
+    @Test
+    fun testILU0() {
+        val A = getConvectionDiffusionMatrix(6, 1.5)
+        val n = A.getN()
+        val preconditioner = IncompleteLUPreconditioner.ilu0(A)
+        assertEquals(A.getNonZeroCount(), preconditioner.getLowerTriangularMatrix().getNonZeroCount() + preconditioner.getUpperTriangularMatrix().getNonZeroCount())
+
+        val product = getProduct(preconditioner)
+        for (i in 0 until n) {
+            for (p in A.getRowPointers()[i] until A.getRowPointers()[i + 1]) {
+                val j = A.getColumnIndices()[p]
+                assertEquals(A.getValues()[p], product.getElem(i, j), 1e-12)
+            }
+        }
+
+        // The tridiagonal matrix has no fill-in, so ILU(0) is the exact LU decomposition
+        val tridiagonal = Matrix(8, 8)
+        for (i in 0 until 8) {
+            tridiagonal.setElem(i, i, 3.0 + i)
+            if (i > 0) tridiagonal.setElem(i, i - 1, -1.0 - i)
+            if (i < 7) tridiagonal.setElem(i, i + 1, 2.0)
+        }
+        val exact = getProduct(IncompleteLUPreconditioner.ilu0(CSRMatrix(tridiagonal)))
+        for (i in 0 until 8) {
+            for (j in 0 until 8) {
+                assertEquals(tridiagonal.getElem(i, j), exact.getElem(i, j), 1e-12)
+            }
+        }
+    }
+
+    /**
+     * ILUT without the dropping is the exact LU decomposition, the dropping makes the factors sparser.
+     */
+    @Test
+    fun testILUT() {
+        val A = getConvectionDiffusionMatrix(8, 1.5)
+        val n = A.getN()
+
+        val exact = IncompleteLUPreconditioner.ilut(A, 0.0, n)
+        val r = Vector(DoubleArray(n) { i -> (i % 5) - 2.0 })
+        val z = Vector(n)
+        exact.apply(r, z)
+        val Az = A.multiply(z)
+        for (i in 0 until n) {
+            assertEquals(r.getElem(i), Az.getElem(i), 1e-10)
+        }
+
+        val dropped = IncompleteLUPreconditioner.ilut(A, 1e-2, 5)
+        val exactCount = exact.getLowerTriangularMatrix().getNonZeroCount() + exact.getUpperTriangularMatrix().getNonZeroCount()
+        val droppedCount = dropped.getLowerTriangularMatrix().getNonZeroCount() + dropped.getUpperTriangularMatrix().getNonZeroCount()
+        assert(droppedCount < exactCount)
+        for (i in 0 until n) {
+            val rowPointers = dropped.getLowerTriangularMatrix().getRowPointers()
+            assert(rowPointers[i + 1] - rowPointers[i] <= 5)
+        }
+    }
+
+    /**
+     * The incomplete LU preconditioners reduce the count of the iterations of the non-symmetric methods,
+     * the parallel substitutions give the same result.
+     */
+    @Test
+    fun testPreconditioning() {
+        val A = getConvectionDiffusionMatrix(30, 1.5)
+        val n = A.getN()
+        val B = Vector(DoubleArray(n) { i -> 1.0 + i % 3 })
+
+        val gmres = GMRESMethod()
+        val ssor = gmres.solveSystemByGMRESMethod(A, B, restart = 20, preconditioner = SSORPreconditioner(A), formSolution = true)
+        val ilu0 = gmres.solveSystemByGMRESMethod(A, B, restart = 20, preconditioner = IncompleteLUPreconditioner.ilu0(A), formSolution = true)
+        val ilut = gmres.solveSystemByGMRESMethod(A, B, restart = 20, preconditioner = IncompleteLUPreconditioner.ilut(A, 1e-3, 10), formSolution = true)
+        assert(ssor.isSuccessful && ilu0.isSuccessful && ilut.isSuccessful)
+        assert(ilu0.solutionObject!!.iterations <= ssor.solutionObject!!.iterations)
+        assert(ilut.solutionObject!!.iterations < ilu0.solutionObject!!.iterations)
+
+        val sequential = BiCGSTABMethod().solveSystemByBiCGSTABMethod(A, B, preconditioner = IncompleteLUPreconditioner.ilu0(A))
+        val parallel = BiCGSTABMethod().solveSystemByBiCGSTABMethod(A, B, preconditioner = IncompleteLUPreconditioner.ilu0(A, true))
+        assert(sequential.isSuccessful && parallel.isSuccessful)
+        assertArrayEquals(sequential.arrayResult, parallel.arrayResult)
+    }
+
+    @Test
+    fun testBreakdownWithException() {
+        val A = CSRMatrix.fromTriplets(2, 2, intArrayOf(0, 0, 1, 1), intArrayOf(0, 1, 0, 1), doubleArrayOf(1.0, 2.0, 2.0, 4.0))
+        assertThrows<ArithmeticException> { IncompleteLUPreconditioner.ilu0(A) }
+        assertThrows<ArithmeticException> { IncompleteLUPreconditioner.ilut(A, 0.0, 2) }
+
+        val withoutDiagonal = CSRMatrix(Matrix(arrayOf(arrayOf(0.0, 1.0), arrayOf(1.0, 0.0))))
+        assertThrows<IllegalArgumentException> { IncompleteLUPreconditioner.ilu0(withoutDiagonal) }
+        assertThrows<ArithmeticException> { IncompleteLUPreconditioner.ilut(withoutDiagonal) }
+        assertThrows<IllegalArgumentException> { IncompleteLUPreconditioner.ilut(A, -1.0) }
+        assertThrows<IllegalArgumentException> { IncompleteLUPreconditioner.ilut(A, fillLimit = 0) }
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.ReadOnlyBufferException
+
+internal class BinaryMatrixFileTest {
+
+    @Test
+    fun testWriteAndMap(@TempDir dir: File) {
+        val matrix = getMatrixWithRandomElementsAndDiagonalDominance(23, 0, 15, 1)
+        val rowMajorFile = File(dir, "row.knml")
+        val columnMajorFile = File(dir, "column.knml")
+
+        BinaryMatrixFile().write(matrix, rowMajorFile)
+        BinaryMatrixFile().write(matrix, columnMajorFile, BinaryMatrixFile.Layout.ColumnMajor)
+        assertEquals(BinaryMatrixFile.HEADER_SIZE + 23L * 23 * 8, rowMajorFile.length())
+
+        // The small chunks check the elems on the borders of the mapped buffers
+        BinaryMatrixFile().map(rowMajorFile, chunkSize = 16).use { mapped ->
+            assert(mapped.isReadOnly)
+            assertEquals(matrix, mapped)
+            assertEquals(matrix.multiply(matrix), mapped.multiply(matrix))
+        }
+        BinaryMatrixFile().map(columnMajorFile).use { mapped ->
+            assertEquals(matrix, mapped)
+        }
+    }
+
+    @Test
+    fun testFormat(@TempDir dir: File) {
+        val file = File(dir, "matrix.knml")
+        BinaryMatrixFile().write(Matrix(arrayOf(arrayOf(1.0, 2.0, 3.0), arrayOf(4.0, 5.0, 6.0))), file)
+
+        val bytes = ByteBuffer.wrap(file.readBytes()).order(ByteOrder.LITTLE_ENDIAN)
+        assertEquals("KNML", String(file.readBytes().copyOf(4), Charsets.US_ASCII))
+        assertEquals(BinaryMatrixFile.VERSION, bytes.getInt(4))
+        assertEquals(2L, bytes.getLong(8))
+        assertEquals(3L, bytes.getLong(16))
+        assertEquals(BinaryMatrixFile.DTYPE_FLOAT64, bytes.getInt(24))
+        assertEquals(BinaryMatrixFile.Layout.RowMajor.code, bytes.getInt(28))
+        assertEquals(2.0, bytes.getDouble(BinaryMatrixFile.HEADER_SIZE + 8))
+        assertEquals(4.0, bytes.getDouble(BinaryMatrixFile.HEADER_SIZE + 24))
+    }
+
+    @Test
+    fun testMapWithException(@TempDir dir: File) {
+        val file = File(dir, "matrix.knml")
+        BinaryMatrixFile().write(Matrix(3, 3), file)
+
+        BinaryMatrixFile().map(file).use { mapped ->
+            assertThrows<ReadOnlyBufferException> {
+                mapped.setElem(0, 0, 1.0)
+            }
+        }
+
+        // The truncated file
+        file.writeBytes(file.readBytes().copyOf(BinaryMatrixFile.HEADER_SIZE + 8))
+        assertThrows<IllegalArgumentException> {
+            BinaryMatrixFile().map(file)
+        }
+
+        // The size of the hostile header overflows the count of the bytes
+        val header = ByteBuffer.wrap(file.readBytes()).order(ByteOrder.LITTLE_ENDIAN)
+        header.putLong(8, Int.MAX_VALUE.toLong())
+        header.putLong(16, Int.MAX_VALUE.toLong())
+        file.writeBytes(header.array())
+        assertThrows<IllegalArgumentException> {
+            BinaryMatrixFile().map(file)
+        }
+
+        file.writeText("not a matrix file, but long enough for the header")
+        assertThrows<IllegalArgumentException> {
+            BinaryMatrixFile().map(file)
+        }
+    }
+}
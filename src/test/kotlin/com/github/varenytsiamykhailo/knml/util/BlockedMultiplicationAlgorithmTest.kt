@@ -0,0 +1,77 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+internal class BlockedMultiplicationAlgorithmTest {
+
+    private fun multiplyClassic(A: Matrix, B: Matrix): Matrix {
+        val result = Matrix(A.getN(), B.getM())
+        for (i in 0 until A.getN()) {
+            for (j in 0 until B.getM()) {
+                var sum = 0.0
+                for (k in 0 until A.getM()) {
+                    sum += A.getElem(i, k) * B.getElem(k, j)
+                }
+                result.setElem(i, j, sum)
+            }
+        }
+        return result
+    }
+
+    @Test
+    fun testMultiply() {
+        // Small tiles and sizes which are not multiples of the tiles check the tile borders
+        val algorithm = BlockedMultiplicationAlgorithm(rowTile = 8, depthTile = 5, colTile = 7)
+        val sizes = arrayOf(Triple(1, 1, 1), Triple(3, 2, 4), Triple(17, 13, 11), Triple(40, 33, 29))
+        sizes.forEach { (n, m, p) ->
+            val A = Matrix(n, m)
+            val B = Matrix(m, p)
+            for (i in 0 until n) for (j in 0 until m) A.setElem(i, j, (i * 7 + j * 3) % 11 - 5.0)
+            for (i in 0 until m) for (j in 0 until p) B.setElem(i, j, (i * 5 + j) % 13 - 6.0)
+
+            val expected = multiplyClassic(A, B)
+            assertEquals(expected, algorithm.multiply(A, B))
+            assertEquals(expected, BlockedMultiplicationAlgorithm.DEFAULT.multiply(A, B))
+            assertEquals(expected, A.multiply(B))
+        }
+    }
+
+    @Test
+    fun testMultiplyRandomMatrices() {
+        val A = getMatrixWithRandomElementsAndDiagonalDominance(150, 0, 15, 1)
+        val B = getMatrixWithRandomElementsAndDiagonalDominance(150, 0, 15, 1)
+
+        assertEquals(multiplyClassic(A, B), A.multiply(B))
+    }
+
+    @Test
+    fun testMultiplyViews() {
+        val algorithm = BlockedMultiplicationAlgorithm(rowTile = 8, depthTile = 5, colTile = 7)
+        val A = getMatrixWithRandomElementsAndDiagonalDominance(41, 0, 15, 1)
+        val B = getMatrixWithRandomElementsAndDiagonalDominance(41, 0, 15, 1)
+
+        val subA = A.subMatrixView(3, 5, 30, 22)
+        val subB = B.transposedView().subMatrixView(2, 1, 22, 37)
+        val expected = multiplyClassic(subA, subB)
+        assertEquals(expected, algorithm.multiply(subA, subB))
+
+        // The result is written into the transposed view of the block of the destination matrix
+        val C = Matrix(45, 45)
+        algorithm.multiplyInto(subA, subB, C.subMatrixView(4, 2, 37, 30).transposedView())
+        assertEquals(expected, C.subMatrixView(4, 2, 37, 30).transposedView())
+        assertEquals(0.0, C.getElem(3, 2))
+        assertEquals(0.0, C.getElem(4, 32))
+    }
+
+    @Test
+    fun testMultiplyWithException() {
+        assertThrows<IllegalArgumentException> {
+            BlockedMultiplicationAlgorithm(rowTile = 0)
+        }
+        assertThrows<IllegalArgumentException> {
+            BlockedMultiplicationAlgorithm.DEFAULT.multiply(Matrix(2, 3), Matrix(2, 3))
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+internal class CSCMatrixTest {
+
+    @Test
+    fun testCSCMatrix() {
+        val dense = Matrix(arrayOf(arrayOf(1.0, 0.0, 2.0, 0.0), arrayOf(0.0, 0.0, 0.0, 0.0), arrayOf(0.0, 3.0, 0.0, 4.0)))
+        val sparse = CSCMatrix(dense)
+
+        assertEquals(3, sparse.getN())
+        assertEquals(4, sparse.getM())
+        assertArrayEquals(intArrayOf(0, 1, 2, 3, 4), sparse.getColumnPointers())
+        assertArrayEquals(intArrayOf(0, 2, 0, 2), sparse.getRowIndices())
+        assertArrayEquals(doubleArrayOf(1.0, 3.0, 2.0, 4.0), sparse.getValues())
+        assertEquals(3.0, sparse.getElem(2, 1))
+        assertEquals(0.0, sparse.getElem(1, 1))
+        assertEquals(dense, sparse.toMatrix())
+        assertEquals(CSRMatrix(dense), sparse.toCSR())
+        assertEquals(sparse, CSCMatrix.fromTriplets(3, 4, intArrayOf(2, 0, 0, 2, 2), intArrayOf(3, 2, 0, 1, 3), doubleArrayOf(1.0, 2.0, 1.0, 3.0, 3.0)))
+    }
+
+    @Test
+    fun testMultiply() {
+        val A = Matrix(200, 150)
+        for (i in 0 until 200) for (j in 0 until 150) if ((i * 7 + j * 3) % 11 == 0) A.setElem(i, j, (i + j) % 9 - 4.5)
+        val B = Matrix(150, 120)
+        for (i in 0 until 150) for (j in 0 until 120) if ((i + j * 5) % 7 == 0) B.setElem(i, j, (i * j) % 5 + 0.25)
+        val x = Vector(DoubleArray(150) { i -> (i % 17) - 8.5 })
+        val sparseA = CSCMatrix(A)
+        val csrA = CSRMatrix(A)
+
+        // The elems are summed in the same order as by the CSR matrix
+        assertEquals(csrA.multiply(x), sparseA.multiply(x))
+        assertEquals(csrA.multiply(x), sparseA.multiplyParallel(x))
+        assertEquals(csrA.multiply(B), sparseA.multiply(B))
+        assertEquals(csrA.multiply(B), sparseA.multiplyParallel(B))
+        assertEquals(csrA.multiply(CSRMatrix(B)).toCSC(), sparseA.multiply(CSCMatrix(B)))
+        assertEquals(sparseA.multiply(CSCMatrix(B)), sparseA.multiplyParallel(CSCMatrix(B)))
+        assertArrayEquals(A.multiply(x).getData(), sparseA.multiply(x).getData(), 1e-9)
+    }
+
+    @Test
+    fun testTranspose() {
+        val A = Matrix(5, 3)
+        for (i in 0 until 5) for (j in 0 until 3) if ((i + j) % 2 == 0) A.setElem(i, j, i * 3.0 + j + 1)
+        val sparse = CSCMatrix(A)
+
+        assertEquals(CSCMatrix(A.transpose()), sparse.transpose())
+        assertEquals(sparse.transpose(), sparse.transposeParallel())
+        assertEquals(A.transpose(), sparse.transpose().toMatrix())
+    }
+
+    @Test
+    fun testCSCMatrixWithException() {
+        assertThrows<IllegalArgumentException> {
+            CSCMatrix(2, 3, intArrayOf(0, 1, 1), intArrayOf(0), doubleArrayOf(1.0))
+        }
+        assertThrows<IllegalArgumentException> {
+            CSCMatrix(2, 2, intArrayOf(0, 1, 2), intArrayOf(0, 2), doubleArrayOf(1.0, 2.0))
+        }
+        assertThrows<IllegalArgumentException> {
+            CSCMatrix(Matrix(2, 3)).multiply(CSCMatrix(Matrix(2, 3)))
+        }
+    }
+}
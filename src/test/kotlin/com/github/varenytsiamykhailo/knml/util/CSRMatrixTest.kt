@@ -0,0 +1,119 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+internal class CSRMatrixTest {
+
+    // The matrix of the 5-point finite-difference Laplacian on the 'size' x 'size' grid,
+    // the diagonal is assembled from the duplicated elems
+    private fun getLaplacian(size: Int): CSRMatrix {
+        val rows = ArrayList<Int>()
+        val columns = ArrayList<Int>()
+        val values = ArrayList<Double>()
+        for (x in 0 until size) {
+            for (y in 0 until size) {
+                val i = x * size + y
+                for ((dx, dy) in listOf(Pair(-1, 0), Pair(1, 0), Pair(0, -1), Pair(0, 1))) {
+                    rows.add(i); columns.add(i); values.add(1.0)
+                    if (x + dx in 0 until size && y + dy in 0 until size) {
+                        rows.add(i); columns.add((x + dx) * size + y + dy); values.add(-1.0)
+                    }
+                }
+            }
+        }
+        return CSRMatrix.fromTriplets(size * size, size * size, rows.toIntArray(), columns.toIntArray(), values.toDoubleArray())
+    }
+
+    @Test
+    fun testCSRMatrix() {
+        val dense = Matrix(arrayOf(arrayOf(1.0, 0.0, 2.0, 0.0), arrayOf(0.0, 0.0, 0.0, 0.0), arrayOf(0.0, 3.0, 0.0, 4.0)))
+        val sparse = CSRMatrix(dense)
+
+        assertEquals(3, sparse.getN())
+        assertEquals(4, sparse.getM())
+        assertEquals(4, sparse.getNonZeroCount())
+        assertArrayEquals(intArrayOf(0, 2, 2, 4), sparse.getRowPointers())
+        assertArrayEquals(intArrayOf(0, 2, 1, 3), sparse.getColumnIndices())
+        assertArrayEquals(doubleArrayOf(1.0, 2.0, 3.0, 4.0), sparse.getValues())
+        assertEquals(4.0, sparse.getElem(2, 3))
+        assertEquals(0.0, sparse.getElem(1, 1))
+        assertEquals(dense, sparse.toMatrix())
+        assertEquals(sparse, CSRMatrix(3, 4, intArrayOf(0, 2, 2, 4), intArrayOf(0, 2, 1, 3), doubleArrayOf(1.0, 2.0, 3.0, 4.0)))
+
+        // The duplicates are summed and the elems are sorted
+        val triplets = CSRMatrix.fromTriplets(3, 4, intArrayOf(2, 0, 2, 0, 2), intArrayOf(3, 2, 1, 0, 3), doubleArrayOf(1.0, 2.0, 3.0, 1.0, 3.0))
+        assertEquals(sparse, triplets)
+    }
+
+    @Test
+    fun testMultiply() {
+        val A = getMatrixWithRandomElementsAndDiagonalDominance(30, 0, 15, 1)
+        for (i in 0 until 30) for (j in 0 until 30) if ((i * 7 + j * 3) % 5 != 0) A.setElem(i, j, 0.0)
+        val B = getMatrixWithRandomElementsAndDiagonalDominance(30, 0, 15, 1)
+        for (i in 0 until 30) for (j in 0 until 30) if ((i + j * 2) % 3 != 0) B.setElem(i, j, 0.0)
+        val x = getVectorWithRandomElements(30, 0, 15)
+        val sparseA = CSRMatrix(A)
+
+        assertArrayEquals(A.multiply(x).getData(), sparseA.multiply(x).getData(), 0.0)
+        assertArrayEquals(A.multiply(B).getData(), sparseA.multiply(B).getData(), 0.0)
+        assertArrayEquals(A.multiply(B).getData(), sparseA.multiply(CSRMatrix(B)).toMatrix().getData(), 0.0)
+        assertEquals(A.multiply(B.transposedView()), sparseA.multiply(B.transposedView()))
+        OffHeapMatrix(B).use { offB ->
+            assertEquals(sparseA.multiply(B), sparseA.multiply(offB))
+        }
+    }
+
+    @Test
+    fun testParallelOperations() {
+        // The matrix is large enough to be split into several blocks
+        val A = getLaplacian(60)
+        val x = Vector(DoubleArray(A.getM()) { i -> (i % 17) - 8.5 })
+        val B = Matrix(A.getM(), 3, DoubleArray(A.getM() * 3) { i -> (i % 13) * 0.5 })
+
+        assertEquals(3600, A.getN())
+        assertEquals(5 * 3600 - 4 * 60, A.getNonZeroCount())
+        assertEquals(4.0, A.getElem(61, 61))
+        assertEquals(-1.0, A.getElem(61, 1))
+
+        assertEquals(A.multiply(x), A.multiplyParallel(x))
+        assertEquals(A.multiply(B), A.multiplyParallel(B))
+        assertEquals(A.multiply(A), A.multiplyParallel(A))
+        assertEquals(A.transpose(), A.transposeParallel())
+        // The Laplacian is symmetric
+        assertEquals(A, A.transposeParallel())
+    }
+
+    @Test
+    fun testTranspose() {
+        val A = Matrix(5, 3)
+        for (i in 0 until 5) for (j in 0 until 3) if ((i + j) % 2 == 0) A.setElem(i, j, i * 3.0 + j + 1)
+        val sparse = CSRMatrix(A)
+
+        assertEquals(CSRMatrix(A.transpose()), sparse.transpose())
+        assertEquals(A.transpose(), sparse.transpose().toMatrix())
+        assertEquals(CSCMatrix(A), sparse.toCSC())
+        assertEquals(sparse, sparse.toCSC().toCSR())
+    }
+
+    @Test
+    fun testCSRMatrixWithException() {
+        assertThrows<IllegalArgumentException> {
+            CSRMatrix(2, 2, intArrayOf(0, 1), intArrayOf(0), doubleArrayOf(1.0))
+        }
+        assertThrows<IllegalArgumentException> {
+            CSRMatrix(2, 2, intArrayOf(0, 2, 2), intArrayOf(1, 0), doubleArrayOf(1.0, 2.0))
+        }
+        assertThrows<IllegalArgumentException> {
+            CSRMatrix(2, 2, intArrayOf(0, 1, 2), intArrayOf(0, 2), doubleArrayOf(1.0, 2.0))
+        }
+        assertThrows<IllegalArgumentException> {
+            CSRMatrix.fromTriplets(2, 2, intArrayOf(2), intArrayOf(0), doubleArrayOf(1.0))
+        }
+        assertThrows<IllegalArgumentException> {
+            CSRMatrix(Matrix(2, 3)).multiply(Vector(2))
+        }
+    }
+}
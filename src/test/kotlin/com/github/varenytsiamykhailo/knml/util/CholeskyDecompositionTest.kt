@@ -0,0 +1,117 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import kotlin.math.ln
+
+internal class CholeskyDecompositionTest {
+
+    // Returns the symmetric positive definite matrix M * M^T
+    private fun getSymmetricPositiveDefiniteMatrix(n: Int): Matrix {
+        val matrix = getMatrixWithRandomElementsAndDiagonalDominance(n, 0, 10, 1)
+        return matrix.multiply(matrix.transposedView())
+    }
+
+    @Test
+    fun testLLTDecomposition() {
+        // The size is not a multiple of the block size, so the last panel is narrower
+        val matrix = getSymmetricPositiveDefiniteMatrix(37)
+        val result = CholeskyDecomposition(matrix, blockSize = 8)
+
+        assert(result.isSymmetricPositiveDefinite)
+        val L = result.getLowerTriangularMatrix()
+        assertMatrixEquals(matrix, L.multiply(L.transposedView()), 1e-6)
+    }
+
+    @Test
+    fun testLDLTDecomposition() {
+        val matrix = getSymmetricPositiveDefiniteMatrix(37)
+        val result = CholeskyDecomposition(matrix, CholeskyDecomposition.Form.LDLT, blockSize = 8)
+
+        assert(result.isSymmetricPositiveDefinite)
+        val L = result.getLowerTriangularMatrix()
+        val D = result.getDiagonal()
+        val LD = Matrix(37, 37)
+        for (i in 0 until 37) {
+            assertEquals(1.0, L.getElem(i, i))
+            for (j in 0 until 37) {
+                LD.setElem(i, j, L.getElem(i, j) * D.getElem(j))
+            }
+        }
+        assertMatrixEquals(matrix, LD.multiply(L.transposedView()), 1e-6)
+    }
+
+    @Test
+    fun testSolve() {
+        val n = 40
+        val matrix = getSymmetricPositiveDefiniteMatrix(n)
+        val X = getMatrixWithRandomElementsAndDiagonalDominance(n, 0, 10, 1).subMatrixView(0, 0, n, 3)
+
+        for (form in CholeskyDecomposition.Form.values()) {
+            val result = CholeskyDecomposition(matrix, form, blockSize = 16)
+            val x = getVectorWithRandomElements(n, 0, 10)
+            val solution = result.solve(matrix.multiply(x))
+            for (i in 0 until n) {
+                assertEquals(x.getElem(i), solution.getElem(i), 1e-8)
+            }
+            assertMatrixEquals(X, result.solve(matrix.multiply(X)), 1e-8)
+        }
+    }
+
+    @Test
+    fun testDeterminant() {
+        val matrix = getSymmetricPositiveDefiniteMatrix(12)
+        val expected = PivotedLUDecomposition(matrix).determinant()
+
+        for (form in CholeskyDecomposition.Form.values()) {
+            val result = CholeskyDecomposition(matrix, form, blockSize = 5)
+            assertEquals(1.0, result.determinant() / expected, 1e-9)
+            assertEquals(ln(expected), result.logDeterminant(), 1e-9)
+        }
+    }
+
+    @Test
+    fun testParallel() {
+        val matrix = getSymmetricPositiveDefiniteMatrix(300)
+
+        for (form in CholeskyDecomposition.Form.values()) {
+            val expected = CholeskyDecomposition(matrix, form, blockSize = 32)
+            val result = CholeskyDecomposition(matrix, form, blockSize = 32, parallel = true)
+
+            // Every elem is computed in the same order, so the factors are exactly the same
+            assertMatrixEquals(expected.getLowerTriangularMatrix(), result.getLowerTriangularMatrix(), 0.0)
+            assertMatrixEquals(Matrix(arrayOf(expected.getDiagonal().getElems())), Matrix(arrayOf(result.getDiagonal().getElems())), 0.0)
+        }
+    }
+
+    @Test
+    fun testIndefiniteMatrix() {
+        val matrix = Matrix(
+            arrayOf(
+                arrayOf(1.0, 2.0),
+                arrayOf(2.0, 1.0),
+            )
+        )
+
+        val llt = CholeskyDecomposition(matrix)
+        assertFalse(llt.isNonSingular)
+        assertThrows<RuntimeException> {
+            llt.solve(Vector(arrayOf(1.0, 2.0)))
+        }
+
+        // LDL^T decomposition exists for the indefinite matrix with the non-zero leading minors
+        val ldlt = CholeskyDecomposition(matrix, CholeskyDecomposition.Form.LDLT)
+        assert(ldlt.isNonSingular)
+        assertFalse(ldlt.isSymmetricPositiveDefinite)
+        assertEquals(-3.0, ldlt.determinant(), 1e-12)
+        val solution = ldlt.solve(Vector(arrayOf(5.0, 4.0)))
+        assertEquals(1.0, solution.getElem(0), 1e-12)
+        assertEquals(2.0, solution.getElem(1), 1e-12)
+
+        assertThrows<IllegalArgumentException> {
+            CholeskyDecomposition(Matrix(2, 3))
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Test
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.assertThrows
+
+internal class LinearOperatorTest {
+
+    @Test
+    fun testOfMatrix() {
+        val A = Matrix(
+            arrayOf(
+                arrayOf(1.0, 2.0, 0.0),
+                arrayOf(0.0, 3.0, 4.0),
+                arrayOf(5.0, 0.0, 6.0)
+            )
+        )
+        val x = Vector(arrayOf(1.0, -1.0, 2.0))
+        val expected = A.multiply(x)
+
+        for (operator in arrayOf(LinearOperator.of(A), LinearOperator.of(CSRMatrix(A)), LinearOperator.of(CSCMatrix(A), true))) {
+            assertEquals(3, operator.getN())
+            val y = Vector(3)
+            operator.apply(x, y)
+            assertArrayEquals(expected.getData(), y.getData())
+            assertArrayEquals(doubleArrayOf(1.0, 3.0, 6.0), operator.getDiagonal().getData())
+        }
+
+        // The view of the matrix is the operator of the transposed matrix
+        val transposed = LinearOperator.of(A.transposedView())
+        val y = Vector(3)
+        transposed.apply(x, y)
+        assertArrayEquals(A.transpose().multiply(x).getData(), y.getData())
+    }
+
+    @Test
+    fun testWrongSizesWithException() {
+        assertThrows<IllegalArgumentException> { LinearOperator.of(Matrix(2, 3)) }
+        assertThrows<IllegalArgumentException> { LinearOperator.of(CSRMatrix(Matrix(3, 2))) }
+
+        val operator = LinearOperator.of(Matrix(2, 2))
+        assertThrows<IllegalArgumentException> { operator.apply(Vector(3), Vector(2)) }
+        val x = Vector(2)
+        assertThrows<IllegalArgumentException> { operator.apply(x, x) }
+    }
+}
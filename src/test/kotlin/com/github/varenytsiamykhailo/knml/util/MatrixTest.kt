@@ -48,6 +48,88 @@ internal class MatrixTest {
         assertArrayEquals(arrayOf(arrayOf(15.0, 22.9)), m2.getElems())
     }
 
+    @Test
+    fun testMatrixWithRowStride() {
+        // 2x3 matrix stored with row stride 4, the last elem of each row is padding
+        val data = doubleArrayOf(
+            1.0, 2.0, 3.0, -1.0,
+            4.0, 5.0, 6.0, -1.0
+        )
+        val m = Matrix(2, 3, data, 4)
+        assertEquals(2, m.getN())
+        assertEquals(3, m.getM())
+        assertEquals(4, m.getRowStride())
+        assertEquals(6.0, m.getElem(1, 2))
+        assertArrayEquals(
+            arrayOf(
+                arrayOf(1.0, 2.0, 3.0),
+                arrayOf(4.0, 5.0, 6.0),
+            ),
+            m.getElems()
+        )
+
+        // The matrix wraps the input array without copying
+        m.setElem(0, 1, 20.0)
+        assertEquals(20.0, data[1])
+
+        assertEquals(Matrix(arrayOf(arrayOf(1.0, 20.0, 3.0), arrayOf(4.0, 5.0, 6.0))), m)
+        assertEquals(Matrix(arrayOf(arrayOf(1.0, 4.0), arrayOf(20.0, 5.0), arrayOf(3.0, 6.0))), m.transpose())
+        assertEquals(
+            Matrix(arrayOf(arrayOf(2.0, 40.0, 6.0), arrayOf(8.0, 10.0, 12.0))),
+            m.add(m)
+        )
+        assertEquals(Matrix(2, 3), m.sub(m))
+        assertEquals(25.0, m.norm())
+
+        assertThrows<IllegalArgumentException> {
+            Matrix(2, 3, DoubleArray(6), 4)
+        }
+    }
+
+    @Test
+    fun testMatrixViews() {
+        val m = Matrix(
+            arrayOf(
+                arrayOf(1.0, 2.0, 3.0, 4.0),
+                arrayOf(5.0, 6.0, 7.0, 8.0),
+                arrayOf(9.0, 10.0, 11.0, 12.0),
+            )
+        )
+
+        val block = m.subMatrixView(1, 1, 2, 2)
+        assertEquals(Matrix(arrayOf(arrayOf(6.0, 7.0), arrayOf(10.0, 11.0))), block)
+        assertEquals(5, block.getOffset())
+        assertEquals(4, block.getRowStride())
+
+        val transposed = m.transposedView()
+        assertEquals(m.transpose(), transposed)
+        assertEquals(1, transposed.getRowStride())
+        assertEquals(4, transposed.getColStride())
+
+        // The views share the storage with the matrix
+        block.setElem(0, 1, 70.0)
+        assertEquals(70.0, m.getElem(1, 2))
+        assertEquals(70.0, transposed.getElem(2, 1))
+        transposed.subMatrixView(3, 0, 1, 3).multiplyInto(2.0, transposed.subMatrixView(3, 0, 1, 3))
+        assertArrayEquals(arrayOf(8.0, 16.0, 24.0), m.getElems().map { it[3] }.toTypedArray())
+
+        // The operations work on the views
+        assertEquals(Matrix(arrayOf(arrayOf(12.0, 140.0), arrayOf(20.0, 22.0))), block.add(block))
+        assertEquals(block.transpose(), block.transposedView())
+        assertEquals(m.multiply(m.transpose()), m.multiply(transposed))
+        assertEquals(m.transpose().multiply(m), transposed.multiply(m))
+        assertEquals(Matrix(arrayOf(arrayOf(6.0, 70.0), arrayOf(10.0, 11.0))).multiply(Vector(arrayOf(1.0, 2.0))), block.multiply(Vector(arrayOf(1.0, 2.0))))
+        assertEquals(81.0, block.norm())
+
+        val sum = Matrix(2, 2)
+        block.addInto(block.transposedView(), sum)
+        assertEquals(Matrix(arrayOf(arrayOf(12.0, 80.0), arrayOf(80.0, 22.0))), sum)
+
+        assertThrows<IllegalArgumentException> {
+            m.subMatrixView(2, 2, 2, 2)
+        }
+    }
+
     @Test
     fun testEquals() {
         val m1: Matrix = Matrix(
@@ -165,6 +247,53 @@ internal class MatrixTest {
         }
     }
 
+    @Test
+    fun testInPlaceOperations() {
+        val m1 = Matrix(
+            arrayOf(
+                arrayOf(2.0, -3.0, 1.0),
+                arrayOf(5.0, 4.0, -2.0),
+            )
+        )
+        val m2 = Matrix(
+            arrayOf(
+                arrayOf(4.0, 2.0, -5.0),
+                arrayOf(-4.0, 1.0, 3.0),
+            )
+        )
+        val dest = Matrix(2, 3)
+
+        assert(m1.addInto(m2, dest) === dest)
+        assertEquals(m1.add(m2), dest)
+        m1.subInto(m2, dest)
+        assertEquals(m1.sub(m2), dest)
+
+        val m = Matrix(m1.getElems())
+        m += m2
+        assertEquals(m1.add(m2), m)
+        m -= m2
+        assertEquals(m1, m)
+        m *= 2.0
+        assertEquals(Matrix(arrayOf(arrayOf(4.0, -6.0, 2.0), arrayOf(10.0, 8.0, -4.0))), m)
+        assert(m.addInPlace(m2) === m)
+
+        // The destination matrix is overwritten, not accumulated
+        val product = Matrix(arrayOf(arrayOf(100.0, 100.0), arrayOf(100.0, 100.0)))
+        m1.multiplyInto(m2.transpose(), product)
+        assertEquals(m1.multiply(m2.transpose()), product)
+
+        val vectorDest = Vector(2)
+        m1.multiplyInto(Vector(arrayOf(1.0, 2.0, -1.0)), vectorDest)
+        assertEquals(Vector(arrayOf(-5.0, 15.0)), vectorDest)
+
+        assertThrows<IllegalArgumentException> {
+            m1.multiplyInto(m2.transpose(), m1)
+        }
+        assertThrows<IllegalArgumentException> {
+            m1.addInto(m2, Matrix(3, 2))
+        }
+    }
+
     @Test
     fun testMultiplyConst() {
         val m = Matrix(
@@ -485,4 +614,43 @@ internal class MatrixTest {
         val det = matrix2.determinantWithGauss()
         assertEquals(-3348, det.toInt())
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testInvertibleLargeMatrix() {
+        val n = 60
+        val matrix = getMatrixWithRandomElementsAndDiagonalDominance(n, 0, 10, 1)
+        val product = matrix.multiply(matrix.invertible()!!)
+        for (i in 0 until n) {
+            for (j in 0 until n) {
+                assertEquals(if (i == j) 1.0 else 0.0, product.getElem(i, j), 1e-9)
+            }
+        }
+
+        val singular = Matrix(arrayOf(arrayOf(1.0, 2.0), arrayOf(2.0, 4.0)))
+        assertEquals(null, singular.invertible())
+    }
+
+    @Test
+    fun testLogDeterminant() {
+        val matrix = Matrix(
+            arrayOf(
+                arrayOf(1.0, -2.0, 3.0),
+                arrayOf(4.0, 0.0, 6.0),
+                arrayOf(-7.0, 8.0, 9.0)
+            )
+        )
+        assertEquals(kotlin.math.ln(204.0), matrix.logDeterminant(), 1e-12)
+
+        // The determinant 1e3000 overflows, but its logarithm does not
+        val large = Matrix(300, 300)
+        for (i in 0 until 300) {
+            large.setElem(i, i, 1e10)
+        }
+        large.setElem(0, 1, 5.0)
+        assertEquals(Double.POSITIVE_INFINITY, large.determinant(300))
+        assertEquals(300 * kotlin.math.ln(1e10), large.logDeterminant(), 1e-9)
+
+        // The determinant of the leading block
+        assertEquals(8.0, matrix.determinant(2))
+    }
+}
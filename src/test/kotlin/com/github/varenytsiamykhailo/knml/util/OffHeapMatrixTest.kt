@@ -0,0 +1,129 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+internal class OffHeapMatrixTest {
+
+    @Test
+    fun testOffHeapMatrix() {
+        // The small chunks check the elems on the borders of the direct buffers
+        OffHeapMatrix(5, 7, chunkSize = 8).use { m ->
+            assertEquals(5, m.getN())
+            assertEquals(7, m.getM())
+            assertEquals(8, m.chunkSize)
+            assertFalse(m.hasArray())
+            assertEquals(0.0, m.getElem(4, 6))
+
+            for (i in 0 until 5) for (j in 0 until 7) m.setElem(i, j, i * 10.0 + j)
+            assertEquals(15.0, m.getElem(1, 5))
+            assertEquals(46.0, m.getElem(4, 6))
+
+            val heap = Matrix(m.getElems())
+            assertEquals(heap, m)
+            assertEquals(m, heap)
+            assertEquals(heap.hashCode(), m.hashCode())
+
+            assertThrows<UnsupportedOperationException> {
+                m.getData()
+            }
+        }
+    }
+
+    @Test
+    fun testOperations() {
+        val A = getMatrixWithRandomElementsAndDiagonalDominance(37, 0, 15, 1)
+        val B = getMatrixWithRandomElementsAndDiagonalDominance(37, 0, 15, 1)
+
+        OffHeapMatrix(A, chunkSize = 64).use { offA ->
+            OffHeapMatrix(B, chunkSize = 128).use { offB ->
+                val product = offA.multiply(offB)
+                assert(product is OffHeapMatrix)
+                assertEquals(A.multiply(B), product)
+                assertEquals(A.multiply(B), A.multiply(offB))
+                assertEquals(A.multiply(B), offA.multiplyParallel(B))
+                assertEquals(A.add(B), offA.add(offB))
+                assertEquals(A.sub(B), offA.sub(B))
+                assertEquals(A.transpose(), offA.transpose())
+                assertEquals(A.norm(), offA.norm())
+                assertEquals(A.determinantWithGauss(), offA.determinantWithGauss())
+                assertEquals(A.multiply(Vector(B.getData().copyOf(37))), offA.multiply(Vector(B.getData().copyOf(37))))
+                assertEquals(StrassenAlgorithm().multiply(A, B), StrassenAlgorithm().multiply(offA, offB))
+                (product as OffHeapMatrix).close()
+
+                offA.multiplyInto(2.0, offA)
+                assertEquals(A.multiply(2.0), offA)
+            }
+        }
+    }
+
+    @Test
+    fun testViews() {
+        val A = getMatrixWithRandomElementsAndDiagonalDominance(20, 0, 15, 1)
+        val offA = OffHeapMatrix(A, chunkSize = 16)
+
+        val block = offA.subMatrixView(3, 4, 10, 12)
+        assertEquals(A.subMatrixView(3, 4, 10, 12), block)
+        assertEquals(A.transposedView().subMatrixView(1, 2, 5, 6), offA.transposedView().subMatrixView(1, 2, 5, 6))
+
+        // The view shares the storage with the matrix, closing the view does not free it
+        block.setElem(0, 0, 100.0)
+        assertEquals(100.0, offA.getElem(3, 4))
+        (block as OffHeapMatrix).close()
+        assertEquals(100.0, offA.getElem(3, 4))
+
+        offA.close()
+        assertThrows<IllegalStateException> {
+            offA.getElem(0, 0)
+        }
+        assertThrows<IllegalStateException> {
+            block.getElem(0, 0)
+        }
+        // The repeated closing does nothing
+        offA.close()
+    }
+
+    @Test
+    fun testLUDecomposition() {
+        val A = getMatrixWithRandomElementsAndDiagonalDominance(15, 0, 15, 1)
+        val expected = LUDecomposition(A)
+
+        OffHeapMatrix(A).use { offA ->
+            val result = LUDecomposition(offA)
+            assert(result.lowerMatrix is OffHeapMatrix)
+            assertEquals(expected.lowerMatrix, result.lowerMatrix)
+            assertEquals(expected.upperMatrix, result.upperMatrix)
+            (result.lowerMatrix as OffHeapMatrix).close()
+            (result.upperMatrix as OffHeapMatrix).close()
+        }
+    }
+
+    @Test
+    fun testSetElems() {
+        OffHeapMatrix(2, 2).use { m ->
+            m.setElems(arrayOf(arrayOf(1.0, 2.0), arrayOf(3.0, 4.0)))
+            assertArrayEquals(arrayOf(arrayOf(1.0, 2.0), arrayOf(3.0, 4.0)), m.getElems())
+
+            assertThrows<IllegalArgumentException> {
+                m.setElems(arrayOf(arrayOf(1.0, 2.0, 3.0)))
+            }
+        }
+        assertThrows<IllegalArgumentException> {
+            OffHeapMatrix(2, 2, chunkSize = 3)
+        }
+        // The size of the larger chunk in bytes overflows the capacity of the buffer
+        assertThrows<IllegalArgumentException> {
+            OffHeapMatrix(2, 2, chunkSize = OffHeapMatrix.MAX_CHUNK_SIZE * 2)
+        }
+        assertThrows<IllegalArgumentException> {
+            OffHeapMatrix(2, 2, chunkSize = OffHeapMatrix.MAX_CHUNK_SIZE * 4)
+        }
+        OffHeapMatrix(2, 2, chunkSize = OffHeapMatrix.MAX_CHUNK_SIZE).use { m ->
+            m.setElem(1, 1, 5.0)
+            assertEquals(5.0, m.getElem(1, 1))
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+internal class ParallelMultiplicationAlgorithmTest {
+
+    @Test
+    fun testMultiply() {
+        // Sizes which are not multiples of the blocks check the block borders
+        val sizes = arrayOf(Triple(3, 2, 4), Triple(150, 70, 90), Triple(61, 130, 257), Triple(300, 45, 33))
+        sizes.forEach { (n, m, p) ->
+            val A = Matrix(n, m)
+            val B = Matrix(m, p)
+            for (i in 0 until n) for (j in 0 until m) A.setElem(i, j, (i * 7 + j * 3) % 11 - 5.0 + 0.1 * j)
+            for (i in 0 until m) for (j in 0 until p) B.setElem(i, j, (i * 5 + j) % 13 - 6.0 + 0.01 * i)
+
+            val expected = A.multiply(B)
+            for (parallelism in intArrayOf(1, 2, 3, 8)) {
+                assertEquals(expected, ParallelMultiplicationAlgorithm(parallelism).multiply(A, B))
+            }
+            assertEquals(expected, A.multiplyParallel(B))
+        }
+    }
+
+    @Test
+    fun testMultiplyInto() {
+        val A = getMatrixWithRandomElementsAndDiagonalDominance(200, 0, 15, 1)
+        val B = getMatrixWithRandomElementsAndDiagonalDominance(200, 0, 15, 1)
+        val C = Matrix(200, 200)
+        C.setElem(5, 5, 100.0)
+
+        val result = ParallelMultiplicationAlgorithm(4).multiplyInto(A, B, C)
+
+        assert(result === C)
+        assertEquals(A.multiply(B), C)
+    }
+
+    @Test
+    fun testMultiplyWithException() {
+        assertThrows<IllegalArgumentException> {
+            ParallelMultiplicationAlgorithm(0)
+        }
+        assertThrows<IllegalArgumentException> {
+            ParallelMultiplicationAlgorithm(4).multiply(Matrix(100, 100), Matrix(90, 100))
+        }
+        assertThrows<IllegalArgumentException> {
+            Matrix(2, 3).multiplyParallel(Matrix(2, 3))
+        }
+        val A = Matrix(100, 100)
+        assertThrows<IllegalArgumentException> {
+            ParallelMultiplicationAlgorithm(4).multiplyInto(A, Matrix(100, 100), A)
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import kotlin.math.abs
+
+internal class PivotedLUDecompositionTest {
+
+    // Returns P * A, where the row 'i' of P * A is the row 'pivot[i]' of A
+    private fun permuteRows(matrix: Matrix, pivot: IntArray): Matrix {
+        val result = Matrix(matrix.getN(), matrix.getM())
+        for (i in 0 until matrix.getN()) {
+            for (j in 0 until matrix.getM()) {
+                result.setElem(i, j, matrix.getElem(pivot[i], j))
+            }
+        }
+        return result
+    }
+
+    @Test
+    fun testDecomposition() {
+        // The size is not a multiple of the block size, so the last panel is narrower
+        val matrix = getMatrixWithRandomElementsAndDiagonalDominance(37, 0, 10, 1)
+        val result = PivotedLUDecomposition(matrix, blockSize = 8)
+
+        val product = result.getLowerTriangularMatrix().multiply(result.getUpperTriangularMatrix())
+        assertMatrixEquals(permuteRows(matrix, result.getPivot()), product, 1e-9)
+
+        // The elems of L are not greater than 1 by the absolute value because of the partial pivoting
+        val L = result.getLowerTriangularMatrix()
+        for (i in 0 until 37) {
+            for (j in 0 until i) {
+                assert(abs(L.getElem(i, j)) <= 1.0)
+            }
+        }
+    }
+
+    @Test
+    fun testPivoting() {
+        // The unpivoted decomposition divides by the zero elem
+        val matrix = Matrix(
+            arrayOf(
+                arrayOf(0.0, 2.0, 1.0),
+                arrayOf(2.0, 1.0, 1.0),
+                arrayOf(1.0, -1.0, 2.0),
+            )
+        )
+        val result = PivotedLUDecomposition(matrix)
+
+        assert(result.isNonSingular)
+        assertEquals(matrix.determinant(matrix.getN()), result.determinant(), 1e-12)
+        val solution = result.solve(matrix.multiply(Vector(arrayOf(1.0, 2.0, 3.0))))
+        for (i in 0 until 3) {
+            assertEquals(i + 1.0, solution.getElem(i), 1e-12)
+        }
+    }
+
+    @Test
+    fun testBlockSizes() {
+        val matrix = getMatrixWithRandomElementsAndDiagonalDominance(50, 0, 10, 1)
+        val expected = PivotedLUDecomposition(matrix, blockSize = 50)
+
+        for (blockSize in arrayOf(1, 7, 16, 64)) {
+            val result = PivotedLUDecomposition(matrix, blockSize = blockSize)
+            assert(expected.getPivot().contentEquals(result.getPivot()))
+            assertMatrixEquals(expected.getLU(), result.getLU(), 1e-9)
+        }
+    }
+
+    @Test
+    fun testSolve() {
+        val n = 40
+        val matrix = getMatrixWithRandomElementsAndDiagonalDominance(n, 0, 10, 1)
+        val result = PivotedLUDecomposition(matrix, blockSize = 16)
+
+        // The decomposition is reused for many right sides
+        for (attempt in 0 until 3) {
+            val x = getVectorWithRandomElements(n, 0, 10)
+            val solution = result.solve(matrix.multiply(x))
+            for (i in 0 until n) {
+                assertEquals(x.getElem(i), solution.getElem(i), 1e-9)
+            }
+        }
+
+        val X = getMatrixWithRandomElementsAndDiagonalDominance(n, 0, 10, 1).subMatrixView(0, 0, n, 5)
+        assertMatrixEquals(X, result.solve(matrix.multiply(X)), 1e-9)
+    }
+
+    @Test
+    fun testInverse() {
+        val n = 45
+        val matrix = getMatrixWithRandomElementsAndDiagonalDominance(n, 0, 10, 1)
+        val result = PivotedLUDecomposition(matrix, blockSize = 16)
+
+        val identity = Matrix(n, n)
+        for (i in 0 until n) {
+            identity.setElem(i, i, 1.0)
+        }
+        assertMatrixEquals(identity, matrix.multiply(result.inverse()), 1e-9)
+        assertMatrixEquals(result.solve(identity), result.inverse(), 0.0)
+        assertEquals(kotlin.math.ln(abs(result.determinant())), result.logAbsDeterminant(), 1e-9)
+    }
+
+    @Test
+    fun testParallel() {
+        val matrix = getMatrixWithRandomElementsAndDiagonalDominance(300, 0, 10, 1)
+        val expected = PivotedLUDecomposition(matrix, blockSize = 32)
+        val result = PivotedLUDecomposition(matrix, blockSize = 32, parallel = true)
+
+        // The parallel update computes every elem in the same order, so the factors are exactly the same
+        assert(expected.getPivot().contentEquals(result.getPivot()))
+        assertMatrixEquals(expected.getLU(), result.getLU(), 0.0)
+    }
+
+    @Test
+    fun testInPlace() {
+        val matrix = getMatrixWithRandomElementsAndDiagonalDominance(20, 0, 10, 1)
+        val copy = Matrix(matrix.getElems())
+        val expected = PivotedLUDecomposition(copy)
+
+        val result = PivotedLUDecomposition(matrix, inPlace = true)
+        assertSame(matrix, result.getLU())
+        assertMatrixEquals(expected.getLU(), matrix, 0.0)
+    }
+
+    @Test
+    fun testSingularMatrixWithException() {
+        val matrix = Matrix(
+            arrayOf(
+                arrayOf(1.0, 2.0, 3.0),
+                arrayOf(2.0, 4.0, 6.0),
+                arrayOf(1.0, 0.0, 1.0),
+            )
+        )
+        val result = PivotedLUDecomposition(matrix)
+
+        assertFalse(result.isNonSingular)
+        assertEquals(0.0, result.determinant(), 0.0)
+        assertThrows<RuntimeException> {
+            result.solve(Vector(arrayOf(1.0, 2.0, 3.0)))
+        }
+        assertThrows<IllegalArgumentException> {
+            PivotedLUDecomposition(Matrix(2, 3))
+        }
+    }
+}
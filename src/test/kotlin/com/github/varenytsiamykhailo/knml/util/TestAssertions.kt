@@ -0,0 +1,16 @@
+package com.github.varenytsiamykhailo.knml.util
+
+import org.junit.jupiter.api.Assertions.assertEquals
+
+// The assertions of the matrices, which are shared by the tests of the decompositions
+
+// Asserts that the matrices have the same size and their elems are equal within the delta
+internal fun assertMatrixEquals(expected: Matrix, actual: Matrix, delta: Double) {
+    assertEquals(expected.getN(), actual.getN())
+    assertEquals(expected.getM(), actual.getM())
+    for (i in 0 until expected.getN()) {
+        for (j in 0 until expected.getM()) {
+            assertEquals(expected.getElem(i, j), actual.getElem(i, j), delta)
+        }
+    }
+}
@@ -24,6 +24,62 @@ internal class VectorTest {
         assertArrayEquals(arrayOf(1.0, 2.0), v1.getElems())
     }
 
+    @Test
+    fun testVectorWithDoubleArray() {
+        val data = doubleArrayOf(1.0, 2.5, 2.0)
+        val v: Vector = Vector(data)
+
+        assertEquals(3, v.getN())
+        assertEquals(Vector(arrayOf(1.0, 2.5, 2.0)), v)
+        assertArrayEquals(arrayOf(1.0, 2.5, 2.0), v.getElems())
+
+        // The vector wraps the input array without copying
+        v.setElem(0, 4.0)
+        assertEquals(4.0, data[0])
+        assert(v.getData() === data)
+    }
+
+    @Test
+    fun testMultiply() {
+        val v1: Vector = Vector(arrayOf(1.0, 2.5, 2.0))
+        val v2: Vector = Vector(arrayOf(-1.0, 3.0, 6.0))
+
+        assertEquals(Vector(arrayOf(2.0, 5.0, 4.0)), v1.multiply(2.0))
+        assertEquals(Vector(arrayOf(-1.0, 7.5, 12.0)), v1.multiply(v2))
+        assertEquals(18.5, v1.scalarProduct(v2))
+        // The operands stay unchanged
+        assertEquals(Vector(arrayOf(1.0, 2.5, 2.0)), v1)
+    }
+
+    @Test
+    fun testInPlaceOperations() {
+        val v1: Vector = Vector(arrayOf(1.0, 2.5, 2.0))
+        val v2: Vector = Vector(arrayOf(-1.0, 3.0, 6.0))
+        val dest = Vector(3)
+
+        assert(v1.addInto(v2, dest) === dest)
+        assertEquals(Vector(arrayOf(0.0, 5.5, 8.0)), dest)
+        v1.subInto(v2, dest)
+        assertEquals(Vector(arrayOf(2.0, -0.5, -4.0)), dest)
+        v1.multiplyInto(v2, dest)
+        assertEquals(Vector(arrayOf(-1.0, 7.5, 12.0)), dest)
+        v1.multiplyInto(2.0, dest)
+        assertEquals(Vector(arrayOf(2.0, 5.0, 4.0)), dest)
+
+        dest += v2
+        assertEquals(Vector(arrayOf(1.0, 8.0, 10.0)), dest)
+        dest -= v1
+        assertEquals(Vector(arrayOf(0.0, 5.5, 8.0)), dest)
+        dest *= 2.0
+        assertEquals(Vector(arrayOf(0.0, 11.0, 16.0)), dest)
+        assert(dest.subInPlace(dest) === dest)
+        assertEquals(Vector(3), dest)
+
+        assertThrows<IllegalArgumentException> {
+            v1.addInto(v2, Vector(2))
+        }
+    }
+
     @Test
     fun testEquals() {
         val v1: Vector = Vector(arrayOf(1.0, 2.5, 2.0))